@@ -0,0 +1,334 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Immutable snapshot of {@link Properties} for a known list of options. Each
+ * option is resolved exactly once, using same rules as
+ * {@link Option#getValue(Properties)}, and then kept in an array along with
+ * its parsed number and boolean form. Nothing else is copied from the
+ * properties. Reading from the snapshot neither locks nor parses, so it's
+ * supposed to be built once per block and shared by everything executing the
+ * block.
+ *
+ * <p>
+ * Options carry no ordinal, so the list of options is compiled into a
+ * {@link Layout} up front, which assigns each option a slot. Hot paths should
+ * keep the slot in a constant and read by slot, for example:
+ *
+ * <pre>
+ * static final ConfigSnapshot.Layout LAYOUT = ConfigSnapshot.Layout.of(Option.EXEC_TIMEOUT);
+ * static final int SLOT_TIMEOUT = LAYOUT.slotOf(Option.EXEC_TIMEOUT);
+ * ...
+ * int timeout = LAYOUT.snapshot(props).getInt(SLOT_TIMEOUT);
+ * </pre>
+ */
+public final class ConfigSnapshot {
+    /**
+     * Compiled list of options, which maps each option to its slot in a
+     * snapshot.
+     */
+    public static final class Layout {
+        static final Layout EMPTY = new Layout(new Option[0]);
+
+        /**
+         * Creates a layout for the given options.
+         *
+         * @param options non-null options
+         * @return non-null layout
+         */
+        public static Layout of(Option... options) {
+            return options == null || options.length == 0 ? EMPTY : new Layout(options.clone());
+        }
+
+        /**
+         * Creates a layout for the given options.
+         *
+         * @param options non-null options
+         * @return non-null layout
+         */
+        public static Layout of(List<Option> options) {
+            return options == null || options.isEmpty() ? EMPTY : new Layout(options.toArray(new Option[0]));
+        }
+
+        private final Option[] options;
+        private final Map<Option, Integer> slots;
+
+        private Layout(Option[] options) {
+            final Map<Option, Integer> map = new IdentityHashMap<>(options.length);
+            for (int i = 0, len = options.length; i < len; i++) {
+                if (map.putIfAbsent(Checker.nonNull(options[i], Option.class), i) != null) {
+                    throw new IllegalArgumentException("Duplicated option: " + options[i].getName());
+                }
+            }
+            this.options = options;
+            this.slots = Collections.unmodifiableMap(map);
+        }
+
+        /**
+         * Gets slot of the given option.
+         *
+         * @param option non-null option
+         * @return slot of the option
+         * @throws IllegalArgumentException when the option is not in the layout
+         */
+        public int slotOf(Option option) {
+            final Integer slot = slots.get(option);
+            if (slot == null) {
+                throw new IllegalArgumentException(
+                        Utils.format("Option [%s] is not in the layout", option != null ? option.getName() : null));
+            }
+            return slot;
+        }
+
+        /**
+         * Gets number of options in the layout.
+         *
+         * @return number of options
+         */
+        public int size() {
+            return options.length;
+        }
+
+        /**
+         * Creates a snapshot of the given properties.
+         *
+         * @param props optional properties
+         * @return non-null snapshot
+         */
+        public ConfigSnapshot snapshot(Properties props) {
+            return props == null && options.length == 0 ? ConfigSnapshot.EMPTY : new ConfigSnapshot(this, props);
+        }
+    }
+
+    static final ConfigSnapshot EMPTY = new ConfigSnapshot(Layout.EMPTY, null);
+
+    /**
+     * Creates a snapshot of the given properties. Same as
+     * {@code Layout.of(options).snapshot(props)}.
+     *
+     * @param props   optional properties
+     * @param options non-null options to resolve
+     * @return non-null snapshot
+     */
+    public static ConfigSnapshot of(Properties props, Option... options) {
+        return Layout.of(options).snapshot(props);
+    }
+
+    static boolean isNumber(String value) {
+        final int len = value.length();
+        if (len == 0 || len > 20) {
+            return false;
+        }
+
+        int i = value.charAt(0) == '-' ? 1 : 0;
+        if (i == len) {
+            return false;
+        }
+        for (; i < len; i++) {
+            char ch = value.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private final Layout layout;
+
+    private final boolean[] present;
+    private final String[] values;
+    private final boolean[] numeric;
+    private final long[] numbers;
+    private final boolean[] flags;
+
+    private ConfigSnapshot(Layout layout, Properties props) {
+        final Option[] options = layout.options;
+        final int len = options.length;
+        this.layout = layout;
+        this.present = new boolean[len];
+        this.values = new String[len];
+        this.numeric = new boolean[len];
+        this.numbers = new long[len];
+        this.flags = new boolean[len];
+        for (int i = 0; i < len; i++) {
+            final Option o = options[i];
+            final String value = o.getValue(props);
+            present[i] = props != null && props.getProperty(o.getName()) != null;
+            values[i] = value;
+            if (isNumber(value)) {
+                try {
+                    numbers[i] = Long.parseLong(value);
+                    numeric[i] = true;
+                } catch (NumberFormatException e) {
+                    // out of range, leave it to getLong()
+                }
+            }
+            flags[i] = Boolean.parseBoolean(value);
+        }
+    }
+
+    /**
+     * Gets layout of the snapshot.
+     *
+     * @return non-null layout
+     */
+    public Layout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Checks whether the option in the given slot was explicitly set in the
+     * properties.
+     *
+     * @param slot slot of the option
+     * @return true if the option was set; false otherwise
+     */
+    public boolean isPresent(int slot) {
+        return present[slot];
+    }
+
+    /**
+     * Checks whether the option was explicitly set in the properties.
+     *
+     * @param option non-null option in the layout
+     * @return true if the option was set; false otherwise
+     */
+    public boolean isPresent(Option option) {
+        return present[layout.slotOf(option)];
+    }
+
+    /**
+     * Gets value of the option in the given slot. Same as
+     * {@link Option#getValue(Properties)} on the original properties.
+     *
+     * @param slot slot of the option
+     * @return non-null value
+     */
+    public String getValue(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * Gets value of the given option. Same as {@link Option#getValue(Properties)}
+     * on the original properties.
+     *
+     * @param option non-null option in the layout
+     * @return non-null value
+     */
+    public String getValue(Option option) {
+        return values[layout.slotOf(option)];
+    }
+
+    /**
+     * Gets value of the option in the given slot as boolean. Same as
+     * {@code Boolean.parseBoolean(getValue(slot))}.
+     *
+     * @param slot slot of the option
+     * @return boolean value
+     */
+    public boolean getBoolean(int slot) {
+        return flags[slot];
+    }
+
+    /**
+     * Gets value of the given option as boolean. Same as
+     * {@code Boolean.parseBoolean(getValue(option))}.
+     *
+     * @param option non-null option in the layout
+     * @return boolean value
+     */
+    public boolean getBoolean(Option option) {
+        return flags[layout.slotOf(option)];
+    }
+
+    /**
+     * Gets value of the option in the given slot as integer. Same as
+     * {@code Integer.parseInt(getValue(slot))}.
+     *
+     * @param slot slot of the option
+     * @return integer value
+     * @throws NumberFormatException when the value is not an integer
+     */
+    public int getInt(int slot) {
+        if (numeric[slot]) {
+            final long value = numbers[slot];
+            if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                return (int) value;
+            }
+        }
+        return Integer.parseInt(values[slot]);
+    }
+
+    /**
+     * Gets value of the given option as integer. Same as
+     * {@code Integer.parseInt(getValue(option))}.
+     *
+     * @param option non-null option in the layout
+     * @return integer value
+     * @throws NumberFormatException when the value is not an integer
+     */
+    public int getInt(Option option) {
+        return getInt(layout.slotOf(option));
+    }
+
+    /**
+     * Gets value of the option in the given slot as long. Same as
+     * {@code Long.parseLong(getValue(slot))}.
+     *
+     * @param slot slot of the option
+     * @return long value
+     * @throws NumberFormatException when the value is not a long
+     */
+    public long getLong(int slot) {
+        return numeric[slot] ? numbers[slot] : Long.parseLong(values[slot]);
+    }
+
+    /**
+     * Gets value of the given option as long. Same as
+     * {@code Long.parseLong(getValue(option))}.
+     *
+     * @param option non-null option in the layout
+     * @return long value
+     * @throws NumberFormatException when the value is not a long
+     */
+    public long getLong(Option option) {
+        return getLong(layout.slotOf(option));
+    }
+
+    /**
+     * Creates a new {@link Properties} object containing options explicitly set
+     * in the snapshot.
+     *
+     * @return non-null properties
+     */
+    public Properties toProperties() {
+        final Properties p = new Properties();
+        final Option[] options = layout.options;
+        for (int i = 0, len = options.length; i < len; i++) {
+            if (present[i]) {
+                options[i].setValue(p, values[i]);
+            }
+        }
+        return p;
+    }
+}
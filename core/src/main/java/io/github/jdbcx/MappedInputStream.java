@@ -0,0 +1,287 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Input stream for reading a file through memory-mapped regions. Content is
+ * read from page cache without copying into a heap buffer first, and large files
+ * are mapped one region at a time, so that at most one region is referenced by
+ * the stream regardless of file size. However, there's no portable way to unmap
+ * a region on Java 8, so a region left behind is only unmapped when it's garbage
+ * collected, and reading a large file may temporarily hold address space of
+ * several regions. This class is not thread-safe.
+ */
+public final class MappedInputStream extends InputStream {
+    /**
+     * Default maximum size of a mapped region, in bytes.
+     */
+    public static final int DEFAULT_REGION_SIZE = 64 * 1024 * 1024;
+    /**
+     * Files smaller than this are cheaper to read than to map.
+     */
+    public static final long MIN_FILE_SIZE = 64 * 1024L;
+
+    // large enough for any character, so that decoding always makes progress
+    static final int MIN_REGION_SIZE = 16;
+
+    /**
+     * Opens the given file for reading.
+     *
+     * @param file non-null file
+     * @return non-null input stream
+     * @throws IOException when failed to open the file
+     */
+    public static MappedInputStream of(Path file) throws IOException {
+        return of(file, DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * Opens the given file for reading.
+     *
+     * @param file       non-null file
+     * @param regionSize maximum size of a mapped region in bytes, default size
+     *                   will be used when it's zero or negative
+     * @return non-null input stream
+     * @throws IOException when failed to open the file
+     */
+    public static MappedInputStream of(Path file, int regionSize) throws IOException {
+        return new MappedInputStream(FileChannel.open(Checker.nonNull(file, Path.class), StandardOpenOption.READ),
+                regionSize > 0 ? Math.max(MIN_REGION_SIZE, regionSize) : DEFAULT_REGION_SIZE);
+    }
+
+    private final FileChannel channel;
+    private final long length;
+    private final int regionSize;
+
+    private MappedByteBuffer region;
+    private long regionStart;
+
+    private MappedInputStream(FileChannel channel, int regionSize) throws IOException {
+        this.channel = channel;
+        this.length = channel.size();
+        this.regionSize = regionSize;
+
+        this.region = null;
+        this.regionStart = 0L;
+    }
+
+    long position() {
+        return region != null ? regionStart + region.position() : regionStart;
+    }
+
+    private void map(long position) throws IOException {
+        region = null; // unmapped when garbage collected
+        regionStart = position;
+        final long size = Math.min(regionSize, length - position);
+        if (size > 0L) {
+            region = channel.map(MapMode.READ_ONLY, position, size);
+        }
+    }
+
+    /**
+     * Ensures there's something to read in current region.
+     *
+     * @return false when reached end of the file; true otherwise
+     * @throws IOException when failed to map next region
+     */
+    private boolean ensureRemaining() throws IOException {
+        if (!channel.isOpen()) {
+            throw new IOException("Stream closed");
+        } else if (region != null && region.hasRemaining()) {
+            return true;
+        }
+
+        final long position = position();
+        if (position >= length) {
+            return false;
+        }
+        map(position);
+        return region != null;
+    }
+
+    /**
+     * Gets length of the file.
+     *
+     * @return length of the file in bytes
+     */
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return channel.isOpen() ? (int) Math.min(Integer.MAX_VALUE, length - position()) : 0;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return ensureRemaining() ? region.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        } else if (len == 0) {
+            return 0;
+        } else if (!ensureRemaining()) {
+            return -1;
+        }
+
+        final int size = Math.min(len, region.remaining());
+        region.get(b, off, size);
+        return size;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        if (n <= 0L || !channel.isOpen()) {
+            return 0L;
+        }
+
+        final long position = position();
+        final long skipped = Math.min(n, length - position);
+        if (region != null && skipped <= region.remaining()) {
+            ((Buffer) region).position(region.position() + (int) skipped);
+        } else {
+            region = null;
+            regionStart = position + skipped;
+        }
+        return skipped;
+    }
+
+    /**
+     * Reads remaining content and writes into the given output stream. It uses
+     * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}
+     * for {@link FileOutputStream}, or copies region by region through a small
+     * buffer otherwise.
+     *
+     * @param out non-null output stream
+     * @return number of bytes transferred
+     * @throws IOException when failed to read or write
+     */
+    public long transferTo(OutputStream out) throws IOException {
+        if (!channel.isOpen()) {
+            throw new IOException("Stream closed");
+        }
+
+        long position = position();
+        final long count = length - position;
+        if (out instanceof FileOutputStream) {
+            final FileChannel target = ((FileOutputStream) out).getChannel();
+            while (position < length) {
+                position += channel.transferTo(position, length - position, target);
+            }
+            region = null;
+            regionStart = position;
+        } else {
+            final byte[] buffer = new byte[(int) Math.min(Constants.DEFAULT_BUFFER_SIZE * 32L, Math.max(count, 1L))];
+            while (ensureRemaining()) {
+                final int len = Math.min(buffer.length, region.remaining());
+                region.get(buffer, 0, len);
+                out.write(buffer, 0, len);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Decodes remaining content into a string, straight from mapped regions.
+     * Decoded characters are held in a {@link CharBuffer} which is then copied
+     * into the string, so heap usage peaks at twice the size of the string. Use
+     * this class as an {@link InputStream} to process large files in a streaming
+     * manner.
+     *
+     * @param charset optional charset, {@link Constants#DEFAULT_CHARSET} will be
+     *                used when it's null
+     * @return non-null string
+     * @throws IOException when the content is too large for a string or failed
+     *                     to read
+     */
+    public String readAllAsString(Charset charset) throws IOException {
+        if (!channel.isOpen()) {
+            throw new IOException("Stream closed");
+        }
+
+        final long remaining = length - position();
+        if (remaining <= 0L) {
+            return Constants.EMPTY_STRING;
+        }
+        final CharsetDecoder decoder = (charset != null ? charset : Constants.DEFAULT_CHARSET).newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+        final double estimated = remaining * (double) decoder.averageCharsPerByte();
+        if (estimated > Integer.MAX_VALUE - 8) {
+            throw new IOException(Utils.format("File is too large (%d bytes) to fit in a string", length));
+        }
+        CharBuffer chars = CharBuffer.allocate((int) estimated + 16);
+        while (ensureRemaining()) {
+            final ByteBuffer bytes = region;
+            final boolean lastRegion = regionStart + bytes.limit() >= length;
+            CoderResult r;
+            while ((r = decoder.decode(bytes, chars, lastRegion)).isOverflow()) {
+                chars = grow(chars, bytes.remaining());
+            }
+            if (r.isError()) { // should not happen because of REPLACE action
+                r.throwException();
+            }
+            if (!lastRegion && bytes.hasRemaining()) { // incomplete character at region boundary
+                map(regionStart + bytes.position());
+            } else if (lastRegion) {
+                break;
+            }
+        }
+        while (decoder.flush(chars).isOverflow()) {
+            chars = grow(chars, 16);
+        }
+        ((Buffer) chars).flip();
+        return chars.toString();
+    }
+
+    private static CharBuffer grow(CharBuffer chars, int more) throws CharacterCodingException {
+        final long size = (long) chars.capacity() + Math.max(more, chars.capacity() / 2 + 1);
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new CharacterCodingException();
+        }
+        final CharBuffer larger = CharBuffer.allocate((int) size);
+        ((Buffer) chars).flip();
+        larger.put(chars);
+        return larger;
+    }
+
+    @Override
+    public void close() throws IOException {
+        region = null;
+        channel.close();
+    }
+}
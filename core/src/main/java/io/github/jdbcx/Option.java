@@ -70,6 +70,12 @@ public final class Option implements Serializable {
      */
     public static final String ERROR_HANDLING_RETURN = "return";
 
+    /**
+     * One of suggested choices for pushdown, which only returns the rewritten
+     * query as a warning.
+     */
+    public static final String PUSHDOWN_DRYRUN = "dryrun";
+
     public static final String TYPE_AUTO = "auto";
     public static final String TYPE_BINARY = "binary";
 
@@ -118,6 +124,38 @@ public final class Option implements Serializable {
     public static final Option EXEC_PARALLELISM = Option.ofInt("exec.parallelism",
             "The maximum number of threads to use for parallel query execution. 0 enforces sequential, single-threaded execution.",
             0);
+    /**
+     * The maximum number of exploded queries to execute concurrently.
+     */
+    public static final Option EXEC_FANOUT = Option.ofInt("exec.fanout",
+            "The maximum number of exploded queries to execute concurrently, each on its own connection. 0 or 1, the default, executes them one after another. Only catalog, schema, read-only flag and isolation level are copied to the other connections, so do not enable it when queries depend on temporary tables, session variables or other session state.",
+            0);
+    /**
+     * Whether to keep rows of concurrently executed queries in query order.
+     */
+    public static final Option EXEC_FANOUT_ORDERED = Option.ofBool("exec.fanout.ordered",
+            "Whether to return rows of concurrently executed queries in query order, instead of from whichever query completes first.",
+            true);
+    /**
+     * The maximum memory in bytes for buffering result of each id, when a block
+     * targets multiple ids.
+     */
+    public static final Option EXEC_BUFFER = Option.ofLong("exec.buffer",
+            "The maximum memory in bytes for buffering result of each id when a block targets multiple ids, so that the connection is released before moving on to next id. Rows beyond that are written into a temporary file. Negative number disables buffering.",
+            -1L);
+    /**
+     * The maximum number of adjacent bridge blocks to request concurrently.
+     */
+    public static final Option EXEC_BRIDGE_PARALLELISM = Option.ofInt("exec.bridge.parallelism",
+            "The maximum number of adjacent table blocks in a query to request from the bridge server concurrently. 0 or 1 sends requests one after another.",
+            4);
+    /**
+     * Whether to push simple projections and predicates of the outer query down
+     * into the table block.
+     */
+    public static final Option EXEC_PUSHDOWN = Option.of(new String[] { "exec.pushdown",
+            "Whether to push simple column projections and predicates of the outer query down into the table block. Use dryrun to get the rewritten query as a warning without applying it.",
+            Constants.FALSE_EXPR, Constants.TRUE_EXPR, PUSHDOWN_DRYRUN });
     /**
      * The priority for executing the query.
      */
@@ -128,6 +166,13 @@ public final class Option implements Serializable {
      */
     public static final Option EXEC_TIMEOUT = Option.ofInt("exec.timeout",
             "Execution timeout in milliseconds. A negative value or 0 disables the timeout.", 0);
+    /**
+     * Whether to use virtual threads for the shared worker pool. It's read once
+     * from system properties.
+     */
+    public static final Option WORKER_VIRTUAL = Option.ofBool("worker.virtual",
+            "Whether to run each task in a new virtual thread, instead of a bounded thread pool. Only works in JDK 21+, and it's recommended when most tasks are blocked waiting for I/O.",
+            false);
 
     public static final Option WORK_DIRECTORY = Option.ofOptional("work.dir",
             "Path to the working directory. If left empty, the current directory will be used.");
@@ -15,10 +15,10 @@
  */
 package io.github.jdbcx;
 
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -43,7 +43,7 @@ public final class QueryTask {
 
         try {
             final List<QueryTask> list = new LinkedList<>();
-            for (QueryGroup g : QueryGroup.of(Stream.readAllAsString(new FileInputStream(file), charset))) {
+            for (QueryGroup g : QueryGroup.of(Stream.readAllAsString(Paths.get(file), charset))) {
                 list.add(new QueryTask(file, Collections.singletonList(g)));
             }
             return list.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(list);
@@ -71,9 +71,7 @@ public final class QueryTask {
             List<QueryTask> list = new ArrayList<>(pathCount);
             try {
                 for (Path p : paths) {
-                    String file = p.toString();
-                    list.add(new QueryTask(file,
-                            QueryGroup.of(Stream.readAllAsString(new FileInputStream(file), charset))));
+                    list.add(new QueryTask(p.toString(), QueryGroup.of(Stream.readAllAsString(p, charset))));
                 }
             } catch (IOException e) {
                 throw new IllegalArgumentException(e);
@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
+import java.nio.file.Path;
 import java.sql.JDBCType;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
@@ -36,7 +37,10 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
 
 import io.github.jdbcx.data.IterableArray;
+import io.github.jdbcx.data.IterableBuffer;
+import io.github.jdbcx.data.IterableColumns;
 import io.github.jdbcx.data.IterableInputStream;
+import io.github.jdbcx.data.IterableJson;
 import io.github.jdbcx.data.IterableReader;
 import io.github.jdbcx.data.IterableResultSet;
 import io.github.jdbcx.data.IterableRow;
@@ -250,6 +254,40 @@ public final class Result<T> implements AutoCloseable {
         return getSerde(format, config).deserialize(in);
     }
 
+    /**
+     * Reads result from the given file. Large files are read through
+     * memory-mapped regions (see {@link Stream#newInputStream(Path)}), so that
+     * serdes consume the content without loading the whole file into memory. The
+     * file is closed along with the returned result.
+     *
+     * @param format non-null format
+     * @param config optional configuration
+     * @param file   non-null file
+     * @return non-null result
+     * @throws IOException when failed to read the file
+     */
+    public static final Result<?> readFrom(Format format, Properties config, Path file) throws IOException { // NOSONAR
+        final InputStream in = Stream.newInputStream(Checker.nonNull(file, Path.class));
+        final Result<?> result;
+        try {
+            result = readFrom(format, config, in);
+        } catch (IOException | RuntimeException e) {
+            Utils.closeQuietly(in);
+            throw e;
+        }
+
+        final Runnable task = result.postCloseTask;
+        return result.update().postCloseTask(() -> {
+            try {
+                if (task != null) {
+                    task.run();
+                }
+            } finally {
+                Utils.closeQuietly(in);
+            }
+        }).build();
+    }
+
     public static final void writeTo(Result<?> result, Format format, Properties config, OutputStream out)
             throws IOException {
         if (result == null) {
@@ -342,6 +380,20 @@ public final class Result<T> implements AutoCloseable {
         }
     }
 
+    public static Result<IterableColumns> of(IterableColumns columns) {
+        return new Result<>(Checker.nonNull(columns, IterableColumns.class).fields(), columns, IterableColumns.class,
+                columns);
+    }
+
+    public static Result<IterableBuffer> of(IterableBuffer buffer) {
+        return new Result<>(Checker.nonNull(buffer, IterableBuffer.class).fields(), buffer, IterableBuffer.class,
+                buffer);
+    }
+
+    public static Result<IterableJson> of(IterableJson json) {
+        return new Result<>(Checker.nonNull(json, IterableJson.class).fields(), json, IterableJson.class, json);
+    }
+
     public static Result<String> of(String str) {
         return new Result<>(DEFAULT_FIELDS, str, String.class, Collections.singletonList(Row.of(str)));
     }
@@ -569,7 +621,7 @@ public final class Result<T> implements AutoCloseable {
     @Override
     public void close() {
         if (AutoCloseable.class.isAssignableFrom(valueType)) {
-            if (rawValue instanceof Iterable) {
+            if (rawValue instanceof Iterable && !(rawValue instanceof AutoCloseable)) {
                 Exception firstException = null;
                 for (Object obj : ((Iterable<?>) rawValue)) {
                     try {
@@ -18,7 +18,6 @@ package io.github.jdbcx;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -29,6 +28,8 @@ import java.io.Writer;
 import java.nio.Buffer;
 import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.concurrent.CompletionException;
 
 public final class Stream {
@@ -187,6 +188,41 @@ public final class Stream {
         }
     }
 
+    /**
+     * Opens the given file for reading. Files no smaller than
+     * {@link MappedInputStream#MIN_FILE_SIZE} are memory-mapped.
+     *
+     * @param file non-null file
+     * @return non-null input stream
+     * @throws IOException when failed to open the file
+     */
+    public static InputStream newInputStream(Path file) throws IOException {
+        return Files.size(file) >= MappedInputStream.MIN_FILE_SIZE ? MappedInputStream.of(file)
+                : Files.newInputStream(file);
+    }
+
+    /**
+     * Reads the whole file as a string. Large files are decoded straight from
+     * memory-mapped regions, without intermediate byte arrays, but still need
+     * heap for both decoded characters and the string, see
+     * {@link MappedInputStream#readAllAsString(Charset)}. Prefer
+     * {@link #newInputStream(Path)} for large files.
+     *
+     * @param file    non-null file
+     * @param charset optional charset, {@link Constants#DEFAULT_CHARSET} will be
+     *                used when it's null
+     * @return non-null string
+     * @throws IOException when failed to read the file
+     */
+    public static String readAllAsString(Path file, Charset charset) throws IOException {
+        if (Files.size(file) < MappedInputStream.MIN_FILE_SIZE) {
+            return new String(Files.readAllBytes(file), charset != null ? charset : Constants.DEFAULT_CHARSET);
+        }
+        try (MappedInputStream in = MappedInputStream.of(file)) {
+            return in.readAllAsString(charset);
+        }
+    }
+
     public static String readAllAsString(Reader input) throws IOException {
         if (input == null) {
             return Constants.EMPTY_STRING;
@@ -198,11 +234,38 @@ public final class Stream {
         }
     }
 
+    /**
+     * Gets length of the given input, when it's known without reading.
+     *
+     * @param input optional input
+     * @return length in bytes, or -1 when it's unknown
+     * @throws IOException when failed to get size of the file
+     */
+    public static long length(Object input) throws IOException {
+        final long length;
+        if (input instanceof MappedInputStream) {
+            final MappedInputStream in = (MappedInputStream) input;
+            length = in.length() - in.position();
+        } else if (input instanceof File) {
+            length = ((File) input).length();
+        } else if (input instanceof Path) {
+            length = Files.size((Path) input);
+        } else {
+            length = -1L;
+        }
+        return length;
+    }
+
     public static void writeAll(OutputStream output, Object input) throws IOException {
-        if (input instanceof InputStream) {
+        if (input instanceof MappedInputStream) {
+            try (MappedInputStream in = (MappedInputStream) input) {
+                in.transferTo(output);
+            }
+            output.flush();
+        } else if (input instanceof InputStream) {
             Stream.pipe((InputStream) input, output);
-        } else if (input instanceof File) {
-            Stream.pipe(new FileInputStream((File) input), output);
+        } else if (input instanceof File || input instanceof Path) {
+            Stream.writeAll(output, newInputStream(input instanceof File ? ((File) input).toPath() : (Path) input));
         } else if (input instanceof Readable) {
             Stream.pipe((Readable) input, new OutputStreamWriter(output, Constants.DEFAULT_CHARSET));
         } else if (input != null) {
@@ -48,7 +48,7 @@ public final class Threads {
             this(owner, true, Thread.NORM_PRIORITY);
         }
 
-        public CustomThreadFactory(Object owner, boolean daemon, int priority) {
+        static String getPrefix(Object owner) {
             String prefix = null;
             if (owner instanceof String) {
                 prefix = ((String) owner).trim();
@@ -57,6 +57,11 @@ public final class Threads {
                         .append(owner.hashCode())
                         .toString();
             }
+            return prefix;
+        }
+
+        public CustomThreadFactory(Object owner, boolean daemon, int priority) {
+            final String prefix = getPrefix(owner);
             this.daemon = daemon;
             this.priority = Checker.between(priority, "Priority", Thread.MIN_PRIORITY, Thread.MAX_PRIORITY);
 
@@ -129,6 +134,36 @@ public final class Threads {
         return pool;
     }
 
+    /**
+     * Checks whether virtual thread is supported, which requires Java 21 or
+     * above.
+     *
+     * @return true if virtual thread is supported; false otherwise
+     */
+    public static final boolean hasVirtualThreads() {
+        return VirtualThreads.isSupported();
+    }
+
+    /**
+     * Creates an unbounded executor that starts a new virtual thread for each
+     * task. It suits blocking I/O like JDBC, process and HTTP calls, because a
+     * blocked virtual thread does not hold a platform thread, and it only costs a
+     * small heap-allocated stack. Concurrency should be limited by the caller,
+     * for example using a semaphore. Falls back to
+     * {@link #newCachedPool(Object, long)} when virtual thread is not supported.
+     *
+     * @param owner owner of the executor, used as thread name prefix
+     * @return non-null executor
+     */
+    public static final ExecutorService newVirtualPool(Object owner) {
+        if (!VirtualThreads.isSupported()) {
+            return newCachedPool(owner, 60000L);
+        }
+
+        final String prefix = CustomThreadFactory.getPrefix(owner);
+        return VirtualThreads.newExecutor(Checker.isNullOrBlank(prefix) ? "JdbcxVirtual-" : prefix);
+    }
+
     public static final ScheduledExecutorService newSingleThreadScheduler(String prefix) {
         return Executors.newSingleThreadScheduledExecutor(new CustomThreadFactory(prefix));
     }
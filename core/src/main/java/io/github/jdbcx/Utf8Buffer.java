@@ -0,0 +1,491 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer for writing UTF-8 encoded text. Unlike
+ * {@link java.io.Writer}, it accepts primitives and temporal values directly,
+ * so that serializers can write values without creating intermediate strings.
+ * This class is not thread-safe, and it's supposed to be reused by one
+ * serializer for all rows.
+ */
+public final class Utf8Buffer {
+    private static final byte[] FALSE_BYTES = Constants.FALSE_EXPR.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE_BYTES = Constants.TRUE_EXPR.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MIN_LONG_BYTES = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    static int getDigits(long value) {
+        long p = 10L;
+        for (int i = 1; i < 19; i++) {
+            if (value < p) {
+                return i;
+            }
+            p *= 10L;
+        }
+        return 19;
+    }
+
+    private final StringBuilder scratch;
+
+    private byte[] bytes;
+    private int length;
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(minCapacity, bytes.length << 1));
+        }
+    }
+
+    private int encode(CharSequence csq, int index, int end) {
+        final char ch = csq.charAt(index);
+        ensureCapacity(length + 4);
+        if (ch < 0x80) {
+            bytes[length++] = (byte) ch;
+        } else if (ch < 0x800) {
+            bytes[length++] = (byte) (0xC0 | (ch >> 6));
+            bytes[length++] = (byte) (0x80 | (ch & 0x3F));
+        } else if (Character.isHighSurrogate(ch) && index + 1 < end
+                && Character.isLowSurrogate(csq.charAt(index + 1))) {
+            final int cp = Character.toCodePoint(ch, csq.charAt(++index));
+            bytes[length++] = (byte) (0xF0 | (cp >> 18));
+            bytes[length++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+            bytes[length++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+            bytes[length++] = (byte) (0x80 | (cp & 0x3F));
+        } else if (Character.isSurrogate(ch)) {
+            // same as String.getBytes(StandardCharsets.UTF_8)
+            bytes[length++] = '?';
+        } else {
+            bytes[length++] = (byte) (0xE0 | (ch >> 12));
+            bytes[length++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+            bytes[length++] = (byte) (0x80 | (ch & 0x3F));
+        }
+        return index;
+    }
+
+    private void escapeJson(char ch) {
+        final byte b;
+        switch (ch) {
+            case '"':
+            case '\\':
+                b = (byte) ch;
+                break;
+            case '\b':
+                b = 'b';
+                break;
+            case '\f':
+                b = 'f';
+                break;
+            case '\n':
+                b = 'n';
+                break;
+            case '\r':
+                b = 'r';
+                break;
+            case '\t':
+                b = 't';
+                break;
+            default:
+                b = 0;
+                break;
+        }
+
+        if (b != 0) {
+            ensureCapacity(length + 2);
+            bytes[length++] = '\\';
+            bytes[length++] = b;
+        } else {
+            ensureCapacity(length + 6);
+            bytes[length++] = '\\';
+            bytes[length++] = 'u';
+            bytes[length++] = HEX_DIGITS[(ch >> 12) & 0xF];
+            bytes[length++] = HEX_DIGITS[(ch >> 8) & 0xF];
+            bytes[length++] = HEX_DIGITS[(ch >> 4) & 0xF];
+            bytes[length++] = HEX_DIGITS[ch & 0xF];
+        }
+    }
+
+    private CharSequence format(DateTimeFormatter formatter, TemporalAccessor value) {
+        scratch.setLength(0);
+        formatter.formatTo(value, scratch);
+        return scratch;
+    }
+
+    /**
+     * Default constructor.
+     *
+     * @param capacity initial capacity, {@link Constants#DEFAULT_BUFFER_SIZE}
+     *                 will be used when it's not positive
+     */
+    public Utf8Buffer(int capacity) {
+        this.scratch = new StringBuilder();
+
+        this.bytes = new byte[capacity > 0 ? capacity : Constants.DEFAULT_BUFFER_SIZE];
+        this.length = 0;
+    }
+
+    /**
+     * Gets number of bytes in the buffer.
+     *
+     * @return number of bytes in the buffer
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Truncates the buffer.
+     *
+     * @param newLength new length, must be between zero and {@link #length()}
+     * @throws IndexOutOfBoundsException when new length is invalid
+     */
+    public void setLength(int newLength) {
+        if (newLength < 0 || newLength > length) {
+            throw new IndexOutOfBoundsException(
+                    Utils.format("Length should be between 0 and %d but we got %d", length, newLength));
+        }
+        length = newLength;
+    }
+
+    /**
+     * Appends an ASCII character.
+     *
+     * @param ch ASCII character, only lower 7 bits are used
+     * @return this buffer
+     */
+    public Utf8Buffer append(byte ch) {
+        ensureCapacity(length + 1);
+        bytes[length++] = ch;
+        return this;
+    }
+
+    /**
+     * Appends bytes as is.
+     *
+     * @param b non-null bytes, must be UTF-8 encoded
+     * @return this buffer
+     */
+    public Utf8Buffer append(byte[] b) {
+        ensureCapacity(length + b.length);
+        System.arraycopy(b, 0, bytes, length, b.length);
+        length += b.length;
+        return this;
+    }
+
+    /**
+     * Appends a character.
+     *
+     * @param ch character
+     * @return this buffer
+     */
+    public Utf8Buffer append(char ch) {
+        if (ch < 0x80) {
+            ensureCapacity(length + 1);
+            bytes[length++] = (byte) ch;
+        } else {
+            encode(String.valueOf(ch), 0, 1);
+        }
+        return this;
+    }
+
+    /**
+     * Appends a character sequence.
+     *
+     * @param csq character sequence, {@code null} is treated as empty
+     * @return this buffer
+     */
+    public Utf8Buffer append(CharSequence csq) {
+        if (csq == null) {
+            return this;
+        }
+
+        final int len = csq.length();
+        ensureCapacity(length + len);
+        for (int i = 0; i < len; i++) {
+            final char ch = csq.charAt(i);
+            if (ch < 0x80) {
+                if (length == bytes.length) {
+                    ensureCapacity(length + len - i);
+                }
+                bytes[length++] = (byte) ch;
+            } else {
+                i = encode(csq, i, len);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Appends a boolean as {@code true} or {@code false}.
+     *
+     * @param value boolean value
+     * @return this buffer
+     */
+    public Utf8Buffer append(boolean value) {
+        return append(value ? TRUE_BYTES : FALSE_BYTES);
+    }
+
+    /**
+     * Appends a signed integer in decimal form.
+     *
+     * @param value integer
+     * @return this buffer
+     */
+    public Utf8Buffer append(int value) {
+        return append((long) value);
+    }
+
+    /**
+     * Appends a signed long in decimal form.
+     *
+     * @param value long
+     * @return this buffer
+     */
+    public Utf8Buffer append(long value) {
+        if (value == Long.MIN_VALUE) {
+            return append(MIN_LONG_BYTES);
+        }
+
+        final boolean negative = value < 0L;
+        long v = negative ? -value : value;
+        final int size = negative ? getDigits(v) + 1 : getDigits(v);
+        ensureCapacity(length + size);
+        int pos = length + size;
+        do {
+            bytes[--pos] = (byte) ('0' + (int) (v % 10L));
+            v /= 10L;
+        } while (v != 0L);
+        if (negative) {
+            bytes[--pos] = '-';
+        }
+        length += size;
+        return this;
+    }
+
+    /**
+     * Appends an unsigned long in decimal form.
+     *
+     * @param value unsigned long
+     * @return this buffer
+     */
+    public Utf8Buffer appendUnsigned(long value) {
+        if (value >= 0L) {
+            return append(value);
+        }
+
+        final long quotient = (value >>> 1) / 5L;
+        append(quotient);
+        return append((byte) ('0' + (int) (value - quotient * 10L)));
+    }
+
+    /**
+     * Appends a temporal value using the given formatter. The formatter writes
+     * into an internal {@link StringBuilder}, which is reused across calls.
+     *
+     * @param formatter non-null formatter
+     * @param value     non-null temporal value
+     * @return this buffer
+     */
+    public Utf8Buffer append(DateTimeFormatter formatter, TemporalAccessor value) {
+        return append(format(formatter, value));
+    }
+
+    /**
+     * Appends a character sequence as JSON string, which is same as
+     * {@link Converter#toJsonExpression(String)}.
+     *
+     * @param csq character sequence, {@code null} is written as {@code null}
+     * @return this buffer
+     */
+    public Utf8Buffer appendJson(CharSequence csq) {
+        if (csq == null) {
+            return append(Constants.NULL_STR);
+        }
+
+        final int len = csq.length();
+        ensureCapacity(length + len + 2);
+        bytes[length++] = '"';
+        for (int i = 0; i < len; i++) {
+            final char ch = csq.charAt(i);
+            if (ch < 0x20 || ch == '"' || ch == '\\' || ch == '\u2028' || ch == '\u2029') {
+                escapeJson(ch);
+            } else if (ch < 0x80) {
+                ensureCapacity(length + 1);
+                bytes[length++] = (byte) ch;
+            } else {
+                i = encode(csq, i, len);
+            }
+        }
+        ensureCapacity(length + 1);
+        bytes[length++] = '"';
+        return this;
+    }
+
+    /**
+     * Appends a temporal value as JSON string.
+     *
+     * @param formatter non-null formatter
+     * @param value     non-null temporal value
+     * @return this buffer
+     */
+    public Utf8Buffer appendJson(DateTimeFormatter formatter, TemporalAccessor value) {
+        return appendJson(format(formatter, value));
+    }
+
+    /**
+     * Appends a character sequence as SQL string literal, which is same as
+     * {@link Converter#toSqlExpression(String)}.
+     *
+     * @param csq character sequence, {@code null} is written as {@code NULL}
+     * @return this buffer
+     */
+    public Utf8Buffer appendSql(CharSequence csq) {
+        if (csq == null) {
+            return append(Constants.NULL_EXPR);
+        }
+
+        final int len = csq.length();
+        ensureCapacity(length + len + 2);
+        bytes[length++] = '\'';
+        for (int i = 0; i < len; i++) {
+            final char ch = csq.charAt(i);
+            if (ch == '\'' || ch == '\\') {
+                ensureCapacity(length + 2);
+                bytes[length++] = '\\';
+                bytes[length++] = (byte) ch;
+            } else if (ch < 0x80) {
+                ensureCapacity(length + 1);
+                bytes[length++] = (byte) ch;
+            } else {
+                i = encode(csq, i, len);
+            }
+        }
+        ensureCapacity(length + 1);
+        bytes[length++] = '\'';
+        return this;
+    }
+
+    /**
+     * Appends a temporal value as SQL string literal.
+     *
+     * @param formatter non-null formatter
+     * @param value     non-null temporal value
+     * @return this buffer
+     */
+    public Utf8Buffer appendSql(DateTimeFormatter formatter, TemporalAccessor value) {
+        return appendSql(format(formatter, value));
+    }
+
+    /**
+     * Finds the first byte, starting from the given position, which is marked in
+     * the given table. Since only ASCII characters can be marked, which never
+     * appear in a multi-byte UTF-8 sequence, the search is safe to be done on
+     * encoded bytes.
+     *
+     * @param start start position
+     * @param table non-null table of 128 elements, non-zero element means the
+     *              ASCII character should be matched
+     * @return index of the first matched byte, or {@code -1} when not found
+     */
+    public int indexOf(int start, byte[] table) {
+        for (int i = start; i < length; i++) {
+            final byte b = bytes[i];
+            if (b >= 0 && table[b] != 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Escapes bytes in place, starting from the given position. Each ASCII
+     * character marked in the given table is replaced by the escape character
+     * followed by the table element.
+     *
+     * @param start  start position
+     * @param escape ASCII escape character
+     * @param table  non-null table of 128 elements, non-zero element is the
+     *               replacement of the ASCII character
+     * @return number of characters escaped
+     */
+    public int escape(int start, byte escape, byte[] table) {
+        int count = 0;
+        for (int i = start; i < length; i++) {
+            final byte b = bytes[i];
+            if (b >= 0 && table[b] != 0) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            return count;
+        }
+
+        ensureCapacity(length + count);
+        int j = length + count;
+        for (int i = length - 1; i >= start; i--) {
+            final byte b = bytes[i];
+            if (b >= 0 && table[b] != 0) {
+                bytes[--j] = table[b];
+                bytes[--j] = escape;
+            } else {
+                bytes[--j] = b;
+            }
+        }
+        length += count;
+        return count;
+    }
+
+    /**
+     * Surrounds bytes starting from the given position with the quote character.
+     *
+     * @param start start position
+     * @param quote ASCII quote character
+     * @return this buffer
+     */
+    public Utf8Buffer quote(int start, byte quote) {
+        ensureCapacity(length + 2);
+        System.arraycopy(bytes, start, bytes, start + 1, length - start);
+        bytes[start] = quote;
+        length++;
+        bytes[length++] = quote;
+        return this;
+    }
+
+    /**
+     * Writes all bytes into the given output stream and then clears the buffer.
+     *
+     * @param out non-null output stream
+     * @throws IOException when failed to write
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        if (length > 0) {
+            out.write(bytes, 0, length);
+            length = 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -952,6 +952,20 @@ public final class Utils {
         return service;
     }
 
+    static InputStream openFile(Path path) throws FileNotFoundException {
+        if (!Files.isRegularFile(path)) {
+            return new FileInputStream(path.toFile());
+        }
+
+        try {
+            return io.github.jdbcx.Stream.newInputStream(path);
+        } catch (IOException e) {
+            FileNotFoundException exp = new FileNotFoundException(format("Could not open file [%s]", path));
+            exp.initCause(e);
+            throw exp;
+        }
+    }
+
     /**
      * Search file in current directory, {@link Constants#CONF_DIR}, and then
      * classpath, and then get input stream to read the given file.
@@ -967,13 +981,13 @@ public final class Utils {
         InputStream in = null;
         if (Files.exists(path)) {
             builder.append(',').append(file);
-            in = new FileInputStream(path.toFile());
+            in = openFile(path);
         } else if (!path.isAbsolute()) {
             path = Paths.get(Constants.CONF_DIR, file);
 
             if (Files.exists(path)) {
                 builder.append(',').append(path.toString());
-                in = new FileInputStream(path.toFile());
+                in = openFile(path);
             }
         }
 
@@ -385,6 +385,43 @@ public interface Value extends Serializable {
         return isNull() ? Constants.NULL_STR : Converter.toSqlExpression(asString());
     }
 
+    /**
+     * Appends value as string to the given buffer. Same as
+     * {@code buffer.append(asUnicodeString())} but implementations may skip
+     * creating the string. Null value appends nothing regardless of its type, so
+     * callers should write their own representation of null.
+     *
+     * @param buffer non-null buffer
+     * @return the given buffer
+     */
+    default Utf8Buffer appendString(Utf8Buffer buffer) {
+        return isNull() ? buffer : buffer.append(asUnicodeString());
+    }
+
+    /**
+     * Appends JSON expression of the value to the given buffer. Same as
+     * {@code buffer.append(toJsonExpression())} but implementations may skip
+     * creating the string.
+     *
+     * @param buffer non-null buffer
+     * @return the given buffer
+     */
+    default Utf8Buffer appendJsonExpression(Utf8Buffer buffer) {
+        return buffer.append(toJsonExpression());
+    }
+
+    /**
+     * Appends SQL expression of the value to the given buffer. Same as
+     * {@code buffer.append(toSqlExpression())} but implementations may skip
+     * creating the string.
+     *
+     * @param buffer non-null buffer
+     * @return the given buffer
+     */
+    default Utf8Buffer appendSqlExpression(Utf8Buffer buffer) {
+        return buffer.append(toSqlExpression());
+    }
+
     /**
      * Resets value to default.
      *
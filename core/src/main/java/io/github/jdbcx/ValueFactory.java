@@ -263,8 +263,8 @@ public class ValueFactory implements Serializable {
                 value = Values.ofInt(this, nullable, signed, defaultInt);
                 break;
             case BIGINT:
-                // subclassing to take care of signed/unsigned
-                value = Values.ofBigInteger(this, nullable, null);
+                // primitive long for both, unsigned one is wrapped as UnsignedLong
+                value = Values.ofLong(this, nullable, signed, defaultLong);
                 break;
             case REAL:
             case FLOAT:
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Virtual thread support, which is only available in Java 21 and above. The
+ * actual implementation is in the multi-release source root
+ * {@code src/main/java21}.
+ */
+final class VirtualThreads {
+    static boolean isSupported() {
+        return false;
+    }
+
+    static ExecutorService newExecutor(String prefix) { // NOSONAR
+        throw new UnsupportedOperationException("Virtual thread is only available in JDK 21+");
+    }
+
+    private VirtualThreads() {
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.compress;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.github.luben.zstd.ZstdException;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+import io.github.jdbcx.Checker;
+import io.github.jdbcx.Constants;
+import io.github.jdbcx.Option;
+import io.github.jdbcx.Utils;
+
+/**
+ * Local store of trained zstd dictionaries. A dictionary is identified by the
+ * id zstd embeds in both the dictionary and the frames compressed with it, so
+ * that both sides of a connection can refer to the same dictionary by id. Each
+ * dictionary is saved as {@code <id>.dict} in the store directory, or kept in
+ * memory only when no directory is specified.
+ */
+public final class ZstdDictionaryStore {
+    public static final Option OPTION_DIR = Option.of("zstd.dict.dir",
+            "Directory for keeping trained zstd dictionaries, empty means memory only",
+            Constants.CONF_DIR + File.separatorChar + "zstd");
+
+    static final String FILE_EXTENSION = ".dict";
+
+    private static final Map<String, ZstdDictionaryStore> stores = new ConcurrentHashMap<>();
+
+    static final class Dictionary {
+        private final byte[] bytes;
+        private final Map<Integer, ZstdDictCompress> compressors;
+
+        private volatile ZstdDictDecompress decompressor;
+
+        Dictionary(byte[] bytes) {
+            this.bytes = bytes;
+            this.compressors = new ConcurrentHashMap<>();
+        }
+
+        ZstdDictCompress getCompressor(int level) {
+            return compressors.computeIfAbsent(level, l -> new ZstdDictCompress(bytes, l));
+        }
+
+        ZstdDictDecompress getDecompressor() {
+            ZstdDictDecompress d = decompressor;
+            if (d == null) {
+                decompressor = d = new ZstdDictDecompress(bytes);
+            }
+            return d;
+        }
+    }
+
+    /**
+     * Gets the shared store of the given directory.
+     *
+     * @param dir optional directory, null or empty means memory only
+     * @return non-null store
+     */
+    public static ZstdDictionaryStore of(String dir) {
+        final String path = Utils.normalizePath(dir);
+        return stores.computeIfAbsent(path,
+                k -> new ZstdDictionaryStore(k.isEmpty() ? null : Utils.getPath(k, true)));
+    }
+
+    /**
+     * Gets id of the given dictionary.
+     *
+     * @param dict non-null dictionary
+     * @return id of the dictionary, zero for raw content dictionary
+     */
+    public static long getId(byte[] dict) {
+        return Zstd.getDictIdFromDict(Checker.nonNull(dict, "dict"));
+    }
+
+    /**
+     * Trains a dictionary from the given samples. Zstd needs quite a few samples,
+     * usually hundreds, and the total size should be many times larger than the
+     * dictionary.
+     *
+     * @param samples  non-null samples
+     * @param dictSize maximum size of the dictionary in bytes
+     * @return non-null dictionary
+     * @throws IOException when failed to train the dictionary, usually due to
+     *                     insufficient samples
+     */
+    public static byte[] train(Collection<byte[]> samples, int dictSize) throws IOException {
+        int total = 0;
+        for (byte[] s : Checker.nonNull(samples, "samples")) {
+            total += s.length;
+        }
+        final ZstdDictTrainer trainer = new ZstdDictTrainer(total, dictSize);
+        for (byte[] s : samples) {
+            trainer.addSample(s);
+        }
+        try {
+            return trainer.trainSamples();
+        } catch (ZstdException e) {
+            throw new IOException(Utils.format("Failed to train dictionary from %d samples (%d bytes) due to: %s",
+                    samples.size(), total, e.getMessage()), e);
+        }
+    }
+
+    private final Path dir;
+    private final Map<Long, Dictionary> dicts;
+
+    // ids listed from the directory, refreshed when a dictionary is added
+    private volatile List<Long> ids;
+
+    private ZstdDictionaryStore(Path dir) {
+        this.dir = dir;
+        this.dicts = new ConcurrentHashMap<>();
+        this.ids = null;
+    }
+
+    Dictionary getDictionary(long id) throws IOException {
+        Dictionary d = dicts.get(id);
+        if (d == null && dir != null) {
+            final Path file = dir.resolve(Long.toString(id).concat(FILE_EXTENSION));
+            if (Files.isRegularFile(file)) {
+                byte[] bytes = Files.readAllBytes(file);
+                if (getId(bytes) != id) {
+                    throw new IOException(Utils.format("Dictionary [%s] does not have expected id %d", file, id));
+                }
+                d = dicts.computeIfAbsent(id, k -> new Dictionary(bytes));
+            }
+        }
+        return d;
+    }
+
+    /**
+     * Gets directory of the store.
+     *
+     * @return directory of the store, null means memory only
+     */
+    public Path getDirectory() {
+        return dir;
+    }
+
+    /**
+     * Checks whether the store has the given dictionary.
+     *
+     * @param id id of the dictionary
+     * @return true if the dictionary is available; false otherwise
+     */
+    public boolean contains(long id) {
+        try {
+            return getDictionary(id) != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the given dictionary.
+     *
+     * @param id id of the dictionary
+     * @return dictionary, null when not found
+     * @throws IOException when failed to read the dictionary
+     */
+    public byte[] get(long id) throws IOException {
+        Dictionary d = getDictionary(id);
+        return d != null ? d.bytes : null;
+    }
+
+    /**
+     * Gets ids of all dictionaries in the store, in ascending order. The store
+     * directory is only listed on first call, and the ids are refreshed whenever
+     * a dictionary is added through {@link #put(byte[])}.
+     *
+     * @return non-null ids
+     */
+    public List<Long> ids() {
+        List<Long> list = ids;
+        if (list == null) {
+            synchronized (this) {
+                if ((list = ids) == null) {
+                    ids = list = listIds();
+                }
+            }
+        }
+        return list;
+    }
+
+    private List<Long> listIds() {
+        TreeSet<Long> set = new TreeSet<>(dicts.keySet());
+        if (dir != null && Files.isDirectory(dir)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + FILE_EXTENSION)) {
+                for (Path f : files) {
+                    String name = f.getFileName().toString();
+                    try {
+                        set.add(Long.parseLong(name.substring(0, name.length() - FILE_EXTENSION.length())));
+                    } catch (NumberFormatException e) {
+                        // ignore
+                    }
+                }
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+        return set.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(set));
+    }
+
+    /**
+     * Adds a dictionary into the store, and saves it into the store directory if
+     * there's one.
+     *
+     * @param dict non-null dictionary trained by zstd
+     * @return id of the dictionary
+     * @throws IOException when failed to save the dictionary
+     */
+    public long put(byte[] dict) throws IOException {
+        final long id = getId(dict);
+        if (id == 0L) {
+            throw new IllegalArgumentException("Only trained dictionary with non-zero id is supported");
+        }
+        if (dir != null) {
+            Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, Long.toString(id), ".tmp");
+            try {
+                Files.write(tmp, dict);
+                Files.move(tmp, dir.resolve(Long.toString(id).concat(FILE_EXTENSION)),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        }
+        dicts.put(id, new Dictionary(dict.clone()));
+        synchronized (this) {
+            final List<Long> list = ids;
+            if (list != null && !list.contains(id)) {
+                final TreeSet<Long> set = new TreeSet<>(list);
+                set.add(id);
+                ids = Collections.unmodifiableList(new ArrayList<>(set));
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Compresses data into the output stream using the given dictionary.
+     *
+     * @param output non-null output stream
+     * @param level  compression level, default level will be used if it's out of
+     *               range
+     * @param id     id of the dictionary
+     * @return non-null output stream
+     * @throws IOException when the dictionary does not exist or failed to create
+     *                     the output stream
+     */
+    public OutputStream compress(OutputStream output, int level, long id) throws IOException {
+        Dictionary d = getDictionary(id);
+        if (d == null) {
+            throw new IOException(Utils.format("Dictionary %d does not exist", id));
+        }
+        return new ZstdOutputStream(output).setDict(d.getCompressor(ZstdSupport.normalize(level)));
+    }
+
+    /**
+     * Decompresses data from the input stream using the given dictionary.
+     *
+     * @param input non-null input stream
+     * @param id    id of the dictionary, zero means no dictionary
+     * @return non-null input stream
+     * @throws IOException when the dictionary does not exist or failed to create
+     *                     the input stream
+     */
+    @SuppressWarnings("resource")
+    public InputStream decompress(InputStream input, long id) throws IOException {
+        ZstdInputStream in = new ZstdInputStream(input).setContinuous(true);
+        if (id != 0L) {
+            Dictionary d = getDictionary(id);
+            if (d == null) {
+                in.close();
+                throw new IOException(Utils.format("Dictionary %d does not exist", id));
+            }
+            in.setDict(d.getDecompressor());
+        }
+        return in;
+    }
+}
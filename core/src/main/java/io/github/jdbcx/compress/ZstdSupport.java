@@ -26,11 +26,11 @@ public final class ZstdSupport {
     public static final int MIN_LEVEL = 0;
     public static final int MAX_LEVEL = 22;
 
+    static int normalize(int level) {
+        return level < MIN_LEVEL || level > MAX_LEVEL ? com.github.luben.zstd.Zstd.defaultCompressionLevel() : level;
+    }
+
     static class DefaultProvider implements CompressionProvider {
-        protected int normalize(int level) {
-            return level < MIN_LEVEL || level > MAX_LEVEL ? com.github.luben.zstd.Zstd.defaultCompressionLevel()
-                    : level;
-        }
 
         @Override
         public OutputStream compress(OutputStream output, int level, int bufferSize) throws IOException {
@@ -30,6 +30,7 @@ import java.nio.file.WatchKey;
 import java.nio.file.WatchService;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
@@ -53,6 +54,7 @@ import io.github.jdbcx.LoggerFactory;
 import io.github.jdbcx.Option;
 import io.github.jdbcx.Utils;
 import io.github.jdbcx.VariableTag;
+import io.github.jdbcx.interpreter.MetadataCache;
 
 public class PropertyFileConfigManager extends ConfigManager {
     private static final Logger log = LoggerFactory.getLogger(PropertyFileConfigManager.class);
@@ -81,7 +83,33 @@ public class PropertyFileConfigManager extends ConfigManager {
         managed = new AtomicBoolean(false);
     }
 
+    /**
+     * Invalidates cached metadata of named connections that were changed or
+     * removed.
+     *
+     * @param previous non-null configuration before reloading
+     * @param current  non-null configuration after reloading
+     */
+    static void invalidateMetadata(Map<String, Properties> previous, Map<String, Properties> current) {
+        for (Entry<String, Properties> entry : previous.entrySet()) {
+            final String uid = entry.getKey();
+            if (!entry.getValue().equals(current.get(uid))) {
+                log.debug("Invalidating cached metadata of [%s]", uid);
+                MetadataCache.getInstance().invalidate(uid.substring(uid.indexOf('/') + 1));
+            }
+        }
+    }
+
     void load() {
+        final Map<String, Properties> previous = new HashMap<>(config);
+        try {
+            scan();
+        } finally {
+            invalidateMetadata(previous, config);
+        }
+    }
+
+    private void scan() {
         if (!managed.get()) {
             categories.clear();
             config.clear();
@@ -0,0 +1,681 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.sql.JDBCType;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+import io.github.jdbcx.Field;
+import io.github.jdbcx.Logger;
+import io.github.jdbcx.LoggerFactory;
+import io.github.jdbcx.Row;
+import io.github.jdbcx.Utils;
+import io.github.jdbcx.Value;
+import io.github.jdbcx.ValueFactory;
+import io.github.jdbcx.value.BigDecimalValue;
+import io.github.jdbcx.value.BigIntegerValue;
+import io.github.jdbcx.value.BinaryValue;
+import io.github.jdbcx.value.BooleanValue;
+import io.github.jdbcx.value.ByteValue;
+import io.github.jdbcx.value.DateTimeValue;
+import io.github.jdbcx.value.DateValue;
+import io.github.jdbcx.value.DoubleValue;
+import io.github.jdbcx.value.FloatValue;
+import io.github.jdbcx.value.IntValue;
+import io.github.jdbcx.value.LongValue;
+import io.github.jdbcx.value.NullValue;
+import io.github.jdbcx.value.ShortValue;
+import io.github.jdbcx.value.StringValue;
+import io.github.jdbcx.value.TimeValue;
+
+/**
+ * Rows kept outside of Java heap using a compact binary encoding. Rows are
+ * appended to {@link ByteBuffer} chunks until the memory limit is reached, and
+ * the rest go to a temporary file, which is memory-mapped for reading. Chunks
+ * start small on heap and double in size, so that small results never touch
+ * direct memory. Full-sized chunks are direct, and they're returned to a
+ * bounded pool on {@link #close()} for reuse, instead of waiting for GC to free
+ * them. Each cell starts with a null marker, followed by zigzag varint for
+ * integral, date and time values, IEEE 754 bits for floating point values, and
+ * length-prefixed bytes for everything else. Only columns whose values can be
+ * restored as they were are supported, see {@link #isSupported(List)}. Call
+ * {@link #close()} to release the buffer and remove the temporary file, and
+ * stop reading from it afterwards.
+ */
+public final class IterableBuffer implements Iterable<Row>, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(IterableBuffer.class);
+
+    static final int KIND_STRING = IterableColumns.KIND_OBJECT;
+    static final int KIND_DATE = 8;
+    static final int KIND_TIME = 9;
+    static final int KIND_TIMESTAMP = 10;
+    static final int KIND_DECIMAL = 11;
+    static final int KIND_BIGINT = 12;
+    static final int KIND_BINARY = 13;
+    static final int KIND_NULL = 14;
+
+    static final int MIN_CHUNK_SIZE = 8 * 1024;
+    static final int CHUNK_SIZE = 1024 * 1024;
+    static final int MAX_POOLED_CHUNKS = 32;
+    static final int SEGMENT_SIZE = 256 * 1024 * 1024;
+
+    private static final byte[] NULL_CELL = new byte[] { 0 };
+    private static final BlockingQueue<ByteBuffer> pool = new ArrayBlockingQueue<>(MAX_POOLED_CHUNKS);
+
+    static ByteBuffer allocate(int capacity) {
+        if (capacity != CHUNK_SIZE) {
+            // small and oversized chunks are not worth keeping off-heap
+            return ByteBuffer.allocate(capacity);
+        }
+        final ByteBuffer chunk = pool.poll();
+        return chunk != null ? chunk : ByteBuffer.allocateDirect(CHUNK_SIZE);
+    }
+
+    static void recycle(ByteBuffer chunk) {
+        if (chunk.isDirect() && chunk.capacity() == CHUNK_SIZE) {
+            chunk.clear();
+            pool.offer(chunk); // NOSONAR
+        }
+    }
+
+    static int getKind(Value value) {
+        final int kind;
+        if (value instanceof DateValue) {
+            kind = KIND_DATE;
+        } else if (value instanceof TimeValue) {
+            kind = KIND_TIME;
+        } else if (value instanceof DateTimeValue) {
+            kind = KIND_TIMESTAMP;
+        } else if (value instanceof BigDecimalValue) {
+            kind = KIND_DECIMAL;
+        } else if (value instanceof BigIntegerValue) {
+            kind = KIND_BIGINT;
+        } else if (value instanceof BinaryValue) {
+            kind = KIND_BINARY;
+        } else if (value instanceof NullValue) {
+            kind = KIND_NULL;
+        } else {
+            kind = IterableColumns.getKind(value);
+        }
+        return kind;
+    }
+
+    static int getKind(ValueFactory factory, Field f) {
+        final Value template = factory.newValue(f, null);
+        final int kind = getKind(template);
+        // decoded value must be of the same type, or it's not the same value
+        return decode(ByteBuffer.wrap(NULL_CELL), factory, f, kind).getClass() == template.getClass() ? kind : -1;
+    }
+
+    /**
+     * Checks whether values of the given fields can be kept in the buffer, and
+     * restored as they were. Values of custom types, for instance the ones
+     * mapped by {@link io.github.jdbcx.TypeMapping}, are not supported.
+     *
+     * @param fields non-null fields
+     * @return true if the fields are supported; false otherwise
+     */
+    public static boolean isSupported(List<Field> fields) {
+        final ValueFactory factory = ValueFactory.getInstance();
+        for (Field f : fields) {
+            if (getKind(factory, f) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static final class Encoder {
+        private byte[] bytes;
+        private int position;
+
+        Encoder() {
+            this.bytes = new byte[256];
+            this.position = 0;
+        }
+
+        private void ensureCapacity(int length) {
+            final int required = position + length;
+            if (required > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(required, bytes.length << 1));
+            }
+        }
+
+        void reset() {
+            position = 0;
+        }
+
+        int length() {
+            return position;
+        }
+
+        void writeByte(int b) {
+            ensureCapacity(1);
+            bytes[position++] = (byte) b;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            long v = (value << 1) ^ (value >> 63);
+            while ((v & ~0x7FL) != 0L) {
+                bytes[position++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            bytes[position++] = (byte) v;
+        }
+
+        void writeLong(long value) {
+            ensureCapacity(8);
+            for (int i = 56; i >= 0; i -= 8) {
+                bytes[position++] = (byte) (value >>> i);
+            }
+        }
+
+        void writeBytes(byte[] value) {
+            final int len = value.length;
+            writeVarLong(len);
+            ensureCapacity(len);
+            System.arraycopy(value, 0, bytes, position, len);
+            position += len;
+        }
+
+        void writeTo(ByteBuffer buffer) {
+            buffer.put(bytes, 0, position);
+        }
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(bytes, 0, position);
+        }
+    }
+
+    static long readVarLong(ByteBuffer buffer) {
+        long v = 0L;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            v |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (v >>> 1) ^ -(v & 1L);
+    }
+
+    static byte[] readBytes(ByteBuffer buffer) {
+        final byte[] bytes = new byte[(int) readVarLong(buffer)];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    static void encode(Encoder encoder, Field f, int kind, Value value) {
+        if (value.isNull()) {
+            encoder.writeByte(0);
+            return;
+        }
+
+        encoder.writeByte(1);
+        switch (kind) {
+            case IterableColumns.KIND_BOOLEAN:
+            case IterableColumns.KIND_BYTE:
+            case IterableColumns.KIND_SHORT:
+            case IterableColumns.KIND_INT:
+            case IterableColumns.KIND_LONG:
+                encoder.writeVarLong(value.asLong());
+                break;
+            case IterableColumns.KIND_FLOAT:
+            case IterableColumns.KIND_DOUBLE:
+                encoder.writeLong(Double.doubleToRawLongBits(value.asDouble()));
+                break;
+            case KIND_DATE:
+                encoder.writeVarLong(value.asDate().toEpochDay());
+                break;
+            case KIND_TIME:
+                encoder.writeVarLong(value.asTime(9).toNanoOfDay());
+                break;
+            case KIND_TIMESTAMP: {
+                final LocalDateTime dt = value.asDateTime(9);
+                encoder.writeVarLong(dt.toEpochSecond(ZoneOffset.UTC));
+                encoder.writeVarLong(dt.getNano());
+                break;
+            }
+            case KIND_DECIMAL: {
+                final BigDecimal v = value.asBigDecimal(f.scale());
+                encoder.writeVarLong(v.scale());
+                encoder.writeBytes(v.unscaledValue().toByteArray());
+                break;
+            }
+            case KIND_BIGINT:
+                encoder.writeBytes(value.asBigInteger().toByteArray());
+                break;
+            case KIND_BINARY:
+                encoder.writeBytes(value.asBinary());
+                break;
+            default:
+                encoder.writeBytes(value.asUnicodeString().getBytes(StandardCharsets.UTF_8));
+                break;
+        }
+    }
+
+    static Value decode(ByteBuffer buffer, ValueFactory factory, Field f, int kind) {
+        final boolean nullable = f.isNullable();
+        final boolean isNull = buffer.get() == 0;
+        final Value value;
+        switch (kind) {
+            case IterableColumns.KIND_BOOLEAN:
+                value = BooleanValue.of(factory, nullable, !isNull && readVarLong(buffer) != 0L);
+                break;
+            case IterableColumns.KIND_BYTE:
+                value = ByteValue.of(factory, nullable, f.isSigned(), isNull ? (byte) 0 : (byte) readVarLong(buffer));
+                break;
+            case IterableColumns.KIND_SHORT:
+                value = ShortValue.of(factory, nullable, f.isSigned(),
+                        isNull ? (short) 0 : (short) readVarLong(buffer));
+                break;
+            case IterableColumns.KIND_INT:
+                value = IntValue.of(factory, nullable, f.isSigned(), isNull ? 0 : (int) readVarLong(buffer));
+                break;
+            case IterableColumns.KIND_LONG:
+                value = LongValue.of(factory, nullable, f.isSigned(), isNull ? 0L : readVarLong(buffer));
+                break;
+            case IterableColumns.KIND_FLOAT:
+                value = FloatValue.of(factory, nullable,
+                        isNull ? 0F : (float) Double.longBitsToDouble(buffer.getLong()));
+                break;
+            case IterableColumns.KIND_DOUBLE:
+                value = DoubleValue.of(factory, nullable, isNull ? 0D : Double.longBitsToDouble(buffer.getLong()));
+                break;
+            case KIND_DATE:
+                value = DateValue.of(factory, nullable, isNull ? null : LocalDate.ofEpochDay(readVarLong(buffer)));
+                break;
+            case KIND_TIME:
+                value = TimeValue.of(factory, nullable, f.scale(),
+                        isNull ? null : LocalTime.ofNanoOfDay(readVarLong(buffer)));
+                break;
+            case KIND_TIMESTAMP:
+                value = DateTimeValue.of(factory, nullable, f.scale(), isNull ? null
+                        : LocalDateTime.ofEpochSecond(readVarLong(buffer), (int) readVarLong(buffer),
+                                ZoneOffset.UTC));
+                break;
+            case KIND_DECIMAL: {
+                BigDecimal v = null;
+                if (!isNull) {
+                    final int scale = (int) readVarLong(buffer);
+                    v = new BigDecimal(new BigInteger(readBytes(buffer)), scale);
+                }
+                value = BigDecimalValue.of(factory, nullable, f.scale(), v);
+                break;
+            }
+            case KIND_BIGINT:
+                value = BigIntegerValue.of(factory, nullable, isNull ? null : new BigInteger(readBytes(buffer)));
+                break;
+            case KIND_BINARY:
+                value = BinaryValue.of(factory, nullable, isNull ? null : readBytes(buffer));
+                break;
+            case KIND_NULL:
+                value = NullValue.of(factory);
+                break;
+            default: {
+                final JDBCType type = f.type();
+                value = StringValue.of(factory, nullable,
+                        type == JDBCType.CHAR || type == JDBCType.NCHAR ? f.precision() : 0,
+                        isNull ? null : new String(readBytes(buffer), StandardCharsets.UTF_8));
+                break;
+            }
+        }
+        return isNull ? value.resetToNull() : value;
+    }
+
+    static final class BufferIterator implements Iterator<Row> {
+        private final IterableBuffer ref;
+        private final Value[] values;
+        private final Row cursor;
+
+        private int index;
+        private ByteBuffer current;
+        private long remaining;
+
+        BufferIterator(IterableBuffer ref) {
+            this.ref = ref;
+            this.values = new Value[ref.kinds.length];
+            this.cursor = new DefaultRow(ref.fields, values);
+
+            this.index = 0;
+            this.current = null;
+            this.remaining = ref.size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0L;
+        }
+
+        @Override
+        public Row next() {
+            if (remaining <= 0L) {
+                throw new NoSuchElementException();
+            } else if (ref.closed) {
+                throw new IllegalStateException("Buffer has been closed");
+            }
+
+            while (current == null || !current.hasRemaining()) {
+                current = ref.getBuffer(index++);
+            }
+            final ValueFactory factory = ref.factory;
+            final List<Field> fields = ref.fields;
+            final int[] kinds = ref.kinds;
+            for (int i = 0, len = kinds.length; i < len; i++) {
+                values[i] = decode(current, factory, fields.get(i), kinds[i]);
+            }
+            remaining--;
+            return cursor;
+        }
+    }
+
+    /**
+     * Copies all rows into a new buffer.
+     *
+     * @param fields      non-null fields
+     * @param rows        non-null rows
+     * @param memoryLimit maximum bytes to keep in direct memory, rows exceeding
+     *                    the limit will be written into a temporary file
+     * @return non-null buffer
+     * @throws IOException when failed to write into temporary file
+     */
+    public static IterableBuffer of(List<Field> fields, Iterable<Row> rows, long memoryLimit) throws IOException {
+        if (fields == null || rows == null) {
+            throw new IllegalArgumentException("Non-null fields and rows are required");
+        }
+
+        final IterableBuffer buffer = new IterableBuffer(fields, memoryLimit);
+        buffer.fill(rows);
+        return buffer;
+    }
+
+    private final ValueFactory factory;
+    private final List<Field> fields;
+    private final int[] kinds;
+    private final long memoryLimit;
+
+    private final Encoder encoder;
+    private final List<ByteBuffer> chunks;
+    // offset and length of each mapped segment in the file
+    private final List<long[]> segments;
+
+    private Consumer<IterableBuffer> recycler;
+    private int current;
+    private long size;
+    private long memorySize;
+    private File file;
+    private RandomAccessFile raf;
+    private List<ByteBuffer> mapped;
+    private volatile boolean closed;
+
+    private IterableBuffer(List<Field> fields, long memoryLimit) {
+        this.factory = ValueFactory.getInstance();
+        this.fields = Collections.unmodifiableList(new ArrayList<>(fields));
+        this.kinds = new int[fields.size()];
+        for (int i = 0, len = kinds.length; i < len; i++) {
+            final Field f = fields.get(i);
+            if ((kinds[i] = getKind(factory, f)) < 0) {
+                throw new IllegalArgumentException(
+                        Utils.format("Cannot keep values of column [%s] as they were, type: %s", f.name(), f.type()));
+            }
+        }
+        this.memoryLimit = memoryLimit;
+
+        this.encoder = new Encoder();
+        this.chunks = new ArrayList<>();
+        this.segments = new ArrayList<>();
+
+        this.recycler = null;
+        this.current = 0;
+        this.size = 0L;
+        this.memorySize = 0L;
+        this.file = null;
+        this.raf = null;
+        this.mapped = null;
+        this.closed = false;
+    }
+
+    private void add(Row row) throws IOException {
+        final Encoder e = encoder;
+        e.reset();
+        for (int i = 0, len = kinds.length; i < len; i++) {
+            encode(e, fields.get(i), kinds[i], row.value(i));
+        }
+
+        final int length = e.length();
+        ByteBuffer chunk = file == null && current < chunks.size() ? chunks.get(current) : null;
+        // chunks kept from previous fill are reused before allocating new ones
+        while (chunk != null && chunk.remaining() < length && current + 1 < chunks.size()) {
+            chunk = chunks.get(++current);
+        }
+        if (chunk == null || chunk.remaining() < length) {
+            final int capacity = Math.max(
+                    chunk == null ? MIN_CHUNK_SIZE : Math.min(CHUNK_SIZE, chunk.capacity() << 1), length);
+            if (file == null && memorySize + capacity <= memoryLimit) {
+                chunk = allocate(capacity);
+                chunks.add(chunk);
+                current = chunks.size() - 1;
+                memorySize += capacity;
+            } else {
+                chunk = null;
+            }
+        }
+
+        if (chunk != null) {
+            e.writeTo(chunk);
+        } else {
+            if (file == null) {
+                file = Utils.createTempFile("jdbcx-rows-", ".bin");
+                raf = new RandomAccessFile(file, "rw");
+                log.debug("Spilling rows into [%s] after %,d rows and %,d bytes", file, size, memorySize);
+            }
+            final FileChannel channel = raf.getChannel();
+            final long position = channel.position();
+            long[] segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (segment == null || segment[1] + length > SEGMENT_SIZE) {
+                segment = new long[] { position, 0L };
+                segments.add(segment);
+            }
+            final ByteBuffer buf = e.toByteBuffer();
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            segment[1] += length;
+        }
+        size++;
+    }
+
+    private void fill(Iterable<Row> rows) throws IOException {
+        try {
+            for (Row r : rows) {
+                add(r);
+            }
+            complete();
+        } catch (IOException | RuntimeException e) {
+            release();
+            throw e;
+        }
+    }
+
+    private void complete() throws IOException {
+        for (ByteBuffer chunk : chunks) {
+            chunk.flip();
+        }
+        if (raf != null) {
+            final FileChannel channel = raf.getChannel();
+            final List<ByteBuffer> list = new ArrayList<>(segments.size());
+            for (long[] segment : segments) {
+                list.add(channel.map(FileChannel.MapMode.READ_ONLY, segment[0], segment[1]));
+            }
+            mapped = list;
+        }
+    }
+
+    ByteBuffer getBuffer(int index) {
+        final int count = chunks.size();
+        if (index < count) {
+            return chunks.get(index).duplicate();
+        } else if (mapped != null && index - count < mapped.size()) {
+            return mapped.get(index - count).duplicate();
+        }
+        throw new NoSuchElementException();
+    }
+
+    /**
+     * Gets fields.
+     *
+     * @return non-null fields
+     */
+    public List<Field> fields() {
+        return fields;
+    }
+
+    /**
+     * Gets number of rows.
+     *
+     * @return number of rows
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Gets size of memory allocated for the rows.
+     *
+     * @return size in bytes
+     */
+    public long getMemorySize() {
+        return memorySize;
+    }
+
+    /**
+     * Gets size of the temporary file.
+     *
+     * @return size in bytes, zero when there's no temporary file
+     */
+    public long getFileSize() {
+        long fileSize = 0L;
+        for (long[] segment : segments) {
+            fileSize += segment[1];
+        }
+        return fileSize;
+    }
+
+    @Override
+    public Iterator<Row> iterator() {
+        return new BufferIterator(this);
+    }
+
+    /**
+     * Sets the function to take this buffer back on {@link #close()}, instead of
+     * releasing it. The function is responsible for calling {@link #release()}
+     * when it does not want to keep the buffer.
+     *
+     * @param recycler function to take the buffer back, null means release on
+     *                 close
+     * @return this buffer
+     */
+    IterableBuffer recycleWith(Consumer<IterableBuffer> recycler) {
+        this.recycler = recycler;
+        return this;
+    }
+
+    /**
+     * Replaces rows in this closed buffer with the given ones. Memory chunks are
+     * reused, while the temporary file, if any, is removed. The buffer will be
+     * released on failure.
+     *
+     * @param rows non-null rows
+     * @throws IOException when failed to write into temporary file
+     */
+    void refill(Iterable<Row> rows) throws IOException {
+        for (ByteBuffer chunk : chunks) {
+            chunk.clear();
+        }
+        current = 0;
+        size = 0L;
+        removeFile();
+        closed = false;
+        fill(rows);
+    }
+
+    /**
+     * Releases memory chunks and removes the temporary file, regardless of the
+     * recycler.
+     */
+    void release() {
+        closed = true;
+        for (ByteBuffer chunk : chunks) {
+            recycle(chunk);
+        }
+        chunks.clear();
+        current = 0;
+        memorySize = 0L;
+        size = 0L;
+        removeFile();
+    }
+
+    private void removeFile() {
+        segments.clear();
+        mapped = null;
+        if (raf != null) {
+            try {
+                raf.close();
+            } catch (IOException e) {
+                log.debug("Failed to close [%s]: %s", file, e.getMessage());
+            }
+            raf = null;
+        }
+        if (file != null) {
+            if (!file.delete()) {
+                log.debug("Failed to delete [%s], leave it to JVM", file);
+            }
+            file = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        final Consumer<IterableBuffer> r = recycler;
+        if (r == null) {
+            release();
+        } else if (!closed) {
+            closed = true;
+            r.accept(this);
+        }
+    }
+}
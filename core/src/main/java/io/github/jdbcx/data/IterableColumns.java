@@ -0,0 +1,443 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.data;
+
+import java.sql.JDBCType;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import io.github.jdbcx.Checker;
+import io.github.jdbcx.Field;
+import io.github.jdbcx.Row;
+import io.github.jdbcx.Value;
+import io.github.jdbcx.ValueFactory;
+import io.github.jdbcx.value.BooleanValue;
+import io.github.jdbcx.value.ByteValue;
+import io.github.jdbcx.value.DoubleValue;
+import io.github.jdbcx.value.FloatValue;
+import io.github.jdbcx.value.IntValue;
+import io.github.jdbcx.value.LongValue;
+import io.github.jdbcx.value.ShortValue;
+
+/**
+ * Column-oriented rows held in memory. Boolean and integral columns are kept
+ * in {@code long[]}, floating point columns in {@code double[]}, and the rest
+ * as one {@link Value} per cell. Each column has its own null bitmap. Columnar
+ * consumers like {@link io.github.jdbcx.format.ArrowSerde} can read the arrays
+ * directly, while {@link #iterator()} still provides the row view, which
+ * creates values for primitive cells on the fly.
+ */
+public final class IterableColumns implements Iterable<Row> {
+    static final int KIND_OBJECT = 0;
+    static final int KIND_BOOLEAN = 1;
+    static final int KIND_BYTE = 2;
+    static final int KIND_SHORT = 3;
+    static final int KIND_INT = 4;
+    static final int KIND_LONG = 5;
+    static final int KIND_FLOAT = 6;
+    static final int KIND_DOUBLE = 7;
+
+    static final int DEFAULT_CAPACITY = 64;
+
+    static int getKind(Value value) {
+        final int kind;
+        if (value instanceof BooleanValue) {
+            kind = KIND_BOOLEAN;
+        } else if (value instanceof ByteValue) {
+            kind = KIND_BYTE;
+        } else if (value instanceof ShortValue) {
+            kind = KIND_SHORT;
+        } else if (value instanceof IntValue) {
+            kind = KIND_INT;
+        } else if (value instanceof LongValue) {
+            kind = KIND_LONG;
+        } else if (value instanceof FloatValue) {
+            kind = KIND_FLOAT;
+        } else if (value instanceof DoubleValue) {
+            kind = KIND_DOUBLE;
+        } else {
+            kind = KIND_OBJECT;
+        }
+        return kind;
+    }
+
+    public static final class Column {
+        private final ValueFactory factory;
+        private final Field field;
+        private final int kind;
+
+        private long[] nulls;
+        private long[] longs;
+        private double[] doubles;
+        private Value[] objects;
+
+        Column(ValueFactory factory, Field field, int kind, int capacity) {
+            this.factory = factory;
+            this.field = field;
+            this.kind = kind;
+
+            this.nulls = new long[(capacity + 63) >>> 6];
+            if (kind == KIND_OBJECT) {
+                this.objects = new Value[capacity];
+            } else if (kind >= KIND_FLOAT) {
+                this.doubles = new double[capacity];
+            } else {
+                this.longs = new long[capacity];
+            }
+        }
+
+        void ensureCapacity(int capacity) {
+            final int words = (capacity + 63) >>> 6;
+            if (words > nulls.length) {
+                nulls = Arrays.copyOf(nulls, words);
+            }
+            if (objects != null) {
+                objects = Arrays.copyOf(objects, capacity);
+            } else if (doubles != null) {
+                doubles = Arrays.copyOf(doubles, capacity);
+            } else {
+                longs = Arrays.copyOf(longs, capacity);
+            }
+        }
+
+        void set(int row, Value value) {
+            if (value.isNull()) {
+                nulls[row >>> 6] |= 1L << row;
+            }
+            if (objects != null) {
+                objects[row] = value;
+            } else if (doubles != null) {
+                doubles[row] = value.asDouble();
+            } else {
+                longs[row] = value.asLong();
+            }
+        }
+
+        /**
+         * Gets field of the column.
+         *
+         * @return non-null field
+         */
+        public Field field() {
+            return field;
+        }
+
+        /**
+         * Checks whether values are kept in {@code long[]}, which applies to boolean
+         * and integral columns.
+         *
+         * @return true if {@link #getLong(int)} can be used; false otherwise
+         */
+        public boolean hasLongs() {
+            return longs != null;
+        }
+
+        /**
+         * Checks whether values are kept in {@code double[]}, which applies to floating
+         * point columns.
+         *
+         * @return true if {@link #getDouble(int)} can be used; false otherwise
+         */
+        public boolean hasDoubles() {
+            return doubles != null;
+        }
+
+        /**
+         * Checks whether the value at given row is null.
+         *
+         * @param row zero-based row index
+         * @return true if the value is null; false otherwise
+         */
+        public boolean isNull(int row) {
+            return (nulls[row >>> 6] & (1L << row)) != 0L;
+        }
+
+        /**
+         * Gets value at given row as long. Only works when {@link #hasLongs()}
+         * returns {@code true}. Null value is returned as default value.
+         *
+         * @param row zero-based row index
+         * @return long value
+         */
+        public long getLong(int row) {
+            return longs[row];
+        }
+
+        /**
+         * Gets value at given row as double. Only works when {@link #hasDoubles()}
+         * returns {@code true}. Null value is returned as default value.
+         *
+         * @param row zero-based row index
+         * @return double value
+         */
+        public double getDouble(int row) {
+            return doubles[row];
+        }
+
+        /**
+         * Gets value at given row. Values of primitive columns are created on each
+         * call.
+         *
+         * @param row zero-based row index
+         * @return non-null value
+         */
+        public Value getValue(int row) {
+            if (objects != null) {
+                return objects[row];
+            }
+
+            final boolean nullable = field.isNullable();
+            final boolean signed = field.isSigned();
+            final Value value;
+            switch (kind) {
+                case KIND_BOOLEAN:
+                    value = BooleanValue.of(factory, nullable, longs[row] != 0L);
+                    break;
+                case KIND_BYTE:
+                    value = ByteValue.of(factory, nullable, signed, (byte) longs[row]);
+                    break;
+                case KIND_SHORT:
+                    value = ShortValue.of(factory, nullable, signed, (short) longs[row]);
+                    break;
+                case KIND_INT:
+                    value = IntValue.of(factory, nullable, signed, (int) longs[row]);
+                    break;
+                case KIND_LONG:
+                    value = LongValue.of(factory, nullable, signed, longs[row]);
+                    break;
+                case KIND_FLOAT:
+                    value = FloatValue.of(factory, nullable, (float) doubles[row]);
+                    break;
+                case KIND_DOUBLE:
+                    value = DoubleValue.of(factory, nullable, doubles[row]);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown column kind: " + kind);
+            }
+            return isNull(row) ? value.resetToNull() : value;
+        }
+    }
+
+    static final class ColumnIterator implements Iterator<Row> {
+        private final IterableColumns ref;
+        private final Value[] values;
+        private final Row cursor;
+
+        private int index;
+
+        ColumnIterator(IterableColumns ref) {
+            this.ref = ref;
+            this.values = new Value[ref.columns.length];
+            this.cursor = new DefaultRow(ref.fields, values);
+
+            this.index = 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < ref.size;
+        }
+
+        @Override
+        public Row next() {
+            if (index >= ref.size) {
+                throw new NoSuchElementException();
+            }
+
+            final Column[] columns = ref.columns;
+            for (int i = 0, len = columns.length; i < len; i++) {
+                values[i] = columns[i].getValue(index);
+            }
+            index++;
+            return cursor;
+        }
+    }
+
+    /**
+     * Estimates memory needed for each row, when all columns are kept in
+     * primitive arrays.
+     *
+     * @param fields non-null fields
+     * @return bytes per row, or {@code -1} when at least one column has to be
+     *         kept as values
+     */
+    public static long getRowSize(List<Field> fields) {
+        final ValueFactory factory = ValueFactory.getInstance();
+        long size = 0L;
+        for (Field f : Checker.nonNull(fields, Field.class)) {
+            if (getKind(factory.newValue(f, null)) == KIND_OBJECT) {
+                return -1L;
+            }
+
+            // one long or double per cell, plus one bit in the null bitmap
+            size += Long.BYTES;
+        }
+        return size;
+    }
+
+    /**
+     * Reads all remaining rows from the given result set. Same as
+     * {@code of(rs, null)}.
+     *
+     * @param rs non-null result set, which will not be closed
+     * @return non-null columns
+     * @throws SQLException when failed to read from the result set
+     */
+    public static IterableColumns of(ResultSet rs) throws SQLException {
+        return of(rs, null);
+    }
+
+    /**
+     * Reads all remaining rows from the given result set.
+     *
+     * @param rs     non-null result set, which will not be closed
+     * @param fields optional fields, derived from result set metadata when
+     *               {@code null}
+     * @return non-null columns
+     * @throws SQLException when failed to read from the result set
+     */
+    public static IterableColumns of(ResultSet rs, List<Field> fields) throws SQLException {
+        return of(rs, fields, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reads at most {@code maxRows} rows from the given result set. Remaining
+     * rows, if any, can still be read from the result set afterwards.
+     *
+     * @param rs      non-null result set, which will not be closed
+     * @param fields  optional fields, derived from result set metadata when
+     *                {@code null}
+     * @param maxRows maximum number of rows to read
+     * @return non-null columns
+     * @throws SQLException when failed to read from the result set
+     */
+    public static IterableColumns of(ResultSet rs, List<Field> fields, int maxRows) throws SQLException {
+        Checker.nonNull(rs, ResultSet.class);
+
+        final ValueFactory factory = ValueFactory.getInstance();
+        final String[] typeNames;
+        if (fields == null) {
+            ResultSetMetaData metaData = rs.getMetaData();
+            int count = metaData.getColumnCount();
+            List<Field> list = new ArrayList<>(count);
+            typeNames = new String[count];
+            for (int index = 1; index <= count; index++) {
+                int precision = metaData.getPrecision(index);
+                if (precision <= 0) {
+                    precision = metaData.getColumnDisplaySize(index);
+                }
+                typeNames[index - 1] = metaData.getColumnTypeName(index);
+                list.add(Field.of(metaData.getColumnName(index), typeNames[index - 1],
+                        JDBCType.valueOf(metaData.getColumnType(index)),
+                        metaData.isNullable(index) != ResultSetMetaData.columnNoNulls, precision,
+                        metaData.getScale(index), metaData.isSigned(index)));
+            }
+            fields = Collections.unmodifiableList(list);
+        } else {
+            typeNames = new String[fields.size()];
+        }
+
+        final int len = fields.size();
+        final Value[] values = new Value[len];
+        final Column[] columns = new Column[len];
+        int capacity = DEFAULT_CAPACITY;
+        for (int i = 0; i < len; i++) {
+            final Field f = fields.get(i);
+            values[i] = factory.newValue(f, typeNames[i]);
+            columns[i] = new Column(factory, f, getKind(values[i]), capacity);
+        }
+
+        int size = 0;
+        while (size < maxRows && rs.next()) {
+            if (size == capacity) {
+                capacity = capacity + (capacity >> 1);
+                for (Column c : columns) {
+                    c.ensureCapacity(capacity);
+                }
+            }
+            for (int i = 0; i < len; i++) {
+                final Column c = columns[i];
+                if (c.kind == KIND_OBJECT) {
+                    // cell values are kept, so a new one is needed for each row
+                    c.set(size, factory.newValue(c.field, typeNames[i]).updateFrom(rs, i + 1));
+                } else {
+                    c.set(size, values[i].updateFrom(rs, i + 1));
+                }
+            }
+            size++;
+        }
+        return new IterableColumns(fields, columns, size);
+    }
+
+    private final List<Field> fields;
+    private final Column[] columns;
+    private final int size;
+
+    private IterableColumns(List<Field> fields, Column[] columns, int size) {
+        this.fields = fields;
+        this.columns = columns;
+        this.size = size;
+    }
+
+    /**
+     * Gets fields.
+     *
+     * @return non-null fields
+     */
+    public List<Field> fields() {
+        return fields;
+    }
+
+    /**
+     * Gets column at the given index.
+     *
+     * @param index zero-based column index
+     * @return non-null column
+     */
+    public Column column(int index) {
+        return columns[index];
+    }
+
+    /**
+     * Gets number of columns.
+     *
+     * @return number of columns
+     */
+    public int columns() {
+        return columns.length;
+    }
+
+    /**
+     * Gets number of rows.
+     *
+     * @return number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Iterator<Row> iterator() {
+        return new ColumnIterator(this);
+    }
+}
@@ -0,0 +1,610 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.data;
+
+import java.io.EOFException;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.JDBCType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import io.github.jdbcx.Checker;
+import io.github.jdbcx.Field;
+import io.github.jdbcx.Row;
+import io.github.jdbcx.Utils;
+import io.github.jdbcx.Value;
+import io.github.jdbcx.ValueFactory;
+import io.github.jdbcx.value.BigDecimalValue;
+import io.github.jdbcx.value.BooleanValue;
+import io.github.jdbcx.value.DoubleValue;
+import io.github.jdbcx.value.LongValue;
+import io.github.jdbcx.value.StringValue;
+
+/**
+ * Rows read from a stream of JSON values, one record per object or array, as
+ * in JSON Lines and JSON text sequences. Records are parsed token by token.
+ * Field types are either supplied or inferred from the first few records,
+ * which are kept in memory until they're iterated. Nested objects and arrays
+ * are returned as JSON strings. Numbers that cannot be represented as double
+ * without loss are inferred as decimal. A value that does not fit its
+ * column, for example {@code 1.5} in a {@code BIGINT} column, fails the
+ * iteration instead of being truncated or turned into null.
+ *
+ * <p>
+ * Like {@link IterableReader}, the underlying reader can only be iterated
+ * once.
+ */
+public final class IterableJson implements Iterable<Row>, AutoCloseable {
+    static final int KIND_NULL = 0;
+    static final int KIND_BOOLEAN = 1;
+    static final int KIND_LONG = 2;
+    static final int KIND_DOUBLE = 3;
+    static final int KIND_DECIMAL = 4;
+    static final int KIND_STRING = 5;
+
+    static final char RECORD_SEPARATOR = 0x1E;
+
+    /**
+     * Reader replaces record separators with line feeds, so that JSON text
+     * sequences can be parsed the same way as JSON Lines.
+     */
+    static final class SequenceReader extends FilterReader {
+        SequenceReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int ch = super.read();
+            return ch == RECORD_SEPARATOR ? '\n' : ch;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            final int n = super.read(cbuf, off, len);
+            for (int i = off, end = off + n; i < end; i++) {
+                if (cbuf[i] == RECORD_SEPARATOR) {
+                    cbuf[i] = '\n';
+                }
+            }
+            return n;
+        }
+    }
+
+    static final class JsonIterator implements Iterator<Row> {
+        private final IterableJson ref;
+
+        JsonIterator(IterableJson ref) {
+            this.ref = ref;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!ref.samples.isEmpty()) {
+                return true;
+            }
+            try {
+                return ref.hasRecord();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Row next() {
+            try {
+                if (!ref.samples.isEmpty()) {
+                    return ref.toRow(ref.samples.removeFirst());
+                } else if (!ref.hasRecord()) {
+                    throw new NoSuchElementException();
+                }
+                return ref.readRow();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    static int getKind(JDBCType type) {
+        final int kind;
+        switch (type) {
+            case BIT:
+            case BOOLEAN:
+                kind = KIND_BOOLEAN;
+                break;
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+                kind = KIND_LONG;
+                break;
+            case REAL:
+            case FLOAT:
+            case DOUBLE:
+                kind = KIND_DOUBLE;
+                break;
+            case NUMERIC:
+            case DECIMAL:
+                kind = KIND_DECIMAL;
+                break;
+            default:
+                kind = KIND_STRING;
+                break;
+        }
+        return kind;
+    }
+
+    static int getKind(Object cell) {
+        final int kind;
+        if (cell == null) {
+            kind = KIND_NULL;
+        } else if (cell instanceof Boolean) {
+            kind = KIND_BOOLEAN;
+        } else if (cell instanceof Long) {
+            kind = KIND_LONG;
+        } else if (cell instanceof BigDecimal) {
+            final BigDecimal v = (BigDecimal) cell;
+            final double d = v.doubleValue();
+            kind = !Double.isInfinite(d) && BigDecimal.valueOf(d).compareTo(v) == 0 ? KIND_DOUBLE : KIND_DECIMAL;
+        } else {
+            kind = KIND_STRING;
+        }
+        return kind;
+    }
+
+    static int merge(int kind, int other) {
+        if (kind == other || other == KIND_NULL) {
+            return kind;
+        } else if (kind == KIND_NULL) {
+            return other;
+        } else if (kind == KIND_DECIMAL || other == KIND_DECIMAL) {
+            if (kind == KIND_LONG || kind == KIND_DOUBLE || other == KIND_LONG || other == KIND_DOUBLE) {
+                return KIND_DECIMAL;
+            }
+        } else if ((kind == KIND_LONG || kind == KIND_DOUBLE) && (other == KIND_LONG || other == KIND_DOUBLE)) {
+            return KIND_DOUBLE;
+        }
+        return KIND_STRING;
+    }
+
+    static String copy(JsonReader reader) throws IOException {
+        final StringWriter out = new StringWriter();
+        try (JsonWriter writer = new JsonWriter(out)) {
+            copy(reader, writer);
+        }
+        return out.toString();
+    }
+
+    static void copy(JsonReader reader, JsonWriter writer) throws IOException {
+        int depth = 0;
+        do {
+            switch (reader.peek()) {
+                case BEGIN_ARRAY:
+                    reader.beginArray();
+                    writer.beginArray();
+                    depth++;
+                    break;
+                case END_ARRAY:
+                    reader.endArray();
+                    writer.endArray();
+                    depth--;
+                    break;
+                case BEGIN_OBJECT:
+                    reader.beginObject();
+                    writer.beginObject();
+                    depth++;
+                    break;
+                case END_OBJECT:
+                    reader.endObject();
+                    writer.endObject();
+                    depth--;
+                    break;
+                case NAME:
+                    writer.name(reader.nextName());
+                    break;
+                case BOOLEAN:
+                    writer.value(reader.nextBoolean());
+                    break;
+                case NUMBER:
+                    writer.jsonValue(reader.nextString());
+                    break;
+                case NULL:
+                    reader.nextNull();
+                    writer.nullValue();
+                    break;
+                default:
+                    writer.value(reader.nextString());
+                    break;
+            }
+        } while (depth > 0);
+    }
+
+    static Object readCell(JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case NULL:
+                reader.nextNull();
+                return null;
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case NUMBER: {
+                final String text = reader.nextString();
+                try {
+                    return Long.parseLong(text);
+                } catch (NumberFormatException e) {
+                    return new BigDecimal(text);
+                }
+            }
+            case BEGIN_ARRAY:
+            case BEGIN_OBJECT:
+                return copy(reader);
+            default:
+                return reader.nextString();
+        }
+    }
+
+    /**
+     * Creates rows from the given reader. Field types are inferred from up to
+     * {@code sample} leading records when {@code fields} is null or empty.
+     *
+     * @param fields   optional fields
+     * @param reader   non-null reader
+     * @param sequence true if records are separated by {@code 0x1E} as in JSON
+     *                 text sequences; false for JSON Lines
+     * @param sample   maximum number of records for inferring field types
+     * @return non-null rows
+     * @throws IOException when failed to read or parse the sampled records
+     */
+    public static IterableJson of(List<Field> fields, Reader reader, boolean sequence, int sample)
+            throws IOException {
+        final JsonReader r = new JsonReader(sequence ? new SequenceReader(Checker.nonNull(reader, Reader.class))
+                : Checker.nonNull(reader, Reader.class));
+        r.setStrictness(Strictness.LENIENT);
+
+        final IterableJson json = new IterableJson(r);
+        try {
+            if (fields != null && !fields.isEmpty()) {
+                json.init(fields, null);
+            } else {
+                json.sample(Math.max(sample, 1));
+            }
+        } catch (IOException | RuntimeException e) {
+            r.close();
+            throw e;
+        }
+        return json;
+    }
+
+    private final JsonReader reader;
+    private final ValueFactory factory;
+    private final Map<String, Integer> names;
+    private final LinkedList<Object[]> samples;
+
+    private List<Field> fields;
+    private int[] kinds;
+    private boolean started;
+
+    private IterableJson(JsonReader reader) {
+        this.reader = reader;
+        this.factory = ValueFactory.getInstance();
+        this.names = new HashMap<>();
+        this.samples = new LinkedList<>();
+    }
+
+    private void init(List<Field> fields, int[] kinds) {
+        final int len = fields.size();
+        if (kinds == null) {
+            kinds = new int[len];
+            for (int i = 0; i < len; i++) {
+                kinds[i] = getKind(fields.get(i).type());
+            }
+        }
+        for (int i = 0; i < len; i++) {
+            names.putIfAbsent(fields.get(i).name(), i);
+        }
+        this.fields = fields;
+        this.kinds = kinds;
+    }
+
+    boolean hasRecord() throws IOException {
+        if (!started) {
+            try {
+                reader.peek();
+            } catch (EOFException e) {
+                // empty input
+                return false;
+            }
+            started = true;
+        }
+        return reader.peek() != JsonToken.END_DOCUMENT;
+    }
+
+    private void sample(int count) throws IOException {
+        final List<String> list = new ArrayList<>();
+        final Map<String, Integer> map = names;
+        int[] types = new int[0];
+        int[] digits = new int[0];
+        int[] scales = new int[0];
+        while (samples.size() < count && hasRecord()) {
+            final List<Object> cells = new ArrayList<>(list.size());
+            final JsonToken token = reader.peek();
+            if (token == JsonToken.BEGIN_OBJECT) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    final String name = reader.nextName();
+                    Integer index = map.get(name);
+                    if (index == null) {
+                        index = list.size();
+                        map.put(name, index);
+                        list.add(name);
+                    }
+                    while (cells.size() <= index) {
+                        cells.add(null);
+                    }
+                    cells.set(index, readCell(reader));
+                }
+                reader.endObject();
+            } else if (token == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    cells.add(readCell(reader));
+                }
+                reader.endArray();
+            } else {
+                cells.add(readCell(reader));
+            }
+
+            final int size = cells.size();
+            if (size > types.length) {
+                types = Arrays.copyOf(types, size);
+                digits = Arrays.copyOf(digits, size);
+                scales = Arrays.copyOf(scales, size);
+            }
+            for (int i = 0; i < size; i++) {
+                final Object cell = cells.get(i);
+                types[i] = merge(types[i], getKind(cell));
+                if (cell instanceof Number) {
+                    final BigDecimal v = cell instanceof BigDecimal ? (BigDecimal) cell
+                            : BigDecimal.valueOf((Long) cell);
+                    final int scale = Math.max(v.scale(), 0);
+                    digits[i] = Math.max(digits[i], v.precision() - v.scale());
+                    scales[i] = Math.max(scales[i], scale);
+                }
+            }
+            samples.add(cells.toArray());
+        }
+
+        final int len = types.length;
+        final List<Field> list2 = new ArrayList<>(len);
+        for (int i = 0; i < len; i++) {
+            final String name = i < list.size() ? list.get(i)
+                    : (len == 1 ? Field.DEFAULT.name() : "c" + (i + 1));
+            final JDBCType type;
+            int precision = 0;
+            int scale = 0;
+            switch (types[i]) {
+                case KIND_BOOLEAN:
+                    type = JDBCType.BOOLEAN;
+                    break;
+                case KIND_LONG:
+                    type = JDBCType.BIGINT;
+                    break;
+                case KIND_DOUBLE:
+                    type = JDBCType.DOUBLE;
+                    break;
+                case KIND_DECIMAL:
+                    type = JDBCType.DECIMAL;
+                    scale = scales[i];
+                    precision = Math.max(digits[i], 1) + scale;
+                    break;
+                default:
+                    types[i] = KIND_STRING;
+                    type = JDBCType.VARCHAR;
+                    break;
+            }
+            list2.add(Field.of(name, null, type, true, precision, scale, true));
+        }
+        init(Collections.unmodifiableList(list2), types);
+    }
+
+    private Value newValue(int index, boolean b) {
+        final Field f = fields.get(index);
+        switch (kinds[index]) {
+            case KIND_BOOLEAN:
+                return BooleanValue.of(factory, f.isNullable(), b);
+            case KIND_LONG:
+                return LongValue.of(factory, f.isNullable(), f.isSigned(), b ? 1L : 0L);
+            case KIND_DOUBLE:
+                return DoubleValue.of(factory, f.isNullable(), b ? 1D : 0D);
+            case KIND_DECIMAL:
+                return BigDecimalValue.of(factory, f.isNullable(), f.scale(), b ? BigDecimal.ONE : BigDecimal.ZERO);
+            default:
+                return StringValue.of(factory, f.isNullable(), f.precision(), String.valueOf(b));
+        }
+    }
+
+    private Value newValue(int index, String text, boolean number) throws IOException {
+        final Field f = fields.get(index);
+        final int kind = kinds[index];
+        if (kind == KIND_STRING) {
+            return StringValue.of(factory, f.isNullable(), f.precision(), text);
+        } else if (!number && text.isEmpty()) {
+            return newNull(index);
+        } else if (kind == KIND_BOOLEAN && !number
+                && (Boolean.TRUE.toString().equalsIgnoreCase(text)
+                        || Boolean.FALSE.toString().equalsIgnoreCase(text))) {
+            return BooleanValue.of(factory, f.isNullable(), Boolean.parseBoolean(text));
+        }
+
+        try {
+            switch (kind) {
+                case KIND_BOOLEAN:
+                    return BooleanValue.of(factory, f.isNullable(), new BigDecimal(text).signum() != 0);
+                case KIND_LONG:
+                    long l;
+                    try {
+                        l = Long.parseLong(text);
+                    } catch (NumberFormatException e) {
+                        // 2e3 and 2.0 are fine, but not 2.5
+                        l = new BigDecimal(text).longValueExact();
+                    }
+                    return LongValue.of(factory, f.isNullable(), f.isSigned(), l);
+                case KIND_DOUBLE:
+                    return DoubleValue.of(factory, f.isNullable(), Double.parseDouble(text));
+                default:
+                    return BigDecimalValue.of(factory, f.isNullable(), f.scale(), new BigDecimal(text));
+            }
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new IOException(
+                    Utils.format("Failed to convert [%s] to %s for column [%s]", text, f.type(), f.name()), e);
+        }
+    }
+
+    private Value newNull(int index) {
+        final Field f = fields.get(index);
+        final Value value;
+        switch (kinds[index]) {
+            case KIND_BOOLEAN:
+                value = BooleanValue.of(factory, f.isNullable());
+                break;
+            case KIND_LONG:
+                value = LongValue.of(factory, f.isNullable(), f.isSigned());
+                break;
+            case KIND_DOUBLE:
+                value = DoubleValue.of(factory, f.isNullable());
+                break;
+            case KIND_DECIMAL:
+                value = BigDecimalValue.of(factory, f.isNullable(), f.scale(), null);
+                break;
+            default:
+                value = StringValue.of(factory, f.isNullable(), f.precision());
+                break;
+        }
+        return value.resetToNull();
+    }
+
+    private Value readValue(int index) throws IOException {
+        switch (reader.peek()) {
+            case NULL:
+                reader.nextNull();
+                return newNull(index);
+            case BOOLEAN:
+                return newValue(index, reader.nextBoolean());
+            case NUMBER:
+                return newValue(index, reader.nextString(), true);
+            case BEGIN_ARRAY:
+            case BEGIN_OBJECT:
+                return newValue(index, copy(reader), false);
+            default:
+                return newValue(index, reader.nextString(), false);
+        }
+    }
+
+    Row toRow(Object[] cells) throws IOException {
+        final int len = kinds.length;
+        final Value[] values = new Value[len];
+        for (int i = 0; i < len; i++) {
+            final Object cell = i < cells.length ? cells[i] : null;
+            if (cell == null) {
+                values[i] = newNull(i);
+            } else if (cell instanceof Boolean) {
+                values[i] = newValue(i, (Boolean) cell);
+            } else if (cell instanceof Number) {
+                values[i] = newValue(i, cell.toString(), true);
+            } else {
+                values[i] = newValue(i, (String) cell, false);
+            }
+        }
+        return new DefaultRow(fields, values);
+    }
+
+    Row readRow() throws IOException {
+        final int len = kinds.length;
+        final Value[] values = new Value[len];
+        final JsonToken token = reader.peek();
+        if (token == JsonToken.BEGIN_OBJECT) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                final Integer index = names.get(reader.nextName());
+                if (index == null) {
+                    reader.skipValue();
+                } else {
+                    values[index] = readValue(index);
+                }
+            }
+            reader.endObject();
+        } else if (token == JsonToken.BEGIN_ARRAY) {
+            reader.beginArray();
+            int index = 0;
+            while (reader.hasNext()) {
+                if (index < len) {
+                    values[index] = readValue(index);
+                } else {
+                    reader.skipValue();
+                }
+                index++;
+            }
+            reader.endArray();
+        } else if (len > 0) {
+            values[0] = readValue(0);
+        } else {
+            reader.skipValue();
+        }
+
+        for (int i = 0; i < len; i++) {
+            if (values[i] == null) {
+                values[i] = newNull(i);
+            }
+        }
+        return new DefaultRow(fields, values);
+    }
+
+    /**
+     * Gets fields, which are either supplied or inferred.
+     *
+     * @return non-null fields
+     */
+    public List<Field> fields() {
+        return fields;
+    }
+
+    @Override
+    public Iterator<Row> iterator() {
+        return new JsonIterator(this);
+    }
+
+    @Override
+    public void close() throws IOException {
+        samples.clear();
+        reader.close();
+    }
+}
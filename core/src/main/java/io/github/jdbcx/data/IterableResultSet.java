@@ -64,16 +64,18 @@ public final class IterableResultSet implements Iterable<Row> {
     }
 
     static final class ResultSetIterator implements Iterator<Row> {
+        private final IterableResultSet ref;
         private final ResultSet rs;
         private final Row cursor;
 
         private int state; // 0 - before first; 1 - has next; 2 - eos
 
         ResultSetIterator(ResultSet rs) {
-            this(rs, null);
+            this(null, rs, null);
         }
 
-        ResultSetIterator(ResultSet rs, List<Field> fields) {
+        ResultSetIterator(IterableResultSet ref, ResultSet rs, List<Field> fields) {
+            this.ref = ref;
             this.rs = rs;
 
             final ValueFactory factory = ValueFactory.getInstance();
@@ -117,7 +119,14 @@ public final class IterableResultSet implements Iterable<Row> {
         public boolean hasNext() {
             try {
                 final boolean b = rs.next();
-                state = b ? 1 : 2;
+                if (b) {
+                    state = 1;
+                    if (ref != null) {
+                        ref.rowCount++; // NOSONAR only updated by the iterating thread
+                    }
+                } else {
+                    state = 2;
+                }
                 return b;
             } catch (SQLException e) {
                 throw new IllegalStateException(e);
@@ -136,6 +145,8 @@ public final class IterableResultSet implements Iterable<Row> {
     private final List<Field> fields;
     private final ResultSet rs;
 
+    private volatile long rowCount;
+
     public IterableResultSet(ResultSet rs) {
         this(rs, null);
     }
@@ -143,6 +154,16 @@ public final class IterableResultSet implements Iterable<Row> {
     public IterableResultSet(ResultSet rs, List<Field> fields) {
         this.rs = Checker.nonNull(rs, ResultSet.class);
         this.fields = fields;
+        this.rowCount = 0L;
+    }
+
+    /**
+     * Gets number of rows have been read so far.
+     *
+     * @return number of rows have been read
+     */
+    public long getRowCount() {
+        return rowCount;
     }
 
     @Override
@@ -164,6 +185,6 @@ public final class IterableResultSet implements Iterable<Row> {
         // // ignore
         // }
 
-        return new ResultSetIterator(rs, fields);
+        return new ResultSetIterator(this, rs, fields);
     }
 }
@@ -0,0 +1,472 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.data;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.reactivestreams.Subscription;
+
+import io.github.jdbcx.Field;
+import io.github.jdbcx.Result;
+import io.github.jdbcx.Row;
+import io.github.jdbcx.Serialization;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive views of {@link Result}, built on reactor-core, which is an optional
+ * dependency. {@link Flux} implements {@code org.reactivestreams.Publisher},
+ * and it can be turned into {@code java.util.concurrent.Flow.Publisher} using
+ * {@code JdkFlowAdapter} on Java 9 and above.
+ *
+ * <p>
+ * Rows are pulled from the result only when requested, so a slow subscriber
+ * will not be flooded by a fast source. Since rows like the ones from
+ * {@link IterableResultSet} are cursors, they should be consumed before the
+ * next one is requested. Use {@link #batches(Result, int, int, long)} to copy
+ * rows into {@link IterableBuffer}, which can be handed over to another thread,
+ * and {@link #serialize(List, Flux, int, Serialization, OutputStream)} to write
+ * them out with bounded demand.
+ */
+public final class ReactiveRows {
+    static final class LimitedIterator implements Iterator<Row> {
+        private final Iterator<Row> it;
+
+        private int remaining;
+        private boolean done;
+
+        LimitedIterator(Iterator<Row> it) {
+            this.it = it;
+            this.remaining = 0;
+            this.done = false;
+        }
+
+        LimitedIterator reset(int limit) {
+            this.remaining = limit;
+            return this;
+        }
+
+        boolean isDone() {
+            return done;
+        }
+
+        @Override
+        public boolean hasNext() {
+            // hasNext() of the underlying iterator may advance the cursor, so call it only once per row
+            if (remaining <= 0 || done) {
+                return false;
+            } else if (!it.hasNext()) {
+                done = true;
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public Row next() {
+            if (remaining <= 0 || done) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            return it.next();
+        }
+    }
+
+    /**
+     * Bounded ring of buffers. Buffers closed by the subscriber come back to the
+     * ring for the next batch, so that memory chunks are reused instead of being
+     * allocated for each batch. A new buffer is created when the ring is empty,
+     * and buffers exceeding the capacity, or coming back after the ring is
+     * closed, are released.
+     */
+    static final class BufferRing {
+        private final BlockingQueue<IterableBuffer> free;
+
+        private volatile boolean closed;
+
+        BufferRing(int capacity) {
+            this.free = new ArrayBlockingQueue<>(capacity);
+            this.closed = false;
+        }
+
+        IterableBuffer fill(List<Field> fields, Iterable<Row> rows, long memoryLimit) throws IOException {
+            final IterableBuffer buffer = free.poll();
+            if (buffer == null) {
+                return IterableBuffer.of(fields, rows, memoryLimit).recycleWith(this::recycle);
+            }
+            buffer.refill(rows);
+            return buffer;
+        }
+
+        void recycle(IterableBuffer buffer) {
+            if (closed || !free.offer(buffer)) {
+                buffer.release();
+            } else if (closed) {
+                drain();
+            }
+        }
+
+        int size() {
+            return free.size();
+        }
+
+        void close() {
+            closed = true;
+            drain();
+        }
+
+        private void drain() {
+            IterableBuffer buffer;
+            while ((buffer = free.poll()) != null) {
+                buffer.release();
+            }
+        }
+    }
+
+    /**
+     * State of {@link #batches(Result, int, int, long)}, which is only accessed by
+     * the producer. Reactor never calls the generator and the cleanup at the same
+     * time, so the result is not closed in the middle of reading.
+     */
+    static final class BatchState {
+        private final Result<?> result;
+        private final BufferRing ring;
+
+        private LimitedIterator rows;
+
+        BatchState(Result<?> result, int ringSize) {
+            this.result = result;
+            this.ring = new BufferRing(ringSize);
+            this.rows = null;
+        }
+
+        LimitedIterator rows() {
+            if (rows == null) {
+                rows = new LimitedIterator(result.rows().iterator());
+            }
+            return rows;
+        }
+
+        void close() {
+            try {
+                result.close();
+            } finally {
+                ring.close();
+            }
+        }
+    }
+
+    /**
+     * Subscriber feeding batches to a consumer pulling rows, usually a
+     * serializer. It requests {@code prefetch} batches upon subscription, and
+     * one more whenever the consumer moves on to the next batch, so the producer
+     * never runs more than {@code prefetch} batches ahead. Closing it cancels the
+     * subscription.
+     */
+    static final class BatchSubscriber implements CoreSubscriber<IterableBuffer>, Iterable<Row>, AutoCloseable {
+        private static final Object COMPLETE = new Object();
+
+        private final Flux<IterableBuffer> batches;
+        private final int prefetch;
+        // batches, followed by either COMPLETE or an error
+        private final BlockingQueue<Object> queue;
+        private final AtomicReference<Subscription> subscription;
+        private final AtomicBoolean subscribed;
+
+        private volatile boolean cancelled;
+
+        BatchSubscriber(Flux<IterableBuffer> batches, int prefetch) {
+            this.batches = batches;
+            this.prefetch = prefetch;
+            this.queue = new ArrayBlockingQueue<>(prefetch + 1);
+            this.subscription = new AtomicReference<>();
+            this.subscribed = new AtomicBoolean();
+            this.cancelled = false;
+        }
+
+        private void drain() {
+            Object obj;
+            while ((obj = queue.poll()) != null) {
+                if (obj instanceof IterableBuffer) {
+                    ((IterableBuffer) obj).close();
+                }
+            }
+        }
+
+        Object take() {
+            try {
+                final Object obj = queue.take();
+                if (obj instanceof IterableBuffer) {
+                    subscription.get().request(1L);
+                }
+                return obj;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                throw new IllegalStateException("Interrupted while waiting for next batch", e);
+            }
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            if (!subscription.compareAndSet(null, s) || cancelled) {
+                s.cancel();
+            } else {
+                s.request(prefetch);
+            }
+        }
+
+        @Override
+        public void onNext(IterableBuffer buffer) {
+            if (cancelled || !queue.offer(buffer)) {
+                buffer.close();
+            } else if (cancelled) {
+                drain();
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            queue.offer(t); // NOSONAR
+        }
+
+        @Override
+        public void onComplete() {
+            queue.offer(COMPLETE); // NOSONAR
+        }
+
+        @Override
+        public Iterator<Row> iterator() {
+            if (!subscribed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Batches can only be iterated once");
+            }
+            batches.subscribe(this);
+            return new Iterator<Row>() {
+                private IterableBuffer current;
+                private Iterator<Row> rows;
+                private boolean done;
+
+                @Override
+                public boolean hasNext() {
+                    while (!done && (rows == null || !rows.hasNext())) {
+                        if (current != null) {
+                            current.close();
+                            current = null;
+                        }
+
+                        final Object obj = take();
+                        if (obj instanceof IterableBuffer) {
+                            current = (IterableBuffer) obj;
+                            rows = current.iterator();
+                        } else {
+                            done = true;
+                            if (obj instanceof RuntimeException) {
+                                throw (RuntimeException) obj;
+                            } else if (obj instanceof Error) {
+                                throw (Error) obj;
+                            } else if (obj instanceof Throwable) {
+                                throw new IllegalStateException((Throwable) obj);
+                            }
+                        }
+                    }
+                    return !done;
+                }
+
+                @Override
+                public Row next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return rows.next();
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            cancelled = true;
+            final Subscription s = subscription.getAndSet(Operators.cancelledSubscription());
+            if (s != null) {
+                s.cancel();
+            }
+            drain();
+        }
+    }
+
+    /**
+     * Creates a cold {@link Flux} of rows from the given result, which will be
+     * closed when the flux terminates or gets cancelled, but never in the middle
+     * of reading a row. Rows are read on the thread requesting them, and the
+     * same row instance may be reused for the next one.
+     *
+     * @param result non-null result
+     * @return non-null flux of rows
+     */
+    public static Flux<Row> of(Result<?> result) {
+        if (result == null) {
+            throw new IllegalArgumentException("Non-null result is required");
+        }
+        return Flux.<Row, Iterator<Row>>generate(() -> result.rows().iterator(), (it, sink) -> {
+            if (it.hasNext()) {
+                sink.next(it.next());
+            } else {
+                sink.complete();
+            }
+            return it;
+        }, it -> result.close());
+    }
+
+    /**
+     * Creates a cold {@link Flux} of batches from the given result, using a ring
+     * of two buffers. Same as {@code batches(result, batchSize, 2, memoryLimit)}.
+     *
+     * @param result      non-null result
+     * @param batchSize   maximum number of rows in a batch, must be positive
+     * @param memoryLimit maximum bytes of direct memory for each batch
+     * @return non-null flux of batches
+     */
+    public static Flux<IterableBuffer> batches(Result<?> result, int batchSize, long memoryLimit) {
+        return batches(result, batchSize, 2, memoryLimit);
+    }
+
+    /**
+     * Creates a cold {@link Flux} of batches from the given result, which will be
+     * closed on the producer thread when the flux terminates, or whenever it's
+     * cancelled but never in the middle of reading. Each batch holds up to
+     * {@code batchSize} rows copied into an {@link IterableBuffer}, and it must be
+     * closed by the subscriber. Closed batches go back to a ring of at most
+     * {@code ringSize} buffers to be reused, so the subscriber should stop
+     * reading a batch once it's closed. Batches discarded due to cancellation or
+     * error are closed automatically.
+     *
+     * @param result      non-null result
+     * @param batchSize   maximum number of rows in a batch, must be positive
+     * @param ringSize    maximum number of buffers to keep for reuse, must be
+     *                    positive
+     * @param memoryLimit maximum bytes of direct memory for each batch
+     * @return non-null flux of batches
+     */
+    public static Flux<IterableBuffer> batches(Result<?> result, int batchSize, int ringSize, long memoryLimit) {
+        if (result == null) {
+            throw new IllegalArgumentException("Non-null result is required");
+        } else if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        } else if (ringSize <= 0) {
+            throw new IllegalArgumentException("Ring size must be positive");
+        }
+
+        final List<Field> fields = result.fields();
+        return Flux.<IterableBuffer, BatchState>generate(() -> new BatchState(result, ringSize), (state, sink) -> {
+            final LimitedIterator it = state.rows();
+            if (it.isDone()) {
+                sink.complete();
+                return state;
+            }
+
+            try {
+                final IterableBuffer buffer = state.ring.fill(fields, () -> it.reset(batchSize), memoryLimit);
+                if (buffer.size() > 0L) {
+                    sink.next(buffer);
+                } else {
+                    buffer.close();
+                    sink.complete();
+                }
+            } catch (IOException e) {
+                sink.error(new UncheckedIOException(e));
+            }
+            return state;
+        }, BatchState::close).doOnDiscard(IterableBuffer.class, IterableBuffer::close);
+    }
+
+    /**
+     * Creates a result reading rows from the given batches. It subscribes on
+     * first access to {@link Result#rows()}, and requests at most
+     * {@code prefetch} batches ahead of the consumer. Closing the result cancels
+     * the subscription.
+     *
+     * @param fields   non-null fields
+     * @param batches  non-null flux of batches
+     * @param prefetch maximum number of batches to request ahead, must be
+     *                 positive
+     * @return non-null result
+     */
+    public static Result<?> toResult(List<Field> fields, Flux<IterableBuffer> batches, int prefetch) { // NOSONAR
+        if (fields == null || batches == null) {
+            throw new IllegalArgumentException("Non-null fields and batches are required");
+        } else if (prefetch <= 0) {
+            throw new IllegalArgumentException("Prefetch must be positive");
+        }
+        return Result.of(fields, new BatchSubscriber(batches, prefetch));
+    }
+
+    /**
+     * Serializes rows in the given batches as they arrive. The serializer sits
+     * behind a subscriber, which requests at most {@code prefetch} batches ahead
+     * of it, so encoding and writing overlap with fetching on the producer
+     * thread, while a slow output stream holds back the producer. The
+     * subscription is cancelled when serialization fails.
+     *
+     * @param fields   non-null fields
+     * @param batches  non-null flux of batches
+     * @param prefetch maximum number of batches to request ahead, must be
+     *                 positive
+     * @param serde    non-null serializer
+     * @param out      non-null output stream
+     * @throws IOException when failed to serialize
+     */
+    public static void serialize(List<Field> fields, Flux<IterableBuffer> batches, int prefetch, Serialization serde,
+            OutputStream out) throws IOException {
+        if (serde == null || out == null) {
+            throw new IllegalArgumentException("Non-null serializer and output stream are required");
+        }
+        try (Result<?> result = toResult(fields, batches, prefetch)) {
+            serde.serialize(result, out);
+        }
+    }
+
+    /**
+     * Creates a result that reads ahead of its consumer. Rows are fetched from
+     * the given result on a separate thread, in batches of {@code batchSize},
+     * with at most {@code prefetch} batches in flight. This overlaps fetching
+     * with serialization and writing, while memory usage stays bounded.
+     *
+     * @param result      non-null result
+     * @param batchSize   maximum number of rows in a batch, must be positive
+     * @param prefetch    maximum number of batches to fetch ahead, must be
+     *                    positive
+     * @param memoryLimit maximum bytes of direct memory for each batch
+     * @return non-null result
+     */
+    public static Result<?> prefetch(Result<?> result, int batchSize, int prefetch, long memoryLimit) { // NOSONAR
+        // one more buffer for each of the consumer and the producer
+        return toResult(result.fields(), batches(result, batchSize, prefetch + 2, memoryLimit)
+                .subscribeOn(Schedulers.boundedElastic()), prefetch);
+    }
+
+    private ReactiveRows() {
+    }
+}
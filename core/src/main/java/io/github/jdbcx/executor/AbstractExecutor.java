@@ -15,10 +15,10 @@
  */
 package io.github.jdbcx.executor;
 
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.nio.charset.Charset;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Properties;
@@ -34,6 +34,7 @@ import java.util.concurrent.TimeoutException;
 import java.util.function.Supplier;
 
 import io.github.jdbcx.Checker;
+import io.github.jdbcx.ConfigSnapshot;
 import io.github.jdbcx.Constants;
 import io.github.jdbcx.Executor;
 import io.github.jdbcx.Logger;
@@ -121,6 +122,14 @@ abstract class AbstractExecutor implements Executor {
                 Utils.format("The execution was interrupted due to a timeout after waiting for %d ms.", timeout));
     }
 
+    private static final ConfigSnapshot.Layout LAYOUT = ConfigSnapshot.Layout.of(Option.INPUT_CHARSET,
+            Option.OUTPUT_CHARSET, Option.WORK_DIRECTORY, Option.RESULT_TYPE, Option.EXEC_DRYRUN, Option.EXEC_ERROR,
+            Option.INPUT_FILE, Option.EXEC_PARALLELISM, Option.EXEC_TIMEOUT);
+    private static final int SLOT_RESULT_TYPE = LAYOUT.slotOf(Option.RESULT_TYPE);
+    private static final int SLOT_DRYRUN = LAYOUT.slotOf(Option.EXEC_DRYRUN);
+    private static final int SLOT_PARALLELISM = LAYOUT.slotOf(Option.EXEC_PARALLELISM);
+    private static final int SLOT_TIMEOUT = LAYOUT.slotOf(Option.EXEC_TIMEOUT);
+
     private static final ExecutorService executor;
     private static final ScheduledExecutorService scheduler;
 
@@ -132,12 +141,25 @@ abstract class AbstractExecutor implements Executor {
             coreThreads = Constants.MIN_CORE_THREADS;
         }
 
-        executor = Threads.newPool("JdbcxWorker-", coreThreads, coreThreads, 0, 0, false);
+        if (Boolean.parseBoolean(Option.WORKER_VIRTUAL.getJdbcxValue(System.getProperties()))
+                && Threads.hasVirtualThreads()) {
+            executor = Threads.newVirtualPool("JdbcxWorker-");
+        } else {
+            executor = Threads.newPool("JdbcxWorker-", coreThreads, coreThreads, 0, 0, false);
+        }
         scheduler = Threads.newSingleThreadScheduler("JdbcxScheduler-");
     }
 
     protected final VariableTag defaultTag;
 
+    /**
+     * Properties used to create the executor, which are usually passed again on
+     * each execution of the same block. They're resolved into the default values
+     * below once, so per-execution getters only look up and parse options when
+     * given different properties carrying per-execution overrides.
+     */
+    private final Properties config;
+
     protected final boolean defaultBinary;
     protected final boolean defaultDryRun;
     protected final String defaultErrorHandling;
@@ -151,20 +173,22 @@ abstract class AbstractExecutor implements Executor {
     protected AbstractExecutor(VariableTag tag, Properties props) {
         this.defaultTag = tag != null ? tag : VariableTag.BRACE;
 
-        String inputCharset = Option.INPUT_CHARSET.getValue(props);
-        String outputCharset = Option.OUTPUT_CHARSET.getValue(props);
-        String workDir = Option.WORK_DIRECTORY.getValue(props);
+        final ConfigSnapshot config = LAYOUT.snapshot(props);
+        this.config = props;
+        String inputCharset = config.getValue(Option.INPUT_CHARSET);
+        String outputCharset = config.getValue(Option.OUTPUT_CHARSET);
+        String workDir = config.getValue(Option.WORK_DIRECTORY);
 
-        this.defaultBinary = Option.TYPE_BINARY.equals(Option.RESULT_TYPE.getValue(props));
-        this.defaultDryRun = Boolean.parseBoolean(Option.EXEC_DRYRUN.getValue(props));
-        this.defaultErrorHandling = Option.EXEC_ERROR.getValue(props);
-        this.defaultInputFile = Option.INPUT_FILE.getValue(props);
+        this.defaultBinary = Option.TYPE_BINARY.equals(config.getValue(SLOT_RESULT_TYPE));
+        this.defaultDryRun = config.getBoolean(SLOT_DRYRUN);
+        this.defaultErrorHandling = config.getValue(Option.EXEC_ERROR);
+        this.defaultInputFile = config.getValue(Option.INPUT_FILE);
         this.defaultInputCharset = !Checker.isNullOrBlank(inputCharset) ? Charset.forName(inputCharset)
                 : Constants.DEFAULT_CHARSET;
         this.defaultOutputCharset = !Checker.isNullOrBlank(outputCharset) ? Charset.forName(outputCharset)
                 : Constants.DEFAULT_CHARSET;
-        this.defaultParallelism = Integer.parseInt(Option.EXEC_PARALLELISM.getValue(props));
-        this.defaultTimeout = Integer.parseInt(Option.EXEC_TIMEOUT.getValue(props));
+        this.defaultParallelism = config.getInt(SLOT_PARALLELISM);
+        this.defaultTimeout = config.getInt(SLOT_TIMEOUT);
         if (Checker.isNullOrEmpty(workDir)) {
             this.defaultWorkDir = Paths.get(Constants.CURRENT_DIR);
         } else {
@@ -178,9 +202,9 @@ abstract class AbstractExecutor implements Executor {
         }
 
         try {
-            final String content = Stream.readAllAsString(new FileInputStream(file), charset);
+            final String content = Stream.readAllAsString(Paths.get(file), charset);
             return Checker.isNullOrEmpty(content) ? defaultContent : content;
-        } catch (IOException e) {
+        } catch (IOException | InvalidPathException e) {
             throw new IllegalArgumentException(e);
         }
     }
@@ -210,8 +234,8 @@ abstract class AbstractExecutor implements Executor {
     }
 
     protected final <T> CompletableFuture<T> supply(Supplier<T> supplier, Properties props) {
-        int parallelism = Integer.parseInt(Option.EXEC_PARALLELISM.getValue(props));
-        return supply(supplier, parallelism);
+        return supply(supplier, isSnapshot(props) ? defaultParallelism
+                : Integer.parseInt(Option.EXEC_PARALLELISM.getValue(props)));
     }
 
     protected final <T> CompletableFuture<T> supply(Supplier<T> supplier, int parallelism) {
@@ -283,13 +307,30 @@ abstract class AbstractExecutor implements Executor {
         return defaultWorkDir;
     }
 
+    /**
+     * Checks whether the given properties are the ones used to create the
+     * executor, so that resolved default values can be used as is.
+     *
+     * @param props optional properties
+     * @return true if default values can be used; false otherwise
+     */
+    protected final boolean isSnapshot(Properties props) {
+        return props == null || props == config;
+    }
+
     public boolean getBinary(Properties props) {
-        String value = props != null ? props.getProperty(Option.RESULT_TYPE.getName()) : null;
+        if (isSnapshot(props)) {
+            return defaultBinary;
+        }
+        String value = props.getProperty(Option.RESULT_TYPE.getName());
         return value != null ? Option.TYPE_BINARY.equals(value) : defaultBinary;
     }
 
     public boolean getDryRun(Properties props) {
-        String value = props != null ? props.getProperty(Option.EXEC_DRYRUN.getName()) : null;
+        if (isSnapshot(props)) {
+            return defaultDryRun;
+        }
+        String value = props.getProperty(Option.EXEC_DRYRUN.getName());
         return value != null ? Boolean.parseBoolean(value) : defaultDryRun;
     }
 
@@ -299,28 +340,43 @@ abstract class AbstractExecutor implements Executor {
     }
 
     public Charset getInputCharset(Properties props) {
-        String value = props != null ? props.getProperty(Option.INPUT_CHARSET.getName()) : null;
+        if (isSnapshot(props)) {
+            return defaultInputCharset;
+        }
+        String value = props.getProperty(Option.INPUT_CHARSET.getName());
         return value != null ? Charset.forName(value) : defaultInputCharset;
     }
 
     public Charset getOutputCharset(Properties props) {
-        String value = props != null ? props.getProperty(Option.OUTPUT_CHARSET.getName()) : null;
+        if (isSnapshot(props)) {
+            return defaultOutputCharset;
+        }
+        String value = props.getProperty(Option.OUTPUT_CHARSET.getName());
         return value != null ? Charset.forName(value) : defaultOutputCharset;
     }
 
     public int getParallelism(Properties props) {
-        String value = props != null ? props.getProperty(Option.EXEC_PARALLELISM.getName()) : null;
+        if (isSnapshot(props)) {
+            return defaultParallelism;
+        }
+        String value = props.getProperty(Option.EXEC_PARALLELISM.getName());
         return value != null ? Integer.parseInt(value) : defaultParallelism;
     }
 
     public int getTimeout(Properties props) {
-        String value = props != null ? props.getProperty(Option.EXEC_TIMEOUT.getName()) : null;
+        if (isSnapshot(props)) {
+            return defaultTimeout;
+        }
+        String value = props.getProperty(Option.EXEC_TIMEOUT.getName());
         return value != null ? Integer.parseInt(value) : defaultTimeout;
     }
 
     public Path getWorkDirectory(Properties props) {
+        if (isSnapshot(props)) {
+            return defaultWorkDir;
+        }
         final Path workDir;
-        String value = props != null ? props.getProperty(Option.WORK_DIRECTORY.getName()) : null;
+        String value = props.getProperty(Option.WORK_DIRECTORY.getName());
         if (value != null) {
             if (Checker.isNullOrEmpty(value)) {
                 workDir = Paths.get(Constants.CURRENT_DIR);
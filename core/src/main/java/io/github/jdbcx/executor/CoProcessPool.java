@@ -0,0 +1,576 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.executor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import io.github.jdbcx.Constants;
+import io.github.jdbcx.Logger;
+import io.github.jdbcx.LoggerFactory;
+import io.github.jdbcx.Threads;
+import io.github.jdbcx.Utils;
+
+/**
+ * A bounded pool of long-lived worker processes sharing the same command line.
+ * Instead of reading until EOF, each worker exchanges typed, length-prefixed
+ * frames over its standard input and output:
+ * <ul>
+ * <li>request: {@code <type> <length>\n} followed by {@code length} bytes of
+ * payload, where {@code type} is one of {@code a} for an argument of the call,
+ * {@code i} for input of the call, and {@code p} for a health check. A call is
+ * zero or more argument frames followed by one input frame, which could be
+ * empty.</li>
+ * <li>response: {@code <status> <length>\n} followed by {@code length} bytes of
+ * output, or error message when {@code status} is not zero. Each input frame
+ * and health check is answered by exactly one response.</li>
+ * </ul>
+ * Workers are expected to exit when their standard input is closed. Size, idle
+ * timeout and health check interval can be changed at any time, and idle
+ * workers are evicted and health checked on a thread owned by the pool.
+ */
+final class CoProcessPool {
+    private static final Logger log = LoggerFactory.getLogger(CoProcessPool.class);
+
+    static final char FRAME_ARGUMENT = 'a';
+    static final char FRAME_INPUT = 'i';
+    static final char FRAME_PING = 'p';
+
+    static final int MAX_HEADER_LENGTH = 64;
+    static final long HEALTH_CHECK_TIMEOUT = 5000L;
+
+    /**
+     * Adapter for commands not speaking the framed protocol. It's a POSIX shell
+     * loop, which takes the command line as positional parameters, and runs it
+     * once per call with arguments of the call appended. Input of the call is
+     * saved into a temporary file for the command to read, and stderr is
+     * returned as error message when the command exits with non-zero code.
+     * Frames are read using single-block {@code dd}, because {@code head -c} is
+     * not POSIX and may read ahead from the pipe on some platforms.
+     */
+    static final String SHELL_ADAPTER = "n=$#; d=$(mktemp -d) || exit 1; trap 'rm -rf \"$d\"' EXIT\n"
+            + "r() { : > \"$d/$1\"; m=$l; while [ $m -gt 0 ]; do b=$m; [ $b -le 65536 ] || b=65536\n"
+            + "  dd bs=$b count=1 2>/dev/null >> \"$d/$1\"; z=$((l - $(wc -c < \"$d/$1\")))\n"
+            + "  [ $z -lt $m ] || exit 3; m=$z; done; }\n"
+            + "while read -r t l; do\n"
+            + "  case \"$t\" in\n"
+            + "  a) r a; v=$(cat \"$d/a\"; echo x); set -- \"$@\" \"${v%x}\" ;;\n"
+            + "  i) r i; \"$@\" < \"$d/i\" > \"$d/o\" 2> \"$d/e\"; s=$?\n"
+            + "     if [ $s -ne 0 ]; then mv \"$d/e\" \"$d/o\"; fi\n"
+            + "     printf '%d %d\\n' \"$s\" $(($(wc -c < \"$d/o\"))); cat \"$d/o\"\n"
+            + "     c=$#; k=0; for v do [ $k -lt $n ] && set -- \"$@\" \"$v\"; k=$((k+1)); done; shift $c ;;\n"
+            + "  p) printf '0 0\\n' ;;\n"
+            + "  *) exit 2 ;;\n"
+            + "  esac\n"
+            + "done";
+
+    static final class Worker {
+        final Process process;
+        private final InputStream in;
+        private final OutputStream out;
+
+        private volatile long lastUsed;
+
+        Worker(Process process) {
+            this.process = process;
+            this.in = new BufferedInputStream(process.getInputStream(), Constants.DEFAULT_BUFFER_SIZE);
+            this.out = new BufferedOutputStream(process.getOutputStream(), Constants.DEFAULT_BUFFER_SIZE);
+
+            this.lastUsed = System.currentTimeMillis();
+        }
+
+        String readHeader() throws IOException {
+            StringBuilder builder = new StringBuilder();
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b == -1) {
+                    throw new EOFException("Worker process closed its output");
+                } else if (builder.length() >= MAX_HEADER_LENGTH) {
+                    throw new IOException("Frame header is too long: " + builder);
+                } else if (b != '\r') {
+                    builder.append((char) b);
+                }
+            }
+            return builder.toString().trim();
+        }
+
+        void write(char type, byte[] payload) throws IOException {
+            out.write(type);
+            out.write(' ');
+            out.write(Integer.toString(payload.length).getBytes(StandardCharsets.US_ASCII));
+            out.write('\n');
+            out.write(payload);
+        }
+
+        void send(byte[] request, String... args) throws IOException {
+            if (args != null) {
+                for (String arg : args) {
+                    if (arg != null) {
+                        write(FRAME_ARGUMENT, arg.getBytes(Constants.DEFAULT_CHARSET));
+                    }
+                }
+            }
+            write(FRAME_INPUT, request);
+            out.flush();
+        }
+
+        byte[] receive() throws IOException {
+            final String header = readHeader();
+            final int index = header.indexOf(' ');
+            final int status;
+            final int length;
+            try {
+                status = index > 0 ? Integer.parseInt(header.substring(0, index)) : 0;
+                length = Integer.parseInt(index > 0 ? header.substring(index + 1).trim() : header);
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed frame header: " + header);
+            }
+            if (length < 0) {
+                throw new IOException("Negative frame length: " + header);
+            }
+
+            byte[] bytes = new byte[length];
+            int offset = 0;
+            while (offset < length) {
+                int len = in.read(bytes, offset, length - offset);
+                if (len == -1) {
+                    throw new EOFException(
+                            Utils.format("Worker process closed its output after %d of %d bytes", offset, length));
+                }
+                offset += len;
+            }
+
+            if (status != 0) {
+                throw new IllegalStateException(new String(bytes, Constants.DEFAULT_CHARSET));
+            }
+            return bytes;
+        }
+
+        /**
+         * Sends a call and waits for its response.
+         *
+         * @param request non-null input of the call
+         * @param args    optional arguments of the call
+         * @return non-null response
+         * @throws IOException           when the worker failed to respond
+         * @throws IllegalStateException when the worker responded with non-zero
+         *                               status
+         */
+        byte[] exchange(byte[] request, String... args) throws IOException {
+            send(request, args);
+            return receive();
+        }
+
+        boolean sendPing() {
+            try {
+                write(FRAME_PING, Constants.EMPTY_BYTE_ARRAY);
+                out.flush();
+                return true;
+            } catch (IOException e) {
+                log.debug("Health check of worker process %s failed due to %s", process, e.getMessage());
+            }
+            return false;
+        }
+
+        boolean awaitPing(long deadline) {
+            try {
+                while (in.available() <= 0) {
+                    if (!process.isAlive() || System.currentTimeMillis() >= deadline) {
+                        return false;
+                    }
+                    Thread.sleep(10L);
+                }
+                receive();
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) { // NOSONAR
+                log.debug("Health check of worker process %s failed due to %s", process, e.getMessage());
+            }
+            return false;
+        }
+
+        boolean ping(long timeoutMs) {
+            return sendPing() && awaitPing(System.currentTimeMillis() + timeoutMs);
+        }
+
+        boolean isAlive() {
+            return process.isAlive();
+        }
+
+        void destroy() {
+            try {
+                out.close();
+            } catch (IOException e) {
+                // ignore
+            }
+            if (process.isAlive()) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private final List<String> command;
+    private final Path workDir;
+    private final Consumer<CoProcessPool> idleListener;
+
+    private final Deque<Worker> idle;
+    private int size;
+    private long idleTimeout;
+    private long healthInterval;
+    private int total;
+    private boolean closed;
+    private long lastUsed;
+    private long lastChecked;
+
+    private ScheduledExecutorService sweeper;
+    private ScheduledFuture<?> sweeping;
+    private long sweepInterval;
+
+    CoProcessPool(List<String> command, Path workDir, int size, long idleTimeout) {
+        this(command, workDir, null);
+        configure(size, idleTimeout, 0L);
+    }
+
+    /**
+     * Creates an empty pool, which must be configured by
+     * {@link #configure(int, long, long)} before use.
+     *
+     * @param command      non-null command line
+     * @param workDir      optional work directory
+     * @param idleListener optional listener to be notified when there's no
+     *                     worker and the pool has not been used for idle timeout
+     */
+    CoProcessPool(List<String> command, Path workDir, Consumer<CoProcessPool> idleListener) {
+        this.command = Collections.unmodifiableList(new ArrayList<>(command));
+        this.workDir = workDir;
+        this.idleListener = idleListener;
+
+        this.idle = new ArrayDeque<>();
+        this.size = 1;
+        this.idleTimeout = 0L;
+        this.healthInterval = 0L;
+        this.total = 0;
+        this.closed = false;
+        this.lastUsed = System.currentTimeMillis();
+        this.lastChecked = this.lastUsed;
+
+        this.sweeper = null;
+        this.sweeping = null;
+        this.sweepInterval = 0L;
+    }
+
+    /**
+     * Updates settings of the pool, and marks the pool as used. Extra workers are
+     * stopped when they're returned to the pool.
+     *
+     * @param size           maximum number of workers, at least one
+     * @param idleTimeout    time in milliseconds before an idle worker is
+     *                       stopped, zero or negative number means no eviction
+     * @param healthInterval interval in milliseconds between health checks of
+     *                       idle workers, zero or negative number disables
+     *                       health checks
+     */
+    synchronized void configure(int size, long idleTimeout, long healthInterval) {
+        this.size = size < 1 ? 1 : size;
+        this.idleTimeout = idleTimeout;
+        this.healthInterval = healthInterval;
+        this.lastUsed = System.currentTimeMillis();
+        notifyAll();
+
+        long interval = healthInterval > 0L ? healthInterval : 0L;
+        if (idleTimeout > 0L && (interval == 0L || idleTimeout < interval)) {
+            interval = idleTimeout;
+        }
+        if (closed || interval == sweepInterval) {
+            return;
+        }
+        if (sweeping != null) {
+            sweeping.cancel(false);
+            sweeping = null;
+        }
+        sweepInterval = interval;
+        if (interval > 0L) {
+            if (sweeper == null) {
+                sweeper = Threads.newSingleThreadScheduler("CoProcessPool-");
+            }
+            sweeping = sweeper.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    Worker start() throws IOException {
+        ProcessBuilder builder = new ProcessBuilder(command);
+        if (workDir != null) {
+            builder.directory(workDir.toFile());
+        }
+        // stderr is neither framed nor consumed, so it must not block the worker
+        builder.redirectError(new File(Constants.IS_WINDOWS ? "NUL" : "/dev/null"));
+        log.debug("Starting worker process %s", command);
+        return new Worker(builder.start());
+    }
+
+    List<String> getCommand() {
+        return command;
+    }
+
+    synchronized int getSize() {
+        return size;
+    }
+
+    synchronized int getIdleWorkers() {
+        return idle.size();
+    }
+
+    synchronized int getTotalWorkers() {
+        return total;
+    }
+
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Borrows a worker, which must be returned by {@link #release(Worker, boolean)}
+     * later. Dead workers found in the pool are replaced by new ones.
+     *
+     * @param timeoutMs maximum time in milliseconds to wait for an available
+     *                  worker, zero or negative number means no timeout
+     * @return non-null worker
+     * @throws IOException      when failed to start a new worker, or the pool
+     *                          has been closed
+     * @throws TimeoutException when timed out waiting for an available worker
+     */
+    Worker borrow(long timeoutMs) throws IOException, TimeoutException {
+        final long deadline = timeoutMs > 0L ? System.currentTimeMillis() + timeoutMs : 0L;
+        synchronized (this) {
+            while (true) {
+                if (closed) {
+                    throw new IOException("Worker pool has been closed");
+                }
+
+                lastUsed = System.currentTimeMillis();
+                Worker w;
+                while ((w = idle.pollFirst()) != null) {
+                    if (w.isAlive()) {
+                        return w;
+                    }
+                    log.debug("Replacing dead worker process %s", command);
+                    w.destroy();
+                    total--;
+                }
+
+                if (total < size) {
+                    total++;
+                    break;
+                }
+
+                try {
+                    if (deadline == 0L) {
+                        wait();
+                    } else {
+                        long remain = deadline - System.currentTimeMillis();
+                        if (remain <= 0L) {
+                            throw new TimeoutException(
+                                    Utils.format("Timed out after waiting %d ms for an idle worker", timeoutMs));
+                        }
+                        wait(remain);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for an idle worker");
+                }
+            }
+        }
+
+        boolean started = false;
+        try {
+            Worker w = start();
+            started = true;
+            return w;
+        } finally {
+            if (!started) {
+                synchronized (this) {
+                    total--;
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a borrowed worker to the pool.
+     *
+     * @param worker  non-null worker
+     * @param healthy whether the worker is still usable, {@code false} destroys
+     *                the worker so that a new one will be started on demand
+     */
+    void release(Worker worker, boolean healthy) {
+        final boolean keep;
+        synchronized (this) {
+            keep = healthy && !closed && total <= size && worker.isAlive();
+            if (keep) {
+                lastUsed = worker.lastUsed = System.currentTimeMillis();
+                // most recently used first, so that the rest can go idle and get evicted
+                idle.addFirst(worker);
+            } else {
+                total--;
+            }
+            notifyAll();
+        }
+        if (!keep) {
+            worker.destroy();
+        }
+    }
+
+    /**
+     * Evicts idle workers and health checks the others when it's time to, and
+     * notifies the idle listener when the pool is no longer in use.
+     */
+    void sweep() {
+        final boolean check;
+        synchronized (this) {
+            final long now = System.currentTimeMillis();
+            check = healthInterval > 0L && now - lastChecked >= healthInterval;
+            if (check) {
+                lastChecked = now;
+            }
+        }
+        try {
+            sweep(check);
+        } catch (Exception e) { // NOSONAR
+            log.warn("Failed to sweep worker processes %s", command, e);
+        }
+        if (idleListener != null && isUnused()) {
+            idleListener.accept(this);
+        }
+    }
+
+    /**
+     * Evicts workers idle for too long, and optionally health checks the others.
+     * Health checks are sent to all workers before waiting for any response, so
+     * that they time out together.
+     *
+     * @param check whether to health check remaining idle workers
+     */
+    void sweep(boolean check) {
+        final long now = System.currentTimeMillis();
+        final long timeout;
+        final List<Worker> list;
+        synchronized (this) {
+            if (idle.isEmpty()) {
+                return;
+            }
+            timeout = idleTimeout;
+            list = new ArrayList<>(idle);
+            idle.clear();
+        }
+
+        Iterator<Worker> it = list.iterator();
+        while (it.hasNext()) {
+            Worker w = it.next();
+            if (timeout > 0L && now - w.lastUsed >= timeout) {
+                log.debug("Evicting worker process %s after being idle for %d ms", command, now - w.lastUsed);
+                it.remove();
+                release(w, false);
+            } else if (check && !w.sendPing()) {
+                log.warn("Discarding unhealthy worker process %s", command);
+                it.remove();
+                release(w, false);
+            }
+        }
+        if (check) {
+            final long deadline = System.currentTimeMillis() + HEALTH_CHECK_TIMEOUT;
+            it = list.iterator();
+            while (it.hasNext()) {
+                Worker w = it.next();
+                if (!w.awaitPing(deadline)) {
+                    log.warn("Discarding unhealthy worker process %s", command);
+                    it.remove();
+                    release(w, false);
+                }
+            }
+        }
+
+        synchronized (this) {
+            for (Worker w : list) {
+                if (closed) {
+                    total--;
+                    w.destroy();
+                } else {
+                    // workers released in the meantime were used more recently
+                    idle.addLast(w);
+                }
+            }
+            notifyAll();
+        }
+    }
+
+    /**
+     * Checks whether the pool has no worker and has not been used for idle
+     * timeout.
+     *
+     * @return true if the pool is no longer in use; false otherwise
+     */
+    synchronized boolean isUnused() {
+        return !closed && total == 0 && idleTimeout > 0L && System.currentTimeMillis() - lastUsed >= idleTimeout;
+    }
+
+    void close() {
+        final List<Worker> list;
+        synchronized (this) {
+            closed = true;
+            list = new ArrayList<>(idle);
+            idle.clear();
+            total -= list.size();
+            notifyAll();
+
+            if (sweeper != null) {
+                sweeper.shutdown();
+                sweeper = null;
+                sweeping = null;
+            }
+        }
+        for (Worker w : list) {
+            w.destroy();
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return new StringBuilder().append(getClass().getSimpleName()).append('(').append(command).append(", size=")
+                .append(size).append(", idleTimeout=").append(idleTimeout).append(", healthInterval=")
+                .append(healthInterval).append(')').toString();
+    }
+}
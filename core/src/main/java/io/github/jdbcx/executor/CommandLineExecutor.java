@@ -26,10 +26,13 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PipedOutputStream;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -40,6 +43,7 @@ import java.util.Properties;
 import java.util.WeakHashMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -74,12 +78,36 @@ public class CommandLineExecutor extends AbstractExecutor {
                     Constants.TRUE_EXPR });
     public static final Option OPTION_CLI_TEST_ARGS = Option.of("cli.test.args",
             "Arguments to pass to the command line to validate correctness and existence.", "");
+    public static final Option OPTION_CLI_PERSISTENT = Option.ofBool("cli.persistent",
+            "Whether to keep the command running in a pool of worker processes, instead of starting a new process for "
+                    + "each execution. Workers must exchange typed, length-prefixed frames over stdin and stdout, "
+                    + "unless cli.adapter is set, and stderr is discarded.",
+            false);
+    public static final Option OPTION_CLI_ADAPTER = Option.of(new String[] { "cli.adapter",
+            "Adapter for commands not speaking the framed protocol in persistent mode. Empty string means the "
+                    + "command speaks the protocol itself, and shell runs the command once per execution in a "
+                    + "long-lived POSIX shell loop.",
+            "", "shell" });
+    public static final Option OPTION_CLI_POOL_SIZE = Option.ofInt("cli.pool.size",
+            "Maximum number of worker processes per command line in persistent mode. Latest execution's value "
+                    + "applies to the pool.",
+            2);
+    public static final Option OPTION_CLI_IDLE_TIMEOUT = Option.ofInt("cli.idle.timeout",
+            "Time in milliseconds before an idle worker process is stopped in persistent mode. Zero or negative "
+                    + "number means no eviction.",
+            300000);
+    public static final Option OPTION_CLI_HEALTH_INTERVAL = Option.ofInt("cli.health.interval",
+            "Interval in milliseconds between health checks of idle worker processes in persistent mode. Zero or "
+                    + "negative number disables health checks.",
+            30000);
     public static final Option OPTION_DOCKER_PATH = Option.of("docker.path",
             "Path to the Docker or Podman command line executable.", "");
     public static final Option OPTION_DOCKER_IMAGE = Option.of("docker.image",
             "Docker image name to use for running the container. Leave empty if you do not want to run in a Docker or Podman container.",
             "");
 
+    private static final Map<String, CoProcessPool> pools = new ConcurrentHashMap<>();
+
     static final List<String> WIN_CMDS = Collections.unmodifiableList(Arrays.asList("cmd", "cmd.exe"));
 
     static String[] toArray(String command) {
@@ -152,6 +180,7 @@ public class CommandLineExecutor extends AbstractExecutor {
 
     private final List<String> command;
     private final boolean defaultStdErrRedirect;
+    private final boolean defaultPersistent;
 
     public CommandLineExecutor(String command, VariableTag tag) {
         this(command, tag, new Properties());
@@ -171,6 +200,7 @@ public class CommandLineExecutor extends AbstractExecutor {
         String[] testArgs = CommandLineExecutor.toArray(OPTION_CLI_TEST_ARGS.getValue(props));
 
         this.defaultStdErrRedirect = Boolean.parseBoolean(OPTION_CLI_STDERR_REDIRECT.getValue(props));
+        this.defaultPersistent = Boolean.parseBoolean(OPTION_CLI_PERSISTENT.getValue(props));
 
         if (!validate || check(command, 0, testArgs)) {
             this.command = Collections.unmodifiableList(Arrays.asList(toArray(command)));
@@ -212,13 +242,64 @@ public class CommandLineExecutor extends AbstractExecutor {
     }
 
     public boolean getStdErrRedirect(Properties props) {
-        String value = props != null ? props.getProperty(OPTION_CLI_STDERR_REDIRECT.getName()) : null;
+        if (isSnapshot(props)) {
+            return defaultStdErrRedirect;
+        }
+        String value = props.getProperty(OPTION_CLI_STDERR_REDIRECT.getName());
         return value != null ? Boolean.parseBoolean(value) : defaultStdErrRedirect;
     }
 
-    @SuppressWarnings("resource")
+    public boolean getDefaultPersistent() {
+        return defaultPersistent;
+    }
+
+    public boolean getPersistent(Properties props) {
+        if (isSnapshot(props)) {
+            return defaultPersistent;
+        }
+        String value = props.getProperty(OPTION_CLI_PERSISTENT.getName());
+        return value != null ? Boolean.parseBoolean(value) : defaultPersistent;
+    }
+
     public InputStream execute(Properties props, InputStream input, String... args)
             throws IOException, TimeoutException {
+        return execute(props, input, true, args);
+    }
+
+    /**
+     * Executes the command with the input file (see
+     * {@link #getInputFile(Properties)}) redirected to its standard input, so that
+     * the file is streamed to the process instead of being loaded into memory and
+     * passed as an argument. Same as {@link #execute(Properties, InputStream,
+     * String...)} when there's no input file.
+     *
+     * @param props optional properties
+     * @param args  optional arguments of the command
+     * @return non-null output of the command
+     * @throws IOException      when failed to execute the command
+     * @throws TimeoutException when execution timed out
+     */
+    public InputStream executeWithInputFile(Properties props, String... args) throws IOException, TimeoutException {
+        final String inputFile = getInputFile(props);
+        if (Checker.isNullOrEmpty(inputFile)) {
+            return execute(props, null, true, args);
+        }
+
+        final File file;
+        try {
+            file = Paths.get(inputFile).toFile();
+        } catch (InvalidPathException e) {
+            throw new IllegalArgumentException(e);
+        }
+        if (!file.isFile()) {
+            throw new IllegalArgumentException(Utils.format("Input file \"%s\" does not exist.", inputFile));
+        }
+        return execute(props, file, false, args);
+    }
+
+    @SuppressWarnings("resource")
+    private InputStream execute(Properties props, Object input, boolean loadInputFile, String... args)
+            throws IOException, TimeoutException {
         final int parallelism = getParallelism(props);
         final boolean stdErrRedirect = getStdErrRedirect(props);
         final int timeout = getTimeout(props);
@@ -239,7 +320,7 @@ public class CommandLineExecutor extends AbstractExecutor {
         }
 
         final String[] arguments;
-        if (!Checker.isNullOrEmpty(inputFile)) {
+        if (loadInputFile && !Checker.isNullOrEmpty(inputFile)) {
             final String content = loadFile(inputFile, inputCharset,
                     args.length > 0 ? args[0] : Constants.EMPTY_STRING);
             arguments = Checker.isNullOrEmpty(content) ? args : new String[] { content };
@@ -247,6 +328,12 @@ public class CommandLineExecutor extends AbstractExecutor {
             arguments = args;
         }
 
+        if (getPersistent(props)) {
+            return executePersistent(props, timeout, workDir,
+                    input instanceof File ? Stream.newInputStream(((File) input).toPath()) : (InputStream) input,
+                    arguments);
+        }
+
         if (parallelism <= 0) {
             try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
                 int exitCode = execute(parallelism, stdErrRedirect, timeout, workDir, input, inputCharset, out,
@@ -272,6 +359,131 @@ public class CommandLineExecutor extends AbstractExecutor {
         }));
     }
 
+    /**
+     * Gets pool of worker processes for the command line and work directory, and
+     * applies pool settings in the given properties. A pool is removed and closed
+     * once all its workers are evicted and it's not used for idle timeout.
+     *
+     * @param props   optional properties
+     * @param workDir optional work directory
+     * @return non-null pool
+     */
+    CoProcessPool getPool(Properties props, Path workDir) {
+        final List<String> commands;
+        if ("shell".equals(OPTION_CLI_ADAPTER.getValue(props))) {
+            commands = new ArrayList<>(command.size() + 4);
+            commands.add("/bin/sh");
+            commands.add("-c");
+            commands.add(CoProcessPool.SHELL_ADAPTER);
+            commands.add("jdbcx-cli");
+            commands.addAll(command);
+        } else {
+            commands = command;
+        }
+
+        final int size = Integer.parseInt(OPTION_CLI_POOL_SIZE.getValue(props));
+        final int idleTimeout = Integer.parseInt(OPTION_CLI_IDLE_TIMEOUT.getValue(props));
+        final int healthInterval = Integer.parseInt(OPTION_CLI_HEALTH_INTERVAL.getValue(props));
+        final String key = new StringBuilder().append(commands).append('@').append(workDir).toString();
+        return pools.compute(key, (k, v) -> {
+            final CoProcessPool pool = v != null ? v
+                    : new CoProcessPool(commands, workDir, p -> pools.computeIfPresent(k, (x, current) -> {
+                        if (current == p && p.isUnused()) {
+                            log.debug("Closing unused worker pool %s", p);
+                            p.close();
+                            return null;
+                        }
+                        return current;
+                    }));
+            pool.configure(size, idleTimeout, healthInterval);
+            return pool;
+        });
+    }
+
+    /**
+     * Executes the command in a long-lived worker process, which is borrowed from
+     * the pool of the command line. Arguments are sent along with the input in
+     * frames, so executions with different arguments share the same pool.
+     *
+     * @param props   optional properties
+     * @param timeout timeout in milliseconds, a negative number or zero disables
+     *                timeout
+     * @param workDir optional work directory
+     * @param input   optional input of the command
+     * @param args    optional arguments of the command
+     * @return non-null output of the command
+     * @throws IOException      when failed to communicate with the worker process
+     * @throws TimeoutException when execution timed out
+     */
+    protected InputStream executePersistent(Properties props, int timeout, Path workDir, InputStream input,
+            String... args) throws IOException, TimeoutException {
+        final long startTime = timeout <= 0 ? 0L : System.currentTimeMillis();
+
+        final byte[] request;
+        if (input == null) {
+            request = Constants.EMPTY_BYTE_ARRAY;
+        } else {
+            try (InputStream in = input; ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+                Stream.pipe(in, out);
+                request = out.toByteArray();
+            }
+        }
+
+        CoProcessPool pool = getPool(props, workDir);
+        CoProcessPool.Worker worker;
+        try {
+            worker = pool.borrow(timeout);
+        } catch (IOException e) {
+            if (!pool.isClosed()) {
+                throw e;
+            }
+            // closed as unused right before borrowing
+            pool = getPool(props, workDir);
+            worker = pool.borrow(timeout);
+        }
+        final CoProcessPool.Worker w = worker;
+        // blank arguments are skipped, same as starting a new process
+        final List<String> list = new ArrayList<>(args.length);
+        for (String arg : args) {
+            if (!Checker.isNullOrBlank(arg)) {
+                list.add(arg);
+            }
+        }
+        final String[] arguments = list.toArray(Constants.EMPTY_STRING_ARRAY);
+        boolean healthy = false;
+        try {
+            final byte[] response;
+            if (timeout <= 0) {
+                response = w.exchange(request, arguments);
+            } else {
+                response = (byte[]) waitForTask(log, supplyAsync(() -> {
+                    try {
+                        return w.exchange(request, arguments);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }), startTime, timeout);
+            }
+            healthy = true;
+            return new ByteArrayInputStream(response);
+        } catch (IllegalStateException e) { // error reported by the worker
+            healthy = true;
+            throw e;
+        } catch (IOException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IllegalStateException) {
+                healthy = true;
+                throw (IllegalStateException) cause;
+            } else if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            throw e;
+        } finally {
+            // a worker failed or timed out is destroyed, and replaced on next borrow
+            pool.release(w, healthy);
+        }
+    }
+
     protected CompletableFuture<?> writeToProcess(OutputStream processOutput, Object input, Charset inputCharset,
             boolean async) throws IOException {
         CompletableFuture<?> future = null;
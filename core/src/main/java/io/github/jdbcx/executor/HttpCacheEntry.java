@@ -0,0 +1,333 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.executor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+import io.github.jdbcx.Checker;
+import io.github.jdbcx.Constants;
+import io.github.jdbcx.Logger;
+import io.github.jdbcx.LoggerFactory;
+import io.github.jdbcx.Stream;
+import io.github.jdbcx.Utils;
+
+/**
+ * This class represents a cached HTTP response along with its validators. The
+ * response body is kept in memory when it's small, or spilled to a temporary
+ * file otherwise. An entry is created empty by the cache, and populated by
+ * whoever wins {@link #claim()}, outside of any lock, so that readers of fresh
+ * content never wait for a download. Other callers wait on the returned future
+ * and then check the entry again.
+ */
+final class HttpCacheEntry implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(HttpCacheEntry.class);
+
+    static final String HEADER_CACHE_CONTROL = "Cache-Control";
+    static final String HEADER_ETAG = "ETag";
+    static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+    static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+
+    static final String DIRECTIVE_MAX_AGE = "max-age";
+    static final String DIRECTIVE_NO_CACHE = "no-cache";
+    static final String DIRECTIVE_NO_STORE = "no-store";
+
+    /**
+     * Immutable snapshot of a cached response.
+     */
+    static final class Content {
+        private final String etag;
+        private final long lastModified;
+        private final long expires;
+
+        private final byte[] data;
+        private final File file;
+
+        Content(String etag, long lastModified, long expires, byte[] data, File file) {
+            this.etag = etag;
+            this.lastModified = lastModified > 0L ? lastModified : 0L;
+            this.expires = expires;
+
+            this.data = data;
+            this.file = file;
+        }
+
+        boolean isFresh(long now) {
+            return now < expires;
+        }
+
+        /**
+         * Adds conditional request headers to the given connection, so that the
+         * server can reply {@code 304 Not Modified} when the cached response is
+         * still valid.
+         *
+         * @param conn non-null connection which has not been connected yet
+         * @return true if any validator was added; false otherwise
+         */
+        boolean applyValidators(HttpURLConnection conn) {
+            boolean applied = false;
+            if (!Checker.isNullOrEmpty(etag)) {
+                conn.setRequestProperty(HEADER_IF_NONE_MATCH, etag);
+                applied = true;
+            }
+            if (lastModified > 0L) {
+                conn.setIfModifiedSince(lastModified);
+                applied = true;
+            }
+            return applied;
+        }
+
+        /**
+         * Refreshes the content after the server replied {@code 304 Not Modified}.
+         *
+         * @param conn non-null connection
+         * @param ttl  time-to-live in seconds, a negative number means to respect
+         *             response headers
+         * @param now  current time in milliseconds
+         * @return refreshed content sharing the same body, or {@code null} when it
+         *         should no longer be stored
+         */
+        Content revalidate(HttpURLConnection conn, long ttl, long now) {
+            final long freshness = getFreshness(conn, ttl, now);
+            if (freshness < 0L) {
+                return null;
+            }
+
+            final String value = conn.getHeaderField(HEADER_ETAG);
+            final long modified = conn.getLastModified();
+            return new Content(Checker.isNullOrEmpty(value) ? etag : value, modified > 0L ? modified : lastModified,
+                    now + freshness, data, file);
+        }
+
+        /**
+         * Opens cached response for read.
+         *
+         * @return non-null input stream
+         * @throws IOException when the cache file cannot be opened
+         */
+        InputStream open() throws IOException {
+            return data != null ? new ByteArrayInputStream(data) : Stream.newInputStream(file.toPath());
+        }
+    }
+
+    /**
+     * Gets freshness lifetime in milliseconds of the response.
+     *
+     * @param conn non-null connection which already got response
+     * @param ttl  time-to-live in seconds overriding response headers, a negative
+     *             number means to respect response headers
+     * @param now  current time in milliseconds
+     * @return freshness lifetime in milliseconds, a negative number means the
+     *         response should not be stored at all
+     */
+    static long getFreshness(HttpURLConnection conn, long ttl, long now) {
+        if (ttl >= 0L) {
+            return ttl * 1000L;
+        }
+
+        long maxAge = -1L;
+        String cacheControl = conn.getHeaderField(HEADER_CACHE_CONTROL);
+        if (!Checker.isNullOrBlank(cacheControl)) {
+            for (String directive : Utils.split(cacheControl.toLowerCase(Locale.ROOT), ',', true, true, true)) {
+                if (DIRECTIVE_NO_STORE.equals(directive)) {
+                    return -1L;
+                } else if (DIRECTIVE_NO_CACHE.equals(directive)) {
+                    maxAge = 0L;
+                    break;
+                } else if (directive.startsWith(DIRECTIVE_MAX_AGE)) {
+                    int index = directive.indexOf('=');
+                    if (index > 0) {
+                        try {
+                            maxAge = Math.max(Long.parseLong(directive.substring(index + 1).trim()), 0L);
+                        } catch (NumberFormatException e) {
+                            log.debug("Ignore invalid directive [%s]", directive);
+                        }
+                    }
+                }
+            }
+        }
+
+        if (maxAge >= 0L) {
+            return maxAge * 1000L;
+        }
+
+        long expires = conn.getExpiration();
+        if (expires > 0L) {
+            long date = conn.getDate();
+            return Math.max(expires - (date > 0L ? date : now), 0L);
+        }
+        return 0L;
+    }
+
+    /**
+     * Reads response from the given connection when it's cacheable.
+     *
+     * @param conn           non-null connection which got a successful response
+     * @param ttl            time-to-live in seconds, a negative number means to
+     *                       respect response headers
+     * @param spillThreshold maximum size in bytes of response kept in memory,
+     *                       larger response will be written into a temporary file
+     * @param now            current time in milliseconds
+     * @return content of the response, or {@code null} when it cannot be reused
+     *         and should be read from the connection directly
+     * @throws IOException when failed to read the response or write the cache file
+     */
+    static Content download(HttpURLConnection conn, long ttl, int spillThreshold, long now) throws IOException {
+        final long freshness = getFreshness(conn, ttl, now);
+        final String etag = conn.getHeaderField(HEADER_ETAG);
+        final long lastModified = conn.getLastModified();
+
+        if (freshness < 0L || (freshness == 0L && Checker.isNullOrEmpty(etag) && lastModified <= 0L)) {
+            log.debug("Skip caching response from [%s] as it cannot be reused", conn.getURL());
+            return null;
+        }
+
+        ByteArrayOutputStream mem = new ByteArrayOutputStream(Constants.DEFAULT_BUFFER_SIZE);
+        File f = null;
+        OutputStream out = mem;
+        try (InputStream in = conn.getInputStream()) {
+            final byte[] buffer = new byte[Constants.DEFAULT_BUFFER_SIZE];
+            int len;
+            while ((len = in.read(buffer)) != -1) {
+                if (f == null && mem.size() + len > spillThreshold) {
+                    f = Utils.createTempFile("jdbcx-http-", ".cache");
+                    out = new FileOutputStream(f);
+                    mem.writeTo(out);
+                    mem = null;
+                }
+                out.write(buffer, 0, len);
+            }
+        } catch (IOException e) {
+            if (f != null) {
+                out.close();
+                Files.deleteIfExists(f.toPath());
+            }
+            throw e;
+        }
+
+        if (f != null) {
+            out.close();
+            return new Content(etag, lastModified, now + freshness, null, f);
+        }
+        return new Content(etag, lastModified, now + freshness, mem.toByteArray(), null);
+    }
+
+    static void delete(Content stale, Content current) {
+        if (stale == null || stale.file == null || (current != null && current.file == stale.file)) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(stale.file.toPath());
+        } catch (IOException e) {
+            log.debug("Failed to delete cache file [%s], will retry on exit", stale.file, e);
+            stale.file.deleteOnExit();
+        }
+    }
+
+    private Content content;
+    private CompletableFuture<Content> pending;
+    private boolean closed;
+
+    HttpCacheEntry() {
+        this.content = null;
+        this.pending = null;
+        this.closed = false;
+    }
+
+    synchronized Content getContent() {
+        return content;
+    }
+
+    /**
+     * Opens the given content for read under the entry lock, so that its cache
+     * file cannot be deleted by concurrent revalidation or eviction in between.
+     * Once opened, the stream stays readable even after the file is deleted.
+     *
+     * @param c non-null content returned from {@link #getContent()}
+     * @return input stream, or {@code null} when the cache file is no longer
+     *         held by this entry and the caller should check the entry again
+     * @throws IOException when the cache file cannot be opened
+     */
+    synchronized InputStream open(Content c) throws IOException {
+        if (c.file != null && (content == null || content.file != c.file)) {
+            return null;
+        }
+        return c.open();
+    }
+
+    /**
+     * Claims the right to populate this entry.
+     *
+     * @return {@code null} when the caller should populate the entry and then
+     *         call {@link #complete(Content)}; otherwise a future to wait for
+     *         population by someone else
+     */
+    synchronized CompletableFuture<Content> claim() {
+        if (pending != null) {
+            return pending;
+        }
+        pending = new CompletableFuture<>();
+        return null;
+    }
+
+    /**
+     * Completes population started by {@link #claim()}. Replaced content is
+     * deleted, and so is the new content when the entry was evicted in the
+     * meantime.
+     *
+     * @param updated new content, {@code null} to clear the entry
+     */
+    void complete(Content updated) {
+        final CompletableFuture<Content> future;
+        final Content stale;
+        synchronized (this) {
+            future = pending;
+            pending = null;
+            if (closed) {
+                stale = updated;
+                updated = null;
+            } else {
+                stale = content;
+                content = updated;
+            }
+        }
+        delete(stale, updated);
+        if (future != null) {
+            future.complete(updated);
+        }
+    }
+
+    @Override
+    public void close() {
+        final Content stale;
+        synchronized (this) {
+            closed = true;
+            stale = content;
+            content = null;
+        }
+        delete(stale, null);
+    }
+}
@@ -28,6 +28,7 @@ import java.util.List;
 import java.util.Properties;
 
 import io.github.jdbcx.Checker;
+import io.github.jdbcx.Constants;
 import io.github.jdbcx.Field;
 import io.github.jdbcx.Logger;
 import io.github.jdbcx.LoggerFactory;
@@ -62,6 +63,22 @@ public class JdbcExecutor extends AbstractExecutor {
             .of(new String[] { "result", "Only the preferred one will be returned when there are multiple results.",
                     RESULT_FIRST, RESULT_FIRST_QUERY, RESULT_FIRST_UPDATE, RESULT_LAST, RESULT_LAST_QUERY,
                     RESULT_LAST_UPDATE, RESULT_MERGED_QUERIES, RESULT_MERGED_UPDATES, RESULT_SUMMARY });
+    public static final Option OPTION_FETCH_SIZE = Option.of(new String[] { "fetch.size",
+            "Number of rows to fetch from database in each round trip, zero or negative number means driver default. "
+                    + "Smaller value lowers client memory usage at the cost of more round trips.",
+            "0" });
+    public static final Option OPTION_STREAMING = Option.of(new String[] { "streaming",
+            "Whether to stream rows through a forward-only and read-only cursor, instead of letting the driver buffer "
+                    + "the whole result set in memory. Memory usage stays flat and the first row arrives sooner, but "
+                    + "the connection is occupied until all rows are read. Fetch size is set to Integer.MIN_VALUE for "
+                    + "MySQL, and auto-commit is turned off for PostgreSQL, so it is meant for queries only.",
+            Constants.FALSE_EXPR, Constants.TRUE_EXPR });
+
+    /**
+     * Default fetch size for streaming, when {@link #OPTION_FETCH_SIZE} is not
+     * specified.
+     */
+    public static final int DEFAULT_STREAMING_FETCH_SIZE = 1000;
 
     static final List<Field> SUMMARY_FIELDS = Collections
             .unmodifiableList(Arrays.asList(Field.of("seq", JDBCType.INTEGER, false),
@@ -353,8 +370,86 @@ public class JdbcExecutor extends AbstractExecutor {
         return new ReadOnlyResultSet(stmt, Result.of(SUMMARY_FIELDS, rows));
     }
 
+    static final void setFetchSize(Statement stmt, int fetchSize) throws SQLException {
+        try {
+            stmt.setFetchSize(fetchSize);
+            log.debug("Set fetch size for [%s] to %d", stmt, fetchSize);
+        } catch (SQLFeatureNotSupportedException | UnsupportedOperationException e) {
+            log.debug("Fetch size is not supported by [%s]", stmt);
+        }
+    }
+
+    /**
+     * Creates a statement with the given fetch size and streaming hints. When
+     * {@code streaming} is {@code true}, the statement uses a forward-only and
+     * read-only cursor, along with driver-specific switches: fetch size is set to
+     * {@link Integer#MIN_VALUE} for MySQL to read row by row, and auto-commit is
+     * turned off for PostgreSQL, which only uses a server-side cursor inside of a
+     * transaction. Auto-commit is not restored here, so caller should either
+     * close the connection or reset it after use.
+     *
+     * @param conn      non-null connection
+     * @param fetchSize fetch size, zero or negative number means driver default,
+     *                  or {@link #DEFAULT_STREAMING_FETCH_SIZE} for streaming
+     * @param streaming whether to stream rows
+     * @return non-null statement
+     * @throws SQLException when failed to create statement
+     */
+    public static final Statement createStatement(Connection conn, int fetchSize, boolean streaming)
+            throws SQLException {
+        if (!streaming) {
+            final Statement stmt = conn.createStatement(); // NOSONAR
+            if (fetchSize > 0) {
+                setFetchSize(stmt, fetchSize);
+            }
+            return stmt;
+        }
+
+        final String url = conn.getMetaData().getURL();
+        final Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY); // NOSONAR
+        if (url != null && url.startsWith("jdbc:mysql:")) {
+            setFetchSize(stmt, Integer.MIN_VALUE);
+        } else {
+            if (url != null && url.startsWith("jdbc:postgresql:") && conn.getAutoCommit()) {
+                conn.setAutoCommit(false);
+                log.debug("Disabled auto-commit of [%s] for streaming", conn);
+            }
+            setFetchSize(stmt, fetchSize > 0 ? fetchSize : DEFAULT_STREAMING_FETCH_SIZE);
+        }
+        return stmt;
+    }
+
+    /**
+     * Result set streamed from a cursor, which required auto-commit to be turned
+     * off. Changes are committed and auto-commit is restored when it's closed.
+     */
+    static final class StreamingResultSet extends CombinedResultSet {
+        private final Connection conn;
+
+        StreamingResultSet(ResultSet rs, Connection conn) {
+            super(new ResultSet[] { rs }, null);
+            this.conn = conn;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                super.close();
+            } finally {
+                if (!conn.isClosed() && !conn.getAutoCommit()) {
+                    try {
+                        conn.commit();
+                    } finally {
+                        conn.setAutoCommit(true);
+                    }
+                }
+            }
+        }
+    }
+
     static final Object execute(Connection conn, JdbcQueryRequest request) throws SQLException {
-        final Statement stmt = conn.createStatement(); // NOSONAR
+        final boolean autoCommit = request.streaming && conn.getAutoCommit();
+        final Statement stmt = createStatement(conn, request.fetchSize, request.streaming); // NOSONAR
         if (request.queryTimeoutSec > 0) {
             stmt.setQueryTimeout(request.queryTimeoutSec);
             log.debug("Set query timeout for [%s] to %d seconds", stmt, request.queryTimeoutSec);
@@ -392,6 +487,16 @@ public class JdbcExecutor extends AbstractExecutor {
             default:
                 throw new SQLException("Unsupported parameter result=" + request.resultType);
         }
+
+        if (autoCommit && !conn.getAutoCommit()) {
+            if (result instanceof ResultSet && !(result instanceof ReadOnlyResultSet)) {
+                // still streaming from the cursor, auto-commit is restored when the result set is closed
+                return new StreamingResultSet((ResultSet) result, conn);
+            }
+            // nothing left to stream, so commit changes made by the statement(s)
+            conn.commit();
+            conn.setAutoCommit(true);
+        }
         return result;
     }
 
@@ -403,12 +508,26 @@ public class JdbcExecutor extends AbstractExecutor {
         return props != null ? props.getProperty(OPTION_RESULT.getName(), defaultResultType) : defaultResultType;
     }
 
+    public int getFetchSize(Properties props) {
+        String value = props != null ? props.getProperty(OPTION_FETCH_SIZE.getName()) : null;
+        return value != null ? Integer.parseInt(value) : defaultFetchSize;
+    }
+
+    public boolean getStreaming(Properties props) {
+        String value = props != null ? props.getProperty(OPTION_STREAMING.getName()) : null;
+        return value != null ? Boolean.parseBoolean(value) : defaultStreaming;
+    }
+
     protected final String defaultResultType;
+    protected final int defaultFetchSize;
+    protected final boolean defaultStreaming;
 
     public JdbcExecutor(VariableTag tag, Properties props) {
         super(tag, props);
 
         this.defaultResultType = OPTION_RESULT.getValue(props);
+        this.defaultFetchSize = Integer.parseInt(OPTION_FETCH_SIZE.getValue(props));
+        this.defaultStreaming = Boolean.parseBoolean(OPTION_STREAMING.getValue(props));
     }
 
     public Object execute(String query, Connection conn, Properties props) throws SQLException {
@@ -422,7 +541,7 @@ public class JdbcExecutor extends AbstractExecutor {
             return new CombinedResultSet();
         }
 
-        return execute(conn,
-                new JdbcQueryRequest(query, getResultType(props), getTimeout(props) / 1000, getParallelism(props)));
+        return execute(conn, new JdbcQueryRequest(query, getResultType(props), getTimeout(props) / 1000,
+                getParallelism(props), getFetchSize(props), getStreaming(props)));
     }
 }
@@ -21,6 +21,8 @@ final class JdbcQueryRequest {
         private String resultType;
         private int queryTimeoutSec;
         private int parallelism;
+        private int fetchSize;
+        private boolean streaming;
         private long[] stats;
 
         Builder(JdbcQueryRequest request) {
@@ -28,6 +30,8 @@ final class JdbcQueryRequest {
             this.resultType = request.resultType;
             this.queryTimeoutSec = request.queryTimeoutSec;
             this.parallelism = request.parallelism;
+            this.fetchSize = request.fetchSize;
+            this.streaming = request.streaming;
             this.stats = new long[] { 0L, 0L, 0L };
         }
 
@@ -51,13 +55,24 @@ final class JdbcQueryRequest {
             return this;
         }
 
+        Builder fetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+            return this;
+        }
+
+        Builder streaming(boolean streaming) {
+            this.streaming = streaming;
+            return this;
+        }
+
         Builder stats(long[] stats) {
             this.stats = stats;
             return this;
         }
 
         JdbcQueryRequest build() {
-            return new JdbcQueryRequest(query, resultType, queryTimeoutSec, parallelism, stats);
+            return new JdbcQueryRequest(query, resultType, queryTimeoutSec, parallelism, fetchSize, streaming,
+                    stats);
         }
     }
 
@@ -65,21 +80,33 @@ final class JdbcQueryRequest {
     final String resultType;
     final int queryTimeoutSec;
     final int parallelism;
+    final int fetchSize;
+    final boolean streaming;
     final long[] stats;
 
-    private JdbcQueryRequest(String query, String resultType, int queryTimeoutSec, int parallelism, long[] stats) {
+    private JdbcQueryRequest(String query, String resultType, int queryTimeoutSec, int parallelism, int fetchSize,
+            boolean streaming, long[] stats) {
         this.query = query;
         this.resultType = resultType;
         this.queryTimeoutSec = queryTimeoutSec;
         this.parallelism = parallelism;
+        this.fetchSize = fetchSize;
+        this.streaming = streaming;
         this.stats = stats;
     }
 
     JdbcQueryRequest(String query, String resultType, int queryTimeoutSec, int parallelism) {
+        this(query, resultType, queryTimeoutSec, parallelism, 0, false);
+    }
+
+    JdbcQueryRequest(String query, String resultType, int queryTimeoutSec, int parallelism, int fetchSize,
+            boolean streaming) {
         this.query = query;
         this.resultType = resultType;
         this.queryTimeoutSec = queryTimeoutSec;
         this.parallelism = parallelism;
+        this.fetchSize = fetchSize;
+        this.streaming = streaming;
         this.stats = new long[] {
                 0L, // reads
                 0L, // updates
@@ -17,7 +17,6 @@ package io.github.jdbcx.executor;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -28,15 +27,23 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.UnknownHostException;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
 
+import io.github.jdbcx.Cache;
 import io.github.jdbcx.Checker;
 import io.github.jdbcx.Constants;
 import io.github.jdbcx.Logger;
@@ -46,6 +53,7 @@ import io.github.jdbcx.Stream;
 import io.github.jdbcx.Utils;
 import io.github.jdbcx.VariableTag;
 import io.github.jdbcx.Version;
+import io.github.jdbcx.compress.ZstdDictionaryStore;
 import io.github.jdbcx.security.SslContextProvider;
 
 public class WebExecutor extends AbstractExecutor {
@@ -64,12 +72,41 @@ public class WebExecutor extends AbstractExecutor {
     public static final String HEADER_ACCEPT_ENCODING = "Accept-Encoding";
     public static final String HEADER_AUTHORIZATION = "Authorization";
     public static final String HEADER_USER_AGENT = "User-Agent";
+    /**
+     * Request header listing ids of zstd dictionaries available on client side,
+     * and response header carrying id of the dictionary used for compression,
+     * optionally followed by ids of dictionaries worth downloading. Ids are
+     * separated by semicolon, and zero means no dictionary.
+     */
+    public static final String HEADER_ZSTD_DICT = "X-Zstd-Dict";
 
+    private static final Option OPTION_HTTPCACHE_SIZE = Option.of("httpcache.size",
+            "Maximum number of HTTP responses to keep in cache", "100");
+    private static final Option OPTION_HTTPCACHE_EXPTIME = Option.of("httpcache.exptime",
+            "HTTP response cache expiration time in second since last access", "0");
+    private static final Option OPTION_HTTPCACHE_SPILL_THRESHOLD = Option.of("httpcache.spill.threshold",
+            "Maximum size in bytes of a cached HTTP response kept in memory, larger ones are written to disk",
+            "1048576");
+
+    private static final Cache<String, HttpCacheEntry> cache = Cache.create(
+            Integer.parseInt(OPTION_HTTPCACHE_SIZE.getEffectiveDefaultValue(Option.PROPERTY_PREFIX)),
+            Integer.parseInt(OPTION_HTTPCACHE_EXPTIME.getEffectiveDefaultValue(Option.PROPERTY_PREFIX)),
+            k -> new HttpCacheEntry());
+    private static final int spillThreshold = Integer
+            .parseInt(OPTION_HTTPCACHE_SPILL_THRESHOLD.getEffectiveDefaultValue(Option.PROPERTY_PREFIX));
+
+    public static final Option OPTION_CACHE_ENABLED = Option.ofBool("cache.enabled",
+            "Whether to cache responses of GET requests, and revalidate them using ETag and Last-Modified", false);
+    public static final Option OPTION_CACHE_TTL = Option.ofLong("cache.ttl",
+            "Seconds a cached response stays fresh, overriding Cache-Control and Expires response headers. A negative number means to respect response headers.",
+            -1L);
     public static final Option OPTION_CONNECT_TIMEOUT = Option
             .of(new String[] { "connect.timeout",
                     "Connect timeout in milliseconds, a negative number or zero disables timeout", "5000" });
     public static final Option OPTION_FOLLOW_REDIRECT = Option
             .of(new String[] { "follow.redirect", "Whether follow redirect or not", Constants.TRUE_EXPR });
+    public static final Option OPTION_ZSTD_DICT_URL = Option.ofOptional("zstd.dict.url",
+            "Base URL for downloading zstd dictionaries by id. When specified, local dictionaries are advertised in request header, and responses compressed by zstd are decompressed using the dictionary given in response header.");
     public static final Option OPTION_SOCKET_TIMEOUT = Option
             .of(new String[] { "socket.timeout",
                     "Socket timeout in milliseconds, a negative number or zero disables timeout", "30000" });
@@ -91,6 +128,19 @@ public class WebExecutor extends AbstractExecutor {
         }
     }
 
+    static String getZstdDictionaries(Properties config) {
+        StringBuilder builder = new StringBuilder("0");
+        try {
+            for (Long id : ZstdDictionaryStore.of(ZstdDictionaryStore.OPTION_DIR.getValue(config)).ids()) {
+                builder.append(';').append(id);
+            }
+        } catch (NoClassDefFoundError e) {
+            log.debug("Skip zstd dictionaries as zstd-jni is not available");
+            return null;
+        }
+        return builder.toString();
+    }
+
     static void setBasicAuth(HttpURLConnection conn, String userInfo) {
         if (!Checker.isNullOrEmpty(userInfo)) {
             String user = Constants.EMPTY_STRING;
@@ -110,6 +160,10 @@ public class WebExecutor extends AbstractExecutor {
         }
     }
 
+    private static final Set<Long> downloads = ConcurrentHashMap.newKeySet();
+
+    private final boolean defaultCacheEnabled;
+    private final long defaultCacheTtl;
     private final String defaultConnectTimeout;
     private final String defaultFollowRedirect;
     private final String defaultSocketTimeout;
@@ -168,6 +222,8 @@ public class WebExecutor extends AbstractExecutor {
     public WebExecutor(VariableTag tag, Properties props) {
         super(tag, props);
 
+        this.defaultCacheEnabled = Boolean.parseBoolean(OPTION_CACHE_ENABLED.getValue(props));
+        this.defaultCacheTtl = Long.parseLong(OPTION_CACHE_TTL.getValue(props));
         this.defaultConnectTimeout = OPTION_CONNECT_TIMEOUT.getValue(props);
         this.defaultFollowRedirect = OPTION_FOLLOW_REDIRECT.getValue(props);
         this.defaultSocketTimeout = OPTION_SOCKET_TIMEOUT.getValue(props, String.valueOf(defaultTimeout));
@@ -200,6 +256,12 @@ public class WebExecutor extends AbstractExecutor {
                 conn.setRequestProperty(HEADER_USER_AGENT, DEFAULT_USER_AGENT);
             }
         }
+        if (!Checker.isNullOrEmpty(OPTION_ZSTD_DICT_URL.getValue(config))) {
+            final String dicts = getZstdDictionaries(config);
+            if (dicts != null) {
+                conn.setRequestProperty(HEADER_ZSTD_DICT, dicts);
+            }
+        }
 
         final int originalConnectTimeout = conn.getConnectTimeout();
         final int originalReadTimeout = conn.getReadTimeout();
@@ -234,6 +296,42 @@ public class WebExecutor extends AbstractExecutor {
         return conn;
     }
 
+    protected String getCacheKey(URL url, Properties config, Map<?, ?> headers) {
+        StringBuilder builder = new StringBuilder(url.toString());
+        if (headers != null && !headers.isEmpty()) {
+            Map<String, String> sorted = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (Entry<?, ?> header : headers.entrySet()) {
+                Object key = header.getKey();
+                Object val = header.getValue();
+                if (key != null && val != null) {
+                    sorted.put(key.toString(), Utils.applyVariablesWithDefault(val.toString(), defaultTag, config));
+                }
+            }
+            for (Entry<String, String> header : sorted.entrySet()) {
+                builder.append('\n').append(header.getKey()).append(':').append(header.getValue());
+            }
+        }
+        return builder.toString();
+    }
+
+    public boolean getCacheEnabled(Properties props) {
+        String value = props != null ? props.getProperty(OPTION_CACHE_ENABLED.getName()) : null;
+        return value != null ? Boolean.parseBoolean(value) : defaultCacheEnabled;
+    }
+
+    public long getCacheTtl(Properties props) {
+        String value = props != null ? props.getProperty(OPTION_CACHE_TTL.getName()) : null;
+        return value != null ? Long.parseLong(value) : defaultCacheTtl;
+    }
+
+    public boolean getDefaultCacheEnabled() {
+        return defaultCacheEnabled;
+    }
+
+    public long getDefaultCacheTtl() {
+        return defaultCacheTtl;
+    }
+
     public int getConnectTimeout(Properties props) {
         int execTimeout = getTimeout(props);
         int connectTimeout = Integer.parseInt(OPTION_CONNECT_TIMEOUT.getValue(props, defaultConnectTimeout));
@@ -258,6 +356,76 @@ public class WebExecutor extends AbstractExecutor {
         return defaultProxy;
     }
 
+    protected byte[] downloadZstdDictionary(ZstdDictionaryStore store, String baseUrl, long id, Properties config,
+            Map<?, ?> headers) throws IOException {
+        byte[] dict = store.get(id);
+        if (dict == null) {
+            final Properties props = new Properties(config);
+            OPTION_ZSTD_DICT_URL.setValue(props, Constants.EMPTY_STRING);
+            OPTION_CACHE_ENABLED.setValue(props, Constants.FALSE_EXPR);
+            log.debug("Downloading zstd dictionary %d from [%s]", id, baseUrl);
+            try (InputStream in = get(Utils.toURL(baseUrl + id), props, headers)) {
+                dict = Stream.readAllBytes(in);
+            }
+            if (ZstdDictionaryStore.getId(dict) != id) {
+                throw new IOException(Utils.format("Downloaded dictionary does not have expected id %d", id));
+            }
+            store.put(dict);
+        }
+        return dict;
+    }
+
+    /**
+     * Gets response body. Responses compressed by zstd, with or without a
+     * dictionary, are decompressed when {@link #OPTION_ZSTD_DICT_URL} is
+     * specified. Missing dictionary used by the response is downloaded before
+     * decompression, while suggested ones are downloaded in background for
+     * subsequent requests.
+     *
+     * @param conn    non-null connection
+     * @param config  optional configuration
+     * @param headers optional request headers, also used for downloading
+     *                dictionaries
+     * @return non-null response body
+     * @throws IOException when failed to read response or download dictionary
+     */
+    protected InputStream getResponseStream(HttpURLConnection conn, Properties config, Map<?, ?> headers)
+            throws IOException {
+        final InputStream input = conn.getInputStream();
+        final String value = conn.getHeaderField(HEADER_ZSTD_DICT);
+        final String baseUrl = OPTION_ZSTD_DICT_URL.getValue(config);
+        if (Checker.isNullOrEmpty(value) || Checker.isNullOrEmpty(baseUrl)) {
+            return input;
+        }
+
+        try {
+            final ZstdDictionaryStore store = ZstdDictionaryStore.of(ZstdDictionaryStore.OPTION_DIR.getValue(config));
+            final List<String> ids = Utils.split(value, ';', true, true, false);
+            final long used = ids.isEmpty() ? 0L : Long.parseLong(ids.get(0));
+            if (used != 0L) {
+                downloadZstdDictionary(store, baseUrl, used, config, headers);
+            }
+            for (int i = 1, len = ids.size(); i < len; i++) {
+                final long id = Long.parseLong(ids.get(i));
+                if (id != 0L && !store.contains(id) && downloads.add(id)) {
+                    runAsync(() -> {
+                        try {
+                            downloadZstdDictionary(store, baseUrl, id, config, headers);
+                        } catch (Exception e) {
+                            log.debug("Failed to download zstd dictionary %d due to %s", id, e.getMessage());
+                        } finally {
+                            downloads.remove(id);
+                        }
+                    });
+                }
+            }
+            return store.decompress(input, used);
+        } catch (IOException | RuntimeException e) {
+            input.close();
+            throw e instanceof IOException ? (IOException) e : new IOException(e);
+        }
+    }
+
     public InputStream execute(URL url, String request, Properties props, Map<?, ?> headers) throws IOException {
         if (getDryRun(props)) {
             return new ByteArrayInputStream(
@@ -277,7 +445,7 @@ public class WebExecutor extends AbstractExecutor {
                 throw new IllegalArgumentException(
                         Utils.format("File [%s] does not exist or cannot be read!", inputFile));
             }
-            return post(url, new FileInputStream(f), props, headers);
+            return post(url, f, props, headers);
         } else if (Checker.isNullOrBlank(request)) {
             return get(url, props, headers);
         } else {
@@ -286,6 +454,10 @@ public class WebExecutor extends AbstractExecutor {
     }
 
     public InputStream get(URL url, Properties config, Map<?, ?> headers) throws IOException {
+        if (getCacheEnabled(config)) {
+            return get(cache.get(getCacheKey(url, config, headers)), url, config, headers);
+        }
+
         HttpURLConnection conn = null;
         try {
             conn = openConnection(url, config, headers);
@@ -300,7 +472,74 @@ public class WebExecutor extends AbstractExecutor {
             }
             throw e;
         }
-        return conn.getInputStream();
+        return getResponseStream(conn, config, headers);
+    }
+
+    protected InputStream get(HttpCacheEntry entry, URL url, Properties config, Map<?, ?> headers)
+            throws IOException {
+        HttpCacheEntry.Content current;
+        while (true) {
+            current = entry.getContent();
+            if (current != null && current.isFresh(System.currentTimeMillis())) {
+                final InputStream cached = entry.open(current);
+                if (cached != null) {
+                    log.debug("Use cached response for [%s]", url);
+                    return cached;
+                }
+                continue;
+            }
+
+            final CompletableFuture<HttpCacheEntry.Content> pending = entry.claim();
+            if (pending == null) {
+                break;
+            }
+            log.debug("Waiting for cached response of [%s] to be populated", url);
+            try {
+                pending.join();
+            } catch (CancellationException | CompletionException e) {
+                // check again
+            }
+        }
+
+        // populate the entry without holding any lock, others wait for the claim
+        final long now = System.currentTimeMillis();
+        HttpCacheEntry.Content updated = current;
+        HttpURLConnection conn = null;
+        InputStream cached = null;
+        try {
+            conn = openConnection(url, config, headers);
+            // opened before revalidation, so that it's still readable if the entry is evicted meanwhile
+            final boolean conditional = current != null && (cached = entry.open(current)) != null
+                    && current.applyValidators(conn);
+            final long ttl = getCacheTtl(config);
+            if (conditional && conn.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                log.debug("Cached response for [%s] is not modified", url);
+                updated = current.revalidate(conn, ttl, now);
+                conn.getInputStream().close();
+                final InputStream in = cached;
+                cached = null;
+                return in;
+            }
+            checkResponse(conn);
+            updated = HttpCacheEntry.download(conn, ttl, spillThreshold, now);
+            return updated != null ? updated.open() : conn.getInputStream();
+        } catch (Exception e) {
+            HttpCacheEntry.delete(updated, current);
+            updated = current;
+            if (conn != null) {
+                try {
+                    conn.getInputStream().close();
+                } catch (Exception exp) {
+                    // ignore
+                }
+            }
+            throw e;
+        } finally {
+            if (cached != null) {
+                Utils.closeQuietly(cached);
+            }
+            entry.complete(updated);
+        }
     }
 
     public InputStream post(URL url, Object request, Properties config, Map<?, ?> headers) throws IOException {
@@ -310,6 +549,10 @@ public class WebExecutor extends AbstractExecutor {
             conn.setRequestMethod("POST");
             if (request != null) {
                 conn.setDoOutput(true);
+                final long length = Stream.length(request);
+                if (length >= 0L) { // stream to server instead of buffering the whole request in memory
+                    conn.setFixedLengthStreamingMode(length);
+                }
                 try (OutputStream out = conn.getOutputStream()) {
                     Stream.writeAll(out, request);
                 }
@@ -325,6 +568,6 @@ public class WebExecutor extends AbstractExecutor {
             }
             throw e;
         }
-        return conn.getInputStream();
+        return getResponseStream(conn, config, headers);
     }
 }
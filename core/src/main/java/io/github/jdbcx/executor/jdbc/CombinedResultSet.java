@@ -36,13 +36,24 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 
 /**
- * Wrapper of multiple ResultSets.
+ * Wrapper of multiple ResultSets. Results can also be given as futures, so
+ * that rows are read as soon as a result is available, either in the given
+ * order or from whichever result completes first.
  */
 public class CombinedResultSet extends AbstractResultSet {
     private final ResultSet[] results;
+    private final CompletableFuture<ResultSet>[] futures;
+    private final BlockingQueue<Integer> completed;
 
     private int nextIndex;
     private ResultSet current;
@@ -55,16 +66,50 @@ public class CombinedResultSet extends AbstractResultSet {
         return current;
     }
 
-    protected ResultSet getNextResult() {
-        if (this.current == null) {
-            for (int i = this.nextIndex, len = results.length; i < len; i++) {
-                ResultSet rs = results[i];
-                if (rs != null) {
-                    this.current = rs;
-                    this.nextIndex = i + 1;
-                    break;
+    protected ResultSet await(int index) throws SQLException {
+        ResultSet rs = results[index];
+        if (rs == null && futures != null) {
+            try {
+                rs = futures[index].get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw SqlExceptionUtils.handle(e);
+            } catch (ExecutionException e) {
+                throw SqlExceptionUtils.handle(e.getCause() != null ? e.getCause() : e);
+            } catch (CancellationException e) {
+                throw SqlExceptionUtils.handle(e);
+            }
+            results[index] = rs;
+        }
+        return rs;
+    }
+
+    protected ResultSet nextResult() throws SQLException {
+        for (int len = results.length; nextIndex < len;) {
+            final int index;
+            if (completed != null) {
+                try {
+                    index = completed.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw SqlExceptionUtils.handle(e);
                 }
+            } else {
+                index = nextIndex;
             }
+            nextIndex++;
+
+            ResultSet rs = await(index);
+            if (rs != null) {
+                return rs;
+            }
+        }
+        return null;
+    }
+
+    protected ResultSet getNextResult() throws SQLException {
+        if (this.current == null) {
+            this.current = nextResult();
         }
         return this.current;
     }
@@ -84,7 +129,7 @@ public class CombinedResultSet extends AbstractResultSet {
                 current.close();
             }
 
-            current = results[nextIndex++];
+            current = nextResult();
             if (current != null && current.next()) {
                 hasNext = true;
                 break;
@@ -101,6 +146,8 @@ public class CombinedResultSet extends AbstractResultSet {
     public CombinedResultSet(ResultSet[] results, SQLWarning warning) {
         super(null);
 
+        this.futures = null;
+        this.completed = null;
         this.nextIndex = 0;
         this.rowNumber = 0;
         this.warning.set(warning);
@@ -120,6 +167,8 @@ public class CombinedResultSet extends AbstractResultSet {
     public CombinedResultSet(Collection<ResultSet> results, SQLWarning warning) {
         super(null);
 
+        this.futures = null;
+        this.completed = null;
         this.nextIndex = 0;
         this.rowNumber = 0;
         this.warning.set(warning);
@@ -143,15 +192,53 @@ public class CombinedResultSet extends AbstractResultSet {
         }
     }
 
+    /**
+     * Creates a combined result set from results that are still being produced.
+     * Pending results are awaited on {@link #next()}, and the ones never reached
+     * are cancelled or closed along with this result set.
+     *
+     * @param futures non-null list of futures, each completed with a result set
+     *                or {@code null}
+     * @param ordered true to read results in the given order; false to read
+     *                them in the order they complete
+     */
+    @SuppressWarnings("unchecked")
+    public CombinedResultSet(List<CompletableFuture<ResultSet>> futures, boolean ordered) {
+        super(null);
+
+        final int len = futures.size();
+        this.results = new ResultSet[len];
+        this.futures = (CompletableFuture<ResultSet>[]) futures.toArray(new CompletableFuture<?>[len]);
+        this.completed = ordered ? null : new ArrayBlockingQueue<>(Math.max(len, 1));
+        this.nextIndex = 0;
+        this.rowNumber = 0;
+        this.current = null;
+
+        if (this.completed != null) {
+            for (int i = 0; i < len; i++) {
+                final Integer index = i;
+                this.futures[i].whenComplete((r, e) -> this.completed.offer(index));
+            }
+        }
+    }
+
     /**
      * Checks if the combined result set only contains null {@link ResultSet} or
-     * empty {@link CombinedResultSet}.
+     * empty {@link CombinedResultSet}. Pending results will be awaited, and failed
+     * ones are considered as empty.
      *
      * @return true if it's empty; false otherwise
      */
     public boolean isEmpty() {
         for (int i = 0, len = results.length; i < len; i++) {
             ResultSet rs = results[i];
+            if (rs == null && futures != null) {
+                try {
+                    rs = futures[i].join();
+                } catch (CancellationException | CompletionException e) {
+                    // ignore
+                }
+            }
             if (rs != null && (!(rs instanceof CombinedResultSet) || !((CombinedResultSet) rs).isEmpty())) {
                 return false;
             }
@@ -171,6 +258,15 @@ public class CombinedResultSet extends AbstractResultSet {
 
     @Override
     public void close() throws SQLException {
+        if (futures != null) {
+            for (int i = 0, len = futures.length; i < len; i++) {
+                final CompletableFuture<ResultSet> f = futures[i];
+                if (results[i] == null && !f.cancel(false) && !f.isCompletedExceptionally()) {
+                    results[i] = f.getNow(null);
+                }
+            }
+        }
+
         SQLException ex = null;
         for (ResultSet rs : results) {
             if (rs != null) {
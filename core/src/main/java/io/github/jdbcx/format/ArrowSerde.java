@@ -63,6 +63,7 @@ import io.github.jdbcx.Result;
 import io.github.jdbcx.Serialization;
 import io.github.jdbcx.Utils;
 import io.github.jdbcx.Value;
+import io.github.jdbcx.data.IterableColumns;
 
 public class ArrowSerde implements Serialization {
     public static final Option OPTION_ROWS = Option
@@ -74,9 +75,13 @@ public class ArrowSerde implements Serialization {
             .of(new String[] { "stream", "Whether to use stream format or not", Constants.FALSE_EXPR,
                     Constants.TRUE_EXPR });
 
-    static final class VectorConsumer {
-        final FieldVector vector;
-        final ObjIntConsumer<Value> consumer;
+    /**
+     * Arrow vector along with the function to set its values. For internal use
+     * only, the package is only exported to the server module.
+     */
+    public static final class VectorConsumer {
+        public final FieldVector vector;
+        public final ObjIntConsumer<Value> consumer;
 
         VectorConsumer(FieldVector vector, ObjIntConsumer<Value> consumer) {
             this.vector = vector;
@@ -84,7 +89,7 @@ public class ArrowSerde implements Serialization {
         }
     }
 
-    static VectorConsumer newArrowVectorConsumer(BufferAllocator allocator, io.github.jdbcx.Field f,
+    public static VectorConsumer newArrowVectorConsumer(BufferAllocator allocator, io.github.jdbcx.Field f,
             TimeZone timeZone) {
         final VectorConsumer vc;
         switch (f.type()) {
@@ -256,6 +261,64 @@ public class ArrowSerde implements Serialization {
         return vc;
     }
 
+    static void fill(FieldVector vector, ObjIntConsumer<Value> consumer, IterableColumns.Column column, int from,
+            int to) {
+        if (column.hasLongs() && vector instanceof BigIntVector) {
+            final BigIntVector v = (BigIntVector) vector;
+            for (int r = from, i = 0; r < to; r++, i++) {
+                if (column.isNull(r)) {
+                    v.setNull(i);
+                } else {
+                    v.setSafe(i, column.getLong(r));
+                }
+            }
+        } else if (column.hasLongs() && vector instanceof IntVector) {
+            final IntVector v = (IntVector) vector;
+            for (int r = from, i = 0; r < to; r++, i++) {
+                if (column.isNull(r)) {
+                    v.setNull(i);
+                } else {
+                    v.setSafe(i, (int) column.getLong(r));
+                }
+            }
+        } else if (column.hasLongs() && vector instanceof BitVector) {
+            final BitVector v = (BitVector) vector;
+            for (int r = from, i = 0; r < to; r++, i++) {
+                if (column.isNull(r)) {
+                    v.setNull(i);
+                } else {
+                    v.setSafe(i, column.getLong(r) != 0L ? 1 : 0);
+                }
+            }
+        } else if (column.hasDoubles() && vector instanceof Float8Vector) {
+            final Float8Vector v = (Float8Vector) vector;
+            for (int r = from, i = 0; r < to; r++, i++) {
+                if (column.isNull(r)) {
+                    v.setNull(i);
+                } else {
+                    v.setSafe(i, column.getDouble(r));
+                }
+            }
+        } else if (column.hasDoubles() && vector instanceof Float4Vector) {
+            final Float4Vector v = (Float4Vector) vector;
+            for (int r = from, i = 0; r < to; r++, i++) {
+                if (column.isNull(r)) {
+                    v.setNull(i);
+                } else {
+                    v.setSafe(i, (float) column.getDouble(r));
+                }
+            }
+        } else {
+            for (int r = from, i = 0; r < to; r++, i++) {
+                if (column.isNull(r)) {
+                    vector.setNull(i);
+                } else {
+                    consumer.accept(column.getValue(r), i);
+                }
+            }
+        }
+    }
+
     protected final int batchSize;
     protected final boolean reset;
     protected final boolean stream;
@@ -299,6 +362,27 @@ public class ArrowSerde implements Serialization {
                 }
                 writer.start();
 
+                if (IterableColumns.class.isAssignableFrom(result.type())) {
+                    // write column by column, no need to go through rows
+                    final IterableColumns columns = result.get(IterableColumns.class);
+                    for (int from = 0, total = columns.size(); from < total; from += size) {
+                        final int to = Math.min(from + size, total);
+                        if (clear) {
+                            root.allocateNew();
+                        }
+                        for (int i = 0; i < len; i++) {
+                            fill(vectors.get(i), consumers.get(i), columns.column(i), from, to);
+                        }
+                        root.setRowCount(to - from);
+                        writer.writeBatch();
+                        if (clear) {
+                            root.clear();
+                        }
+                    }
+                    writer.end();
+                    return;
+                }
+
                 int index = 0;
                 for (io.github.jdbcx.Row r : result.rows()) {
                     if (clear && index == 0) {
@@ -15,24 +15,45 @@
  */
 package io.github.jdbcx.format;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.sql.JDBCType;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Properties;
+import java.util.function.Function;
 
 import org.apache.avro.Conversions.DecimalConversion;
+import org.apache.avro.LogicalType;
 import org.apache.avro.LogicalTypes;
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaBuilder;
 import org.apache.avro.SchemaBuilder.FieldAssembler;
 import org.apache.avro.SchemaBuilder.FieldBuilder;
 import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileStream;
 import org.apache.avro.file.DataFileWriter;
 import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericFixed;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.DecoderFactory;
 import org.apache.avro.io.Encoder;
 import org.apache.avro.io.EncoderFactory;
 import org.apache.avro.specific.SpecificDatumWriter;
@@ -48,6 +69,19 @@ import io.github.jdbcx.Row;
 import io.github.jdbcx.Serialization;
 import io.github.jdbcx.Utils;
 import io.github.jdbcx.Value;
+import io.github.jdbcx.ValueFactory;
+import io.github.jdbcx.data.DefaultRow;
+import io.github.jdbcx.value.BigDecimalValue;
+import io.github.jdbcx.value.BinaryValue;
+import io.github.jdbcx.value.BooleanValue;
+import io.github.jdbcx.value.DateTimeValue;
+import io.github.jdbcx.value.DateValue;
+import io.github.jdbcx.value.DoubleValue;
+import io.github.jdbcx.value.FloatValue;
+import io.github.jdbcx.value.IntValue;
+import io.github.jdbcx.value.LongValue;
+import io.github.jdbcx.value.StringValue;
+import io.github.jdbcx.value.TimeValue;
 
 public class AvroSerde implements Serialization {
     public static final String ENCODER_BINARY = "binary";
@@ -64,6 +98,256 @@ public class AvroSerde implements Serialization {
                     "Preferred encoder(" + ENCODER_BINARY + " or " + ENCODER_JSON
                             + ") to use, empty means no encoder will be used",
                     Constants.EMPTY_STRING, ENCODER_BINARY, ENCODER_JSON });
+    public static final Option OPTION_SCHEMA = Option.of(new String[] { "schema",
+            "Avro schema in JSON, only required for reading data written by an encoder, as it's not self-describing" });
+
+    /**
+     * Rows read from Avro container file block by block, or from a stream of
+     * encoded records. The record, decoder and cursor are reused for all rows.
+     */
+    static final class AvroRows implements Iterable<Row>, AutoCloseable {
+        private final List<Field> fields;
+        private final List<Function<Object, Value>> readers;
+        private final DataFileStream<GenericRecord> stream;
+        private final DatumReader<GenericRecord> datumReader;
+        private final Decoder decoder;
+        private final InputStream input;
+
+        private final Value[] values;
+        private final Row cursor;
+
+        private GenericRecord record;
+        private boolean fetched;
+
+        AvroRows(Schema schema, DataFileStream<GenericRecord> stream, DatumReader<GenericRecord> datumReader,
+                Decoder decoder, InputStream input) {
+            final ValueFactory factory = ValueFactory.getInstance();
+            final List<Schema.Field> list = schema.getFields();
+            final int len = list.size();
+            final List<Field> f = new ArrayList<>(len);
+            this.readers = new ArrayList<>(len);
+            for (Schema.Field field : list) {
+                final Field column = toField(field);
+                f.add(column);
+                readers.add(newValueReader(factory, nonNullSchema(field.schema()), column));
+            }
+            this.fields = Collections.unmodifiableList(f);
+
+            this.stream = stream;
+            this.datumReader = datumReader;
+            this.decoder = decoder;
+            this.input = input;
+
+            this.values = new Value[len];
+            this.cursor = new DefaultRow(fields, values);
+        }
+
+        boolean fetch() {
+            if (fetched) {
+                return record != null;
+            }
+
+            try {
+                if (stream != null) {
+                    record = stream.hasNext() ? stream.next(record) : null;
+                } else if (decoder instanceof BinaryDecoder && ((BinaryDecoder) decoder).isEnd()) {
+                    record = null;
+                } else {
+                    record = datumReader.read(record, decoder);
+                }
+            } catch (EOFException e) {
+                // no more record, which is how JSON decoder ends
+                record = null;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            fetched = true;
+            return record != null;
+        }
+
+        List<Field> fields() {
+            return fields;
+        }
+
+        @Override
+        public Iterator<Row> iterator() {
+            return new Iterator<Row>() {
+                @Override
+                public boolean hasNext() {
+                    return fetch();
+                }
+
+                @Override
+                public Row next() {
+                    if (!fetch()) {
+                        throw new NoSuchElementException();
+                    }
+                    fetched = false;
+
+                    final GenericRecord r = record;
+                    for (int i = 0, len = values.length; i < len; i++) {
+                        values[i] = readers.get(i).apply(r.get(i));
+                    }
+                    return cursor;
+                }
+            };
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (stream != null) {
+                stream.close();
+            } else {
+                input.close();
+            }
+        }
+    }
+
+    static Schema nonNullSchema(Schema schema) {
+        if (schema.getType() == Schema.Type.UNION) {
+            Schema s = null;
+            for (Schema t : schema.getTypes()) {
+                if (t.getType() == Schema.Type.NULL) {
+                    continue;
+                } else if (s != null) { // more than one non-null type
+                    return schema;
+                }
+                s = t;
+            }
+            if (s != null) {
+                return s;
+            }
+        }
+        return schema;
+    }
+
+    static Field toField(Schema.Field field) {
+        final Schema original = field.schema();
+        final Schema schema = nonNullSchema(original);
+        final boolean nullable = original.isNullable();
+        final LogicalType logicalType = schema.getLogicalType();
+        final String name = field.name();
+        if (logicalType instanceof LogicalTypes.Decimal) {
+            LogicalTypes.Decimal d = (LogicalTypes.Decimal) logicalType;
+            return Field.of(name, null, JDBCType.DECIMAL, nullable, d.getPrecision(), d.getScale(), true);
+        } else if (logicalType instanceof LogicalTypes.Date) {
+            return Field.of(name, null, JDBCType.DATE, nullable, 0, 0, false);
+        } else if (logicalType instanceof LogicalTypes.TimeMillis) {
+            return Field.of(name, null, JDBCType.TIME, nullable, 0, 3, false);
+        } else if (logicalType instanceof LogicalTypes.TimeMicros) {
+            return Field.of(name, null, JDBCType.TIME, nullable, 0, 6, false);
+        } else if (logicalType instanceof LogicalTypes.TimestampMillis) {
+            return Field.of(name, null, JDBCType.TIMESTAMP_WITH_TIMEZONE, nullable, 0, 3, false);
+        } else if (logicalType instanceof LogicalTypes.TimestampMicros) {
+            return Field.of(name, null, JDBCType.TIMESTAMP_WITH_TIMEZONE, nullable, 0, 6, false);
+        } else if (logicalType instanceof LogicalTypes.LocalTimestampMillis) {
+            return Field.of(name, null, JDBCType.TIMESTAMP, nullable, 0, 3, false);
+        } else if (logicalType instanceof LogicalTypes.LocalTimestampMicros) {
+            return Field.of(name, null, JDBCType.TIMESTAMP, nullable, 0, 6, false);
+        }
+
+        switch (schema.getType()) {
+            case BOOLEAN:
+                return Field.of(name, null, JDBCType.BOOLEAN, nullable, 0, 0, false);
+            case INT:
+                return Field.of(name, null, JDBCType.INTEGER, nullable, 0, 0, true);
+            case LONG:
+                return Field.of(name, null, JDBCType.BIGINT, nullable, 0, 0, true);
+            case FLOAT:
+                return Field.of(name, null, JDBCType.FLOAT, nullable, 0, 0, true);
+            case DOUBLE:
+                return Field.of(name, null, JDBCType.DOUBLE, nullable, 0, 0, true);
+            case BYTES:
+            case FIXED:
+                return Field.of(name, null, JDBCType.VARBINARY, nullable, 0, 0, false);
+            default: // string, enum and complex types
+                return Field.of(name, null, JDBCType.VARCHAR, nullable, 0, 0, false);
+        }
+    }
+
+    static Function<Object, Value> newValueReader(ValueFactory factory, Schema schema, Field f) {
+        final boolean nullable = f.isNullable();
+        final Function<Object, Value> reader;
+        switch (f.type()) {
+            case BOOLEAN:
+                reader = o -> o == null ? BooleanValue.of(factory, nullable).resetToNull()
+                        : BooleanValue.of(factory, nullable, (Boolean) o);
+                break;
+            case INTEGER:
+                reader = o -> o == null ? IntValue.of(factory, nullable, true).resetToNull()
+                        : IntValue.of(factory, nullable, true, (Integer) o);
+                break;
+            case BIGINT:
+                reader = o -> o == null ? LongValue.of(factory, nullable, true).resetToNull()
+                        : LongValue.of(factory, nullable, true, (Long) o);
+                break;
+            case FLOAT:
+                reader = o -> o == null ? FloatValue.of(factory, nullable).resetToNull()
+                        : FloatValue.of(factory, nullable, (Float) o);
+                break;
+            case DOUBLE:
+                reader = o -> o == null ? DoubleValue.of(factory, nullable).resetToNull()
+                        : DoubleValue.of(factory, nullable, (Double) o);
+                break;
+            case DECIMAL: {
+                final DecimalConversion conversion = new DecimalConversion();
+                final LogicalType logicalType = schema.getLogicalType();
+                final int scale = f.scale();
+                reader = o -> BigDecimalValue.of(factory, nullable, scale,
+                        o instanceof ByteBuffer
+                                ? conversion.fromBytes(((ByteBuffer) o).duplicate(), schema, logicalType)
+                                : (o instanceof GenericFixed
+                                        ? conversion.fromFixed((GenericFixed) o, schema, logicalType)
+                                        : null));
+                break;
+            }
+            case DATE:
+                reader = o -> DateValue.of(factory, nullable,
+                        o == null ? null : LocalDate.ofEpochDay(((Number) o).longValue()));
+                break;
+            case TIME: {
+                final long unit = f.scale() > 3 ? 1_000L : 1_000_000L;
+                reader = o -> TimeValue.of(factory, nullable, f.scale(),
+                        o == null ? null : LocalTime.ofNanoOfDay(((Number) o).longValue() * unit));
+                break;
+            }
+            case TIMESTAMP:
+            case TIMESTAMP_WITH_TIMEZONE: {
+                // same zone as used in serialization
+                final ZoneOffset offset = factory.getZoneOffset();
+                final long perSecond = f.scale() > 3 ? 1_000_000L : 1_000L;
+                final long unit = f.scale() > 3 ? 1_000L : 1_000_000L;
+                reader = o -> {
+                    if (o == null) {
+                        return DateTimeValue.of(factory, nullable, f.scale(), null);
+                    }
+                    final long v = (Long) o;
+                    return DateTimeValue.of(factory, nullable, f.scale(), LocalDateTime.ofEpochSecond(
+                            Math.floorDiv(v, perSecond), (int) (Math.floorMod(v, perSecond) * unit), offset));
+                };
+                break;
+            }
+            case VARBINARY:
+                reader = o -> {
+                    final byte[] bytes;
+                    if (o instanceof ByteBuffer) {
+                        final ByteBuffer buf = ((ByteBuffer) o).duplicate();
+                        bytes = new byte[buf.remaining()];
+                        buf.get(bytes);
+                    } else if (o instanceof GenericFixed) {
+                        bytes = ((GenericFixed) o).bytes().clone();
+                    } else {
+                        bytes = null;
+                    }
+                    return BinaryValue.of(factory, nullable, bytes);
+                };
+                break;
+            default:
+                reader = o -> StringValue.of(factory, nullable, 0, o != null ? o.toString() : null);
+                break;
+        }
+        return reader;
+    }
 
     static FieldAssembler<Schema> newField(FieldBuilder<Schema> builder, Schema.Type type, boolean nullable) {
         return nullable ? builder.type().unionOf().nullType().and().type(Schema.create(type)).endUnion().noDefault()
@@ -228,6 +512,7 @@ public class AvroSerde implements Serialization {
 
     protected final CodecFactory codecFactory;
     protected final String encoder;
+    protected final Schema schema;
 
     public AvroSerde(Properties config) {
         String codec = OPTION_CODEC.getValue(config);
@@ -255,11 +540,25 @@ public class AvroSerde implements Serialization {
             codecFactory = CodecFactory.fromString(codec);
         }
         encoder = OPTION_ENCODER.getValue(config);
+        String value = OPTION_SCHEMA.getValue(config);
+        schema = Checker.isNullOrBlank(value) ? null : new Schema.Parser().parse(value);
     }
 
     @Override
     public Result<?> deserialize(InputStream in) throws IOException {
-        throw new UnsupportedOperationException("Unimplemented method 'deserialize'");
+        final AvroRows rows;
+        if (Checker.isNullOrEmpty(encoder)) {
+            final DataFileStream<GenericRecord> stream = new DataFileStream<>(in, new GenericDatumReader<>());
+            rows = new AvroRows(stream.getSchema(), stream, null, null, in);
+        } else if (schema == null) {
+            throw new IllegalArgumentException(
+                    "Schema is required for reading records written by " + encoder + " encoder");
+        } else {
+            final Decoder dec = ENCODER_JSON.equals(encoder) ? DecoderFactory.get().jsonDecoder(schema, in)
+                    : DecoderFactory.get().binaryDecoder(in, null);
+            rows = new AvroRows(schema, null, new GenericDatumReader<>(schema), dec, in);
+        }
+        return Result.of(rows.fields(), rows);
     }
 
     @Override
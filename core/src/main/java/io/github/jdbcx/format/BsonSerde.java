@@ -15,16 +15,38 @@
  */
 package io.github.jdbcx.format;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.JDBCType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Properties;
 import java.util.function.BiConsumer;
 
 import org.bson.BsonBinary;
+import org.bson.BsonBinaryReader;
 import org.bson.BsonBinaryWriter;
+import org.bson.BsonDocument;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonValue;
 import org.bson.BsonWriter;
+import org.bson.codecs.BsonValueCodec;
+import org.bson.codecs.DecoderContext;
 import org.bson.io.BasicOutputBuffer;
 import org.bson.io.OutputBuffer;
 import org.bson.types.Decimal128;
@@ -33,9 +55,391 @@ import io.github.jdbcx.Field;
 import io.github.jdbcx.Result;
 import io.github.jdbcx.Row;
 import io.github.jdbcx.Serialization;
+import io.github.jdbcx.Utils;
 import io.github.jdbcx.Value;
+import io.github.jdbcx.ValueFactory;
+import io.github.jdbcx.data.DefaultRow;
+import io.github.jdbcx.value.BigDecimalValue;
+import io.github.jdbcx.value.BinaryValue;
+import io.github.jdbcx.value.BooleanValue;
+import io.github.jdbcx.value.DateTimeValue;
+import io.github.jdbcx.value.DoubleValue;
+import io.github.jdbcx.value.IntValue;
+import io.github.jdbcx.value.LongValue;
+import io.github.jdbcx.value.StringValue;
 
 public class BsonSerde implements Serialization {
+    /**
+     * Rows read from a stream of BSON documents, one document at a time. As
+     * BSON is schemaless, fields are derived from the first few documents,
+     * which are kept in memory until they're iterated. Numeric fields are
+     * widened to fit all sampled values, and a later value that still does
+     * not fit fails the iteration instead of being truncated. Unknown elements
+     * in following documents are skipped, and missing ones are null. The
+     * document buffer and cursor are reused for all rows.
+     */
+    static final class BsonRows implements Iterable<Row>, AutoCloseable {
+        private final InputStream input;
+        private final ValueFactory factory;
+        private final BsonValueCodec codec;
+        private final DecoderContext context;
+        private final Map<String, Integer> names;
+        private final LinkedList<Object[]> samples;
+
+        private byte[] buffer;
+        private List<Field> fields;
+        private Value[] values;
+        private Row cursor;
+
+        private Object[] pending;
+        private boolean fetched;
+
+        static JDBCType getType(Object obj) {
+            final JDBCType type;
+            if (obj == null) {
+                type = JDBCType.NULL;
+            } else if (obj instanceof Boolean) {
+                type = JDBCType.BOOLEAN;
+            } else if (obj instanceof Integer) {
+                type = JDBCType.INTEGER;
+            } else if (obj instanceof Long) {
+                type = JDBCType.BIGINT;
+            } else if (obj instanceof Double) {
+                type = JDBCType.DOUBLE;
+            } else if (obj instanceof BigDecimal) {
+                type = JDBCType.DECIMAL;
+            } else if (obj instanceof LocalDateTime) {
+                type = JDBCType.TIMESTAMP;
+            } else if (obj instanceof byte[]) {
+                type = JDBCType.VARBINARY;
+            } else {
+                type = JDBCType.VARCHAR;
+            }
+            return type;
+        }
+
+        static boolean isNumber(JDBCType type) {
+            return type == JDBCType.INTEGER || type == JDBCType.BIGINT || type == JDBCType.DOUBLE
+                    || type == JDBCType.DECIMAL;
+        }
+
+        static JDBCType merge(JDBCType type, JDBCType other) {
+            if (type == other || other == JDBCType.NULL) {
+                return type;
+            } else if (type == JDBCType.NULL) {
+                return other;
+            } else if (isNumber(type) && isNumber(other)) {
+                // INTEGER < BIGINT < DOUBLE < DECIMAL
+                if (type == JDBCType.DECIMAL || other == JDBCType.DECIMAL) {
+                    return JDBCType.DECIMAL;
+                } else if (type == JDBCType.DOUBLE || other == JDBCType.DOUBLE) {
+                    return JDBCType.DOUBLE;
+                }
+                return JDBCType.BIGINT;
+            }
+            return JDBCType.VARCHAR;
+        }
+
+        static BigDecimal toBigDecimal(Number n) {
+            if (n instanceof BigDecimal) {
+                return (BigDecimal) n;
+            } else if (n instanceof Double) {
+                return BigDecimal.valueOf(n.doubleValue());
+            }
+            return BigDecimal.valueOf(n.longValue());
+        }
+
+        BsonRows(InputStream input, int sample) throws IOException {
+            this.input = input;
+            this.factory = ValueFactory.getInstance();
+            this.codec = new BsonValueCodec();
+            this.context = DecoderContext.builder().build();
+            this.names = new HashMap<>();
+            this.samples = new LinkedList<>();
+
+            this.buffer = new byte[1024];
+            sample(Math.max(sample, 1));
+        }
+
+        private void sample(int count) throws IOException {
+            final List<String> list = new ArrayList<>();
+            final List<JDBCType> types = new ArrayList<>();
+            final List<Integer> scales = new ArrayList<>();
+            Object[] doc;
+            while (samples.size() < count && (doc = readDocument()) != null) {
+                for (int i = 0, len = doc.length; i < len; i += 2) {
+                    final String name = (String) doc[i];
+                    final Object obj = doc[i + 1];
+                    Integer index = names.get(name);
+                    if (index == null) {
+                        index = list.size();
+                        names.put(name, index);
+                        list.add(name);
+                        types.add(JDBCType.NULL);
+                        scales.add(0);
+                    }
+                    types.set(index, merge(types.get(index), getType(obj)));
+                    if (obj instanceof BigDecimal) {
+                        scales.set(index, Math.max(scales.get(index), ((BigDecimal) obj).scale()));
+                    }
+                }
+                samples.add(doc);
+            }
+
+            final int len = list.size();
+            final List<Field> fields = new ArrayList<>(len);
+            for (int i = 0; i < len; i++) {
+                final String name = list.get(i);
+                final Field f;
+                switch (types.get(i)) {
+                    case BOOLEAN:
+                        f = Field.of(name, null, JDBCType.BOOLEAN, true, 0, 0, false);
+                        break;
+                    case INTEGER:
+                        f = Field.of(name, null, JDBCType.INTEGER, true, 0, 0, true);
+                        break;
+                    case BIGINT:
+                        f = Field.of(name, null, JDBCType.BIGINT, true, 0, 0, true);
+                        break;
+                    case DOUBLE:
+                        f = Field.of(name, null, JDBCType.DOUBLE, true, 0, 0, true);
+                        break;
+                    case DECIMAL:
+                        f = Field.of(name, null, JDBCType.DECIMAL, true, 34, scales.get(i), true);
+                        break;
+                    case TIMESTAMP:
+                        f = Field.of(name, null, JDBCType.TIMESTAMP, true, 0, 3, false);
+                        break;
+                    case VARBINARY:
+                        f = Field.of(name, null, JDBCType.VARBINARY, true, 0, 0, false);
+                        break;
+                    default:
+                        f = Field.of(name, null, JDBCType.VARCHAR, true, 0, 0, false);
+                        break;
+                }
+                fields.add(f);
+            }
+            this.fields = Collections.unmodifiableList(fields);
+            this.values = new Value[len];
+            this.cursor = new DefaultRow(this.fields, values);
+        }
+
+        Object readValue(BsonReader reader) {
+            final Object obj;
+            switch (reader.getCurrentBsonType()) {
+                case BOOLEAN:
+                    obj = reader.readBoolean();
+                    break;
+                case INT32:
+                    obj = reader.readInt32();
+                    break;
+                case INT64:
+                    obj = reader.readInt64();
+                    break;
+                case DOUBLE:
+                    obj = reader.readDouble();
+                    break;
+                case DECIMAL128: {
+                    final Decimal128 d = reader.readDecimal128();
+                    obj = d.isNaN() || d.isInfinite() ? null : d.bigDecimalValue();
+                    break;
+                }
+                case DATE_TIME: {
+                    final long v = reader.readDateTime();
+                    obj = LocalDateTime.ofEpochSecond(Math.floorDiv(v, 1000L),
+                            (int) (Math.floorMod(v, 1000L) * 1_000_000L), factory.getZoneOffset());
+                    break;
+                }
+                case BINARY:
+                    obj = reader.readBinaryData().getData();
+                    break;
+                case STRING:
+                    obj = reader.readString();
+                    break;
+                case OBJECT_ID:
+                    obj = reader.readObjectId().toHexString();
+                    break;
+                case NULL:
+                    reader.readNull();
+                    obj = null;
+                    break;
+                case UNDEFINED:
+                    reader.readUndefined();
+                    obj = null;
+                    break;
+                default:
+                    obj = toJson(codec.decode(reader, context));
+                    break;
+            }
+            return obj;
+        }
+
+        Object[] readDocument() throws IOException {
+            final InputStream in = input;
+            int b0 = in.read();
+            if (b0 < 0) {
+                return null;
+            }
+            final byte[] header = new byte[] { (byte) b0, 0, 0, 0 };
+            readFully(in, header, 1, 3);
+            final int size = (header[0] & 0xFF) | (header[1] & 0xFF) << 8 | (header[2] & 0xFF) << 16
+                    | (header[3] & 0xFF) << 24;
+            if (size < 5) {
+                throw new IOException("Invalid BSON document size: " + size);
+            }
+            if (size > buffer.length) {
+                buffer = new byte[Math.max(size, buffer.length + (buffer.length >> 1))];
+            }
+            System.arraycopy(header, 0, buffer, 0, 4);
+            readFully(in, buffer, 4, size - 4);
+
+            final List<Object> list = new ArrayList<>(fields != null ? fields.size() * 2 : 16);
+            try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(buffer, 0, size).slice())) {
+                reader.readStartDocument();
+                while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                    list.add(reader.readName());
+                    list.add(readValue(reader));
+                }
+                reader.readEndDocument();
+            }
+            return list.toArray();
+        }
+
+        boolean fetch() {
+            if (!fetched) {
+                try {
+                    pending = samples.isEmpty() ? readDocument() : samples.removeFirst();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                fetched = true;
+            }
+            return pending != null;
+        }
+
+        Value toValue(int index, Object obj) {
+            final Field f = fields.get(index);
+            final JDBCType type = f.type();
+            if (obj != null && type != JDBCType.VARCHAR && type != JDBCType.VARBINARY
+                    && (isNumber(type) ? !(obj instanceof Number) : getType(obj) != type)) {
+                throw new UncheckedIOException(new IOException(
+                        Utils.format("Failed to convert [%s] to %s for field [%s]", obj, type, f.name())));
+            }
+
+            final Value value;
+            try {
+                value = toValue(f, obj);
+            } catch (ArithmeticException e) {
+                throw new UncheckedIOException(new IOException(
+                        Utils.format("Failed to convert [%s] to %s for field [%s]", obj, type, f.name()), e));
+            }
+            return value;
+        }
+
+        private Value toValue(Field f, Object obj) {
+            final Value value;
+            switch (f.type()) {
+                case BOOLEAN:
+                    value = obj != null ? BooleanValue.of(factory, true, (Boolean) obj)
+                            : BooleanValue.of(factory, true).resetToNull();
+                    break;
+                case INTEGER:
+                    value = obj != null ? IntValue.of(factory, true, true, toBigDecimal((Number) obj).intValueExact())
+                            : IntValue.of(factory, true, true).resetToNull();
+                    break;
+                case BIGINT:
+                    value = obj != null
+                            ? LongValue.of(factory, true, true, toBigDecimal((Number) obj).longValueExact())
+                            : LongValue.of(factory, true, true).resetToNull();
+                    break;
+                case DOUBLE:
+                    value = obj != null ? DoubleValue.of(factory, true, ((Number) obj).doubleValue())
+                            : DoubleValue.of(factory, true).resetToNull();
+                    break;
+                case DECIMAL:
+                    value = BigDecimalValue.of(factory, true, f.scale(),
+                            obj != null ? toBigDecimal((Number) obj) : null);
+                    break;
+                case TIMESTAMP:
+                    value = DateTimeValue.of(factory, true, f.scale(), (LocalDateTime) obj);
+                    break;
+                case VARBINARY:
+                    value = BinaryValue.of(factory, true, obj instanceof byte[] ? (byte[]) obj
+                            : (obj != null ? obj.toString().getBytes(StandardCharsets.UTF_8) : null));
+                    break;
+                default:
+                    value = StringValue.of(factory, true, 0, obj instanceof byte[]
+                            ? new String((byte[]) obj, StandardCharsets.UTF_8)
+                            : (obj != null ? obj.toString() : null));
+                    break;
+            }
+            return value;
+        }
+
+        List<Field> fields() {
+            return fields;
+        }
+
+        @Override
+        public Iterator<Row> iterator() {
+            return new Iterator<Row>() {
+                @Override
+                public boolean hasNext() {
+                    return fetch();
+                }
+
+                @Override
+                public Row next() {
+                    if (!fetch()) {
+                        throw new NoSuchElementException();
+                    }
+                    fetched = false;
+
+                    final Object[] doc = pending;
+                    final Value[] arr = values;
+                    Arrays.fill(arr, null);
+                    for (int i = 0, len = doc.length; i < len; i += 2) {
+                        final Integer index = names.get(doc[i]);
+                        if (index != null) {
+                            arr[index] = toValue(index, doc[i + 1]);
+                        }
+                    }
+                    for (int i = 0, len = arr.length; i < len; i++) {
+                        if (arr[i] == null) {
+                            arr[i] = toValue(i, null);
+                        }
+                    }
+                    pending = null;
+                    return cursor;
+                }
+            };
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+
+    static void readFully(InputStream in, byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            final int n = in.read(b, off, len);
+            if (n < 0) {
+                throw new EOFException("Incomplete BSON document");
+            }
+            off += n;
+            len -= n;
+        }
+    }
+
+    static String toJson(BsonValue value) {
+        if (value.isDocument()) {
+            return value.asDocument().toJson();
+        }
+        // {"v": ...}
+        final String json = new BsonDocument("v", value).toJson();
+        return json.substring(6, json.length() - 1);
+    }
 
     static final class ColumnValueWriter {
         final String name;
@@ -92,8 +496,9 @@ public class BsonSerde implements Serialization {
             }
             case NUMERIC:
             case DECIMAL: {
+                final int scale = f.scale();
                 cw = new ColumnValueWriter(f.name(),
-                        (n, v) -> writer.writeDecimal128(n, new Decimal128(v.asBigDecimal())));
+                        (n, v) -> writer.writeDecimal128(n, new Decimal128(v.asBigDecimal(scale))));
                 break;
             }
             case DATE: {
@@ -140,13 +545,18 @@ public class BsonSerde implements Serialization {
         return cw;
     }
 
+    protected final int sample;
+
     public BsonSerde(Properties config) {
         super();
+
+        sample = Integer.parseInt(JsonlSerde.OPTION_SAMPLE.getValue(config));
     }
 
     @Override
     public Result<?> deserialize(InputStream in) throws IOException {
-        throw new UnsupportedOperationException("Unimplemented method 'deserialize'");
+        final BsonRows rows = new BsonRows(in, sample);
+        return Result.of(rows.fields(), rows);
     }
 
     @Override
@@ -16,6 +16,7 @@
 package io.github.jdbcx.format;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.util.List;
@@ -26,6 +27,7 @@ import io.github.jdbcx.Field;
 import io.github.jdbcx.Option;
 import io.github.jdbcx.Result;
 import io.github.jdbcx.Row;
+import io.github.jdbcx.Utf8Buffer;
 import io.github.jdbcx.Value;
 
 public class CsvSerde extends TextSerde {
@@ -42,6 +44,9 @@ public class CsvSerde extends TextSerde {
     private final char escapeChar;
     private final char lineChar;
 
+    private final byte[] quoteTable;
+    private final byte[] escapeTable;
+
     public CsvSerde(Properties config) {
         super(config);
 
@@ -50,6 +55,21 @@ public class CsvSerde extends TextSerde {
         this.quoteChar = OPTION_QUOTE.getValue(config).charAt(0);
         this.escapeChar = OPTION_ESCAPE.getValue(config).charAt(0);
         this.lineChar = OPTION_LINE.getValue(config).charAt(0);
+
+        if (isAscii(delimChar) && isAscii(quoteChar) && isAscii(escapeChar) && isAscii(lineChar)) {
+            this.quoteTable = new byte[128];
+            this.quoteTable[delimChar] = 1;
+            this.quoteTable[lineChar] = 1;
+            this.quoteTable['\r'] = 1;
+            this.quoteTable[quoteChar] = 1;
+            this.quoteTable[escapeChar] = 1;
+            this.escapeTable = new byte[128];
+            this.escapeTable[quoteChar] = (byte) quoteChar;
+            this.escapeTable[escapeChar] = (byte) escapeChar;
+        } else {
+            this.quoteTable = null;
+            this.escapeTable = null;
+        }
     }
 
     protected String encode(String str) {
@@ -59,31 +79,39 @@ public class CsvSerde extends TextSerde {
                 return builder.append(quoteChar).append(nullValue).append(quoteChar).toString();
             }
             return nullValue;
-        } else {
-            int len = str.length();
-            boolean quoted = this.useQuotes;
-            StringBuilder builder = new StringBuilder(len + (quoted ? 2 : 0));
-            if (quoted) {
-                builder.append(quoteChar);
-            }
-            for (int i = 0; i < len; i++) {
-                char ch = str.charAt(i);
-                if (!quoted && (ch == delimChar || ch == lineChar || ch == '\r')) {
-                    builder.insert(0, quoteChar);
-                    quoted = true;
-                } else if (ch == quoteChar || ch == escapeChar) {
-                    if (!quoted) {
-                        builder.insert(0, quoteChar);
-                        quoted = true;
-                    }
-                    builder.append(escapeChar);
-                }
-                builder.append(ch);
+        }
+
+        final int len = str.length();
+        boolean quoted = this.useQuotes;
+        int escaped = 0;
+        for (int i = 0; i < len; i++) {
+            char ch = str.charAt(i);
+            if (ch == quoteChar || ch == escapeChar) {
+                quoted = true;
+                escaped++;
+            } else if (ch == delimChar || ch == lineChar || ch == '\r') {
+                quoted = true;
             }
-            if (quoted) {
-                builder.append(quoteChar);
+        }
+        if (!quoted) {
+            return str;
+        }
+
+        StringBuilder builder = new StringBuilder(len + escaped + 2).append(quoteChar);
+        for (int i = 0; i < len; i++) {
+            char ch = str.charAt(i);
+            if (ch == quoteChar || ch == escapeChar) {
+                builder.append(escapeChar);
             }
-            return builder.toString();
+            builder.append(ch);
+        }
+        return builder.append(quoteChar).toString();
+    }
+
+    protected void encode(Utf8Buffer buf, int start) {
+        if (useQuotes || buf.indexOf(start, quoteTable) >= 0) {
+            buf.escape(start, (byte) escapeChar, escapeTable);
+            buf.quote(start, (byte) quoteChar);
         }
     }
 
@@ -96,6 +124,17 @@ public class CsvSerde extends TextSerde {
         }
     }
 
+    protected void writeHeader(List<Field> fields, int size, Utf8Buffer buf) {
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                buf.append((byte) delimChar);
+            }
+            final int start = buf.length();
+            buf.append(fields.get(i).name());
+            encode(buf, start);
+        }
+    }
+
     protected void writeRow(Row r, int size, Writer writer) throws IOException {
         Value v = r.value(0);
         writer.write(encode(v.isNull() ? null : v.asString(charset)));
@@ -106,6 +145,31 @@ public class CsvSerde extends TextSerde {
         }
     }
 
+    protected void writeRow(Row r, int size, Utf8Buffer buf) {
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                buf.append((byte) delimChar);
+            }
+            final Value v = r.value(i);
+            if (v.isNull()) {
+                if (useQuotes) {
+                    buf.append((byte) quoteChar).append(nullValue).append((byte) quoteChar);
+                } else {
+                    buf.append(nullValue);
+                }
+            } else {
+                final int start = buf.length();
+                v.appendString(buf);
+                encode(buf, start);
+            }
+        }
+    }
+
+    @Override
+    protected boolean isUtf8BufferSupported() {
+        return quoteTable != null;
+    }
+
     @Override
     public Result<?> deserialize(Reader reader) throws IOException {
         throw new UnsupportedOperationException("Unimplemented method 'deserialize'");
@@ -134,4 +198,25 @@ public class CsvSerde extends TextSerde {
             }
         }
     }
+
+    @Override
+    protected void serialize(Result<?> result, Utf8Buffer buf, OutputStream out) throws IOException {
+        final List<Field> fields = result.fields();
+        final int size = fields.size();
+
+        boolean notFirst = false;
+        if (header) {
+            writeHeader(fields, size, buf);
+            notFirst = true;
+        }
+        for (Row r : result.rows()) {
+            if (notFirst) {
+                buf.append((byte) lineChar);
+            } else {
+                notFirst = true;
+            }
+            writeRow(r, size, buf);
+            flush(buf, out);
+        }
+    }
 }
@@ -16,6 +16,7 @@
 package io.github.jdbcx.format;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
@@ -26,6 +27,8 @@ import io.github.jdbcx.Converter;
 import io.github.jdbcx.Field;
 import io.github.jdbcx.Result;
 import io.github.jdbcx.Row;
+import io.github.jdbcx.Utf8Buffer;
+import io.github.jdbcx.data.IterableJson;
 
 public class JsonSeqSerde extends TextSerde {
     static final Properties update(Properties config) {
@@ -34,8 +37,12 @@ public class JsonSeqSerde extends TextSerde {
         return props;
     }
 
+    protected final int sample;
+
     public JsonSeqSerde(Properties config) {
         super(update(config));
+
+        sample = Integer.parseInt(JsonlSerde.OPTION_SAMPLE.getValue(config));
     }
 
     protected void writeNamesAndValues(String[] names, Row r, int size, Writer writer) throws IOException {
@@ -56,9 +63,47 @@ public class JsonSeqSerde extends TextSerde {
         }
     }
 
+    protected void writeNamesAndValues(byte[][] names, Row r, int size, Utf8Buffer buf) {
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                buf.append((byte) ',');
+            }
+            buf.append(names[i]);
+            r.value(i).appendJsonExpression(buf);
+        }
+    }
+
+    protected void writeValues(Row r, int size, Utf8Buffer buf) {
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                buf.append((byte) ',');
+            }
+            r.value(i).appendJsonExpression(buf);
+        }
+    }
+
+    @Override
+    protected boolean isUtf8BufferSupported() {
+        return true;
+    }
+
     @Override
     public Result<?> deserialize(Reader reader) throws IOException {
-        throw new UnsupportedOperationException("Unimplemented method 'deserialize'");
+        return deserialize(reader, null);
+    }
+
+    /**
+     * Deserializes records from the given reader using supplied fields. Values
+     * are mapped by name for objects, and by position for arrays.
+     *
+     * @param reader non-null reader
+     * @param fields optional fields, inferred from leading records when null or
+     *               empty
+     * @return non-null result
+     * @throws IOException when failed to read or parse leading records
+     */
+    public Result<?> deserialize(Reader reader, List<Field> fields) throws IOException {
+        return Result.of(IterableJson.of(fields, reader, true, sample));
     }
 
     @Override
@@ -88,4 +133,34 @@ public class JsonSeqSerde extends TextSerde {
             }
         }
     }
+
+    @Override
+    protected void serialize(Result<?> result, Utf8Buffer buf, OutputStream out) throws IOException {
+        final List<Field> fields = result.fields();
+        final int size = fields.size();
+
+        if (header) {
+            final byte[][] names = new byte[size][];
+            for (int i = 0; i < size; i++) {
+                names[i] = (Converter.toJsonExpression(fields.get(i).name()) + ":").getBytes(StandardCharsets.UTF_8);
+            }
+            for (Row r : result.rows()) {
+                buf.append((byte) 0x1E);
+                buf.append((byte) '{');
+                writeNamesAndValues(names, r, size, buf);
+                buf.append((byte) '}');
+                buf.append((byte) '\n');
+                flush(buf, out);
+            }
+        } else {
+            for (Row r : result.rows()) {
+                buf.append((byte) 0x1E);
+                buf.append((byte) '[');
+                writeValues(r, size, buf);
+                buf.append((byte) ']');
+                buf.append((byte) '\n');
+                flush(buf, out);
+            }
+        }
+    }
 }
@@ -16,19 +16,31 @@
 package io.github.jdbcx.format;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Properties;
 
 import io.github.jdbcx.Converter;
 import io.github.jdbcx.Field;
+import io.github.jdbcx.Option;
 import io.github.jdbcx.Result;
 import io.github.jdbcx.Row;
+import io.github.jdbcx.Utf8Buffer;
+import io.github.jdbcx.data.IterableJson;
 
 public class JsonlSerde extends TextSerde {
+    public static final Option OPTION_SAMPLE = Option
+            .of(new String[] { "sample", "Number of leading records for inferring field types", "100" });
+
+    protected final int sample;
+
     public JsonlSerde(Properties config) {
         super(config);
+
+        sample = Integer.parseInt(OPTION_SAMPLE.getValue(config));
     }
 
     protected void writeNamesAndValues(String[] names, Row r, int size, Writer writer) throws IOException {
@@ -49,9 +61,47 @@ public class JsonlSerde extends TextSerde {
         }
     }
 
+    protected void writeNamesAndValues(byte[][] names, Row r, int size, Utf8Buffer buf) {
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                buf.append((byte) ',');
+            }
+            buf.append(names[i]);
+            r.value(i).appendJsonExpression(buf);
+        }
+    }
+
+    protected void writeValues(Row r, int size, Utf8Buffer buf) {
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                buf.append((byte) ',');
+            }
+            r.value(i).appendJsonExpression(buf);
+        }
+    }
+
+    @Override
+    protected boolean isUtf8BufferSupported() {
+        return true;
+    }
+
     @Override
     public Result<?> deserialize(Reader reader) throws IOException {
-        throw new UnsupportedOperationException("Unimplemented method 'deserialize'");
+        return deserialize(reader, null);
+    }
+
+    /**
+     * Deserializes records from the given reader using supplied fields. Values
+     * are mapped by name for objects, and by position for arrays.
+     *
+     * @param reader non-null reader
+     * @param fields optional fields, inferred from leading records when null or
+     *               empty
+     * @return non-null result
+     * @throws IOException when failed to read or parse leading records
+     */
+    public Result<?> deserialize(Reader reader, List<Field> fields) throws IOException {
+        return Result.of(IterableJson.of(fields, reader, false, sample));
     }
 
     @Override
@@ -88,4 +138,41 @@ public class JsonlSerde extends TextSerde {
             }
         }
     }
+
+    @Override
+    protected void serialize(Result<?> result, Utf8Buffer buf, OutputStream out) throws IOException {
+        final List<Field> fields = result.fields();
+        final int size = fields.size();
+
+        boolean notFirst = false;
+        if (header) {
+            final byte[][] names = new byte[size][];
+            for (int i = 0; i < size; i++) {
+                names[i] = (Converter.toJsonExpression(fields.get(i).name()) + ":").getBytes(StandardCharsets.UTF_8);
+            }
+            for (Row r : result.rows()) {
+                if (notFirst) {
+                    buf.append((byte) '\n');
+                } else {
+                    notFirst = true;
+                }
+                buf.append((byte) '{');
+                writeNamesAndValues(names, r, size, buf);
+                buf.append((byte) '}');
+                flush(buf, out);
+            }
+        } else {
+            for (Row r : result.rows()) {
+                if (notFirst) {
+                    buf.append((byte) '\n');
+                } else {
+                    notFirst = true;
+                }
+                buf.append((byte) '[');
+                writeValues(r, size, buf);
+                buf.append((byte) ']');
+                flush(buf, out);
+            }
+        }
+    }
 }
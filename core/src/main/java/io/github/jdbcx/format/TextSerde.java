@@ -25,6 +25,7 @@ import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Properties;
 
 import io.github.jdbcx.Checker;
@@ -34,6 +35,7 @@ import io.github.jdbcx.LoggerFactory;
 import io.github.jdbcx.Option;
 import io.github.jdbcx.Result;
 import io.github.jdbcx.Serialization;
+import io.github.jdbcx.Utf8Buffer;
 
 public abstract class TextSerde implements Serialization {
     private static final Logger log = LoggerFactory.getLogger(TextSerde.class);
@@ -43,6 +45,18 @@ public abstract class TextSerde implements Serialization {
     public static final Option OPTION_NULL_VALUE = Option
             .of(new String[] { "nullValue", "String literal representing null value, defaults to empty string" });
 
+    /**
+     * Checks whether the given character is a non-zero ASCII character, which
+     * can be used for searching and escaping in {@link Utf8Buffer}.
+     *
+     * @param ch character
+     * @return true if the character is a non-zero ASCII character; false
+     *         otherwise
+     */
+    protected static boolean isAscii(char ch) {
+        return ch > 0 && ch < 0x80;
+    }
+
     protected final int buffer;
     protected final Charset charset;
     protected final boolean header;
@@ -63,6 +77,50 @@ public abstract class TextSerde implements Serialization {
 
     public abstract void serialize(Result<?> result, Writer writer) throws IOException;
 
+    /**
+     * Checks whether {@link #serialize(Result, Utf8Buffer, OutputStream)} should
+     * be used instead of {@link #serialize(Result, Writer)}. It's only called
+     * when the charset is UTF-8.
+     *
+     * @return true if values can be written into {@link Utf8Buffer}; false
+     *         otherwise
+     */
+    protected boolean isUtf8BufferSupported() {
+        return false;
+    }
+
+    /**
+     * Writes bytes in the buffer into the given output stream when the buffer is
+     * full.
+     *
+     * @param buf non-null buffer
+     * @param out non-null output stream
+     * @throws IOException when failed to write
+     */
+    protected final void flush(Utf8Buffer buf, OutputStream out) throws IOException {
+        if (buf.length() >= buffer) {
+            buf.writeTo(out);
+        }
+    }
+
+    /**
+     * Serializes the given result by appending encoded bytes into the buffer,
+     * which is flushed into the output stream whenever it's full. By default, it
+     * writes buffered bytes and then falls back to
+     * {@link #serialize(Result, Writer)}.
+     *
+     * @param result non-null result
+     * @param buf    non-null buffer
+     * @param out    non-null output stream
+     * @throws IOException when failed to serialize
+     */
+    protected void serialize(Result<?> result, Utf8Buffer buf, OutputStream out) throws IOException {
+        buf.writeTo(out);
+        final Writer writer = new OutputStreamWriter(out, charset);
+        serialize(result, writer);
+        writer.flush();
+    }
+
     @Override
     public Result<?> deserialize(InputStream in) throws IOException {
         return buffer > 0 ? deserialize(new BufferedReader(new InputStreamReader(in, charset), buffer))
@@ -76,6 +134,14 @@ public abstract class TextSerde implements Serialization {
             return;
         }
 
+        if (StandardCharsets.UTF_8.equals(charset) && isUtf8BufferSupported()) {
+            final Utf8Buffer buf = new Utf8Buffer(buffer + buffer / 2);
+            serialize(result, buf, out);
+            buf.writeTo(out);
+            out.flush();
+            return;
+        }
+
         final Writer writer = buffer > 0 ? new BufferedWriter(new OutputStreamWriter(out, charset), buffer)
                 : new OutputStreamWriter(out, charset);
         serialize(result, writer);
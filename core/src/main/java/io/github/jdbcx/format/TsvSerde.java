@@ -16,6 +16,7 @@
 package io.github.jdbcx.format;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.util.List;
@@ -24,9 +25,20 @@ import java.util.Properties;
 import io.github.jdbcx.Field;
 import io.github.jdbcx.Result;
 import io.github.jdbcx.Row;
+import io.github.jdbcx.Utf8Buffer;
 import io.github.jdbcx.Value;
 
 public class TsvSerde extends TextSerde {
+    private static final byte[] ESCAPE_TABLE;
+
+    static {
+        ESCAPE_TABLE = new byte[128];
+        ESCAPE_TABLE['\t'] = 't';
+        ESCAPE_TABLE['\r'] = 'r';
+        ESCAPE_TABLE['\n'] = 'n';
+        ESCAPE_TABLE['\\'] = '\\';
+    }
+
     public TsvSerde(Properties config) {
         super(config);
     }
@@ -55,6 +67,10 @@ public class TsvSerde extends TextSerde {
         }
     }
 
+    protected void encode(Utf8Buffer buf, int start) {
+        buf.escape(start, (byte) '\\', ESCAPE_TABLE);
+    }
+
     protected void writeHeader(List<Field> fields, int size, Writer writer) throws IOException {
         writer.write(encode(fields.get(0).name()));
         for (int i = 1; i < size; i++) {
@@ -74,6 +90,38 @@ public class TsvSerde extends TextSerde {
         }
     }
 
+    protected void writeHeader(List<Field> fields, int size, Utf8Buffer buf) {
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                buf.append((byte) '\t');
+            }
+            final int start = buf.length();
+            buf.append(fields.get(i).name());
+            encode(buf, start);
+        }
+    }
+
+    protected void writeRow(Row r, int size, Utf8Buffer buf) {
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                buf.append((byte) '\t');
+            }
+            final Value v = r.value(i);
+            if (v.isNull()) {
+                buf.append(nullValue);
+            } else {
+                final int start = buf.length();
+                v.appendString(buf);
+                encode(buf, start);
+            }
+        }
+    }
+
+    @Override
+    protected boolean isUtf8BufferSupported() {
+        return true;
+    }
+
     @Override
     public Result<?> deserialize(Reader reader) throws IOException {
         throw new UnsupportedOperationException("Unimplemented method 'deserialize'");
@@ -102,4 +150,25 @@ public class TsvSerde extends TextSerde {
             }
         }
     }
+
+    @Override
+    protected void serialize(Result<?> result, Utf8Buffer buf, OutputStream out) throws IOException {
+        final List<Field> fields = result.fields();
+        final int size = fields.size();
+
+        boolean notFirst = false;
+        if (header) {
+            writeHeader(fields, size, buf);
+            notFirst = true;
+        }
+        for (Row r : result.rows()) {
+            if (notFirst) {
+                buf.append((byte) '\n');
+            } else {
+                notFirst = true;
+            }
+            writeRow(r, size, buf);
+            flush(buf, out);
+        }
+    }
 }
@@ -16,6 +16,7 @@
 package io.github.jdbcx.format;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.util.Properties;
@@ -25,6 +26,7 @@ import io.github.jdbcx.Field;
 import io.github.jdbcx.Option;
 import io.github.jdbcx.Result;
 import io.github.jdbcx.Row;
+import io.github.jdbcx.Utf8Buffer;
 import io.github.jdbcx.Utils;
 
 public class ValuesSerde extends TextSerde {
@@ -37,6 +39,7 @@ public class ValuesSerde extends TextSerde {
 
     private final char quoteChar;
     private final char escapeChar;
+    private final byte[] escapeTable;
 
     public ValuesSerde(Properties config) {
         super(config);
@@ -45,6 +48,19 @@ public class ValuesSerde extends TextSerde {
         this.quoteChar = Checker.isNullOrEmpty(str) ? '"' : str.charAt(0);
         str = OPTION_ESCAPE.getValue(config);
         this.escapeChar = Checker.isNullOrEmpty(str) ? this.quoteChar : str.charAt(0);
+
+        if (isAscii(quoteChar) && isAscii(escapeChar)) {
+            this.escapeTable = new byte[128];
+            this.escapeTable[quoteChar] = (byte) quoteChar;
+            this.escapeTable[escapeChar] = (byte) escapeChar;
+        } else {
+            this.escapeTable = null;
+        }
+    }
+
+    @Override
+    protected boolean isUtf8BufferSupported() {
+        return escapeTable != null;
     }
 
     @Override
@@ -87,4 +103,47 @@ public class ValuesSerde extends TextSerde {
             writer.write(builder.toString());
         }
     }
+
+    @Override
+    protected void serialize(Result<?> result, Utf8Buffer buf, OutputStream out) throws IOException {
+        final int size = result.getFieldCount();
+        if (size == 0) {
+            return;
+        }
+
+        if (header) {
+            final byte quote = (byte) quoteChar;
+            buf.append((byte) '(');
+            int i = 0;
+            for (Field f : result.fields()) {
+                if (i++ > 0) {
+                    buf.append((byte) ',');
+                }
+                buf.append(quote);
+                final int start = buf.length();
+                buf.append(f.name());
+                buf.escape(start, (byte) escapeChar, escapeTable);
+                buf.append(quote);
+            }
+            buf.append(VALUES_EXPR);
+        }
+
+        boolean notFirst = false;
+        for (Row r : result.rows()) {
+            if (notFirst) {
+                buf.append(LINE_SUFFIX);
+            } else {
+                notFirst = true;
+            }
+            buf.append((byte) '(');
+            for (int i = 0; i < size; i++) {
+                if (i > 0) {
+                    buf.append((byte) ',');
+                }
+                r.value(i).appendSqlExpression(buf);
+            }
+            buf.append((byte) ')');
+            flush(buf, out);
+        }
+    }
 }
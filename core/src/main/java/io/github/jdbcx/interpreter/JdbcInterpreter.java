@@ -50,6 +50,7 @@ import io.github.jdbcx.QueryContext;
 import io.github.jdbcx.Result;
 import io.github.jdbcx.Utils;
 import io.github.jdbcx.VariableTag;
+import io.github.jdbcx.data.IterableColumns;
 import io.github.jdbcx.executor.JdbcExecutor;
 import io.github.jdbcx.executor.jdbc.SqlExceptionUtils;
 
@@ -100,7 +101,8 @@ public class JdbcInterpreter extends AbstractInterpreter {
     public static final Option OPTION_DRIVER = Option.of(new String[] { "driver", "JDBC driver class name" });
     public static final List<Option> OPTIONS = Collections
             .unmodifiableList(Arrays.asList(Option.EXEC_ERROR, Option.INPUT_FILE, JdbcExecutor.OPTION_RESULT,
-                    ConfigManager.OPTION_MANAGED, Option.EXEC_TIMEOUT));
+                    JdbcExecutor.OPTION_FETCH_SIZE, JdbcExecutor.OPTION_STREAMING, ConfigManager.OPTION_MANAGED,
+                    Option.EXEC_TIMEOUT, MetadataCache.OPTION_TTL, MetadataCache.OPTION_REFRESH));
 
     final static class OrderedColumn {
         final int position;
@@ -595,6 +597,86 @@ public class JdbcInterpreter extends AbstractInterpreter {
         return new StringBuilder(JSON_PROP_PRODUCT).append(JsonHelper.encode(str)).toString();
     }
 
+    /**
+     * Gets database product, current catalog and schema, as well as catalogs,
+     * schemas and tables of the given datasource in JSON. The result is cached in
+     * {@link MetadataCache} according to the configuration.
+     *
+     * @param config      non-null configuration of the datasource
+     * @param id          id of the datasource
+     * @param classLoader optional class loader
+     * @return non-null JSON properties without enclosing curly braces, could be
+     *         empty
+     * @throws SQLException when failed to inspect the datasource
+     */
+    public static final String getDatabaseSummary(Properties config, String id, ClassLoader classLoader)
+            throws SQLException {
+        return MetadataCache.getInstance().get(config, id, () -> {
+            try (Connection conn = getConnectionByConfig(config, classLoader)) {
+                final DatabaseMetaData metaData = conn.getMetaData();
+                StringBuilder builder = new StringBuilder(getDatabaseProduct(metaData));
+                for (String str : new String[] { getCurrentDatabaseCatalogAndSchema(conn, metaData),
+                        getDatabaseCatalogs(metaData, id, DEFAULT_TABLE_PATTERN, DEFAULT_TABLE_TYPES) }) {
+                    if (!Checker.isNullOrEmpty(str)) {
+                        if (builder.length() > 0) {
+                            builder.append(',');
+                        }
+                        builder.append(str);
+                    }
+                }
+                return builder.toString();
+            }
+        }, "summary", DEFAULT_TABLE_PATTERN, DEFAULT_TABLE_TYPES);
+    }
+
+    /**
+     * Gets columns, primary key and indexes of the given table in JSON. The result
+     * is cached in {@link MetadataCache} according to the configuration.
+     *
+     * @param config      non-null configuration of the datasource
+     * @param id          id of the datasource
+     * @param table       name of the table, optionally qualified by catalog and
+     *                    schema
+     * @param classLoader optional class loader
+     * @return non-null JSON properties without enclosing curly braces, could be
+     *         empty
+     * @throws SQLException when failed to inspect the table
+     */
+    public static final String getDatabaseTable(Properties config, String id, String table, ClassLoader classLoader)
+            throws SQLException {
+        return MetadataCache.getInstance().get(config, id, () -> {
+            try (Connection conn = getConnectionByConfig(config, classLoader)) {
+                return getDatabaseTable(conn, table);
+            }
+        }, "table", table);
+    }
+
+    /**
+     * Gets tables in current catalog and schema of the given datasource. The
+     * result is cached in {@link MetadataCache} according to the configuration.
+     *
+     * @param config       non-null configuration of the datasource
+     * @param id           id of the datasource
+     * @param tablePattern optional table name pattern
+     * @param types        optional table types
+     * @param classLoader  optional class loader
+     * @return non-null tables in memory, in the same columns as
+     *         {@link DatabaseMetaData#getTables(String, String, String, String[])}
+     * @throws SQLException when failed to get tables
+     */
+    public static final IterableColumns getDatabaseTables(Properties config, String id, String tablePattern,
+            String[] types, ClassLoader classLoader) throws SQLException {
+        return MetadataCache.getInstance().get(config, id, () -> {
+            try (Connection conn = getConnectionByConfig(config, classLoader)) {
+                final String catalog = Utils.getCatalogName(conn);
+                final String schema = Utils.getSchemaName(conn);
+                try (ResultSet rs = conn.getMetaData().getTables(catalog, schema, tablePattern, types)) {
+                    return IterableColumns.of(rs);
+                }
+            }
+        }, "tables", tablePattern, types != null ? String.join(",", types) : null);
+    }
+
     public static final Driver getDriverByUrl(String url, ClassLoader classLoader) throws SQLException {
         if (classLoader == null) {
             classLoader = JdbcInterpreter.class.getClassLoader();
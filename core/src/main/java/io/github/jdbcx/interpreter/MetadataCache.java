@@ -0,0 +1,231 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.interpreter;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.github.jdbcx.Cache;
+import io.github.jdbcx.Checker;
+import io.github.jdbcx.Logger;
+import io.github.jdbcx.LoggerFactory;
+import io.github.jdbcx.Option;
+import io.github.jdbcx.Threads;
+
+/**
+ * In-memory cache of database metadata lookups, like the list of catalogs,
+ * schemas, tables and columns of a datasource. Entries are grouped by
+ * datasource id, so that {@link #invalidate(String)} drops everything known
+ * about one datasource. Within a datasource, an entry is keyed by the kind of
+ * lookup and its arguments, usually catalog, schema and pattern, as well as
+ * the connection properties including user, because different credentials
+ * may see different metadata. Each datasource keeps at most
+ * {@link #DEFAULT_ENTRIES} entries.
+ *
+ * <p>
+ * An entry is reloaded on access once it's older than {@link #OPTION_TTL}.
+ * When {@link #OPTION_REFRESH} is shorter than that, the cached value is
+ * returned after the refresh interval as well, but a reload is started in
+ * background so that the next lookup sees fresh metadata without waiting.
+ * Caching is disabled when TTL is zero or negative, which is the default.
+ */
+public final class MetadataCache {
+    private static final Logger log = LoggerFactory.getLogger(MetadataCache.class);
+
+    public static final Option OPTION_TTL = Option.ofLong("metadata.cache.ttl",
+            "Seconds a cached database metadata lookup remains valid, zero or negative number disables the cache",
+            0L);
+    public static final Option OPTION_REFRESH = Option.ofLong("metadata.cache.refresh",
+            "Seconds after which a cached database metadata lookup will be reloaded in background on access, zero or negative number disables background refresh",
+            0L);
+
+    static final int DEFAULT_CAPACITY = 500;
+    static final int DEFAULT_ENTRIES = 1000;
+
+    private static final MetadataCache instance = new MetadataCache(DEFAULT_CAPACITY);
+    private static final ExecutorService refreshPool = Threads.newCachedPool("JdbcxMetadata-", 60000L);
+
+    /**
+     * Functional interface for loading metadata.
+     *
+     * @param <T> type of the metadata
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        /**
+         * Loads metadata from the datasource.
+         *
+         * @return metadata, should be immutable or at least reusable
+         * @throws SQLException when failed to load metadata
+         */
+        T load() throws SQLException;
+    }
+
+    static final class Entry {
+        private final AtomicBoolean refreshing;
+
+        private volatile Object value;
+        private volatile long loadTime;
+
+        Entry() {
+            this.refreshing = new AtomicBoolean(false);
+        }
+
+        Object load(Loader<?> loader, long now, long ttl) throws SQLException {
+            synchronized (this) {
+                Object v = value;
+                if (v == null || now - loadTime >= ttl) {
+                    v = loader.load();
+                    update(v);
+                }
+                return v;
+            }
+        }
+
+        void update(Object v) {
+            loadTime = System.nanoTime();
+            value = v;
+        }
+    }
+
+    static long getNanos(Option option, Properties config) {
+        // datasource configuration takes precedence over extension properties
+        return TimeUnit.SECONDS.toNanos(
+                Long.parseLong(option.getValue(Option.PROPERTY_PREFIX, config, option.getValue(config), true)));
+    }
+
+    static String getKey(Properties config, String kind, String... args) {
+        final StringBuilder builder = new StringBuilder(Checker.nonEmpty(kind, "kind")).append(Arrays.toString(args));
+        if (config != null) {
+            // sorted so that the same properties always lead to the same key
+            final Map<String, String> props = new TreeMap<>();
+            for (String name : config.stringPropertyNames()) {
+                if (!OPTION_TTL.getJdbcxName().equals(name) && !OPTION_REFRESH.getJdbcxName().equals(name)
+                        && !OPTION_TTL.getName().equals(name) && !OPTION_REFRESH.getName().equals(name)) {
+                    props.put(name, config.getProperty(name));
+                }
+            }
+            builder.append(props);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Gets the shared instance.
+     *
+     * @return non-null shared instance
+     */
+    public static MetadataCache getInstance() {
+        return instance;
+    }
+
+    private final Cache<String, Cache<String, Entry>> cache;
+
+    /**
+     * Creates a cache for the given number of datasources.
+     *
+     * @param capacity maximum number of datasources to keep metadata for
+     */
+    public MetadataCache(int capacity) {
+        this(capacity, DEFAULT_ENTRIES);
+    }
+
+    /**
+     * Creates a cache for the given number of datasources.
+     *
+     * @param capacity maximum number of datasources to keep metadata for
+     * @param entries  maximum number of entries to keep for each datasource
+     */
+    public MetadataCache(int capacity, int entries) {
+        this.cache = Cache.create(capacity, 0L, id -> Cache.create(entries, 0L, key -> new Entry()));
+    }
+
+    void refresh(String id, Entry entry, Loader<?> loader) {
+        try {
+            refreshPool.execute(() -> {
+                try {
+                    entry.update(loader.load());
+                } catch (Exception e) {
+                    log.debug("Failed to refresh metadata of [%s] due to %s", id, e.getMessage());
+                } finally {
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            entry.refreshing.set(false);
+        }
+    }
+
+    /**
+     * Gets metadata from cache, or from the loader when it's not cached or
+     * expired. TTL and refresh interval are read from the given configuration,
+     * so they can differ from one datasource to another.
+     *
+     * @param <T>    type of the metadata
+     * @param config optional configuration of the datasource, which is also
+     *               part of the key
+     * @param id     id of the datasource, nothing will be cached when it's null
+     *               or empty
+     * @param loader non-null loader, which will be used in background when
+     *               refreshing, so it should not depend on resources of the
+     *               caller
+     * @param kind   non-null kind of the lookup, for example {@code tables}
+     * @param args   arguments of the lookup, usually catalog, schema and pattern
+     * @return metadata
+     * @throws SQLException when failed to load metadata
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Properties config, String id, Loader<T> loader, String kind, String... args)
+            throws SQLException {
+        Checker.nonNull(loader, Loader.class);
+        final long ttl = getNanos(OPTION_TTL, config);
+        if (ttl <= 0L || Checker.isNullOrEmpty(id)) {
+            return loader.load();
+        }
+
+        final Entry entry = cache.get(id).get(getKey(config, kind, args));
+        final long now = System.nanoTime();
+        final Object value = entry.value;
+        if (value == null || now - entry.loadTime >= ttl) {
+            return (T) entry.load(loader, now, ttl);
+        }
+
+        final long refresh = getNanos(OPTION_REFRESH, config);
+        if (refresh > 0L && refresh < ttl && now - entry.loadTime >= refresh
+                && entry.refreshing.compareAndSet(false, true)) {
+            refresh(id, entry, loader);
+        }
+        return (T) value;
+    }
+
+    /**
+     * Invalidates all cached metadata of the given datasource.
+     *
+     * @param id id of the datasource
+     */
+    public void invalidate(String id) {
+        if (!Checker.isNullOrEmpty(id)) {
+            cache.invalidate(id);
+        }
+    }
+}
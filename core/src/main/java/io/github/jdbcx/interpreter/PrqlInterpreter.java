@@ -16,28 +16,122 @@
 package io.github.jdbcx.interpreter;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 
+import io.github.jdbcx.Cache;
 import io.github.jdbcx.Checker;
 import io.github.jdbcx.Constants;
 import io.github.jdbcx.Option;
 import io.github.jdbcx.QueryContext;
 import io.github.jdbcx.Result;
+import io.github.jdbcx.Stream;
 import io.github.jdbcx.Utils;
 import io.github.jdbcx.executor.CommandLineExecutor;
 
 public class PrqlInterpreter extends AbstractInterpreter {
+    /**
+     * Compilation request, which is both key and value in cache. Only command
+     * line, arguments, charsets and the PRQL query are considered in
+     * {@link #equals(Object)} and {@link #hashCode()}. Compilation happens in
+     * {@link #getSql(CommandLineExecutor, Properties)} outside of the cache, so
+     * that a slow prqlc never blocks lookups of other queries.
+     */
+    static final class CompileRequest {
+        private final List<String> command;
+        private final String[] args;
+        private final String query;
+        private final Charset inputCharset;
+        private final Charset outputCharset;
+
+        private volatile String sql;
+
+        CompileRequest(CommandLineExecutor executor, Properties props, String[] args, String query) {
+            this.command = executor.getCommand();
+            this.args = args;
+            this.query = query;
+            this.inputCharset = executor.getInputCharset(props);
+            this.outputCharset = executor.getOutputCharset(props);
+        }
+
+        String compile(CommandLineExecutor executor, Properties props) {
+            try (InputStream input = executor.execute(props, new ByteArrayInputStream(query.getBytes(inputCharset)),
+                    args)) {
+                return Stream.readAllAsString(input, outputCharset);
+            } catch (IOException | TimeoutException e) {
+                throw new CompletionException(e);
+            }
+        }
+
+        String getSql(CommandLineExecutor executor, Properties props) {
+            String value = sql;
+            if (value == null) {
+                // concurrent requests of the same query wait for one compilation
+                synchronized (this) {
+                    if ((value = sql) == null) {
+                        sql = value = compile(executor, props);
+                    }
+                }
+            }
+            return value;
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = prime + command.hashCode();
+            result = prime * result + Arrays.hashCode(args);
+            result = prime * result + query.hashCode();
+            result = prime * result + inputCharset.hashCode();
+            result = prime * result + outputCharset.hashCode();
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            } else if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+
+            CompileRequest other = (CompileRequest) obj;
+            return command.equals(other.command) && Arrays.equals(args, other.args) && query.equals(other.query)
+                    && Objects.equals(inputCharset, other.inputCharset)
+                    && Objects.equals(outputCharset, other.outputCharset);
+        }
+    }
+
     static final String DEFAULT_COMMAND = "prqlc";
     static final boolean DEFAULT_FALLBACK = true;
 
+    private static final Option OPTION_CACHE_SIZE = Option.of("prql.cache.size",
+            "Maximum number of compiled PRQL queries to keep in cache", "100");
+    private static final Option OPTION_CACHE_EXPTIME = Option.of("prql.cache.exptime",
+            "Compiled PRQL query cache expiration time in second", "0");
+    private static final Cache<CompileRequest, CompileRequest> cache = Cache.create(
+            Integer.parseInt(OPTION_CACHE_SIZE.getEffectiveDefaultValue(Option.PROPERTY_PREFIX)),
+            Integer.parseInt(OPTION_CACHE_EXPTIME.getEffectiveDefaultValue(Option.PROPERTY_PREFIX)),
+            Function.identity());
+
     static final Option OPTION_TIMEOUT = Option.EXEC_TIMEOUT.update().defaultValue("10000")
             .build();
+    // prqlc reads one query until EOF, so it needs the adapter in persistent mode
+    static final Option OPTION_CLI_ADAPTER = CommandLineExecutor.OPTION_CLI_ADAPTER.update().defaultValue("shell")
+            .build();
+    static final Option OPTION_COMPILE_CACHE = Option.ofBool("compile.cache",
+            "Whether to reuse SQL compiled from identical PRQL query, target and options", true);
     static final Option OPTION_COMPILE_TARGET = Option.of(new String[] { "compile.target",
             "PRQL compile target without \"sql.\" prefix, empty string is same as \"any\"" });
     static final Option OPTION_COMPILE_OPTIONS = Option
@@ -45,11 +139,14 @@ public class PrqlInterpreter extends AbstractInterpreter {
 
     public static final List<Option> OPTIONS = Collections
             .unmodifiableList(
-                    Arrays.asList(Option.EXEC_ERROR, OPTION_COMPILE_TARGET, OPTION_COMPILE_OPTIONS, OPTION_TIMEOUT,
+                    Arrays.asList(Option.EXEC_ERROR, OPTION_COMPILE_CACHE, OPTION_COMPILE_TARGET,
+                            OPTION_COMPILE_OPTIONS, OPTION_TIMEOUT,
                             CommandLineExecutor.OPTION_CLI_PATH.update().defaultValue(DEFAULT_COMMAND).build(),
                             CommandLineExecutor.OPTION_CLI_TEST_ARGS.update().defaultValue("-V").build(),
-                            Option.INPUT_FILE, Option.INPUT_CHARSET, Option.OUTPUT_CHARSET));
+                            CommandLineExecutor.OPTION_CLI_PERSISTENT, OPTION_CLI_ADAPTER, Option.INPUT_FILE, Option.INPUT_CHARSET, Option.OUTPUT_CHARSET));
 
+    private final String defaultAdapter;
+    private final boolean defaultCompileCache;
     private final String defaultCompileTarget;
     private final String defaultCompileOptions;
     private final CommandLineExecutor executor;
@@ -60,15 +157,18 @@ public class PrqlInterpreter extends AbstractInterpreter {
         OPTION_TIMEOUT.setDefaultValueIfNotPresent(config);
 
         String target = OPTION_COMPILE_TARGET.getValue(config).toLowerCase(Locale.ROOT);
+        this.defaultAdapter = OPTION_CLI_ADAPTER.getValue(config);
+        this.defaultCompileCache = Boolean.parseBoolean(OPTION_COMPILE_CACHE.getValue(config));
         this.defaultCompileTarget = Checker.isNullOrEmpty(target) || "any".equals(target) ? Constants.EMPTY_STRING
                 : target;
-        this.defaultCompileOptions = OPTION_COMPILE_TARGET.getValue(config).trim();
+        this.defaultCompileOptions = OPTION_COMPILE_OPTIONS.getValue(config).trim();
         this.executor = new CommandLineExecutor(DEFAULT_COMMAND, getVariableTag(), config);
     }
 
     @Override
     public Result<?> interpret(String query, Properties props) {
         OPTION_TIMEOUT.setDefaultValueIfNotPresent(props);
+        OPTION_CLI_ADAPTER.setValueIfNotPresent(props, defaultAdapter);
 
         InputStream input = null;
         try {
@@ -85,10 +185,23 @@ public class PrqlInterpreter extends AbstractInterpreter {
             if (executor.getDryRun(props)) {
                 return executor.getDryRunResult(Collections.unmodifiableList(list), query, props);
             }
+
+            final String[] args = list.toArray(Constants.EMPTY_STRING_ARRAY);
+            if (Boolean.parseBoolean(OPTION_COMPILE_CACHE.getValue(props, String.valueOf(defaultCompileCache)))
+                    && Checker.isNullOrEmpty(executor.getInputFile(props))) {
+                final CompileRequest request = new CompileRequest(executor, props, args, query);
+                try {
+                    return Result.of(cache.get(request).getSql(executor, props));
+                } catch (CompletionException e) {
+                    cache.invalidate(request);
+                    throw e;
+                }
+            }
             input = executor.execute(props,
-                    new ByteArrayInputStream(query.getBytes(executor.getInputCharset(props))),
-                    list.toArray(Constants.EMPTY_STRING_ARRAY));
+                    new ByteArrayInputStream(query.getBytes(executor.getInputCharset(props))), args);
             return Result.of(input, null);
+        } catch (CompletionException e) {
+            return handleError(e.getCause() != null ? e.getCause() : e, query, props, input);
         } catch (Exception e) {
             return handleError(e, query, props, input);
         }
@@ -16,7 +16,6 @@
 package io.github.jdbcx.interpreter;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -24,9 +23,11 @@ import java.io.UnsupportedEncodingException;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLEncoder;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -150,12 +151,12 @@ public final class ScriptHelper {
                 fileName = Constants.EMPTY_STRING;
             } else if (file instanceof File) {
                 final File f = (File) file;
-                bytes = Stream.readAllBytes(new FileInputStream(f));
+                bytes = Files.readAllBytes(f.toPath());
                 fileName = f.getName();
             } else if (file instanceof Path) {
-                final File f = ((Path) file).toFile();
-                bytes = Stream.readAllBytes(new FileInputStream(f));
-                fileName = f.getName();
+                final Path p = (Path) file;
+                bytes = Files.readAllBytes(p);
+                fileName = p.getFileName().toString();
             } else if (file instanceof InputStream) {
                 bytes = Stream.readAllBytes((InputStream) file);
                 fileName = Constants.EMPTY_STRING;
@@ -338,6 +339,17 @@ public final class ScriptHelper {
             }
             url = u != null ? u : Paths.get(Utils.normalizePath(s)).toUri().toURL();
         }
+        if ("file".equals(url.getProtocol()) && request == null) {
+            Path file = null;
+            try {
+                file = Paths.get(url.toURI());
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                // fall back to URLConnection
+            }
+            if (file != null && Files.isRegularFile(file)) {
+                return Stream.readAllAsString(file, null);
+            }
+        }
 
         // TODO set proxy as needed
         final URLConnection conn = url.openConnection();
@@ -400,6 +412,10 @@ public final class ScriptHelper {
                     httpConn.setRequestMethod("POST");
                     httpConn.setInstanceFollowRedirects(true);
                     httpConn.setDoOutput(true);
+                    final long length = Stream.length(request);
+                    if (length >= 0L) {
+                        httpConn.setFixedLengthStreamingMode(length);
+                    }
 
                     try (OutputStream out = httpConn.getOutputStream()) {
                         Stream.writeAll(out, request);
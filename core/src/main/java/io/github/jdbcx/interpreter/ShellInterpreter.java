@@ -16,11 +16,14 @@
 package io.github.jdbcx.interpreter;
 
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
 
+import io.github.jdbcx.Checker;
 import io.github.jdbcx.Constants;
 import io.github.jdbcx.Option;
 import io.github.jdbcx.QueryContext;
@@ -32,12 +35,36 @@ public class ShellInterpreter extends AbstractInterpreter {
             .defaultValue(Constants.IS_WINDOWS ? "cmd /c" : "/bin/sh -c").build();
     static final Option OPTION_TIMEOUT = Option.EXEC_TIMEOUT.update().defaultValue("30000")
             .build();
+    static final Option OPTION_INPUT_STREAM = Option.ofBool("input.stream",
+            "Whether to stream the input file to standard input of the shell, instead of loading it as the script. "
+                    + "Commands reading standard input will consume rest of the script, and input charset is ignored",
+            false);
 
     public static final List<Option> OPTIONS = Collections
             .unmodifiableList(Arrays.asList(OPTION_PATH, Option.EXEC_ERROR, OPTION_TIMEOUT, Option.INPUT_FILE,
-                    Option.INPUT_CHARSET, Option.OUTPUT_CHARSET));
+                    OPTION_INPUT_STREAM, Option.INPUT_CHARSET, Option.OUTPUT_CHARSET));
+
+    /**
+     * Gets the argument for running the shell as a script reader, so that the
+     * input file can be streamed to its standard input instead of being loaded
+     * into memory.
+     *
+     * @param command non-null command line
+     * @return argument like {@code exec /bin/sh -s}, or {@code null} when the
+     *         command is not a POSIX shell ending with {@code -c}
+     */
+    static String getScriptReader(List<String> command) {
+        final int size = command.size();
+        if (Constants.IS_WINDOWS || size < 2 || !"-c".equals(command.get(size - 1))) {
+            return null;
+        }
+
+        final String shell = command.get(size - 2);
+        return Paths.get(shell).getFileName().toString().endsWith("sh") ? "exec " + shell + " -s" : null;
+    }
 
     private final CommandLineExecutor executor;
+    private final String defaultInputStream;
 
     public ShellInterpreter(QueryContext context, Properties config) {
         super(context);
@@ -46,6 +73,7 @@ public class ShellInterpreter extends AbstractInterpreter {
         Option.RESULT_STRING_SPLIT.setValueIfNotPresent(config, Constants.TRUE_EXPR);
 
         this.executor = new CommandLineExecutor(OPTION_PATH.getValue(config), false, getVariableTag(), config);
+        this.defaultInputStream = OPTION_INPUT_STREAM.getValue(config);
     }
 
     @Override
@@ -57,7 +85,16 @@ public class ShellInterpreter extends AbstractInterpreter {
             if (executor.getDryRun(props)) {
                 return executor.getDryRunResult(Collections.emptyList(), query, props);
             }
-            input = executor.execute(props, null, query);
+            final String inputFile = executor.getInputFile(props);
+            final String reader = Checker.isNullOrEmpty(inputFile)
+                    || !Boolean.parseBoolean(OPTION_INPUT_STREAM.getValue(props, defaultInputStream)) ? null
+                            : getScriptReader(executor.getCommand());
+            // empty input file falls back to the query, same as loading it as an argument
+            if (reader != null && Files.size(Paths.get(inputFile)) > 0L) {
+                input = executor.executeWithInputFile(props, reader);
+            } else {
+                input = executor.execute(props, null, query);
+            }
             return process(query, input, props, executor.getBinary(props));
         } catch (Exception e) {
             return handleError(e, query, props, input);
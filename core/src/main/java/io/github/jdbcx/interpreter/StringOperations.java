@@ -15,13 +15,13 @@
  */
 package io.github.jdbcx.interpreter;
 
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -78,7 +78,7 @@ final class StringOperations {
 
     static String[] read(String file) {
         try {
-            return new String[] { Stream.readAllAsString(new FileInputStream(file)) };
+            return new String[] { Stream.readAllAsString(Paths.get(file), null) };
         } catch (IOException e) {
             throw new UncheckedIOException("Failed to read JSON from file", e);
         }
@@ -32,6 +32,7 @@ import io.github.jdbcx.Checker;
 import io.github.jdbcx.Constants;
 import io.github.jdbcx.Executor;
 import io.github.jdbcx.Field;
+import io.github.jdbcx.Format;
 import io.github.jdbcx.Option;
 import io.github.jdbcx.QueryContext;
 import io.github.jdbcx.Result;
@@ -62,6 +63,12 @@ public class WebInterpreter extends AbstractInterpreter {
     public static final Option OPTION_REQUEST_ESCAPE_TARGET = Option
             .of(new String[] { "request.escape.target",
                     "The target character that will be escaped in request." });
+    public static final Option OPTION_RESULT_FORMAT = Option
+            .of(new String[] { "result.format",
+                    "Format of the response, empty for plain text, jsonl or ndjson for JSON Lines, "
+                            + "and jsons for JSON text sequences",
+                    Constants.EMPTY_STRING, Format.JSONL.fileExtension(), Format.NDJSON.fileExtension(),
+                    Format.JSON_SEQ.fileExtension() });
     public static final Option OPTION_AUTH_BASIC_USER = Option
             .of(new String[] { "auth.basic.user", "Username used for HTTP basic authentication" });
     public static final Option OPTION_AUTH_BASIC_PASSWORD = Option
@@ -73,7 +80,9 @@ public class WebInterpreter extends AbstractInterpreter {
             .unmodifiableList(
                     Arrays.asList(Option.EXEC_ERROR, OPTION_BASE_URL, OPTION_URL_TEMPLATE, OPTION_REQUEST_HEADERS,
                             OPTION_REQUEST_PLACEMENT, OPTION_REQUEST_TEMPLATE, OPTION_REQUEST_ESCAPE_CHAR,
-                            OPTION_REQUEST_ENCODE, OPTION_REQUEST_ESCAPE_TARGET, WebExecutor.OPTION_CONNECT_TIMEOUT,
+                            OPTION_REQUEST_ENCODE, OPTION_REQUEST_ESCAPE_TARGET, OPTION_RESULT_FORMAT,
+                            WebExecutor.OPTION_CACHE_ENABLED, WebExecutor.OPTION_CACHE_TTL,
+                            WebExecutor.OPTION_CONNECT_TIMEOUT,
                             Option.INPUT_FILE, WebExecutor.OPTION_FOLLOW_REDIRECT, Option.PROXY,
                             WebExecutor.OPTION_SOCKET_TIMEOUT));
 
@@ -101,6 +110,7 @@ public class WebInterpreter extends AbstractInterpreter {
 
     private final Map<String, String> defaultHeaders;
     private final String defaultPlacement;
+    private final String defaultResultFormat;
     private final String defaultTemplate;
     private final String defaultUrl;
 
@@ -112,6 +122,7 @@ public class WebInterpreter extends AbstractInterpreter {
         final VariableTag tag = getVariableTag();
         this.defaultHeaders = Collections.unmodifiableMap(getHeaders(tag, config));
         this.defaultPlacement = OPTION_REQUEST_PLACEMENT.getValue(config, Constants.EMPTY_STRING);
+        this.defaultResultFormat = OPTION_RESULT_FORMAT.getValue(config, Constants.EMPTY_STRING);
         this.defaultTemplate = OPTION_REQUEST_TEMPLATE.getValue(config, Constants.EMPTY_STRING);
         this.defaultUrl = Utils.applyVariables(OPTION_URL_TEMPLATE.getValue(config), tag, config);
 
@@ -126,6 +137,10 @@ public class WebInterpreter extends AbstractInterpreter {
         return defaultPlacement;
     }
 
+    public final String getDefaultResultFormat() {
+        return defaultResultFormat;
+    }
+
     public final String getDefaultRequestTemplate() {
         return defaultTemplate;
     }
@@ -196,7 +211,15 @@ public class WebInterpreter extends AbstractInterpreter {
             } else {
                 input = executor.execute(url, request, props, headers);
             }
-            return process(request, input, props, executor.getBinary(props));
+
+            final boolean binary = executor.getBinary(props);
+            final Format format = Format.fromFileExtension(OPTION_RESULT_FORMAT.getValue(props, defaultResultFormat),
+                    null);
+            if (!binary && format != null) {
+                // parse records as they arrive, instead of reading the whole response as string
+                return Result.readFrom(format, props, input);
+            }
+            return process(request, input, props, binary);
         } catch (SocketTimeoutException e) {
             return handleError(new TimeoutException(e.getMessage()), query, props, input);
         } catch (IOException e) {
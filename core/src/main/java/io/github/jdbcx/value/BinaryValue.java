@@ -224,7 +224,8 @@ public final class BinaryValue extends AbstractValue {
         try {
             this.value = rs.getBinaryStream(index);
         } catch (SQLFeatureNotSupportedException | UnsupportedOperationException | NoSuchMethodError e) {
-            this.value = new ByteArrayInputStream(rs.getBytes(index));
+            final byte[] bytes = rs.getBytes(index);
+            this.value = bytes != null ? new ByteArrayInputStream(bytes) : null;
         }
         return this;
     }
@@ -22,6 +22,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 
 import io.github.jdbcx.Constants;
+import io.github.jdbcx.Utf8Buffer;
 import io.github.jdbcx.ValueFactory;
 
 public final class BooleanValue extends AbstractValue {
@@ -127,6 +128,21 @@ public final class BooleanValue extends AbstractValue {
         return value ? Constants.ONE_EXPR : Constants.ZERO_EXPR;
     }
 
+    @Override
+    public Utf8Buffer appendString(Utf8Buffer buffer) {
+        return isNull ? buffer : buffer.append(value);
+    }
+
+    @Override
+    public Utf8Buffer appendJsonExpression(Utf8Buffer buffer) {
+        return isNull ? buffer.append(Constants.NULL_STR) : buffer.append(value);
+    }
+
+    @Override
+    public Utf8Buffer appendSqlExpression(Utf8Buffer buffer) {
+        return isNull ? buffer.append(Constants.NULL_EXPR) : buffer.append(value ? Constants.ONE_EXPR : Constants.ZERO_EXPR);
+    }
+
     @Override
     public Object asObject() {
         return isNull ? null : Boolean.valueOf(value);
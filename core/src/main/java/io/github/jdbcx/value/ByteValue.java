@@ -22,6 +22,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 
 import io.github.jdbcx.Constants;
+import io.github.jdbcx.Utf8Buffer;
 import io.github.jdbcx.ValueFactory;
 
 public class ByteValue extends AbstractValue {
@@ -96,6 +97,21 @@ public class ByteValue extends AbstractValue {
         public String toSqlExpression() {
             return isNull() ? Constants.NULL_EXPR : Integer.toString(asInt());
         }
+
+        @Override
+        public Utf8Buffer appendString(Utf8Buffer buffer) {
+            return isNull() ? buffer : buffer.append(asInt());
+        }
+
+        @Override
+        public Utf8Buffer appendJsonExpression(Utf8Buffer buffer) {
+            return isNull() ? buffer.append(Constants.NULL_STR) : buffer.append(asInt());
+        }
+
+        @Override
+        public Utf8Buffer appendSqlExpression(Utf8Buffer buffer) {
+            return isNull() ? buffer.append(Constants.NULL_EXPR) : buffer.append(asInt());
+        }
     }
 
     public static final ByteValue of(ValueFactory factory, boolean nullable, boolean signed) {
@@ -181,6 +197,21 @@ public class ByteValue extends AbstractValue {
         return isNull ? Constants.NULL_EXPR : Byte.toString(value);
     }
 
+    @Override
+    public Utf8Buffer appendString(Utf8Buffer buffer) {
+        return isNull ? buffer : buffer.append((int) value);
+    }
+
+    @Override
+    public Utf8Buffer appendJsonExpression(Utf8Buffer buffer) {
+        return isNull ? buffer.append(Constants.NULL_STR) : buffer.append((int) value);
+    }
+
+    @Override
+    public Utf8Buffer appendSqlExpression(Utf8Buffer buffer) {
+        return isNull ? buffer.append(Constants.NULL_EXPR) : buffer.append((int) value);
+    }
+
     @Override
     public Object asObject() {
         return isNull ? null : value;
@@ -21,6 +21,7 @@ import java.nio.charset.Charset;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -28,6 +29,7 @@ import java.time.temporal.ChronoUnit;
 
 import io.github.jdbcx.Constants;
 import io.github.jdbcx.Converter;
+import io.github.jdbcx.Utf8Buffer;
 import io.github.jdbcx.Utils;
 import io.github.jdbcx.ValueFactory;
 
@@ -169,6 +171,16 @@ public class DateTimeValue extends ObjectValue<LocalDateTime> {
         return value;
     }
 
+    @Override
+    public Instant asInstant() {
+        return asInstant(scale);
+    }
+
+    @Override
+    public Instant asInstant(int scale) {
+        return isNull() ? null : asDateTime(scale).toInstant(factory.getZoneOffset());
+    }
+
     @Override
     public LocalDateTime asDateTime() {
         return asObject();
@@ -216,6 +228,21 @@ public class DateTimeValue extends ObjectValue<LocalDateTime> {
         return Converter.toSqlExpression(factory.getTimestampFormatter().format(asObject()));
     }
 
+    @Override
+    public Utf8Buffer appendString(Utf8Buffer buffer) {
+        return isNull() ? buffer : buffer.append(factory.getTimestampFormatter(), asObject());
+    }
+
+    @Override
+    public Utf8Buffer appendJsonExpression(Utf8Buffer buffer) {
+        return isNull() ? buffer.append(Constants.NULL_STR) : buffer.appendJson(factory.getTimestampFormatter(), asObject());
+    }
+
+    @Override
+    public Utf8Buffer appendSqlExpression(Utf8Buffer buffer) {
+        return isNull() ? buffer.append(Constants.NULL_EXPR) : buffer.appendSql(factory.getTimestampFormatter(), asObject());
+    }
+
     @Override
     public DateTimeValue updateFrom(ResultSet rs, int index) throws SQLException {
         final Timestamp ts = rs.getTimestamp(index);
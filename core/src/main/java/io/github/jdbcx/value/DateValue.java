@@ -27,6 +27,7 @@ import java.time.LocalTime;
 
 import io.github.jdbcx.Constants;
 import io.github.jdbcx.Converter;
+import io.github.jdbcx.Utf8Buffer;
 import io.github.jdbcx.ValueFactory;
 
 public class DateValue extends ObjectValue<LocalDate> {
@@ -151,6 +152,21 @@ public class DateValue extends ObjectValue<LocalDate> {
         return Converter.toSqlExpression(factory.getDateFormatter().format(asObject()));
     }
 
+    @Override
+    public Utf8Buffer appendString(Utf8Buffer buffer) {
+        return isNull() ? buffer : buffer.append(factory.getDateFormatter(), asObject());
+    }
+
+    @Override
+    public Utf8Buffer appendJsonExpression(Utf8Buffer buffer) {
+        return isNull() ? buffer.append(Constants.NULL_STR) : buffer.appendJson(factory.getDateFormatter(), asObject());
+    }
+
+    @Override
+    public Utf8Buffer appendSqlExpression(Utf8Buffer buffer) {
+        return isNull() ? buffer.append(Constants.NULL_EXPR) : buffer.appendSql(factory.getDateFormatter(), asObject());
+    }
+
     @Override
     public DateValue updateFrom(ResultSet rs, int index) throws SQLException {
         final Date date = rs.getDate(index);
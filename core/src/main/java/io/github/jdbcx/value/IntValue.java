@@ -22,6 +22,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 
 import io.github.jdbcx.Constants;
+import io.github.jdbcx.Utf8Buffer;
 import io.github.jdbcx.ValueFactory;
 
 public class IntValue extends AbstractValue {
@@ -81,6 +82,21 @@ public class IntValue extends AbstractValue {
         public String toSqlExpression() {
             return isNull() ? Constants.NULL_EXPR : Integer.toUnsignedString(asInt());
         }
+
+        @Override
+        public Utf8Buffer appendString(Utf8Buffer buffer) {
+            return isNull() ? buffer : buffer.append(asLong());
+        }
+
+        @Override
+        public Utf8Buffer appendJsonExpression(Utf8Buffer buffer) {
+            return isNull() ? buffer.append(Constants.NULL_STR) : buffer.append(asLong());
+        }
+
+        @Override
+        public Utf8Buffer appendSqlExpression(Utf8Buffer buffer) {
+            return isNull() ? buffer.append(Constants.NULL_EXPR) : buffer.append(asLong());
+        }
     }
 
     public static final IntValue of(ValueFactory factory, boolean nullable, boolean signed) {
@@ -166,6 +182,21 @@ public class IntValue extends AbstractValue {
         return isNull ? Constants.NULL_EXPR : Integer.toString(value);
     }
 
+    @Override
+    public Utf8Buffer appendString(Utf8Buffer buffer) {
+        return isNull ? buffer : buffer.append(value);
+    }
+
+    @Override
+    public Utf8Buffer appendJsonExpression(Utf8Buffer buffer) {
+        return isNull ? buffer.append(Constants.NULL_STR) : buffer.append(value);
+    }
+
+    @Override
+    public Utf8Buffer appendSqlExpression(Utf8Buffer buffer) {
+        return isNull ? buffer.append(Constants.NULL_EXPR) : buffer.append(value);
+    }
+
     @Override
     public Object asObject() {
         return isNull ? null : value;
@@ -22,6 +22,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 
 import io.github.jdbcx.Constants;
+import io.github.jdbcx.Utf8Buffer;
 import io.github.jdbcx.ValueFactory;
 
 public class LongValue extends AbstractValue {
@@ -85,6 +86,35 @@ public class LongValue extends AbstractValue {
         public String toSqlExpression() {
             return isNull() ? Constants.NULL_EXPR : Long.toUnsignedString(asLong());
         }
+
+        @Override
+        public Utf8Buffer appendString(Utf8Buffer buffer) {
+            return isNull() ? buffer : buffer.appendUnsigned(asLong());
+        }
+
+        @Override
+        public Utf8Buffer appendJsonExpression(Utf8Buffer buffer) {
+            return isNull() ? buffer.append(Constants.NULL_STR) : buffer.appendUnsigned(asLong());
+        }
+
+        @Override
+        public Utf8Buffer appendSqlExpression(Utf8Buffer buffer) {
+            return isNull() ? buffer.append(Constants.NULL_EXPR) : buffer.appendUnsigned(asLong());
+        }
+
+        @Override
+        public LongValue updateFrom(ResultSet rs, int index) throws SQLException {
+            // getLong() may fail on values greater than Long.MAX_VALUE, so take the
+            // lower 64 bits of whatever the driver returns
+            final Object obj = rs.getObject(index);
+            if (obj == null) {
+                return set(true, factory.getDefaultLong());
+            } else if (obj instanceof Number) {
+                return set(false, ((Number) obj).longValue());
+            }
+            final BigDecimal v = rs.getBigDecimal(index);
+            return v != null ? set(false, v.longValue()) : set(true, factory.getDefaultLong());
+        }
     }
 
     public static final LongValue of(ValueFactory factory, boolean nullable, boolean signed) {
@@ -197,6 +227,21 @@ public class LongValue extends AbstractValue {
         return isNull ? Constants.NULL_EXPR : Long.toString(value);
     }
 
+    @Override
+    public Utf8Buffer appendString(Utf8Buffer buffer) {
+        return isNull ? buffer : buffer.append(value);
+    }
+
+    @Override
+    public Utf8Buffer appendJsonExpression(Utf8Buffer buffer) {
+        return isNull ? buffer.append(Constants.NULL_STR) : buffer.append(value);
+    }
+
+    @Override
+    public Utf8Buffer appendSqlExpression(Utf8Buffer buffer) {
+        return isNull ? buffer.append(Constants.NULL_EXPR) : buffer.append(value);
+    }
+
     @Override
     public Object asObject() {
         return isNull ? null : value;
@@ -221,6 +266,12 @@ public class LongValue extends AbstractValue {
         return this;
     }
 
+    LongValue set(boolean isNull, long value) {
+        this.isNull = isNull;
+        this.value = value;
+        return this;
+    }
+
     @Override
     public LongValue updateFrom(ResultSet rs, int index) throws SQLException {
         this.value = rs.getLong(index);
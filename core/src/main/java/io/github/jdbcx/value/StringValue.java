@@ -21,6 +21,7 @@ import java.sql.SQLException;
 
 import io.github.jdbcx.Constants;
 import io.github.jdbcx.Converter;
+import io.github.jdbcx.Utf8Buffer;
 import io.github.jdbcx.ValueFactory;
 
 public final class StringValue extends ObjectValue<String> {
@@ -103,6 +104,21 @@ public final class StringValue extends ObjectValue<String> {
         return isNull() ? Constants.NULL_EXPR : Converter.toSqlExpression(asObject());
     }
 
+    @Override
+    public Utf8Buffer appendString(Utf8Buffer buffer) {
+        return isNull() ? buffer : buffer.append(asObject());
+    }
+
+    @Override
+    public Utf8Buffer appendJsonExpression(Utf8Buffer buffer) {
+        return isNull() ? buffer.append(Constants.NULL_STR) : buffer.appendJson(asObject());
+    }
+
+    @Override
+    public Utf8Buffer appendSqlExpression(Utf8Buffer buffer) {
+        return isNull() ? buffer.append(Constants.NULL_EXPR) : buffer.appendSql(asObject());
+    }
+
     @Override
     public StringValue resetToDefault() {
         set(factory.getDefaultString(length));
@@ -28,6 +28,7 @@ import java.time.temporal.ChronoUnit;
 
 import io.github.jdbcx.Constants;
 import io.github.jdbcx.Converter;
+import io.github.jdbcx.Utf8Buffer;
 import io.github.jdbcx.ValueFactory;
 
 public class TimeValue extends ObjectValue<LocalTime> {
@@ -201,6 +202,21 @@ public class TimeValue extends ObjectValue<LocalTime> {
         return Converter.toSqlExpression(factory.getTimeFormatter().format(asObject()));
     }
 
+    @Override
+    public Utf8Buffer appendString(Utf8Buffer buffer) {
+        return isNull() ? buffer : buffer.append(factory.getTimeFormatter(), asObject());
+    }
+
+    @Override
+    public Utf8Buffer appendJsonExpression(Utf8Buffer buffer) {
+        return isNull() ? buffer.append(Constants.NULL_STR) : buffer.appendJson(factory.getTimeFormatter(), asObject());
+    }
+
+    @Override
+    public Utf8Buffer appendSqlExpression(Utf8Buffer buffer) {
+        return isNull() ? buffer.append(Constants.NULL_EXPR) : buffer.appendSql(factory.getTimeFormatter(), asObject());
+    }
+
     @Override
     public TimeValue updateFrom(ResultSet rs, int index) throws SQLException {
         final Time time = rs.getTime(index);
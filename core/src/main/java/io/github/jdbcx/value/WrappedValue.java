@@ -30,6 +30,7 @@ import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.ZonedDateTime;
 
+import io.github.jdbcx.Utf8Buffer;
 import io.github.jdbcx.Value;
 import io.github.jdbcx.ValueFactory;
 
@@ -288,6 +289,24 @@ public class WrappedValue implements Value {
         return value.toSqlExpression();
     }
 
+    @Override
+    public Utf8Buffer appendString(Utf8Buffer buffer) {
+        ensureUpdated();
+        return value.appendString(buffer);
+    }
+
+    @Override
+    public Utf8Buffer appendJsonExpression(Utf8Buffer buffer) {
+        ensureUpdated();
+        return value.appendJsonExpression(buffer);
+    }
+
+    @Override
+    public Utf8Buffer appendSqlExpression(Utf8Buffer buffer) {
+        ensureUpdated();
+        return value.appendSqlExpression(buffer);
+    }
+
     @Override
     public Value resetToDefault() {
         value.resetToDefault();
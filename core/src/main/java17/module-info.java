@@ -18,6 +18,7 @@ module io.github.jdbcx.core {
     exports io.github.jdbcx.cache;
     exports io.github.jdbcx.data;
     exports io.github.jdbcx.executor;
+    exports io.github.jdbcx.format;
     exports io.github.jdbcx.interpreter;
     exports io.github.jdbcx.logging;
 
@@ -93,6 +93,13 @@ public abstract class BaseValueTest {
         Assert.assertNotNull(v.asUnicodeString(), "asUnicodeString");
         Assert.assertNotNull(v.toJsonExpression(), "toJsonExpression");
         Assert.assertNotNull(v.toSqlExpression(), "toSqlExpression");
+        // null appends nothing for all types
+        Assert.assertEquals(v.appendString(new Utf8Buffer(0)).toString(), v.isNull() ? "" : v.asString(),
+                "appendString");
+        Assert.assertEquals(v.appendJsonExpression(new Utf8Buffer(0)).toString(), v.toJsonExpression(),
+                "appendJsonExpression");
+        Assert.assertEquals(v.appendSqlExpression(new Utf8Buffer(0)).toString(), v.toSqlExpression(),
+                "appendSqlExpression");
     }
 
     protected void checkValue(ValueFactory factory, Value v, Object... expected) {
@@ -143,6 +150,13 @@ public abstract class BaseValueTest {
         checkValueOrException(v::asString, expected[i++], "asString");
         checkValueOrException(v::toJsonExpression, expected[i++], "toJsonExpression");
         checkValueOrException(v::toSqlExpression, expected[i++], "toSqlExpression");
+
+        i -= 3;
+        checkValueOrException(() -> v.appendString(new Utf8Buffer(0)).toString(), expected[i++], "appendString");
+        checkValueOrException(() -> v.appendJsonExpression(new Utf8Buffer(0)).toString(), expected[i++],
+                "appendJsonExpression");
+        checkValueOrException(() -> v.appendSqlExpression(new Utf8Buffer(0)).toString(), expected[i++],
+                "appendSqlExpression");
     }
 
     protected Object getReturnValue(Supplier<?> func) {
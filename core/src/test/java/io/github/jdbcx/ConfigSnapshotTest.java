@@ -0,0 +1,106 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx;
+
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ConfigSnapshotTest {
+    @Test(groups = { "unit" })
+    public void testEmpty() {
+        Assert.assertTrue(ConfigSnapshot.of(null) == ConfigSnapshot.EMPTY);
+        Assert.assertTrue(ConfigSnapshot.of(null, (Option[]) null) == ConfigSnapshot.EMPTY);
+
+        ConfigSnapshot config = ConfigSnapshot.of(null, Option.EXEC_TIMEOUT, Option.EXEC_DRYRUN);
+        Assert.assertFalse(config.isPresent(Option.EXEC_TIMEOUT));
+        Assert.assertEquals(config.getValue(Option.EXEC_TIMEOUT), Option.EXEC_TIMEOUT.getDefaultValue());
+        Assert.assertEquals(config.getInt(Option.EXEC_TIMEOUT), 0);
+        Assert.assertEquals(config.getLong(Option.EXEC_TIMEOUT), 0L);
+        Assert.assertFalse(config.getBoolean(Option.EXEC_DRYRUN));
+        Assert.assertThrows(IllegalArgumentException.class, () -> config.getValue(Option.RESULT_TYPE));
+        Assert.assertTrue(config.toProperties().isEmpty());
+    }
+
+    @Test(groups = { "unit" })
+    public void testGetValue() {
+        Properties props = new Properties();
+        Option.EXEC_TIMEOUT.setValue(props, "-15");
+        Option.EXEC_DRYRUN.setValue(props, "true");
+        Option.EXEC_ERROR.setValue(props, "unknown");
+        Option.RESULT_TYPE.setValue(props, Option.TYPE_BINARY);
+        Option.EXEC_PARALLELISM.setValue(props, "12345678901");
+
+        ConfigSnapshot.Layout layout = ConfigSnapshot.Layout
+                .of(Arrays.asList(Option.EXEC_TIMEOUT, Option.EXEC_DRYRUN, Option.EXEC_ERROR, Option.EXEC_PARALLELISM));
+        ConfigSnapshot config = layout.snapshot(props);
+        // changes made afterwards are invisible
+        props.clear();
+
+        Assert.assertTrue(config.isPresent(Option.EXEC_TIMEOUT));
+        Assert.assertEquals(config.getValue(Option.EXEC_TIMEOUT), "-15");
+        Assert.assertEquals(config.getInt(Option.EXEC_TIMEOUT), -15);
+        Assert.assertEquals(config.getLong(Option.EXEC_TIMEOUT), -15L);
+        Assert.assertTrue(config.getBoolean(Option.EXEC_DRYRUN));
+        Assert.assertFalse(config.getBoolean(Option.EXEC_TIMEOUT));
+
+        // invalid choice falls back to default value, same as Option.getValue()
+        Assert.assertTrue(config.isPresent(Option.EXEC_ERROR));
+        Assert.assertEquals(config.getValue(Option.EXEC_ERROR), Option.EXEC_ERROR.getDefaultValue());
+
+        // out of int range
+        Assert.assertEquals(config.getLong(Option.EXEC_PARALLELISM), 12345678901L);
+        Assert.assertThrows(NumberFormatException.class, () -> config.getInt(Option.EXEC_PARALLELISM));
+        Assert.assertThrows(NumberFormatException.class, () -> config.getInt(Option.EXEC_ERROR));
+
+        // read by slot
+        final int slot = layout.slotOf(Option.EXEC_TIMEOUT);
+        Assert.assertEquals(slot, 0);
+        Assert.assertTrue(config.isPresent(slot));
+        Assert.assertEquals(config.getValue(slot), "-15");
+        Assert.assertEquals(config.getInt(slot), -15);
+        Assert.assertEquals(config.getLong(slot), -15L);
+        Assert.assertTrue(config.getBoolean(layout.slotOf(Option.EXEC_DRYRUN)));
+
+        // options not in the layout are not copied
+        Assert.assertThrows(IllegalArgumentException.class, () -> layout.slotOf(Option.RESULT_TYPE));
+        Assert.assertThrows(IllegalArgumentException.class, () -> config.isPresent(Option.RESULT_TYPE));
+
+        Properties p = config.toProperties();
+        Assert.assertEquals(p.size(), 4);
+        Assert.assertEquals(Option.EXEC_TIMEOUT.getValue(p), "-15");
+    }
+
+    @Test(groups = { "unit" })
+    public void testLayout() {
+        Assert.assertEquals(ConfigSnapshot.Layout.of().size(), 0);
+        Assert.assertEquals(ConfigSnapshot.Layout.of(Option.EXEC_TIMEOUT, Option.EXEC_DRYRUN).size(), 2);
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> ConfigSnapshot.Layout.of(Option.EXEC_TIMEOUT, Option.EXEC_TIMEOUT));
+    }
+
+    @Test(groups = { "unit" })
+    public void testIsNumber() {
+        for (String s : new String[] { "0", "-1", "123", "-9223372036854775808", "99999999999999999999" }) {
+            Assert.assertTrue(ConfigSnapshot.isNumber(s), s);
+        }
+        for (String s : new String[] { "", "-", "+1", "1.0", "1e3", " 1", "a", "-999999999999999999999" }) {
+            Assert.assertFalse(ConfigSnapshot.isNumber(s), s);
+        }
+    }
+}
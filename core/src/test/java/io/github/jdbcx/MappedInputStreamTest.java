@@ -0,0 +1,117 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class MappedInputStreamTest {
+    static Path newFile(byte[] bytes) throws IOException {
+        final Path file = Files.createTempFile("mapped-", ".txt");
+        file.toFile().deleteOnExit();
+        Files.write(file, bytes);
+        return file;
+    }
+
+    @Test(groups = { "unit" })
+    public void testEmpty() throws IOException {
+        try (MappedInputStream in = MappedInputStream.of(newFile(new byte[0]))) {
+            Assert.assertEquals(in.length(), 0L);
+            Assert.assertEquals(in.available(), 0);
+            Assert.assertEquals(in.read(), -1);
+            Assert.assertEquals(in.read(new byte[1], 0, 1), -1);
+            Assert.assertEquals(in.skip(1L), 0L);
+            Assert.assertEquals(in.readAllAsString(null), "");
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testRead() throws IOException {
+        final byte[] bytes = new byte[100];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i - 50);
+        }
+        final Path file = newFile(bytes);
+        try (MappedInputStream in = MappedInputStream.of(file, 1)) { // at least 16 bytes a region
+            Assert.assertEquals(in.length(), 100L);
+            Assert.assertEquals(in.read(), bytes[0] & 0xFF);
+            byte[] b = new byte[30];
+            Assert.assertEquals(in.read(b, 0, 30), 15); // end of the first region
+            Assert.assertEquals(in.read(b, 15, 15), 15);
+            for (int i = 0; i < 30; i++) {
+                Assert.assertEquals(b[i], bytes[i + 1]);
+            }
+            Assert.assertEquals(in.available(), 69);
+            Assert.assertEquals(in.skip(9L), 9L);
+            Assert.assertEquals(in.read(), bytes[40] & 0xFF);
+            Assert.assertEquals(in.skip(50L), 50L);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Assert.assertEquals(in.transferTo(out), 9L);
+            Assert.assertEquals(out.toByteArray(), Arrays.copyOfRange(bytes, 91, 100));
+            Assert.assertEquals(in.read(), -1);
+            Assert.assertEquals(in.skip(1L), 0L);
+        }
+
+        final MappedInputStream closed = MappedInputStream.of(file);
+        closed.close();
+        Assert.assertEquals(closed.available(), 0);
+        Assert.assertThrows(IOException.class, () -> closed.read());
+        Assert.assertThrows(IOException.class, () -> closed.transferTo(new ByteArrayOutputStream()));
+    }
+
+    @Test(groups = { "unit" })
+    public void testTransferToFile() throws IOException {
+        final byte[] bytes = "0123456789abcdefghijklmnopqrstuvwxyz".getBytes(StandardCharsets.US_ASCII);
+        final Path target = newFile(new byte[0]);
+        try (MappedInputStream in = MappedInputStream.of(newFile(bytes), 16);
+                OutputStream out = new FileOutputStream(target.toFile())) {
+            Assert.assertEquals(in.skip(20L), 20L);
+            Assert.assertEquals(in.transferTo(out), 16L);
+            Assert.assertEquals(in.read(), -1);
+        }
+        Assert.assertEquals(new String(Files.readAllBytes(target), StandardCharsets.US_ASCII),
+                "klmnopqrstuvwxyz");
+    }
+
+    @Test(groups = { "unit" })
+    public void testReadAllAsString() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            builder.append(i).append("中文😀,");
+        }
+        final String str = builder.toString();
+        for (int size : new int[] { 16, 17, 18, 19, 100, 0 }) {
+            try (MappedInputStream in = MappedInputStream.of(newFile(str.getBytes(StandardCharsets.UTF_8)), size)) {
+                Assert.assertEquals(in.readAllAsString(StandardCharsets.UTF_8), str);
+                Assert.assertEquals(in.read(), -1);
+            }
+        }
+
+        try (MappedInputStream in = MappedInputStream.of(newFile(str.getBytes(StandardCharsets.UTF_16LE)), 17)) {
+            Assert.assertEquals(in.skip(2L), 2L);
+            Assert.assertEquals(in.readAllAsString(StandardCharsets.UTF_16LE), str.substring(1));
+        }
+    }
+}
@@ -16,9 +16,13 @@
 package io.github.jdbcx;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.JDBCType;
@@ -396,6 +400,32 @@ public class ResultTest {
         Assert.assertEquals(count, 2);
     }
 
+    @Test(groups = "unit")
+    public void testReadFromFile() throws IOException {
+        final int count = 10000;
+        final Object[][] rows = new Object[count][];
+        for (int i = 0; i < count; i++) {
+            rows[i] = new Object[] { i, "row #" + i };
+        }
+        final Path file = Files.createTempFile("jdbcx_", ".jsonl");
+        try {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                Result.writeTo(Result.of(Arrays.asList(Field.of("i"), Field.of("s")), rows), Format.JSONL, null, out);
+            }
+            Assert.assertTrue(Files.size(file) >= MappedInputStream.MIN_FILE_SIZE);
+
+            int i = 0;
+            try (Result<?> result = Result.readFrom(Format.JSONL, null, file)) {
+                for (Row row : result.rows()) {
+                    Assert.assertEquals(row.value(1).asString(), "row #" + i++);
+                }
+            }
+            Assert.assertEquals(i, count);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
     @Test(groups = "unit")
     public void testPostCloseTask() {
         Result<?> result = Result.of(1L).update().postCloseTask(() -> {
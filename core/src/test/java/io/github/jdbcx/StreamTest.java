@@ -25,6 +25,8 @@ import java.io.Reader;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -99,4 +101,46 @@ public class StreamTest {
             Assert.assertEquals(Stream.readAllAsBase64(in), "AwIB//79");
         }
     }
+
+    @Test(groups = "unit")
+    public void testFile() throws IOException {
+        final Path small = Files.createTempFile("stream-", ".txt");
+        final Path large = Files.createTempFile("stream-", ".txt");
+        small.toFile().deleteOnExit();
+        large.toFile().deleteOnExit();
+
+        final String str = "\u4e2d\u6587\t123\n";
+        Files.write(small, str.getBytes(StandardCharsets.UTF_8));
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < MappedInputStream.MIN_FILE_SIZE) {
+            builder.append(str);
+        }
+        final String largeStr = builder.toString();
+        Files.write(large, largeStr.getBytes(StandardCharsets.UTF_8));
+
+        Assert.assertEquals(Stream.length(null), -1L);
+        Assert.assertEquals(Stream.length(str), -1L);
+        Assert.assertEquals(Stream.length(small), 11L);
+        Assert.assertEquals(Stream.length(small.toFile()), 11L);
+
+        Assert.assertEquals(Stream.readAllAsString(small, null), str);
+        Assert.assertEquals(Stream.readAllAsString(large, StandardCharsets.UTF_8), largeStr);
+        try (InputStream in = Stream.newInputStream(small)) {
+            Assert.assertFalse(in instanceof MappedInputStream);
+            Assert.assertEquals(Stream.readAllAsString(in), str);
+        }
+        try (InputStream in = Stream.newInputStream(large)) {
+            Assert.assertTrue(in instanceof MappedInputStream);
+            Assert.assertEquals(Stream.length(in), Files.size(large));
+            Assert.assertEquals(Stream.readAllAsString(in), largeStr);
+        }
+
+        for (Object input : new Object[] { small, small.toFile(), large, large.toFile(),
+                MappedInputStream.of(large) }) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Stream.writeAll(out, input);
+            Assert.assertEquals(new String(out.toByteArray(), StandardCharsets.UTF_8),
+                    input.toString().equals(small.toString()) || input.equals(small.toFile()) ? str : largeStr);
+        }
+    }
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ThreadsTest {
+    @Test(groups = { "unit" })
+    public void testNewVirtualPool() throws Exception {
+        final ExecutorService pool = Threads.newVirtualPool("TestVirtual-");
+        try {
+            final int count = 50;
+            final CountDownLatch started = new CountDownLatch(count);
+            final CountDownLatch latch = new CountDownLatch(1);
+            for (int i = 0; i < count; i++) {
+                pool.execute(() -> {
+                    started.countDown();
+                    try {
+                        latch.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            // all tasks should run at the same time, no matter virtual thread is supported or not
+            Assert.assertTrue(started.await(5L, TimeUnit.SECONDS), "All tasks should have been started");
+            latch.countDown();
+
+            Future<String> name = pool.submit(() -> Thread.currentThread().getName());
+            Assert.assertTrue(name.get(5L, TimeUnit.SECONDS).startsWith("TestVirtual-"));
+        } finally {
+            pool.shutdown();
+        }
+        Assert.assertTrue(pool.awaitTermination(5L, TimeUnit.SECONDS));
+    }
+}
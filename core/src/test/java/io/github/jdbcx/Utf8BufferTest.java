@@ -0,0 +1,102 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class Utf8BufferTest {
+    @Test(groups = { "unit" })
+    public void testAppendNumbers() {
+        Utf8Buffer buf = new Utf8Buffer(1);
+        for (long v : new long[] { 0L, 1L, -1L, 9L, 10L, -10L, 99L, 100L, 1234567890L, Integer.MAX_VALUE,
+                Integer.MIN_VALUE, 999999999999999999L, 1000000000000000000L, Long.MAX_VALUE, Long.MIN_VALUE }) {
+            buf.setLength(0);
+            Assert.assertEquals(buf.append(v).toString(), Long.toString(v));
+            buf.setLength(0);
+            Assert.assertEquals(buf.appendUnsigned(v).toString(), Long.toUnsignedString(v));
+        }
+
+        buf.setLength(0);
+        Assert.assertEquals(buf.append(-123).append(true).append(false).toString(), "-123truefalse");
+        Assert.assertThrows(IndexOutOfBoundsException.class, () -> new Utf8Buffer(0).setLength(1));
+    }
+
+    @Test(groups = { "unit" })
+    public void testAppendText() {
+        final String str = "a\u00e9\u4e2d\ud83d\ude00\ud83d!";
+        Utf8Buffer buf = new Utf8Buffer(2);
+        Assert.assertEquals(buf.append(str).toString(), new String(str.getBytes(StandardCharsets.UTF_8),
+                StandardCharsets.UTF_8));
+        Assert.assertEquals(buf.length(), str.getBytes(StandardCharsets.UTF_8).length);
+        Assert.assertEquals(buf.append((CharSequence) null).length(), str.getBytes(StandardCharsets.UTF_8).length);
+
+        buf.setLength(0);
+        Assert.assertEquals(buf.append('x').append('\u00e9').toString(), "x\u00e9");
+
+        buf.setLength(0);
+        Assert.assertEquals(buf.append(DateTimeFormatter.ISO_LOCAL_DATE, LocalDate.of(2024, 5, 4)).toString(),
+                "2024-05-04");
+    }
+
+    @Test(groups = { "unit" })
+    public void testAppendExpressions() {
+        Utf8Buffer buf = new Utf8Buffer(0);
+        for (String str : new String[] { null, "", "abc", "a\"b\\c\n\r\t\b\f\u0001\u001f", "\u2028\u2029\u00e9",
+                "\ud83d\ude00" }) {
+            buf.setLength(0);
+            Assert.assertEquals(buf.appendJson(str).toString(), Converter.toJsonExpression(str));
+            buf.setLength(0);
+            Assert.assertEquals(buf.appendSql(str).toString(), Converter.toSqlExpression(str));
+        }
+
+        buf.setLength(0);
+        Assert.assertEquals(buf.appendJson(DateTimeFormatter.ISO_LOCAL_DATE, LocalDate.of(2024, 5, 4)).toString(),
+                "\"2024-05-04\"");
+        buf.setLength(0);
+        Assert.assertEquals(buf.appendSql(DateTimeFormatter.ISO_LOCAL_DATE, LocalDate.of(2024, 5, 4)).toString(),
+                "'2024-05-04'");
+    }
+
+    @Test(groups = { "unit" })
+    public void testEscape() throws IOException {
+        final byte[] table = new byte[128];
+        table['"'] = '"';
+        table[','] = ',';
+
+        Utf8Buffer buf = new Utf8Buffer(4);
+        buf.append("x");
+        Assert.assertEquals(buf.indexOf(1, table), -1);
+        Assert.assertEquals(buf.escape(1, (byte) '\\', table), 0);
+        buf.append("\u4e2d\"a,b");
+        Assert.assertEquals(buf.indexOf(1, table), 4);
+        Assert.assertEquals(buf.escape(1, (byte) '\\', table), 2);
+        Assert.assertEquals(buf.toString(), "x\u4e2d\\\"a\\,b");
+        Assert.assertEquals(buf.quote(1, (byte) '\'').toString(), "x'\u4e2d\\\"a\\,b'");
+
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            buf.writeTo(out);
+            Assert.assertEquals(new String(out.toByteArray(), StandardCharsets.UTF_8), "x'\u4e2d\\\"a\\,b'");
+            Assert.assertEquals(buf.length(), 0);
+        }
+    }
+}
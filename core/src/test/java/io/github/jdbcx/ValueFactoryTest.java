@@ -41,7 +41,9 @@ import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
 
+import io.github.jdbcx.value.LongValue;
 import io.github.jdbcx.value.StringValue;
+import io.github.jdbcx.value.UnsignedLong;
 
 public class ValueFactoryTest {
     @Test(groups = { "unit" })
@@ -147,6 +149,19 @@ public class ValueFactoryTest {
         Assert.assertEquals(ValueFactory.fromJson(new StringReader(json), mapType), map);
     }
 
+    @Test(groups = { "unit" })
+    public void testNewBigintValue() {
+        final ValueFactory factory = ValueFactory.getInstance();
+        Value v = factory.newValue(Field.of("a", JDBCType.BIGINT, false), null);
+        Assert.assertTrue(v instanceof LongValue, "BIGINT should be backed by primitive long");
+        Assert.assertEquals(v.asObject(), 0L);
+
+        v = factory.newValue(Field.of("b", "", JDBCType.BIGINT, true, 20, 0, false), null);
+        Assert.assertTrue(v instanceof LongValue, "Unsigned BIGINT should be backed by primitive long");
+        Assert.assertTrue(v.asObject() instanceof UnsignedLong, "Should be UnsignedLong");
+        Assert.assertEquals(LongValue.ofUnsigned(-1L).asObject(), UnsignedLong.MAX_VALUE);
+    }
+
     @Test(groups = { "unit" })
     public void testNewFormatter() {
         Assert.assertEquals(ValueFactory.newFormatter("yyyy-MM-dd").format(LocalDate.of(2024, 5, 4)), "2024-05-04");
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.compress;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.jdbcx.Stream;
+
+public class ZstdDictionaryStoreTest {
+    static List<byte[]> newSamples(int count) {
+        final Random random = new Random(count);
+        final List<byte[]> samples = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder builder = new StringBuilder();
+            for (int j = 0, len = 3 + random.nextInt(5); j < len; j++) {
+                builder.append("{\"id\":").append(random.nextInt(100000)).append(",\"name\":\"user")
+                        .append(random.nextInt(1000)).append("\",\"status\":\"")
+                        .append(random.nextBoolean() ? "active" : "inactive").append("\",\"created_at\":\"2026-0")
+                        .append(1 + random.nextInt(9)).append("-1").append(random.nextInt(10))
+                        .append("T00:00:00Z\"}\n");
+            }
+            samples.add(builder.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return samples;
+    }
+
+    static byte[] compress(ZstdDictionaryStore store, byte[] data, long id) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream o = id != 0L ? store.compress(out, -1, id) : ZstdSupport.getInstance().compress(out)) {
+            o.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] decompress(ZstdDictionaryStore store, byte[] data, long id) throws IOException {
+        try (InputStream in = store.decompress(new ByteArrayInputStream(data), id)) {
+            return Stream.readAllBytes(in);
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testTrain() throws IOException {
+        Assert.assertThrows(IOException.class,
+                () -> ZstdDictionaryStore.train(Collections.singletonList(new byte[1]), 1024));
+
+        final List<byte[]> samples = newSamples(300);
+        final byte[] dict = ZstdDictionaryStore.train(samples, 4096);
+        Assert.assertTrue(dict.length > 0 && dict.length <= 4096);
+        Assert.assertNotEquals(ZstdDictionaryStore.getId(dict), 0L);
+
+        final ZstdDictionaryStore store = ZstdDictionaryStore.of(null);
+        Assert.assertNull(store.getDirectory());
+        final long id = store.put(dict);
+        Assert.assertTrue(store.contains(id));
+        Assert.assertTrue(store.ids().contains(id));
+
+        final byte[] data = newSamples(1).get(0);
+        final byte[] plain = compress(store, data, 0L);
+        final byte[] compressed = compress(store, data, id);
+        Assert.assertTrue(compressed.length < plain.length, "Dictionary should help small data");
+        Assert.assertEquals(decompress(store, compressed, id), data);
+        Assert.assertEquals(decompress(store, plain, 0L), data);
+        Assert.assertThrows(IOException.class, () -> decompress(store, compressed, 0L));
+        Assert.assertThrows(IOException.class, () -> store.compress(new ByteArrayOutputStream(), 3, id + 1L));
+        Assert.assertThrows(IOException.class,
+                () -> store.decompress(new ByteArrayInputStream(compressed), id + 1L));
+    }
+
+    @Test(groups = { "unit" })
+    public void testStore() throws IOException {
+        final Path dir = Files.createTempDirectory("zstd-dict-");
+        final ZstdDictionaryStore store = ZstdDictionaryStore.of(dir.toString());
+        Assert.assertSame(ZstdDictionaryStore.of(dir.toString()), store);
+        Assert.assertEquals(store.ids(), Collections.emptyList());
+        Assert.assertFalse(store.contains(1L));
+        Assert.assertNull(store.get(1L));
+        Assert.assertThrows(IllegalArgumentException.class, () -> store.put(new byte[10]));
+
+        final byte[] dict = ZstdDictionaryStore.train(newSamples(200), 2048);
+        final long id = store.put(dict);
+        Assert.assertTrue(Files.isRegularFile(dir.resolve(id + ZstdDictionaryStore.FILE_EXTENSION)));
+        Assert.assertEquals(store.ids(), Collections.singletonList(id));
+        Assert.assertSame(store.ids(), store.ids(), "Should not list the directory again");
+        Assert.assertEquals(store.get(id), dict);
+
+        // another store of the same directory, but not cached
+        final Path copy = Files.createTempDirectory("zstd-dict-");
+        Files.copy(dir.resolve(id + ZstdDictionaryStore.FILE_EXTENSION),
+                copy.resolve(id + ZstdDictionaryStore.FILE_EXTENSION));
+        final ZstdDictionaryStore another = ZstdDictionaryStore.of(copy.toString());
+        Assert.assertEquals(another.ids(), Collections.singletonList(id));
+        Assert.assertEquals(another.get(id), dict);
+        final byte[] data = newSamples(2).get(1);
+        Assert.assertEquals(decompress(another, compress(store, data, id), id), data);
+    }
+}
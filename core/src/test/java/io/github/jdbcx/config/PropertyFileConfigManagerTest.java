@@ -19,8 +19,11 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.Statement;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -29,6 +32,7 @@ import io.github.jdbcx.ConfigManager;
 import io.github.jdbcx.Constants;
 import io.github.jdbcx.VariableTag;
 import io.github.jdbcx.interpreter.JdbcInterpreter;
+import io.github.jdbcx.interpreter.MetadataCache;
 
 public class PropertyFileConfigManagerTest {
     @Test(groups = { "unit" })
@@ -40,6 +44,32 @@ public class PropertyFileConfigManagerTest {
                 PropertyFileConfigManager.class);
     }
 
+    @Test(groups = { "unit" })
+    public void testInvalidateMetadata() throws Exception {
+        final String id = "pfcm-" + UUID.randomUUID();
+        final Properties props = new Properties();
+        props.setProperty(MetadataCache.OPTION_TTL.getName(), "60");
+        final AtomicInteger counter = new AtomicInteger();
+        final MetadataCache cache = MetadataCache.getInstance();
+        Assert.assertEquals(cache.get(props, id, counter::incrementAndGet, "tables"), 1);
+
+        final Map<String, Properties> previous = new HashMap<>();
+        previous.put("db/" + id, props);
+        final Map<String, Properties> current = new HashMap<>();
+        current.put("db/" + id, (Properties) props.clone());
+        PropertyFileConfigManager.invalidateMetadata(previous, current);
+        Assert.assertEquals(cache.get(props, id, counter::incrementAndGet, "tables"), 1);
+
+        // changed
+        current.get("db/" + id).setProperty("user", "u1");
+        PropertyFileConfigManager.invalidateMetadata(previous, current);
+        Assert.assertEquals(cache.get(props, id, counter::incrementAndGet, "tables"), 2);
+
+        // removed
+        PropertyFileConfigManager.invalidateMetadata(previous, Collections.emptyMap());
+        Assert.assertEquals(cache.get(props, id, counter::incrementAndGet, "tables"), 3);
+    }
+
     @Test(groups = { "integration" })
     public void testGetConfig() throws Exception {
         Properties config = new Properties();
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.JDBCType;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.jdbcx.Field;
+import io.github.jdbcx.Result;
+import io.github.jdbcx.Row;
+import io.github.jdbcx.Value;
+import io.github.jdbcx.ValueFactory;
+import io.github.jdbcx.value.LongValue;
+import io.github.jdbcx.value.StringValue;
+
+public class IterableBufferTest {
+    @Test(groups = { "unit" })
+    public void testEncoding() throws IOException, SQLException {
+        final String query = "select i::TINYINT a, i::INT b, i c, i % 2 = 0 d, (i / 3)::REAL e, i / 4 f, "
+                + "(i / 7)::DECIMAL(18, 3) g, DATE '2024-01-01' + i::INT h, TIME '12:34:56.789' i, "
+                + "TIMESTAMP '2024-01-01 01:02:03.456789' + to_seconds(i) j, 'v' || i k, 'abc'::BLOB l, "
+                + "i::HUGEINT m from range(-3, 4) t(i) union all select null, null, null, null, null, null, null, "
+                + "null, null, null, null, null, null order by 1 nulls last";
+        try (Connection conn = DriverManager.getConnection("jdbc:duckdb:");
+                Statement stmt = conn.createStatement()) {
+            for (long limit : new long[] { 0L, 1024L * 1024L }) {
+                final IterableBuffer buffer;
+                try (Result<?> r = Result.of(stmt.executeQuery(query))) {
+                    buffer = IterableBuffer.of(r.fields(), r.rows(), limit);
+                }
+                Assert.assertEquals(buffer.size(), 8L);
+                Assert.assertEquals(buffer.getMemorySize() > 0L, limit > 0L);
+                Assert.assertEquals(buffer.getFileSize() > 0L, limit == 0L);
+
+                try (Result<?> r = Result.of(buffer); Result<?> expected = Result.of(stmt.executeQuery(query))) {
+                    final Iterator<Row> it = expected.rows().iterator();
+                    int count = 0;
+                    for (Row row : r.rows()) {
+                        Assert.assertTrue(it.hasNext());
+                        final Row e = it.next();
+                        Assert.assertEquals(row.size(), 13);
+                        for (int i = 0; i < 13; i++) {
+                            final Value v = row.value(i);
+                            Assert.assertEquals(v.isNull(), e.value(i).isNull(), "column " + (i + 1));
+                            if (!v.isNull() && i != 11) { // binary value can only be read once
+                                Assert.assertEquals(v.asString(), e.value(i).asString(), "column " + (i + 1));
+                            }
+                        }
+                        if (count++ < 7) {
+                            final long i = count - 4;
+                            Assert.assertEquals(row.value(0).asByte(), (byte) i);
+                            Assert.assertEquals(row.value(2).asLong(), i);
+                            Assert.assertEquals(row.value(3).asBoolean(), i % 2 == 0);
+                            Assert.assertEquals(row.value(7).asDate(), LocalDate.of(2024, 1, 1).plusDays(i));
+                            Assert.assertEquals(row.value(10).asString(), "v" + i);
+                            Assert.assertEquals(row.value(11).asBinary(), new byte[] { 'a', 'b', 'c' });
+                        }
+                    }
+                    Assert.assertFalse(it.hasNext());
+                    Assert.assertEquals(count, 8);
+                }
+                // closed along with the result
+                Assert.assertEquals(buffer.size(), 0L);
+                Assert.assertFalse(buffer.iterator().hasNext());
+            }
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testSpill() throws IOException {
+        final int count = 100000;
+        final Row[] rows = new Row[count];
+        final String padding = "0123456789";
+        final List<Field> fields = Arrays.asList(Field.of("n", JDBCType.BIGINT), Field.of("s"));
+        for (int i = 0; i < count; i++) {
+            rows[i] = Row.of(fields, LongValue.of(i), StringValue.of(padding + i));
+        }
+        try (IterableBuffer buffer = IterableBuffer.of(rows[0].fields(), Arrays.asList(rows),
+                IterableBuffer.CHUNK_SIZE)) {
+            Assert.assertEquals(buffer.size(), count);
+            // chunks grow from MIN_CHUNK_SIZE, the last 1MB chunk does not fit
+            Assert.assertEquals(buffer.getMemorySize(), IterableBuffer.CHUNK_SIZE - IterableBuffer.MIN_CHUNK_SIZE);
+            Assert.assertTrue(buffer.getFileSize() > 0L);
+
+            for (int k = 0; k < 2; k++) {
+                int i = 0;
+                for (Row r : buffer) {
+                    Assert.assertEquals(r.value(0).asLong(), i);
+                    Assert.assertEquals(r.value("s").asString(), padding + i);
+                    i++;
+                }
+                Assert.assertEquals(i, count);
+            }
+        }
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> IterableBuffer.of(null, Arrays.asList(rows), 0L));
+        for (long v : new long[] { 0L, 1L, -1L, 63L, -64L, 64L, Long.MAX_VALUE, Long.MIN_VALUE }) {
+            IterableBuffer.Encoder encoder = new IterableBuffer.Encoder();
+            encoder.writeVarLong(v);
+            Assert.assertEquals(IterableBuffer.readVarLong(encoder.toByteBuffer()), v);
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testChunks() throws IOException {
+        final List<Field> fields = Collections.singletonList(Field.of("s"));
+        final Row row = Row.of(fields, StringValue.of("x"));
+        try (IterableBuffer buffer = IterableBuffer.of(fields, Collections.singletonList(row), Long.MAX_VALUE)) {
+            // small result stays on heap
+            Assert.assertEquals(buffer.getMemorySize(), IterableBuffer.MIN_CHUNK_SIZE);
+            Assert.assertFalse(buffer.getBuffer(0).isDirect());
+        }
+
+        final ByteBuffer chunk = IterableBuffer.allocate(IterableBuffer.CHUNK_SIZE);
+        Assert.assertTrue(chunk.isDirect());
+        chunk.put((byte) 1);
+        IterableBuffer.recycle(chunk);
+        final ByteBuffer reused = IterableBuffer.allocate(IterableBuffer.CHUNK_SIZE);
+        Assert.assertTrue(reused.isDirect());
+        Assert.assertEquals(reused.position(), 0);
+        IterableBuffer.recycle(reused);
+
+        Assert.assertFalse(IterableBuffer.allocate(IterableBuffer.CHUNK_SIZE + 1).isDirect());
+
+        final Iterator<Row> it;
+        try (IterableBuffer buffer = IterableBuffer.of(fields, Arrays.asList(row, row), Long.MAX_VALUE)) {
+            it = buffer.iterator();
+            Assert.assertEquals(it.next().value(0).asString(), "x");
+        }
+        Assert.assertThrows(IllegalStateException.class, it::next);
+    }
+
+    @Test(groups = { "unit" })
+    public void testRestoreValues() throws IOException, SQLException {
+        final String query = "select 'ab'::CHAR(5) a, TIMESTAMP '1969-12-31 23:59:59.123456' b, null c";
+        try (Connection conn = DriverManager.getConnection("jdbc:duckdb:");
+                Statement stmt = conn.createStatement();
+                Result<?> expected = Result.of(stmt.executeQuery(query))) {
+            final List<Field> fields = Arrays.asList(Field.of("a", JDBCType.CHAR, false),
+                    Field.of("b", JDBCType.TIMESTAMP, false), Field.of("c", JDBCType.NULL));
+            Assert.assertTrue(IterableBuffer.isSupported(fields));
+            final Row e = expected.rows().iterator().next();
+            final Row source = Row.of(fields, e.value(0), e.value(1), e.value(2));
+            try (IterableBuffer buffer = IterableBuffer.of(fields, Collections.singletonList(source), 0L)) {
+                final Row row = buffer.iterator().next();
+                for (int i = 0; i < 3; i++) {
+                    Assert.assertEquals(row.value(i).getClass(),
+                            ValueFactory.getInstance().newValue(fields.get(i), null).getClass());
+                }
+                Assert.assertEquals(row.value(0).asString(), e.value(0).asString());
+                Assert.assertEquals(row.value(1).asDateTime(), LocalDateTime.of(1969, 12, 31, 23, 59, 59, 123456000));
+                Assert.assertTrue(row.value(2).isNull());
+            }
+        }
+    }
+}
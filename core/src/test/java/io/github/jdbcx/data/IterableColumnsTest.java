@@ -0,0 +1,85 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.data;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.JDBCType;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.jdbcx.Row;
+
+public class IterableColumnsTest {
+    @Test(groups = { "unit" })
+    public void testReadFromResultSet() throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:duckdb:");
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("select i::INT a, case when i % 3 = 0 then null else i * 10 end b, "
+                        + "i % 2 = 0 c, i / 4 d, case when i % 5 = 0 then null else 'v' || i end e "
+                        + "from range(150) t(i) order by i")) {
+            IterableColumns columns = IterableColumns.of(rs);
+            Assert.assertEquals(columns.size(), 150);
+            Assert.assertEquals(columns.columns(), 5);
+            Assert.assertEquals(columns.fields().get(0).type(), JDBCType.INTEGER);
+            Assert.assertTrue(columns.column(0).hasLongs());
+            Assert.assertTrue(columns.column(1).hasLongs());
+            Assert.assertTrue(columns.column(2).hasLongs());
+            Assert.assertTrue(columns.column(3).hasDoubles());
+            Assert.assertFalse(columns.column(4).hasLongs());
+            Assert.assertFalse(columns.column(4).hasDoubles());
+
+            for (int i = 0; i < 150; i++) {
+                Assert.assertEquals(columns.column(0).getLong(i), i);
+                Assert.assertEquals(columns.column(1).isNull(i), i % 3 == 0);
+                if (i % 3 != 0) {
+                    Assert.assertEquals(columns.column(1).getLong(i), i * 10L);
+                }
+                Assert.assertEquals(columns.column(2).getLong(i), i % 2 == 0 ? 1L : 0L);
+                Assert.assertEquals(columns.column(3).getDouble(i), i / 4D);
+                Assert.assertEquals(columns.column(4).isNull(i), i % 5 == 0);
+            }
+
+            // row view, twice
+            for (int k = 0; k < 2; k++) {
+                int i = 0;
+                for (Row r : columns) {
+                    Assert.assertEquals(r.size(), 5);
+                    Assert.assertEquals(r.value(0).asInt(), i);
+                    Assert.assertEquals(r.value(1).isNull(), i % 3 == 0);
+                    if (i % 3 != 0) {
+                        Assert.assertEquals(r.value(1).asLong(), i * 10L);
+                    }
+                    Assert.assertEquals(r.value(2).asBoolean(), i % 2 == 0);
+                    Assert.assertEquals(r.value(3).asDouble(), i / 4D);
+                    Assert.assertEquals(r.value("e").isNull(), i % 5 == 0);
+                    if (i % 5 != 0) {
+                        Assert.assertEquals(r.value("e").asString(), "v" + i);
+                    }
+                    i++;
+                }
+                Assert.assertEquals(i, 150);
+            }
+
+            Assert.assertEquals(IterableColumns.of(rs).size(), 0);
+            Assert.assertThrows(IllegalArgumentException.class, () -> IterableColumns.of(null));
+        }
+    }
+}
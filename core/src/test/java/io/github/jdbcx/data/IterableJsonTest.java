@@ -0,0 +1,180 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.data;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.JDBCType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.jdbcx.Field;
+import io.github.jdbcx.Row;
+
+public class IterableJsonTest {
+    static List<Row> toList(IterableJson json) {
+        List<Row> list = new ArrayList<>();
+        for (Row r : json) {
+            list.add(r);
+        }
+        return list;
+    }
+
+    @Test(groups = { "unit" })
+    public void testEmpty() throws IOException {
+        try (IterableJson json = IterableJson.of(null, new StringReader(""), false, 10)) {
+            Assert.assertEquals(json.fields(), Collections.emptyList());
+            Assert.assertFalse(json.iterator().hasNext());
+        }
+        try (IterableJson json = IterableJson.of(null, new StringReader("\u001e\n\u001e"), true, 10)) {
+            Assert.assertEquals(json.fields(), Collections.emptyList());
+            Assert.assertFalse(json.iterator().hasNext());
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testInferFields() throws IOException {
+        final String str = "{\"a\":1,\"b\":true,\"c\":\"x\"}\n"
+                + "{\"c\":null,\"a\":2.5,\"d\":{\"x\":[1,{\"y\":null}]}}\n"
+                + "{\"a\":3,\"b\":false,\"e\":\"ignored\"}\n"
+                + "{\"a\":\"4\",\"b\":1,\"d\":[]}";
+        try (IterableJson json = IterableJson.of(null, new StringReader(str), false, 2)) {
+            Assert.assertEquals(json.fields(),
+                    Arrays.asList(Field.of("a", JDBCType.DOUBLE), Field.of("b", JDBCType.BOOLEAN),
+                            Field.of("c", JDBCType.VARCHAR), Field.of("d", JDBCType.VARCHAR)));
+            List<Row> rows = toList(json);
+            Assert.assertEquals(rows.size(), 4);
+
+            Assert.assertEquals(rows.get(0).value(0).asDouble(), 1D);
+            Assert.assertTrue(rows.get(0).value(1).asBoolean());
+            Assert.assertEquals(rows.get(0).value(2).asString(), "x");
+            Assert.assertTrue(rows.get(0).value(3).isNull());
+
+            Assert.assertEquals(rows.get(1).value(0).asDouble(), 2.5D);
+            Assert.assertTrue(rows.get(1).value(1).isNull());
+            Assert.assertTrue(rows.get(1).value(2).isNull());
+            Assert.assertEquals(rows.get(1).value(3).asString(), "{\"x\":[1,{\"y\":null}]}");
+
+            // records after the sample are read as they are iterated
+            Assert.assertEquals(rows.get(2).value(0).asDouble(), 3D);
+            Assert.assertFalse(rows.get(2).value(1).asBoolean());
+            Assert.assertTrue(rows.get(2).value(2).isNull());
+            Assert.assertEquals(rows.get(3).value(0).asDouble(), 4D);
+            Assert.assertTrue(rows.get(3).value(1).asBoolean());
+            Assert.assertEquals(rows.get(3).value(3).asString(), "[]");
+        }
+
+        try (IterableJson json = IterableJson.of(null, new StringReader("[1,2]\n[3]\n[true,5,6]\n7"), false,
+                100)) {
+            Assert.assertEquals(json.fields(), Arrays.asList(Field.of("c1", JDBCType.VARCHAR),
+                    Field.of("c2", JDBCType.BIGINT), Field.of("c3", JDBCType.BIGINT)));
+            List<Row> rows = toList(json);
+            Assert.assertEquals(rows.size(), 4);
+            Assert.assertEquals(rows.get(0).value(0).asString(), "1");
+            Assert.assertEquals(rows.get(0).value(1).asLong(), 2L);
+            Assert.assertTrue(rows.get(0).value(2).isNull());
+            Assert.assertTrue(rows.get(1).value(1).isNull());
+            Assert.assertEquals(rows.get(2).value(0).asString(), "true");
+            Assert.assertEquals(rows.get(2).value(1).asLong(), 5L);
+            Assert.assertEquals(rows.get(3).value(0).asString(), "7");
+        }
+
+        try (IterableJson json = IterableJson.of(null, new StringReader("\u001e1\n\u001e\"2\"\n"), true, 1)) {
+            Assert.assertEquals(json.fields(), Collections.singletonList(Field.of("results", JDBCType.BIGINT)));
+            Iterator<Row> it = json.iterator();
+            Assert.assertEquals(it.next().value(0).asLong(), 1L);
+            Assert.assertEquals(it.next().value(0).asLong(), 2L);
+            Assert.assertFalse(it.hasNext());
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testSuppliedFields() throws IOException {
+        final List<Field> fields = Arrays.asList(Field.of("d", JDBCType.DECIMAL), Field.of("i", JDBCType.INTEGER),
+                Field.of("s"));
+        final String str = "{\"s\":1.50,\"i\":\"\",\"d\":12345678901234567890.123}\n{\"i\":2e3,\"d\":true}\n"
+                + "[1,2,3,4]";
+        try (IterableJson json = IterableJson.of(fields, new StringReader(str), false, 0)) {
+            Assert.assertEquals(json.fields(), fields);
+            List<Row> rows = toList(json);
+            Assert.assertEquals(rows.size(), 3);
+            Assert.assertEquals(rows.get(0).value(0).asBigDecimal(3), new BigDecimal("12345678901234567890.123"));
+            Assert.assertTrue(rows.get(0).value(1).isNull());
+            Assert.assertEquals(rows.get(0).value(2).asString(), "1.50");
+            Assert.assertEquals(rows.get(1).value(0).asBigDecimal(0), BigDecimal.ONE);
+            Assert.assertEquals(rows.get(1).value(1).asLong(), 2000L);
+            Assert.assertTrue(rows.get(1).value(2).isNull());
+            Assert.assertEquals(rows.get(2).value(1).asInt(), 2);
+            Assert.assertEquals(rows.get(2).value(2).asString(), "3");
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testDecimal() throws IOException {
+        final String str = "{\"a\":1,\"b\":0.1}\n{\"a\":12345678901234567890.123,\"b\":1e400}\n{\"a\":0.5,\"b\":2}";
+        try (IterableJson json = IterableJson.of(null, new StringReader(str), false, 2)) {
+            Assert.assertEquals(json.fields(), Arrays.asList(Field.of("a", null, JDBCType.DECIMAL, true, 23, 3, true),
+                    Field.of("b", null, JDBCType.DECIMAL, true, 402, 1, true)));
+            List<Row> rows = toList(json);
+            Assert.assertEquals(rows.get(0).value(0).asBigDecimal(0), BigDecimal.ONE);
+            Assert.assertEquals(rows.get(1).value(0).asBigDecimal(3), new BigDecimal("12345678901234567890.123"));
+            Assert.assertEquals(rows.get(2).value(0).asBigDecimal(1), new BigDecimal("0.5"));
+            Assert.assertEquals(rows.get(1).value(1).asBigDecimal(0), new BigDecimal("1e400").setScale(0));
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testMismatch() throws IOException {
+        try (IterableJson json = IterableJson.of(null, new StringReader("1\n2.0\n2.5"), false, 1)) {
+            Assert.assertEquals(json.fields(), Collections.singletonList(Field.of("results", JDBCType.BIGINT)));
+            Iterator<Row> it = json.iterator();
+            Assert.assertEquals(it.next().value(0).asLong(), 1L);
+            Assert.assertEquals(it.next().value(0).asLong(), 2L);
+            Assert.assertThrows(UncheckedIOException.class, () -> it.next());
+        }
+
+        final List<Field> fields = Arrays.asList(Field.of("b", JDBCType.BOOLEAN), Field.of("i", JDBCType.INTEGER));
+        try (IterableJson json = IterableJson.of(fields, new StringReader("[\"TRUE\",\"\"]\n[\"yes\"]"), false, 0)) {
+            Iterator<Row> it = json.iterator();
+            Row row = it.next();
+            Assert.assertTrue(row.value(0).asBoolean());
+            Assert.assertTrue(row.value(1).isNull());
+            Assert.assertThrows(UncheckedIOException.class, () -> it.next());
+        }
+        try (IterableJson json = IterableJson.of(fields, new StringReader("[null,\"x\"]"), false, 0)) {
+            Assert.assertThrows(UncheckedIOException.class, () -> json.iterator().next());
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testMalformed() throws IOException {
+        Assert.assertThrows(IOException.class, () -> IterableJson.of(null, new StringReader("{\"a\":"), false, 1));
+
+        try (IterableJson json = IterableJson.of(null, new StringReader("{\"a\":1}\n{\"a\":"), false, 1)) {
+            Iterator<Row> it = json.iterator();
+            Assert.assertEquals(it.next().value(0).asLong(), 1L);
+            Assert.assertThrows(UncheckedIOException.class, () -> it.next());
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.jdbcx.Field;
+import io.github.jdbcx.Format;
+import io.github.jdbcx.Result;
+import io.github.jdbcx.Row;
+import io.github.jdbcx.Serialization;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+public class ReactiveRowsTest {
+    static final String QUERY = "with recursive t(n) as (select 1 union all select n + 1 from t where n < 5) "
+            + "select n, 'r' || n as s from t";
+
+    static Result<?> newResult(int rows, AtomicInteger pulled, AtomicBoolean closed) {
+        final List<Field> fields = Arrays.asList(Field.of("n"));
+        final Iterable<Row> it = () -> new Iterator<Row>() {
+            private int n = 0;
+
+            @Override
+            public boolean hasNext() {
+                return n < rows;
+            }
+
+            @Override
+            public Row next() {
+                pulled.incrementAndGet();
+                return Row.of(fields, new Object[] { ++n });
+            }
+        };
+        return Result.of(fields, it).update().postCloseTask(() -> closed.set(true)).build();
+    }
+
+    @Test(groups = { "unit" })
+    public void testOf() throws SQLException {
+        Assert.assertThrows(IllegalArgumentException.class, () -> ReactiveRows.of(null));
+
+        final AtomicInteger pulled = new AtomicInteger();
+        final AtomicBoolean closed = new AtomicBoolean();
+        final Flux<Row> flux = ReactiveRows.of(newResult(100, pulled, closed));
+        Assert.assertEquals(pulled.get(), 0);
+        Assert.assertFalse(closed.get());
+
+        // rows are pulled on demand
+        final List<Integer> list = new ArrayList<>();
+        flux.limitRate(2).take(3).map(r -> r.value(0).asInt()).subscribe(list::add);
+        Assert.assertEquals(list, Arrays.asList(1, 2, 3));
+        Assert.assertTrue(pulled.get() <= 4, "Should not pull more than requested");
+        Assert.assertTrue(closed.get());
+
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+                Statement stmt = conn.createStatement()) {
+            final ResultSet rs = stmt.executeQuery(QUERY);
+            Assert.assertEquals(ReactiveRows.of(Result.of(rs)).map(r -> r.value(1).asString()).collectList().block(),
+                    Arrays.asList("r1", "r2", "r3", "r4", "r5"));
+            Assert.assertTrue(rs.isClosed());
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testBatches() throws SQLException {
+        Assert.assertThrows(IllegalArgumentException.class, () -> ReactiveRows.batches(null, 1, 0L));
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> ReactiveRows.batches(Result.of(1L), 0, 0L));
+
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+                Statement stmt = conn.createStatement()) {
+            final ResultSet rs = stmt.executeQuery(QUERY);
+            final List<Long> sizes = new ArrayList<>();
+            final List<String> values = new ArrayList<>();
+            for (IterableBuffer b : ReactiveRows.batches(Result.of(rs), 2, 1024L).toIterable()) {
+                try (IterableBuffer buffer = b) {
+                    sizes.add(buffer.size());
+                    for (Row r : buffer) {
+                        values.add(r.value(0).asInt() + ":" + r.value(1).asString());
+                    }
+                }
+            }
+            Assert.assertEquals(sizes, Arrays.asList(2L, 2L, 1L));
+            Assert.assertEquals(values, Arrays.asList("1:r1", "2:r2", "3:r3", "4:r4", "5:r5"));
+            Assert.assertTrue(rs.isClosed());
+        }
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> ReactiveRows.batches(Result.of(1L), 1, 0, 0L));
+
+        // buffers are reused once closed by the subscriber
+        final AtomicInteger pulled = new AtomicInteger();
+        final AtomicBoolean closed = new AtomicBoolean();
+        final List<IterableBuffer> buffers = new ArrayList<>();
+        long sum = 0L;
+        for (IterableBuffer b : ReactiveRows.batches(newResult(10, pulled, closed), 3, 1, 1024L).limitRate(1)
+                .toIterable(1)) {
+            try (IterableBuffer buffer = b) {
+                buffers.add(buffer);
+                for (Row r : buffer) {
+                    sum += r.value(0).asInt();
+                }
+            }
+        }
+        Assert.assertEquals(sum, 55L);
+        Assert.assertEquals(buffers.size(), 4);
+        Assert.assertTrue(closed.get());
+        Assert.assertTrue(buffers.stream().distinct().count() < buffers.size(), "Should reuse buffers");
+    }
+
+    @Test(groups = { "unit" })
+    public void testRing() throws IOException {
+        final List<Field> fields = Arrays.asList(Field.of("n"));
+        final Iterable<Row> rows = Arrays.asList(Row.of(fields, new Object[] { 1 }));
+        final ReactiveRows.BufferRing ring = new ReactiveRows.BufferRing(1);
+        final IterableBuffer b1 = ring.fill(fields, rows, 1024L);
+        final IterableBuffer b2 = ring.fill(fields, rows, 1024L);
+        Assert.assertNotSame(b1, b2);
+        b1.close();
+        b2.close();
+        Assert.assertEquals(ring.size(), 1);
+        Assert.assertEquals(b2.getMemorySize(), 0L, "Should release buffers exceeding capacity");
+
+        final IterableBuffer b3 = ring.fill(fields, rows, 1024L);
+        Assert.assertSame(b3, b1);
+        Assert.assertEquals(b3.size(), 1L);
+        Assert.assertEquals(b3.iterator().next().value(0).asInt(), 1);
+        ring.close();
+        b3.close();
+        Assert.assertEquals(ring.size(), 0);
+        Assert.assertEquals(b3.getMemorySize(), 0L);
+    }
+
+    @Test(groups = { "unit" })
+    public void testPrefetch() throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+                Statement stmt = conn.createStatement();
+                Result<?> result = ReactiveRows.prefetch(Result.of(stmt.executeQuery(QUERY)), 2, 1, 1024L)) {
+            Assert.assertEquals(result.fields().size(), 2);
+            Assert.assertEquals(result.fields().get(0).name(), "n");
+            int sum = 0;
+            for (Row r : result.rows()) {
+                sum += r.value(0).asInt();
+            }
+            Assert.assertEquals(sum, 15);
+        }
+
+        // closing the result before reading all rows cancels the subscription
+        final AtomicInteger pulled = new AtomicInteger();
+        final AtomicBoolean closed = new AtomicBoolean();
+        try (Result<?> result = ReactiveRows.prefetch(newResult(100000, pulled, closed), 10, 2, 1024L)) {
+            Iterator<Row> it = result.rows().iterator();
+            Assert.assertTrue(it.hasNext());
+            Assert.assertEquals(it.next().value(0).asInt(), 1);
+        }
+        final long deadline = System.currentTimeMillis() + 5000L;
+        while (!closed.get() && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+        Assert.assertTrue(closed.get());
+        Assert.assertTrue(pulled.get() < 100000, "Should stop reading after cancellation");
+    }
+
+    @Test(groups = { "unit" })
+    public void testSerialize() throws IOException, SQLException {
+        final Serialization serde = Result.getSerde(Format.CSV, new Properties());
+        Assert.assertThrows(IllegalArgumentException.class, () -> ReactiveRows.serialize(Arrays.asList(Field.of("n")),
+                Flux.empty(), 1, null, new ByteArrayOutputStream()));
+
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+                Statement stmt = conn.createStatement()) {
+            final Result<?> result = Result.of(stmt.executeQuery(QUERY));
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ReactiveRows.serialize(result.fields(),
+                    ReactiveRows.batches(result, 2, 3, 1024L).subscribeOn(Schedulers.boundedElastic()), 1, serde,
+                    out);
+            Assert.assertEquals(new String(out.toByteArray(), StandardCharsets.UTF_8),
+                    "n,s\n1,r1\n2,r2\n3,r3\n4,r4\n5,r5");
+        }
+
+        // failure of the producer is raised to the serializer
+        final Flux<IterableBuffer> failed = Flux.error(new IllegalStateException("x"));
+        Assert.assertThrows(IllegalStateException.class,
+                () -> ReactiveRows.serialize(Arrays.asList(Field.of("n")), failed, 1, serde,
+                        new ByteArrayOutputStream()));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.executor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stand-in worker process for persistent mode, which echoes input of each call
+ * prefixed by arguments of the call. A few inputs are special: {@code fail}
+ * responds with an error, {@code exit} terminates the process, and
+ * {@code sleep} delays the response by one second.
+ */
+public final class CoProcessEcho {
+    static List<String> getCommand(String... args) {
+        List<String> list = new ArrayList<>();
+        list.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        list.add("-cp");
+        list.add(CoProcessEcho.class.getProtectionDomain().getCodeSource().getLocation().getPath());
+        list.add(CoProcessEcho.class.getName());
+        Collections.addAll(list, args);
+        return list;
+    }
+
+    static String readHeader(InputStream in) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b == -1) {
+                return null;
+            }
+            builder.append((char) b);
+        }
+        return builder.toString().trim();
+    }
+
+    static void write(OutputStream out, int status, byte[] bytes) throws IOException {
+        out.write((status + " " + bytes.length + "\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(bytes);
+        out.flush();
+    }
+
+    public static void main(String[] args) throws Exception {
+        final String prefix = args.length > 0 ? args[0] : "";
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+        final OutputStream out = new BufferedOutputStream(System.out);
+
+        final StringBuilder arguments = new StringBuilder();
+        String header;
+        while ((header = readHeader(in)) != null) {
+            final int index = header.indexOf(' ');
+            final char type = header.charAt(0);
+            byte[] bytes = new byte[Integer.parseInt(header.substring(index + 1))];
+            in.readFully(bytes);
+
+            String request = new String(bytes, StandardCharsets.UTF_8);
+            if (type == CoProcessPool.FRAME_ARGUMENT) {
+                arguments.append(request);
+                continue;
+            } else if (type == CoProcessPool.FRAME_PING) {
+                write(out, 0, new byte[0]);
+                continue;
+            } else if (type != CoProcessPool.FRAME_INPUT) {
+                System.exit(2);
+            }
+
+            request = arguments.append(request).toString();
+            arguments.setLength(0);
+            if ("fail".equals(request)) {
+                write(out, 1, "failed as requested".getBytes(StandardCharsets.UTF_8));
+            } else if ("exit".equals(request)) {
+                System.exit(3);
+            } else {
+                if ("sleep".equals(request)) {
+                    Thread.sleep(1000L);
+                }
+                write(out, 0, (prefix + request).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.executor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import io.github.jdbcx.Constants;
+
+public class CoProcessPoolTest {
+    static String exchange(CoProcessPool.Worker worker, String request, String... args) throws IOException {
+        return new String(worker.exchange(request.getBytes(StandardCharsets.UTF_8), args), StandardCharsets.UTF_8);
+    }
+
+    @Test(groups = { "unit" })
+    public void testExchange() throws Exception {
+        CoProcessPool pool = new CoProcessPool(CoProcessEcho.getCommand("echo:"), null, 1, 0L);
+        try {
+            CoProcessPool.Worker worker = pool.borrow(0L);
+            Assert.assertEquals(pool.getTotalWorkers(), 1);
+            Assert.assertEquals(exchange(worker, ""), "echo:");
+            Assert.assertEquals(exchange(worker, "1\n2\n"), "echo:1\n2\n");
+            Assert.assertEquals(exchange(worker, "测试"), "echo:测试");
+            // arguments are per call
+            Assert.assertEquals(exchange(worker, "1", "a", "b"), "echo:ab1");
+            Assert.assertEquals(exchange(worker, "", "a"), "echo:a");
+            Assert.assertEquals(exchange(worker, "1"), "echo:1");
+            Assert.assertThrows(IllegalStateException.class, () -> exchange(worker, "fail"));
+            // same process after an error response
+            Assert.assertEquals(exchange(worker, "x"), "echo:x");
+            Assert.assertTrue(worker.ping(CoProcessPool.HEALTH_CHECK_TIMEOUT));
+
+            // pool is exhausted
+            Assert.assertThrows(TimeoutException.class, () -> pool.borrow(100L));
+            pool.release(worker, true);
+            Assert.assertEquals(pool.getIdleWorkers(), 1);
+            Assert.assertTrue(pool.borrow(100L) == worker);
+            pool.release(worker, true);
+        } finally {
+            pool.close();
+        }
+        Assert.assertEquals(pool.getTotalWorkers(), 0);
+        Assert.assertThrows(IOException.class, () -> pool.borrow(0L));
+    }
+
+    @Test(groups = { "unit" })
+    public void testRestart() throws Exception {
+        CoProcessPool pool = new CoProcessPool(CoProcessEcho.getCommand(), null, 1, 0L);
+        try {
+            CoProcessPool.Worker worker = pool.borrow(0L);
+            Assert.assertThrows(IOException.class, () -> exchange(worker, "exit"));
+            pool.release(worker, false);
+            Assert.assertEquals(pool.getTotalWorkers(), 0);
+
+            CoProcessPool.Worker w = pool.borrow(0L);
+            Assert.assertFalse(w == worker);
+            Assert.assertEquals(exchange(w, "a"), "a");
+            w.process.destroyForcibly().waitFor();
+            // dead worker is replaced on borrow
+            pool.release(w, true);
+            CoProcessPool.Worker w2 = pool.borrow(0L);
+            Assert.assertFalse(w2 == w);
+            Assert.assertEquals(exchange(w2, "b"), "b");
+            pool.release(w2, true);
+            Assert.assertEquals(pool.getTotalWorkers(), 1);
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testConfigure() throws Exception {
+        final AtomicInteger unused = new AtomicInteger();
+        CoProcessPool pool = new CoProcessPool(CoProcessEcho.getCommand(), null, p -> unused.incrementAndGet());
+        try {
+            pool.configure(1, 300L, 0L);
+            CoProcessPool.Worker w1 = pool.borrow(0L);
+            Assert.assertThrows(TimeoutException.class, () -> pool.borrow(100L));
+            // larger pool size applies right away
+            pool.configure(2, 300L, 0L);
+            Assert.assertEquals(pool.getSize(), 2);
+            CoProcessPool.Worker w2 = pool.borrow(100L);
+            Assert.assertEquals(pool.getTotalWorkers(), 2);
+
+            // extra worker is stopped on release
+            pool.configure(1, 300L, 0L);
+            pool.release(w1, true);
+            pool.release(w2, true);
+            Assert.assertEquals(pool.getTotalWorkers(), 1);
+            Assert.assertEquals(pool.getIdleWorkers(), 1);
+            Assert.assertEquals(unused.get(), 0);
+
+            // idle worker is evicted on the pool's own thread, and then the pool is reported as unused
+            for (int i = 0; i < 50 && unused.get() == 0; i++) {
+                Thread.sleep(100L);
+            }
+            Assert.assertEquals(pool.getTotalWorkers(), 0);
+            Assert.assertTrue(unused.get() > 0);
+            Assert.assertTrue(pool.isUnused());
+        } finally {
+            pool.close();
+        }
+        Assert.assertTrue(pool.isClosed());
+        Assert.assertFalse(pool.isUnused());
+    }
+
+    @Test(groups = { "unit" })
+    public void testShellAdapter() throws Exception {
+        if (Constants.IS_WINDOWS) {
+            throw new SkipException("Skip as POSIX shell is required");
+        }
+
+        CoProcessPool pool = new CoProcessPool(
+                Arrays.asList("/bin/sh", "-c", CoProcessPool.SHELL_ADAPTER, "jdbcx-cli", "sh", "-c"), null, 1, 0L);
+        try {
+            CoProcessPool.Worker worker = pool.borrow(0L);
+            Assert.assertEquals(exchange(worker, "line 1\nline 2\n", "cat"), "line 1\nline 2\n");
+            Assert.assertEquals(exchange(worker, "", "printf '%s|' \"$0\" \"$@\"", "a b", ""), "a b||");
+            Assert.assertEquals(exchange(worker, "", "echo \"[$0]\""), "[sh]\n");
+            Assert.assertTrue(worker.ping(CoProcessPool.HEALTH_CHECK_TIMEOUT));
+            IllegalStateException e = Assert.expectThrows(IllegalStateException.class,
+                    () -> exchange(worker, "", "echo oops >&2; exit 3"));
+            Assert.assertEquals(e.getMessage().trim(), "oops");
+            // same process after an error response
+            Assert.assertEquals(exchange(worker, "测试", "cat"), "测试");
+            // larger than a pipe buffer, and still in sync afterwards
+            StringBuilder builder = new StringBuilder(200000);
+            for (int i = 0; builder.length() < 200000; i++) {
+                builder.append(i).append('\n');
+            }
+            final String large = builder.toString();
+            Assert.assertEquals(exchange(worker, large, "cat"), large);
+            // single argument is limited to 128KB on Linux
+            final String arg = large.substring(0, 100000);
+            Assert.assertEquals(exchange(worker, "", "printf %s \"$0\"", arg), arg);
+            Assert.assertEquals(exchange(worker, "x", "cat"), "x");
+            pool.release(worker, true);
+            Assert.assertEquals(pool.getTotalWorkers(), 1);
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testSweep() throws Exception {
+        CoProcessPool pool = new CoProcessPool(CoProcessEcho.getCommand(), null, 2, 500L);
+        try {
+            CoProcessPool.Worker w1 = pool.borrow(0L);
+            CoProcessPool.Worker w2 = pool.borrow(0L);
+            Assert.assertEquals(exchange(w1, "1"), "1");
+            Assert.assertEquals(exchange(w2, "2"), "2");
+            pool.release(w1, true);
+            pool.release(w2, true);
+
+            // unhealthy worker is discarded
+            w1.process.destroyForcibly().waitFor();
+            pool.sweep(true);
+            Assert.assertEquals(pool.getTotalWorkers(), 1);
+            Assert.assertEquals(pool.getIdleWorkers(), 1);
+
+            pool.sweep(false);
+            Assert.assertEquals(pool.getTotalWorkers(), 1);
+            Thread.sleep(600L);
+            pool.sweep(false);
+            Assert.assertEquals(pool.getTotalWorkers(), 0);
+            Assert.assertTrue(w2.process.waitFor(5, TimeUnit.SECONDS));
+        } finally {
+            pool.close();
+        }
+    }
+}
@@ -15,9 +15,11 @@
  */
 package io.github.jdbcx.executor;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Properties;
 import java.util.concurrent.TimeoutException;
 
@@ -99,6 +101,26 @@ public class CommandLineExecutorTest {
                 new CommandLineExecutor(echoCommand, null, newProperties(null, null, 0, null, null, null)));
     }
 
+    @Test(dataProvider = "echoCommand", groups = "unit")
+    public void testOverrides(String echoCommand) {
+        Properties config = newProperties(StandardCharsets.UTF_16, null, 3000, null, null, null);
+        CommandLineExecutor executor = new CommandLineExecutor(echoCommand, null, config);
+        Assert.assertEquals(executor.getTimeout(config), 3000);
+        Assert.assertEquals(executor.getTimeout(null), 3000);
+        Assert.assertEquals(executor.getInputCharset(config), StandardCharsets.UTF_16);
+        Assert.assertFalse(executor.getDryRun(config));
+
+        Properties props = new Properties(config);
+        Assert.assertEquals(executor.getTimeout(props), 3000);
+        props.setProperty(Option.EXEC_TIMEOUT.getName(), "5000");
+        props.setProperty(Option.INPUT_CHARSET.getName(), StandardCharsets.US_ASCII.name());
+        props.setProperty(Option.EXEC_DRYRUN.getName(), Constants.TRUE_EXPR);
+        Assert.assertEquals(executor.getTimeout(props), 5000);
+        Assert.assertEquals(executor.getInputCharset(props), StandardCharsets.US_ASCII);
+        Assert.assertTrue(executor.getDryRun(props));
+        Assert.assertEquals(executor.getTimeout(config), 3000);
+    }
+
     @Test(dataProvider = "echoCommand", groups = "unit")
     public void testExecute(String echoCommand) throws IOException, TimeoutException {
         Assert.assertTrue(
@@ -135,6 +157,89 @@ public class CommandLineExecutorTest {
                                 .execute(props, null, "o", "k"))
                         .trim(),
                 "jdbcx");
+
+        if (!Constants.IS_WINDOWS) {
+            // streamed to standard input, instead of being passed as an argument
+            Assert.assertEquals(
+                    Stream.readAllAsString(new CommandLineExecutor("cat", false, null, props)
+                            .executeWithInputFile(props)).trim(),
+                    "echo jdbcx");
+            Assert.assertEquals(
+                    Stream.readAllAsString(new CommandLineExecutor(cmd, false, null, props)
+                            .executeWithInputFile(props, "exec sh -s")).trim(),
+                    "jdbcx");
+            Option.INPUT_FILE.setValue(props, "target/test-classes/non-existent.file");
+            Assert.assertThrows(IllegalArgumentException.class,
+                    () -> new CommandLineExecutor("cat", false, null, props).executeWithInputFile(props));
+        }
+    }
+
+    @Test(groups = "unit")
+    public void testPersistent() throws Exception {
+        Properties props = newProperties(null, null, 0, null, null, null);
+        CommandLineExecutor.OPTION_CLI_PERSISTENT.setValue(props, Constants.TRUE_EXPR);
+        CommandLineExecutor.OPTION_CLI_POOL_SIZE.setValue(props, "1");
+        CommandLineExecutor executor = new CommandLineExecutor(String.join(" ", CoProcessEcho.getCommand()), false,
+                null, props);
+        Assert.assertTrue(executor.getDefaultPersistent());
+        Assert.assertTrue(executor.getPersistent(props));
+
+        Assert.assertEquals(Stream.readAllAsString(executor.execute(props, null)), "");
+        Assert.assertEquals(Stream.readAllAsString(executor.execute(props,
+                new ByteArrayInputStream("select 1".getBytes(StandardCharsets.UTF_8)))), "select 1");
+        // arguments are sent along with the input, so the pool is shared
+        Assert.assertEquals(Stream.readAllAsString(executor.execute(props,
+                new ByteArrayInputStream("1".getBytes(StandardCharsets.UTF_8)), "x:")), "x:1");
+        CoProcessPool pool = executor.getPool(props, executor.getWorkDirectory(props));
+        Assert.assertEquals(pool.getTotalWorkers(), 1);
+        Assert.assertEquals(pool.getSize(), 1);
+        // latest settings apply to the pool
+        CommandLineExecutor.OPTION_CLI_POOL_SIZE.setValue(props, "3");
+        Assert.assertSame(executor.getPool(props, executor.getWorkDirectory(props)), pool);
+        Assert.assertEquals(pool.getSize(), 3);
+        CommandLineExecutor.OPTION_CLI_POOL_SIZE.setValue(props, "1");
+        Assert.assertEquals(Stream.readAllAsString(executor.execute(props, null)), "");
+        Assert.assertEquals(pool.getSize(), 1);
+        Assert.assertThrows(IllegalStateException.class, () -> executor.execute(props,
+                new ByteArrayInputStream("fail".getBytes(StandardCharsets.UTF_8))));
+        Assert.assertEquals(pool.getTotalWorkers(), 1);
+
+        // timed out worker is destroyed and replaced on demand
+        final Properties overrides = new Properties(props);
+        Option.EXEC_TIMEOUT.setValue(overrides, "200");
+        Assert.assertThrows(TimeoutException.class, () -> executor.execute(overrides,
+                new ByteArrayInputStream("sleep".getBytes(StandardCharsets.UTF_8))));
+        Assert.assertEquals(pool.getTotalWorkers(), 0);
+        Option.EXEC_TIMEOUT.setValue(overrides, "5000");
+        Assert.assertEquals(Stream.readAllAsString(executor.execute(overrides,
+                new ByteArrayInputStream("ok".getBytes(StandardCharsets.UTF_8)))), "ok");
+        Assert.assertEquals(pool.getTotalWorkers(), 1);
+
+        // unused pool is closed and removed
+        CommandLineExecutor.OPTION_CLI_IDLE_TIMEOUT.setValue(props, "200");
+        CommandLineExecutor.OPTION_CLI_HEALTH_INTERVAL.setValue(props, "0");
+        Assert.assertEquals(Stream.readAllAsString(executor.execute(props, null, "y")), "y");
+        for (int i = 0; i < 50 && !pool.isClosed(); i++) {
+            Thread.sleep(100L);
+        }
+        Assert.assertTrue(pool.isClosed());
+        Assert.assertNotSame(executor.getPool(props, executor.getWorkDirectory(props)), pool);
+        Assert.assertEquals(Stream.readAllAsString(executor.execute(props, null, "z")), "z");
+
+        if (!Constants.IS_WINDOWS) {
+            Properties p = newProperties(null, null, 0, null, null, null);
+            CommandLineExecutor.OPTION_CLI_PERSISTENT.setValue(p, Constants.TRUE_EXPR);
+            CommandLineExecutor.OPTION_CLI_ADAPTER.setValue(p, "shell");
+            CommandLineExecutor echo = new CommandLineExecutor("echo", false, null, p);
+            Assert.assertEquals(Stream.readAllAsString(echo.execute(p, null, "a", "b")), "a b\n");
+            Assert.assertEquals(Stream.readAllAsString(echo.execute(p, null, "c")), "c\n");
+            Assert.assertEquals(echo.getPool(p, echo.getWorkDirectory(p)).getTotalWorkers(), 1);
+        }
+
+        // non-persistent mode is still available per execution
+        Properties p = new Properties();
+        CommandLineExecutor.OPTION_CLI_PERSISTENT.setValue(p, Constants.FALSE_EXPR);
+        Assert.assertFalse(executor.getPersistent(p));
     }
 
     @Test
@@ -35,6 +35,87 @@ public class JdbcExecutorTest extends BaseIntegrationTest {
         Assert.assertNotNull(new JdbcExecutor(null, new Properties()));
     }
 
+    @Test(groups = { "unit" })
+    public void testFetchSize() throws SQLException {
+        Properties config = new Properties();
+        JdbcExecutor.OPTION_FETCH_SIZE.setValue(config, "5");
+        JdbcExecutor exec = new JdbcExecutor(null, config);
+        Assert.assertEquals(exec.getFetchSize(null), 5);
+        Assert.assertFalse(exec.getStreaming(null));
+
+        Properties props = new Properties();
+        JdbcExecutor.OPTION_FETCH_SIZE.setValue(props, "3");
+        JdbcExecutor.OPTION_STREAMING.setValue(props, "true");
+        Assert.assertEquals(exec.getFetchSize(props), 3);
+        Assert.assertTrue(exec.getStreaming(props));
+
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:")) {
+            try (Statement stmt = JdbcExecutor.createStatement(conn, 0, false)) {
+                Assert.assertEquals(stmt.getFetchSize(), 0);
+            }
+            try (Statement stmt = JdbcExecutor.createStatement(conn, 7, false)) {
+                Assert.assertEquals(stmt.getFetchSize(), 7);
+            }
+            try (Statement stmt = JdbcExecutor.createStatement(conn, 0, true)) {
+                Assert.assertEquals(stmt.getFetchSize(), JdbcExecutor.DEFAULT_STREAMING_FETCH_SIZE);
+                Assert.assertEquals(stmt.getResultSetType(), ResultSet.TYPE_FORWARD_ONLY);
+                Assert.assertEquals(stmt.getResultSetConcurrency(), ResultSet.CONCUR_READ_ONLY);
+            }
+            Assert.assertTrue(conn.getAutoCommit());
+
+            try (ResultSet rs = (ResultSet) exec.execute("select 1 union all select 2", conn, props)) {
+                Assert.assertEquals(rs.getStatement().getFetchSize(), 3);
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getInt(1), 1);
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getInt(1), 2);
+                Assert.assertFalse(rs.next());
+            }
+
+            // auto-commit is restored when the streamed result set is closed
+            conn.setAutoCommit(false);
+            try (ResultSet rs = new JdbcExecutor.StreamingResultSet(
+                    conn.createStatement().executeQuery("select 1"), conn)) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getInt(1), 1);
+                Assert.assertFalse(conn.getAutoCommit());
+            }
+            Assert.assertTrue(conn.getAutoCommit());
+        }
+    }
+
+    @Test(groups = { "integration" })
+    public void testStreaming() throws SQLException {
+        Properties props = new Properties();
+        JdbcExecutor.OPTION_STREAMING.setValue(props, "true");
+        JdbcExecutor exec = new JdbcExecutor(null, null);
+        try (Connection conn = DriverManager
+                .getConnection("jdbc:mysql://root@" + getMySqlServer() + "?allowMultiQueries=true")) {
+            try (ResultSet rs = (ResultSet) exec.execute("select 1", conn, props)) {
+                Assert.assertEquals(rs.getStatement().getFetchSize(), Integer.MIN_VALUE);
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getInt(1), 1);
+                Assert.assertFalse(rs.next());
+            }
+        }
+
+        try (Connection conn = DriverManager
+                .getConnection("jdbc:postgresql://" + getPostgreSqlServer() + "/postgres?user=postgres")) {
+            Assert.assertEquals(exec.execute("create temporary table t_streaming(a int)", conn, props), 0L);
+            Assert.assertTrue(conn.getAutoCommit(), "Auto-commit should be restored after update");
+            try (ResultSet rs = (ResultSet) exec.execute("select generate_series(1, 3)", conn, props)) {
+                Assert.assertFalse(conn.getAutoCommit(), "Auto-commit should be turned off for streaming");
+                Assert.assertEquals(rs.getStatement().getFetchSize(), JdbcExecutor.DEFAULT_STREAMING_FETCH_SIZE);
+                for (int i = 1; i <= 3; i++) {
+                    Assert.assertTrue(rs.next());
+                    Assert.assertEquals(rs.getInt(1), i);
+                }
+                Assert.assertFalse(rs.next());
+            }
+            Assert.assertTrue(conn.getAutoCommit(), "Auto-commit should be restored after streaming");
+        }
+    }
+
     @Test(groups = { "integration" })
     public void testInputFile() throws SQLException {
         Properties props = new Properties();
@@ -15,15 +15,26 @@
  */
 package io.github.jdbcx.executor;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.InetSocketAddress;
 import java.net.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import com.sun.net.httpserver.HttpServer;
+
 import io.github.jdbcx.BaseIntegrationTest;
+import io.github.jdbcx.Constants;
 import io.github.jdbcx.Option;
 import io.github.jdbcx.Stream;
 import io.github.jdbcx.Utils;
@@ -123,6 +134,141 @@ public class WebExecutorTest extends BaseIntegrationTest {
                 new Proxy(Proxy.Type.SOCKS, InetSocketAddress.createUnresolved("4.3.2.1", 1234)));
     }
 
+    @Test(groups = "unit")
+    public void testCachedGet() throws IOException {
+        final AtomicInteger requests = new AtomicInteger();
+        final AtomicInteger notModified = new AtomicInteger();
+        final HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            final String path = exchange.getRequestURI().getPath();
+            final byte[] body = path.getBytes(StandardCharsets.UTF_8);
+            if (path.startsWith("/etag")) {
+                exchange.getResponseHeaders().set("ETag", "\"v1\"");
+                if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    notModified.incrementAndGet();
+                    exchange.sendResponseHeaders(304, -1);
+                    exchange.close();
+                    return;
+                }
+            } else if (path.startsWith("/max-age")) {
+                exchange.getResponseHeaders().set("Cache-Control", "public, max-age=3600");
+            } else if (path.startsWith("/no-store")) {
+                exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        try {
+            final String baseUrl = "http://localhost:" + server.getAddress().getPort();
+            final WebExecutor executor = new WebExecutor(null, null);
+            final Properties props = new Properties();
+            Assert.assertFalse(executor.getCacheEnabled(props));
+            Assert.assertEquals(Stream.readAllAsString(executor.get(Utils.toURL(baseUrl + "/max-age"), props, null)),
+                    "/max-age");
+            Assert.assertEquals(Stream.readAllAsString(executor.get(Utils.toURL(baseUrl + "/max-age"), props, null)),
+                    "/max-age");
+            Assert.assertEquals(requests.getAndSet(0), 2);
+
+            WebExecutor.OPTION_CACHE_ENABLED.setValue(props, "true");
+            Assert.assertTrue(executor.getCacheEnabled(props));
+            for (int i = 0; i < 3; i++) {
+                Assert.assertEquals(
+                        Stream.readAllAsString(executor.get(Utils.toURL(baseUrl + "/max-age"), props, null)),
+                        "/max-age");
+            }
+            Assert.assertEquals(requests.getAndSet(0), 1);
+            // different headers mean different cache entries
+            Assert.assertEquals(Stream.readAllAsString(executor.get(Utils.toURL(baseUrl + "/max-age"), props,
+                    Collections.singletonMap("Accept", "text/plain"))), "/max-age");
+            Assert.assertEquals(requests.getAndSet(0), 1);
+
+            for (int i = 0; i < 3; i++) {
+                Assert.assertEquals(Stream.readAllAsString(executor.get(Utils.toURL(baseUrl + "/etag"), props, null)),
+                        "/etag");
+            }
+            Assert.assertEquals(requests.getAndSet(0), 3);
+            Assert.assertEquals(notModified.getAndSet(0), 2);
+
+            for (int i = 0; i < 2; i++) {
+                Assert.assertEquals(
+                        Stream.readAllAsString(executor.get(Utils.toURL(baseUrl + "/no-store"), props, null)),
+                        "/no-store");
+            }
+            Assert.assertEquals(requests.getAndSet(0), 2);
+
+            // ttl overrides response headers
+            WebExecutor.OPTION_CACHE_TTL.setValue(props, "60");
+            for (int i = 0; i < 2; i++) {
+                Assert.assertEquals(
+                        Stream.readAllAsString(executor.get(Utils.toURL(baseUrl + "/no-store/ttl"), props, null)),
+                        "/no-store/ttl");
+            }
+            Assert.assertEquals(requests.getAndSet(0), 1);
+            WebExecutor.OPTION_CACHE_TTL.setValue(props, "0");
+            for (int i = 0; i < 2; i++) {
+                Assert.assertEquals(
+                        Stream.readAllAsString(executor.get(Utils.toURL(baseUrl + "/etag/ttl"), props, null)),
+                        "/etag/ttl");
+            }
+            Assert.assertEquals(requests.getAndSet(0), 2);
+            Assert.assertEquals(notModified.getAndSet(0), 1);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test(groups = "unit")
+    public void testCacheEntry() throws IOException {
+        final HttpCacheEntry entry = new HttpCacheEntry();
+        Assert.assertNull(entry.getContent());
+        Assert.assertNull(entry.claim());
+        // only one caller populates the entry at a time
+        final CompletableFuture<HttpCacheEntry.Content> pending = entry.claim();
+        Assert.assertNotNull(pending);
+        Assert.assertSame(entry.claim(), pending);
+
+        File f1 = Utils.createTempFile("jdbcx-http-", ".cache");
+        HttpCacheEntry.Content c1 = new HttpCacheEntry.Content("\"v1\"", 0L, Long.MAX_VALUE, null, f1);
+        entry.complete(c1);
+        Assert.assertTrue(pending.isDone());
+        Assert.assertSame(entry.getContent(), c1);
+        Assert.assertTrue(f1.exists());
+
+        // replaced content is deleted, and no longer opened
+        Files.write(f1.toPath(), "v1".getBytes(StandardCharsets.US_ASCII));
+        final InputStream opened = entry.open(c1);
+        Assert.assertNotNull(opened);
+        Assert.assertNull(entry.claim());
+        File f2 = Utils.createTempFile("jdbcx-http-", ".cache");
+        HttpCacheEntry.Content c2 = new HttpCacheEntry.Content(null, 0L, Long.MAX_VALUE, null, f2);
+        entry.complete(c2);
+        Assert.assertFalse(f1.exists());
+        Assert.assertTrue(f2.exists());
+        Assert.assertNull(entry.open(c1));
+        if (!Constants.IS_WINDOWS) {
+            Assert.assertEquals(Stream.readAllAsString(opened), "v1");
+        }
+        opened.close();
+        try (InputStream in = entry.open(c2)) {
+            Assert.assertNotNull(in);
+        }
+
+        // evicted while populating
+        Assert.assertNull(entry.claim());
+        entry.close();
+        Assert.assertFalse(f2.exists());
+        File f3 = Utils.createTempFile("jdbcx-http-", ".cache");
+        entry.complete(new HttpCacheEntry.Content(null, 0L, Long.MAX_VALUE, null, f3));
+        Assert.assertFalse(f3.exists());
+        Assert.assertNull(entry.getContent());
+        Assert.assertNull(entry.open(c2));
+    }
+
     @Test(groups = "integration")
     public void testExecute() throws Exception {
         Properties props = new Properties();
@@ -23,7 +23,9 @@ import java.sql.Statement;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
@@ -84,6 +86,62 @@ public class CombinedResultSetTest extends BaseIntegrationTest {
         }
     }
 
+    @Test(groups = { "unit" })
+    public void testPendingResultSets() throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+                Statement stmt1 = conn.createStatement();
+                Statement stmt2 = conn.createStatement();
+                Statement stmt3 = conn.createStatement()) {
+            // ordered
+            List<CompletableFuture<ResultSet>> futures = Arrays.asList(new CompletableFuture<>(),
+                    new CompletableFuture<>(), new CompletableFuture<>());
+            try (CombinedResultSet rs = new CombinedResultSet(futures, true)) {
+                futures.get(2).complete(stmt3.executeQuery("select 3"));
+                futures.get(1).complete(null);
+                futures.get(0).complete(stmt1.executeQuery("select 1 union all select 2"));
+                int counter = 0;
+                while (rs.next()) {
+                    Assert.assertEquals(rs.getInt(1), ++counter);
+                }
+                Assert.assertEquals(counter, 3);
+            }
+
+            // unordered
+            futures = Arrays.asList(new CompletableFuture<>(), new CompletableFuture<>());
+            try (CombinedResultSet rs = new CombinedResultSet(futures, false)) {
+                futures.get(1).complete(stmt2.executeQuery("select 2"));
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getInt(1), 2);
+                futures.get(0).complete(stmt1.executeQuery("select 1"));
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getInt(1), 1);
+                Assert.assertFalse(rs.next());
+            }
+
+            // failure
+            futures = Arrays.asList(CompletableFuture.completedFuture(stmt1.executeQuery("select 1")),
+                    new CompletableFuture<>());
+            try (CombinedResultSet rs = new CombinedResultSet(futures, true)) {
+                Assert.assertTrue(rs.next());
+                futures.get(1).completeExceptionally(new SQLException("failed"));
+                SQLException e = Assert.expectThrows(SQLException.class, rs::next);
+                Assert.assertEquals(e.getMessage(), "failed");
+            }
+
+            // close before completion
+            futures = Arrays.asList(new CompletableFuture<>(), new CompletableFuture<>());
+            final ResultSet done = stmt2.executeQuery("select 2");
+            futures.get(1).complete(done);
+            new CombinedResultSet(futures, false).close();
+            Assert.assertTrue(futures.get(0).isCancelled());
+            Assert.assertTrue(done.isClosed());
+
+            futures = Arrays.asList(CompletableFuture.completedFuture(null), new CompletableFuture<>());
+            futures.get(1).cancel(false);
+            Assert.assertTrue(new CombinedResultSet(futures, true).isEmpty());
+        }
+    }
+
     @Test(dataProvider = "numberQueries", groups = { "integration" })
     public void testMultipleResultSets(String url, String q1, String q2) throws SQLException {
         Properties props = new Properties();
@@ -17,7 +17,12 @@ package io.github.jdbcx.format;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
 import java.sql.JDBCType;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -30,6 +35,7 @@ import io.github.jdbcx.Checker;
 import io.github.jdbcx.Constants;
 import io.github.jdbcx.Field;
 import io.github.jdbcx.Result;
+import io.github.jdbcx.data.IterableColumns;
 
 public class ArrowSerdeTest {
     @Test(groups = { "unit" })
@@ -76,4 +82,33 @@ public class ArrowSerdeTest {
             }
         }
     }
+
+    @Test(groups = { "unit" })
+    public void testSerializeColumns() throws IOException, SQLException {
+        final String query = "select i::TINYINT a, case when i % 3 = 0 then null else i end b, i % 2 = 0 c, "
+                + "(i / 3)::REAL d, i / 4 e, case when i % 5 = 0 then null else 'v' || i end f "
+                + "from range(25) t(i) order by i";
+        Properties config = new Properties();
+        for (String stream : new String[] { Constants.FALSE_EXPR, Constants.TRUE_EXPR }) {
+            for (String reset : new String[] { Constants.FALSE_EXPR, Constants.TRUE_EXPR }) {
+                config.clear();
+                ArrowSerde.OPTION_ROWS.setValue(config, "7");
+                ArrowSerde.OPTION_RESET.setValue(config, reset);
+                ArrowSerde.OPTION_STREAM.setValue(config, stream);
+                ArrowSerde serde = new ArrowSerde(config);
+                try (Connection conn = DriverManager.getConnection("jdbc:duckdb:");
+                        Statement stmt = conn.createStatement();
+                        ByteArrayOutputStream rowOut = new ByteArrayOutputStream();
+                        ByteArrayOutputStream columnOut = new ByteArrayOutputStream()) {
+                    try (ResultSet rs = stmt.executeQuery(query)) {
+                        serde.serialize(Result.of(rs), rowOut);
+                    }
+                    try (ResultSet rs = stmt.executeQuery(query)) {
+                        serde.serialize(Result.of(IterableColumns.of(rs)), columnOut);
+                    }
+                    Assert.assertEquals(columnOut.toByteArray(), rowOut.toByteArray(), config.toString());
+                }
+            }
+        }
+    }
 }
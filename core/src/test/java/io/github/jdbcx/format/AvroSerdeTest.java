@@ -15,11 +15,16 @@
  */
 package io.github.jdbcx.format;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.sql.JDBCType;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 
 import org.apache.avro.LogicalTypes;
@@ -33,8 +38,100 @@ import io.github.jdbcx.Constants;
 import io.github.jdbcx.Field;
 import io.github.jdbcx.Result;
 import io.github.jdbcx.Row;
+import io.github.jdbcx.Value;
+import io.github.jdbcx.ValueFactory;
+import io.github.jdbcx.data.DefaultRow;
+import io.github.jdbcx.value.BigDecimalValue;
+import io.github.jdbcx.value.BooleanValue;
+import io.github.jdbcx.value.DateTimeValue;
+import io.github.jdbcx.value.DateValue;
+import io.github.jdbcx.value.DoubleValue;
+import io.github.jdbcx.value.IntValue;
+import io.github.jdbcx.value.LongValue;
+import io.github.jdbcx.value.StringValue;
 
 public class AvroSerdeTest {
+    static void checkRows(Result<?> result) {
+        final JDBCType[] types = new JDBCType[] { JDBCType.BOOLEAN, JDBCType.INTEGER, JDBCType.BIGINT,
+                JDBCType.DOUBLE, JDBCType.DECIMAL, JDBCType.DATE, JDBCType.TIMESTAMP, JDBCType.VARCHAR };
+        Assert.assertEquals(result.fields().size(), types.length);
+        for (int i = 0; i < types.length; i++) {
+            Assert.assertEquals(result.fields().get(i).type(), types[i]);
+            Assert.assertTrue(result.fields().get(i).isNullable());
+        }
+        Assert.assertEquals(result.fields().get(4).scale(), 2);
+
+        int count = 0;
+        for (Row r : result.rows()) {
+            if (count++ == 0) {
+                Assert.assertTrue(r.value(0).asBoolean());
+                Assert.assertEquals(r.value(1).asInt(), 1);
+                Assert.assertEquals(r.value(2).asLong(), 2L);
+                Assert.assertEquals(r.value(3).asDouble(), 1.5D);
+                Assert.assertEquals(r.value(4).asBigDecimal(2), new BigDecimal("12.34"));
+                Assert.assertEquals(r.value(5).asDate(), LocalDate.of(2024, 1, 2));
+                Assert.assertEquals(r.value(6).asDateTime(3), LocalDateTime.of(2024, 1, 2, 3, 4, 5, 6_000_000));
+                Assert.assertEquals(r.value(7).asString(), "x");
+            } else {
+                for (int i = 0; i < types.length; i++) {
+                    Assert.assertTrue(r.value(i).isNull(), "Column #" + i + " should be null");
+                }
+            }
+        }
+        Assert.assertEquals(count, 2);
+    }
+
+    @Test(groups = { "unit" })
+    public void testDeserialize() throws IOException {
+        final List<Field> fields = Arrays.asList(Field.of("b", JDBCType.BOOLEAN), Field.of("i", JDBCType.INTEGER),
+                Field.of("l", JDBCType.BIGINT), Field.of("d", JDBCType.DOUBLE),
+                Field.of("n", null, JDBCType.DECIMAL, true, 10, 2, true), Field.of("dt", JDBCType.DATE),
+                Field.of("ts", null, JDBCType.TIMESTAMP, true, 0, 3, false), Field.of("s"));
+        final ValueFactory factory = ValueFactory.getInstance();
+        final Value[] nulls = new Value[fields.size()];
+        for (int i = 0; i < nulls.length; i++) {
+            nulls[i] = factory.newValue(fields.get(i), null).resetToNull();
+        }
+        final Result<?> expected = Result.of(fields,
+                new DefaultRow(fields, BooleanValue.of(factory, true, true), IntValue.of(factory, true, true, 1),
+                        LongValue.of(factory, true, true, 2L), DoubleValue.of(factory, true, 1.5D),
+                        BigDecimalValue.of(factory, true, 2, new BigDecimal("12.34")),
+                        DateValue.of(factory, true, LocalDate.of(2024, 1, 2)),
+                        DateTimeValue.of(factory, true, 3, LocalDateTime.of(2024, 1, 2, 3, 4, 5, 6_000_000)),
+                        StringValue.of(factory, true, 0, "x")),
+                new DefaultRow(fields, nulls));
+        final String schema = AvroSerde.buildSchema(expected).toString();
+
+        for (String codec : new String[] { "", "deflate" }) {
+            Properties config = new Properties();
+            AvroSerde.OPTION_CODEC.setValue(config, codec);
+            AvroSerde serde = new AvroSerde(config);
+            try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+                serde.serialize(expected, out);
+                try (Result<?> result = serde.deserialize(new ByteArrayInputStream(out.toByteArray()))) {
+                    checkRows(result);
+                }
+            }
+        }
+
+        for (String encoder : new String[] { AvroSerde.ENCODER_BINARY, AvroSerde.ENCODER_JSON }) {
+            Properties config = new Properties();
+            AvroSerde.OPTION_ENCODER.setValue(config, encoder);
+            final AvroSerde noSchema = new AvroSerde(config);
+            Assert.assertThrows(IllegalArgumentException.class,
+                    () -> noSchema.deserialize(new ByteArrayInputStream(new byte[0])));
+
+            AvroSerde.OPTION_SCHEMA.setValue(config, schema);
+            AvroSerde serde = new AvroSerde(config);
+            try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+                serde.serialize(expected, out);
+                try (Result<?> result = serde.deserialize(new ByteArrayInputStream(out.toByteArray()))) {
+                    checkRows(result);
+                }
+            }
+        }
+    }
+
     @Test(groups = { "unit" })
     public void testNewField() {
         final FieldBuilder<Schema> b = SchemaBuilder.record("result").fields().name("field");
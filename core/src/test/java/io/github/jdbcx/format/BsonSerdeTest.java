@@ -15,19 +15,181 @@
  */
 package io.github.jdbcx.format;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.sql.JDBCType;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Properties;
 
+import org.bson.BsonArray;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDouble;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.bson.BsonWriter;
+import org.bson.io.BasicOutputBuffer;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import io.github.jdbcx.Field;
 import io.github.jdbcx.Result;
+import io.github.jdbcx.Row;
+import io.github.jdbcx.ValueFactory;
+import io.github.jdbcx.data.DefaultRow;
+import io.github.jdbcx.value.BigDecimalValue;
+import io.github.jdbcx.value.DateTimeValue;
+import io.github.jdbcx.value.DoubleValue;
+import io.github.jdbcx.value.IntValue;
+import io.github.jdbcx.value.LongValue;
+import io.github.jdbcx.value.StringValue;
 
 public class BsonSerdeTest {
+    @Test(groups = { "unit" })
+    public void testDeserialize() throws IOException {
+        BsonSerde serde = new BsonSerde(new Properties());
+        try (Result<?> result = serde.deserialize(new ByteArrayInputStream(new byte[0]))) {
+            Assert.assertEquals(result.fields(), Result.DEFAULT_FIELDS);
+            Assert.assertFalse(result.rows().iterator().hasNext());
+        }
+
+        final List<Field> fields = Arrays.asList(Field.of("s"), Field.of("i", JDBCType.INTEGER),
+                Field.of("l", JDBCType.BIGINT), Field.of("d", JDBCType.DOUBLE),
+                Field.of("n", null, JDBCType.DECIMAL, true, 10, 2, true),
+                Field.of("ts", null, JDBCType.TIMESTAMP, true, 0, 3, false));
+        final Object[][] data = new Object[][] {
+                { "a", 1, 2L, 1.5D, new BigDecimal("1.23"), LocalDateTime.of(2024, 1, 2, 3, 4, 5, 6_000_000) },
+                { "b", 3, 4L, 2.5D, new BigDecimal("4.56"), LocalDateTime.of(2025, 1, 2, 3, 4, 5) } };
+        final ValueFactory factory = ValueFactory.getInstance();
+        final Row[] rows = new Row[data.length];
+        for (int i = 0; i < data.length; i++) {
+            Object[] arr = data[i];
+            rows[i] = new DefaultRow(fields, StringValue.of(factory, true, 0, (String) arr[0]),
+                    IntValue.of(factory, true, true, (Integer) arr[1]),
+                    LongValue.of(factory, true, true, (Long) arr[2]), DoubleValue.of(factory, true, (Double) arr[3]),
+                    BigDecimalValue.of(factory, true, 2, (BigDecimal) arr[4]),
+                    DateTimeValue.of(factory, true, 3, (LocalDateTime) arr[5]));
+        }
+        final Result<?> expected = Result.of(fields, rows);
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            serde.serialize(expected, out);
+            byte[] bytes = out.toByteArray();
+            try (Result<?> result = serde.deserialize(new ByteArrayInputStream(bytes))) {
+                Assert.assertEquals(result.fields().size(), 6);
+                Assert.assertEquals(result.fields().get(0), Field.of("s", null, JDBCType.VARCHAR, true, 0, 0, false));
+                Assert.assertEquals(result.fields().get(1).type(), JDBCType.INTEGER);
+                Assert.assertEquals(result.fields().get(2).type(), JDBCType.BIGINT);
+                Assert.assertEquals(result.fields().get(3).type(), JDBCType.DOUBLE);
+                Assert.assertEquals(result.fields().get(4).type(), JDBCType.DECIMAL);
+                Assert.assertEquals(result.fields().get(5).type(), JDBCType.TIMESTAMP);
+                int count = 0;
+                for (Row r : result.rows()) {
+                    Object[] arr = data[count++];
+                    Assert.assertEquals(r.value(0).asString(), arr[0]);
+                    Assert.assertEquals(r.value(1).asInt(), arr[1]);
+                    Assert.assertEquals(r.value(2).asLong(), arr[2]);
+                    Assert.assertEquals(r.value(3).asDouble(), arr[3]);
+                    Assert.assertEquals(r.value(4).asBigDecimal(2), arr[4]);
+                    Assert.assertEquals(r.value(5).asDateTime(3), arr[5]);
+                }
+                Assert.assertEquals(count, 2);
+            }
+
+            // truncated
+            Assert.assertThrows(EOFException.class,
+                    () -> serde.deserialize(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1))));
+            final Properties props = new Properties();
+            JsonlSerde.OPTION_SAMPLE.setValue(props, "1");
+            try (Result<?> result = new BsonSerde(props).deserialize(
+                    new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1)))) {
+                Iterator<Row> it = result.rows().iterator();
+                Assert.assertNotNull(it.next());
+                UncheckedIOException e = Assert.expectThrows(UncheckedIOException.class, () -> it.next());
+                Assert.assertTrue(e.getCause() instanceof EOFException);
+            }
+        }
+
+        // schemaless documents
+        final ObjectId id = new ObjectId();
+        try (BasicOutputBuffer buf = new BasicOutputBuffer(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            BsonWriter writer = new BsonBinaryWriter(buf);
+            writer.writeStartDocument();
+            writer.writeObjectId("_id", id);
+            writer.writeNull("x");
+            writer.writeDecimal128("n", new Decimal128(new BigDecimal("1.5")));
+            writer.writeStartDocument("doc");
+            writer.writeInt32("a", 1);
+            writer.writeEndDocument();
+            writer.writeEndDocument();
+
+            new BsonBinaryWriter(buf).pipe(new BsonDocumentReader(new BsonDocument("n", new BsonInt32(2))
+                    .append("x", new BsonArray(Arrays.asList(new BsonInt32(1), new BsonString("2"))))
+                    .append("y", new BsonString("ignored"))));
+            buf.pipe(out);
+
+            final Properties props = new Properties();
+            JsonlSerde.OPTION_SAMPLE.setValue(props, "1");
+            try (Result<?> result = new BsonSerde(props).deserialize(new ByteArrayInputStream(out.toByteArray()))) {
+                Assert.assertEquals(result.fields().size(), 4);
+                Assert.assertEquals(result.fields().get(2).type(), JDBCType.DECIMAL);
+                Iterator<Row> it = result.rows().iterator();
+                Row r = it.next();
+                Assert.assertEquals(r.value(0).asString(), id.toHexString());
+                Assert.assertTrue(r.value(1).isNull());
+                Assert.assertEquals(r.value(2).asBigDecimal(1), new BigDecimal("1.5"));
+                Assert.assertEquals(r.value(3).asString(), "{\"a\": 1}");
+                r = it.next();
+                Assert.assertTrue(r.value(0).isNull());
+                Assert.assertEquals(r.value(1).asString(), "[1, \"2\"]");
+                Assert.assertEquals(r.value(2).asBigDecimal(1), new BigDecimal("2.0"));
+                Assert.assertTrue(r.value(3).isNull());
+                Assert.assertFalse(it.hasNext());
+            }
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testWiden() throws IOException {
+        final byte[] bytes;
+        try (BasicOutputBuffer buf = new BasicOutputBuffer(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            new BsonBinaryWriter(buf).pipe(new BsonDocumentReader(new BsonDocument("v", new BsonInt32(1))));
+            new BsonBinaryWriter(buf).pipe(new BsonDocumentReader(new BsonDocument("v", new BsonInt64(2L))));
+            new BsonBinaryWriter(buf).pipe(new BsonDocumentReader(new BsonDocument("v", new BsonDouble(2.5D))));
+            buf.pipe(out);
+            bytes = out.toByteArray();
+        }
+
+        try (Result<?> result = new BsonSerde(new Properties()).deserialize(new ByteArrayInputStream(bytes))) {
+            Assert.assertEquals(result.fields().get(0).type(), JDBCType.DOUBLE);
+            Iterator<Row> it = result.rows().iterator();
+            Assert.assertEquals(it.next().value(0).asDouble(), 1D);
+            Assert.assertEquals(it.next().value(0).asDouble(), 2D);
+            Assert.assertEquals(it.next().value(0).asDouble(), 2.5D);
+            Assert.assertFalse(it.hasNext());
+        }
+
+        final Properties props = new Properties();
+        JsonlSerde.OPTION_SAMPLE.setValue(props, "1");
+        try (Result<?> result = new BsonSerde(props).deserialize(new ByteArrayInputStream(bytes))) {
+            Assert.assertEquals(result.fields().get(0).type(), JDBCType.INTEGER);
+            Iterator<Row> it = result.rows().iterator();
+            Assert.assertEquals(it.next().value(0).asInt(), 1);
+            Assert.assertEquals(it.next().value(0).asInt(), 2);
+            Assert.assertThrows(UncheckedIOException.class, () -> it.next());
+        }
+    }
+
     @Test(groups = { "unit" })
     public void testSerialize() throws IOException {
         Properties config = new Properties();
@@ -15,9 +15,13 @@
  */
 package io.github.jdbcx.format;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringReader;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.sql.JDBCType;
 import java.util.Arrays;
 import java.util.Properties;
 
@@ -26,9 +30,52 @@ import org.testng.annotations.Test;
 
 import io.github.jdbcx.Field;
 import io.github.jdbcx.Result;
+import io.github.jdbcx.Row;
 import io.github.jdbcx.Serialization;
 
 public class JsonlSerdeTest {
+    @Test(groups = { "unit" })
+    public void testDeserialize() throws IOException {
+        final byte[] bytes = "{\"a\":1,\"b\":\"x\\ty\"}\n{\"a\":null,\"b\":\"z\"}\n[3]".getBytes(StandardCharsets.UTF_8);
+        Serialization serde = new JsonlSerde(new Properties());
+        try (Result<?> result = serde.deserialize(new ByteArrayInputStream(bytes))) {
+            Assert.assertEquals(result.fields(),
+                    Arrays.asList(Field.of("a", JDBCType.BIGINT), Field.of("b", JDBCType.VARCHAR)));
+            int count = 0;
+            for (Row r : result.rows()) {
+                switch (count++) {
+                    case 0:
+                        Assert.assertEquals(r.value(0).asLong(), 1L);
+                        Assert.assertEquals(r.value(1).asString(), "x\ty");
+                        break;
+                    case 1:
+                        Assert.assertTrue(r.value(0).isNull());
+                        Assert.assertEquals(r.value(1).asString(), "z");
+                        break;
+                    default:
+                        Assert.assertEquals(r.value(0).asLong(), 3L);
+                        Assert.assertTrue(r.value(1).isNull());
+                        break;
+                }
+            }
+            Assert.assertEquals(count, 3);
+        }
+
+        // round trip with supplied fields
+        final Result<?> expected = Result.of(Arrays.asList(Field.of("s"), Field.of("i", JDBCType.INTEGER)),
+                new Object[][] { { "1\t2\n3", 1 }, { null, null } });
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            serde.serialize(expected, out);
+            try (Result<?> result = ((JsonlSerde) serde).deserialize(
+                    new StringReader(new String(out.toByteArray(), StandardCharsets.UTF_8)), expected.fields())) {
+                Assert.assertEquals(result.fields(), expected.fields());
+                Row r = result.rows().iterator().next();
+                Assert.assertEquals(r.value(0).asString(), "1\t2\n3");
+                Assert.assertEquals(r.value(1).asInt(), 1);
+            }
+        }
+    }
+
     @Test(groups = { "unit" })
     public void testSerialize() throws IOException {
         final Result<?> result = Result.of(Arrays.asList(Field.of("a\tb"), Field.of("\\c")), new Object[][] {
@@ -19,15 +19,21 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Reader;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Properties;
+import java.util.function.Function;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import io.github.jdbcx.Field;
 import io.github.jdbcx.Result;
 import io.github.jdbcx.Row;
 import io.github.jdbcx.Serialization;
@@ -99,4 +105,42 @@ public class TextSerdeTest {
             Assert.assertEquals(it.hasNext(), false);
         }
     }
+
+    @Test(groups = { "unit" })
+    public void testUtf8Buffer() throws IOException {
+        final Result<?> result = Result.of(
+                Arrays.asList(Field.of("i\t,"), Field.of("\"l"), Field.of("b"), Field.of("d"), Field.of("s")),
+                new Object[][] {
+                        { 1, Long.MIN_VALUE, true, LocalDate.of(2024, 5, 4), "\u4e2d\t\"'\\,\n\r\u2028" },
+                        { null, null, null, null, null },
+                        { -1, Long.MAX_VALUE, false, LocalDateTime.of(2024, 5, 4, 12, 34, 56), "" } });
+        for (Function<Properties, TextSerde> func : Arrays.<Function<Properties, TextSerde>>asList(CsvSerde::new,
+                TsvSerde::new, JsonlSerde::new, ValuesSerde::new)) {
+            for (String buffer : new String[] { "2048", "1" }) {
+                Properties config = new Properties();
+                TextSerde.OPTION_BUFFER.setValue(config, buffer);
+                TextSerde serde = func.apply(config);
+                Assert.assertTrue(serde.isUtf8BufferSupported(), "Should support Utf8Buffer");
+
+                StringWriter writer = new StringWriter();
+                serde.serialize(result, writer);
+                try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+                    serde.serialize(result, out);
+                    Assert.assertEquals(new String(out.toByteArray(), StandardCharsets.UTF_8), writer.toString());
+                }
+            }
+        }
+
+        // falls back to writer when not implemented
+        MyTextSerde serde = new MyTextSerde(null) {
+            @Override
+            protected boolean isUtf8BufferSupported() {
+                return true;
+            }
+        };
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            serde.serialize(result, out);
+            Assert.assertEquals(new String(out.toByteArray(), StandardCharsets.UTF_8), result.toString());
+        }
+    }
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.interpreter;
+
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class MetadataCacheTest {
+    static Properties newConfig(long ttl, long refresh) {
+        Properties config = new Properties();
+        MetadataCache.OPTION_TTL.setJdbcxValue(config, String.valueOf(ttl));
+        MetadataCache.OPTION_REFRESH.setJdbcxValue(config, String.valueOf(refresh));
+        return config;
+    }
+
+    @Test(groups = { "unit" })
+    public void testDisabled() throws SQLException {
+        final MetadataCache cache = new MetadataCache(10);
+        final AtomicInteger counter = new AtomicInteger();
+        final MetadataCache.Loader<Integer> loader = counter::incrementAndGet;
+
+        Assert.assertEquals(cache.get(null, "ds1", loader, "tables"), 1);
+        Assert.assertEquals(cache.get(new Properties(), "ds1", loader, "tables"), 2);
+        Assert.assertEquals(cache.get(newConfig(0L, 0L), "ds1", loader, "tables"), 3);
+        Assert.assertEquals(cache.get(newConfig(60L, 0L), null, loader, "tables"), 4);
+        Assert.assertEquals(cache.get(newConfig(60L, 0L), "", loader, "tables"), 5);
+    }
+
+    @Test(groups = { "unit" })
+    public void testGetAndInvalidate() throws SQLException {
+        final MetadataCache cache = new MetadataCache(10);
+        final Properties config = newConfig(60L, 0L);
+        final AtomicInteger counter = new AtomicInteger();
+        final MetadataCache.Loader<Integer> loader = counter::incrementAndGet;
+
+        Assert.assertEquals(cache.get(config, "ds1", loader, "tables", null, "s1", "%"), 1);
+        Assert.assertEquals(cache.get(config, "ds1", loader, "tables", null, "s1", "%"), 1);
+        Assert.assertEquals(cache.get(config, "ds1", loader, "tables", null, "s2", "%"), 2);
+        Assert.assertEquals(cache.get(config, "ds1", loader, "tables", null, "s1", "t%"), 3);
+        Assert.assertEquals(cache.get(config, "ds1", loader, "table", null, "s1", "%"), 4);
+        Assert.assertEquals(cache.get(config, "ds2", loader, "tables", null, "s1", "%"), 5);
+
+        // extension properties without prefix work as well
+        Properties props = new Properties();
+        props.setProperty(MetadataCache.OPTION_TTL.getName(), "60");
+        Assert.assertEquals(cache.get(props, "ds2", loader, "tables", null, "s1", "%"), 5);
+
+        cache.invalidate("ds1");
+        Assert.assertEquals(cache.get(config, "ds1", loader, "tables", null, "s1", "%"), 6);
+        Assert.assertEquals(cache.get(config, "ds1", loader, "tables", null, "s2", "%"), 7);
+        Assert.assertEquals(cache.get(config, "ds2", loader, "tables", null, "s1", "%"), 5);
+
+        Assert.assertThrows(SQLException.class, () -> cache.get(config, "ds3", () -> {
+            throw new SQLException("fail");
+        }, "tables"));
+        Assert.assertEquals(cache.get(config, "ds3", loader, "tables"), 8);
+    }
+
+    @Test(groups = { "unit" })
+    public void testScope() throws Exception {
+        final MetadataCache cache = new MetadataCache(10, 2);
+        final Properties config1 = newConfig(60L, 0L);
+        config1.setProperty("user", "u1");
+        final Properties config2 = newConfig(60L, 0L);
+        config2.setProperty("user", "u2");
+        final AtomicInteger counter = new AtomicInteger();
+        final MetadataCache.Loader<Integer> loader = counter::incrementAndGet;
+
+        // different credentials should not share metadata
+        Assert.assertEquals(cache.get(config1, "ds1", loader, "tables"), 1);
+        Assert.assertEquals(cache.get(config2, "ds1", loader, "tables"), 2);
+        Assert.assertEquals(cache.get(config1, "ds1", loader, "tables"), 1);
+        config2.setProperty("password", "p");
+        Assert.assertEquals(cache.get(config2, "ds1", loader, "tables"), 3);
+
+        // entries of a datasource are bounded
+        for (int i = 0; i < 100; i++) {
+            cache.get(config1, "ds1", loader, "table", "t" + i);
+        }
+        Assert.assertEquals(counter.get(), 103);
+        // eviction may happen asynchronously
+        int value = 4;
+        for (int i = 0; i < 50 && value == 4; i++) {
+            value = cache.get(config1, "ds1", loader, "table", "t0");
+            Thread.sleep(20L);
+        }
+        Assert.assertNotEquals(value, 4, "Should have evicted the first entry");
+    }
+
+    @Test(groups = { "unit" })
+    public void testRefresh() throws Exception {
+        final MetadataCache cache = new MetadataCache(10);
+        final Properties config = newConfig(60L, 1L);
+        final AtomicInteger counter = new AtomicInteger();
+        final MetadataCache.Loader<Integer> loader = counter::incrementAndGet;
+
+        Assert.assertEquals(cache.get(config, "ds1", loader, "catalogs"), 1);
+        Assert.assertEquals(cache.get(config, "ds1", loader, "catalogs"), 1);
+        Thread.sleep(1100L);
+        // stale value is returned while reloading in background
+        Assert.assertEquals(cache.get(config, "ds1", loader, "catalogs"), 1);
+        int value = 1;
+        for (int i = 0; i < 50 && value == 1; i++) {
+            Thread.sleep(20L);
+            value = cache.get(config, "ds1", loader, "catalogs");
+        }
+        Assert.assertEquals(value, 2);
+        Assert.assertEquals(counter.get(), 2);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.interpreter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import io.github.jdbcx.Constants;
+import io.github.jdbcx.QueryContext;
+import io.github.jdbcx.executor.CommandLineExecutor;
+
+public class PrqlInterpreterTest {
+    static Path newFakeCompiler(Path dir) throws IOException {
+        Path script = dir.resolve("prqlc.sh");
+        Files.write(script, ("if [ \"$1\" = \"-V\" ]; then echo 0.0.0; exit 0; fi\n"
+                + "echo \"$@\" >> \"" + dir.resolve("calls") + "\"\ncat\n").getBytes(StandardCharsets.US_ASCII));
+        return script;
+    }
+
+    static int countCalls(Path dir) throws IOException {
+        Path calls = dir.resolve("calls");
+        return Files.exists(calls) ? Files.readAllLines(calls).size() : 0;
+    }
+
+    @Test(groups = { "unit" })
+    public void testCompileCache() throws IOException {
+        if (Constants.IS_WINDOWS) {
+            throw new SkipException("Skip as it requires a POSIX shell");
+        }
+
+        Path dir = Files.createTempDirectory("prqlc");
+        Properties config = new Properties();
+        CommandLineExecutor.OPTION_CLI_PATH.setValue(config, "sh " + newFakeCompiler(dir));
+        CommandLineExecutor.OPTION_CLI_TEST_ARGS.setValue(config, "-V");
+
+        PrqlInterpreter i = new PrqlInterpreter(QueryContext.newContext(), config);
+        Assert.assertEquals(i.interpret("from t1", new Properties()).get(String.class), "from t1");
+        Assert.assertEquals(countCalls(dir), 1);
+        Assert.assertEquals(i.interpret("from t1", new Properties()).get(String.class), "from t1");
+        Assert.assertEquals(countCalls(dir), 1);
+
+        // different query or target means different entry in cache
+        Assert.assertEquals(i.interpret("from t2", new Properties()).get(String.class), "from t2");
+        Assert.assertEquals(countCalls(dir), 2);
+        Properties props = new Properties();
+        PrqlInterpreter.OPTION_COMPILE_TARGET.setValue(props, "duckdb");
+        Assert.assertEquals(i.interpret("from t1", props).get(String.class), "from t1");
+        Assert.assertEquals(countCalls(dir), 3);
+        Assert.assertEquals(i.interpret("from t1", props).get(String.class), "from t1");
+        Assert.assertEquals(countCalls(dir), 3);
+
+        // shared across interpreters
+        i = new PrqlInterpreter(QueryContext.newContext(), config);
+        Assert.assertEquals(i.interpret("from t1", new Properties()).get(String.class), "from t1");
+        Assert.assertEquals(countCalls(dir), 3);
+
+        props = new Properties();
+        PrqlInterpreter.OPTION_COMPILE_CACHE.setValue(props, Constants.FALSE_EXPR);
+        Assert.assertEquals(i.interpret("from t1", props).get(String.class), "from t1");
+        Assert.assertEquals(countCalls(dir), 4);
+        Assert.assertEquals(i.interpret("from t1", props).get(String.class), "from t1");
+        Assert.assertEquals(countCalls(dir), 5);
+    }
+
+    @Test(groups = { "unit" })
+    public void testPersistent() throws IOException {
+        if (Constants.IS_WINDOWS) {
+            throw new SkipException("Skip as it requires a POSIX shell");
+        }
+
+        Path dir = Files.createTempDirectory("prqlc");
+        Properties config = new Properties();
+        CommandLineExecutor.OPTION_CLI_PATH.setValue(config, "sh " + newFakeCompiler(dir));
+        CommandLineExecutor.OPTION_CLI_TEST_ARGS.setValue(config, "-V");
+        CommandLineExecutor.OPTION_CLI_PERSISTENT.setValue(config, Constants.TRUE_EXPR);
+        PrqlInterpreter.OPTION_COMPILE_CACHE.setValue(config, Constants.FALSE_EXPR);
+
+        // compiler is started by a long-lived shell adapter
+        PrqlInterpreter i = new PrqlInterpreter(QueryContext.newContext(), config);
+        Assert.assertEquals(i.interpret("from t1", new Properties()).get(String.class), "from t1");
+        Properties props = new Properties();
+        PrqlInterpreter.OPTION_COMPILE_TARGET.setValue(props, "duckdb");
+        Assert.assertEquals(i.interpret("from t2", props).get(String.class), "from t2");
+        Assert.assertEquals(Files.readAllLines(dir.resolve("calls")),
+                Arrays.asList("compile", "compile -t sql.duckdb"));
+    }
+}
@@ -18,6 +18,7 @@ package io.github.jdbcx.interpreter;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Properties;
 import java.util.concurrent.TimeoutException;
 
@@ -32,6 +33,35 @@ import io.github.jdbcx.Result;
 import io.github.jdbcx.Stream;
 
 public class ShellInterpreterTets {
+    @Test(groups = "unit")
+    public void testScriptReader() {
+        Assert.assertNull(ShellInterpreter.getScriptReader(Arrays.asList("cmd", "/c")));
+        Assert.assertNull(ShellInterpreter.getScriptReader(Arrays.asList("/bin/sh")));
+        Assert.assertNull(ShellInterpreter.getScriptReader(Arrays.asList("python3", "-c")));
+        if (!Constants.IS_WINDOWS) {
+            Assert.assertEquals(ShellInterpreter.getScriptReader(Arrays.asList("/bin/sh", "-c")),
+                    "exec /bin/sh -s");
+            Assert.assertEquals(ShellInterpreter.getScriptReader(Arrays.asList("bash", "-c")), "exec bash -s");
+        }
+    }
+
+    @Test(groups = "unit")
+    public void testInputFile() {
+        Properties props = new Properties();
+        Option.INPUT_FILE.setValue(props, "target/test-classes/queries/echo_jdbcx.sh");
+        try (QueryContext context = QueryContext.newContext()) {
+            ShellInterpreter interpreter = new ShellInterpreter(context, new Properties());
+            try (Result<?> result = interpreter.interpret("echo unused", props)) {
+                Assert.assertEquals(result.get(String.class).trim(), "jdbcx");
+            }
+
+            ShellInterpreter.OPTION_INPUT_STREAM.setValue(props, Constants.TRUE_EXPR);
+            try (Result<?> result = interpreter.interpret("echo unused", props)) {
+                Assert.assertEquals(result.get(String.class).trim(), "jdbcx");
+            }
+        }
+    }
+
     @Test(groups = "unit")
     public void testBinaryOutput() throws IOException, TimeoutException {
         final String cli = (Constants.IS_WINDOWS ? "type" : "cat") + " target/classes/"
@@ -17,13 +17,22 @@ package io.github.jdbcx.value;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.sql.JDBCType;
+import java.sql.SQLException;
 import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
 
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import io.github.jdbcx.BaseValueTest;
+import io.github.jdbcx.Field;
 import io.github.jdbcx.Format;
+import io.github.jdbcx.Result;
+import io.github.jdbcx.Row;
 import io.github.jdbcx.ValueFactory;
+import io.github.jdbcx.executor.jdbc.ReadOnlyResultSet;
 
 public class LongValueTest extends BaseValueTest {
     @Test(groups = { "unit" })
@@ -260,4 +269,25 @@ public class LongValueTest extends BaseValueTest {
                 "18446744073709551614" // SQL Expression
         );
     }
+
+    @Test(groups = { "unit" })
+    public void testUpdateFrom() throws SQLException {
+        List<Field> fields = Arrays.asList(Field.of("a", JDBCType.BIGINT), Field.of("b", JDBCType.VARCHAR));
+        List<Row> rows = Arrays.asList(Row.of(fields, new Object[] { -1L, "18446744073709551615" }),
+                Row.of(fields, new Object[] { null, null }));
+        try (ReadOnlyResultSet rs = new ReadOnlyResultSet(null, Result.of(fields, rows))) {
+            LongValue signed = LongValue.of(ValueFactory.getInstance(), true, true);
+            LongValue unsigned = LongValue.of(ValueFactory.getInstance(), true, false);
+
+            Assert.assertTrue(rs.next(), "Should have at least one row");
+            Assert.assertEquals(signed.updateFrom(rs, 1).asObject(), -1L);
+            Assert.assertEquals(unsigned.updateFrom(rs, 1).asObject(), UnsignedLong.MAX_VALUE);
+            Assert.assertEquals(unsigned.updateFrom(rs, 2).asString(), "18446744073709551615");
+
+            Assert.assertTrue(rs.next(), "Should have two rows");
+            Assert.assertTrue(signed.updateFrom(rs, 1).isNull(), "Should be null");
+            Assert.assertTrue(unsigned.updateFrom(rs, 1).isNull(), "Should be null");
+            Assert.assertTrue(unsigned.updateFrom(rs, 2).isNull(), "Should be null");
+        }
+    }
 }
@@ -45,10 +45,14 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.jar.Manifest;
 
+import io.github.jdbcx.data.ReactiveRows;
 import io.github.jdbcx.driver.ManagedConnection;
 import io.github.jdbcx.driver.QueryParser;
 
 public final class Main {
+    static final int PREFETCH_BATCH_SIZE = 1000;
+    static final long PREFETCH_MEMORY_LIMIT = 8L * 1024L * 1024L;
+
     static final class Arguments {
         final Properties connectionProps;
         final long loopCount;
@@ -57,6 +61,7 @@ public final class Main {
         final Compression outputCompression;
         final int compressionLevel;
         final int compressionBuffer;
+        final int prefetch;
         final Format outputFormat;
         final Properties outputParams;
         final int tasks;
@@ -121,6 +126,7 @@ public final class Main {
                             .toUpperCase(Locale.ROOT));
             this.compressionLevel = Integer.getInteger("compressionLevel", -1);
             this.compressionBuffer = Integer.getInteger("compressionBuffer", 0);
+            this.prefetch = Integer.getInteger("prefetch", 0);
             this.outputFormat = Format
                     .valueOf(System
                             .getProperty("outputFormat",
@@ -139,15 +145,24 @@ public final class Main {
 
         Arguments(Arguments args, List<String[]> queries) {
             this(args.connectionProps, args.loopCount, args.loopInterval, args.outputFile, args.outputCompression,
-                    args.compressionLevel, args.compressionBuffer, args.outputFormat, args.outputParams, args.tasks,
-                    args.taskCheckInterval, args.url, queries, args.validationQuery, args.validationTimeout,
-                    args.verbose);
+                    args.compressionLevel, args.compressionBuffer, args.prefetch, args.outputFormat, args.outputParams,
+                    args.tasks, args.taskCheckInterval, args.url, queries, args.validationQuery,
+                    args.validationTimeout, args.verbose);
         }
 
         Arguments(Properties connectionProps, long loopCount, long loopInterval, String outputFile, // NOSONAR
                 Compression outputCompression, int compressionLevel, int compressionBuffer, Format outputFormat,
                 Properties outputParams, int tasks, long taskCheckInterval, String url, List<String[]> queries,
                 String validationQuery, int validationTimeout, boolean verbose) {
+            this(connectionProps, loopCount, loopInterval, outputFile, outputCompression, compressionLevel,
+                    compressionBuffer, 0, outputFormat, outputParams, tasks, taskCheckInterval, url, queries,
+                    validationQuery, validationTimeout, verbose);
+        }
+
+        Arguments(Properties connectionProps, long loopCount, long loopInterval, String outputFile, // NOSONAR
+                Compression outputCompression, int compressionLevel, int compressionBuffer, int prefetch,
+                Format outputFormat, Properties outputParams, int tasks, long taskCheckInterval, String url,
+                List<String[]> queries, String validationQuery, int validationTimeout, boolean verbose) {
             this.connectionProps = connectionProps;
             this.loopCount = loopCount;
             this.loopInterval = loopInterval;
@@ -155,6 +170,7 @@ public final class Main {
             this.outputCompression = outputCompression;
             this.compressionLevel = compressionLevel;
             this.compressionBuffer = compressionBuffer;
+            this.prefetch = prefetch;
             this.outputFormat = outputFormat;
             this.outputParams = outputParams;
             this.tasks = tasks;
@@ -245,6 +261,7 @@ public final class Main {
         println("  outputCompression Output compression method, defaults to NONE");
         println("  compressionLevel  Output compression level, defaults to -1");
         println("  compressionBuffer Output buffer size for compression, defaults to 0");
+        println("  prefetch          Number of 1,000-row batches to fetch ahead of writing on a separate thread, defaults to 0");
         println("  outputFormat      Output data format(TSV or TSVWithHeaders), defaults to TSV");
         println("  outputParams      Comma separated output parameters (e.g. 'codec=zstd,level=9' for parquet), defaults to empty string");
         println("  tasks             Maximum number of tasks permitted to execute concurrently, defaults to 1");
@@ -297,8 +314,20 @@ public final class Main {
         return conn;
     }
 
+    static Result<?> prefetch(Result<?> result, int prefetch) { // NOSONAR
+        if (prefetch <= 0) {
+            return result;
+        }
+
+        try {
+            return ReactiveRows.prefetch(result, PREFETCH_BATCH_SIZE, prefetch, PREFETCH_MEMORY_LIMIT);
+        } catch (NoClassDefFoundError e) {
+            return result;
+        }
+    }
+
     static int[] execute(Connection conn, String query, String outputFile, Format outputFormat, Properties outputParams,
-            Compression outputCompression, int compressionLevel, int compressionBuffer)
+            Compression outputCompression, int compressionLevel, int compressionBuffer, int prefetch)
             throws IOException, SQLException {
         if (query.isEmpty()) {
             return new int[] { 0, 0 };
@@ -311,7 +340,7 @@ public final class Main {
             int updates = 0;
             while (true) {
                 if (hasResultSet) {
-                    try (Result<?> result = Result.of(stmt.getResultSet());
+                    try (Result<?> result = prefetch(Result.of(stmt.getResultSet()), prefetch);
                             OutputStream out = Compression.getProvider(outputCompression)
                                     .compress(
                                             outputFile.isEmpty() ? new UnclosableOutputStream(System.out) // NOSONAR
@@ -359,7 +388,7 @@ public final class Main {
 
                 final long startTime = args.verbose ? System.nanoTime() : 0L;
                 final int[] rounds = execute(conn, pair[1], args.outputFile, args.outputFormat, args.outputParams,
-                        args.outputCompression, args.compressionLevel, args.compressionBuffer);
+                        args.outputCompression, args.compressionLevel, args.compressionBuffer, args.prefetch);
                 final int reads = rounds[0];
                 final int updates = rounds[1];
                 final int total = reads + updates;
@@ -56,7 +56,11 @@ public enum RequestParameter {
     /**
      * User who created the request.
      */
-    USER("x-query-user", "u", Constants.EMPTY_STRING);
+    USER("x-query-user", "u", Constants.EMPTY_STRING),
+    /**
+     * Ids of zstd dictionaries available on client side.
+     */
+    ZSTD_DICT(WebExecutor.HEADER_ZSTD_DICT.toLowerCase(Locale.ROOT), "zd", Constants.EMPTY_STRING);
 
     private final String header;
     private final String parameter;
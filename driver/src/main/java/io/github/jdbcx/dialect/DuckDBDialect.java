@@ -22,6 +22,12 @@ import io.github.jdbcx.ResultMapper;
 public class DuckDBDialect implements JdbcDialect {
     static final DuckDBMapper mapper = new DuckDBMapper();
 
+    /**
+     * CSV is preferred, because it can be streamed as is. Parquet carries column
+     * types and needs no sniffing, but DuckDB reads it over HTTP using ranged
+     * requests, so it's opt-in by setting {@code format=parquet} for results
+     * that can be served that way.
+     */
     @Override
     public Format getPreferredFormat() {
         return Format.CSV;
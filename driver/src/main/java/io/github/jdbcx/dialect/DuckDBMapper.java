@@ -211,14 +211,13 @@ public class DuckDBMapper implements ResultMapper {
             return ResultMapper.super.toRemoteTable(url, format, compress, result);
         }
 
-        final String struct = toStructDefinition(result.fields().toArray(new Field[0]));
         StringBuilder builder = new StringBuilder();
         switch (format) {
             case JSONL:
             case NDJSON:
                 builder.append(FUNC_READ_JSON).append(url).append("',format='newline_delimited'");
                 break;
-            case PARQUET:
+            case PARQUET: // column types are embedded, no need to pass struct definition
                 return builder.append(FUNC_READ_PARQUET).append(url).append("')").toString();
             case TSV:
                 builder.append(FUNC_READ_CSV).append(url).append("',delim='\\t',header=true");
@@ -229,7 +228,7 @@ public class DuckDBMapper implements ResultMapper {
                 break;
         }
 
-        builder.append(",columns=").append(struct);
+        builder.append(",columns=").append(toStructDefinition(result.fields().toArray(new Field[0])));
         if (compress != null && compress != Compression.NONE) {
             builder.append(",compression='").append(compress.encoding()).append('\'');
         }
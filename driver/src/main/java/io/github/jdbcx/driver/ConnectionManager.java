@@ -26,6 +26,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -35,6 +36,7 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.Map.Entry;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import java.util.regex.Pattern;
@@ -171,6 +173,10 @@ public final class ConnectionManager implements AutoCloseable {
 
     // track the new connections created by this manager instance
     private final Set<Connection> additionalConns;
+    // connections for executing exploded queries concurrently
+    private final Deque<Connection> idleConns;
+    private final int fanout;
+    private final boolean fanoutOrdered;
 
     JdbcActivityListener createListener(DriverExtension ext, QueryContext context, Connection conn, Properties props) {
         if (ext.requiresBridgeContext()) {
@@ -237,6 +243,9 @@ public final class ConnectionManager implements AutoCloseable {
 
         this.additionalConns = Collections.synchronizedSet(new LinkedHashSet<>());
         this.additionalConns.add(conn); // ensure this connection won't be added twice
+        this.idleConns = new ConcurrentLinkedDeque<>();
+        this.fanout = Integer.parseInt(Option.EXEC_FANOUT.getJdbcxValue(originalProps));
+        this.fanoutOrdered = Boolean.parseBoolean(Option.EXEC_FANOUT_ORDERED.getJdbcxValue(originalProps));
     }
 
     protected Connection enlist(Connection newConn) {
@@ -276,6 +285,56 @@ public final class ConnectionManager implements AutoCloseable {
         }
     }
 
+    /**
+     * Gets an idle connection created by {@link #createConnection()}, or creates
+     * a new one when there's none. The connection should be given back using
+     * {@link #returnConnection(Connection)} after use.
+     *
+     * @return non-null connection
+     */
+    public Connection borrowConnection() {
+        Connection c;
+        while ((c = idleConns.pollFirst()) != null) {
+            try {
+                if (!c.isClosed()) {
+                    return c;
+                }
+            } catch (SQLException e) {
+                log.debug("Discard idle connection due to %s", e.getMessage());
+            }
+            additionalConns.remove(c);
+        }
+        return createConnection();
+    }
+
+    /**
+     * Gives back a connection borrowed from {@link #borrowConnection()}. It will be
+     * kept for reuse when there are less than {@link #getFanout()} idle
+     * connections, or closed otherwise.
+     *
+     * @param c connection borrowed from this manager, could be null
+     */
+    public void returnConnection(Connection c) {
+        if (c == null) {
+            return;
+        }
+
+        boolean reusable = idleConns.size() < fanout;
+        if (reusable) {
+            try {
+                reusable = !c.isClosed() && c.getAutoCommit();
+            } catch (SQLException e) {
+                reusable = false;
+            }
+        }
+        if (reusable) {
+            idleConns.offerFirst(c);
+        } else {
+            additionalConns.remove(c);
+            Utils.closeQuietly(c);
+        }
+    }
+
     public QueryContext createContext() {
         final QueryContext context = QueryContext.newContext();
         final Supplier<Connection> connSupplier = this::createConnection;
@@ -326,6 +385,26 @@ public final class ConnectionManager implements AutoCloseable {
         return conn;
     }
 
+    /**
+     * Gets maximum number of exploded queries to execute concurrently.
+     *
+     * @return maximum number of exploded queries to execute concurrently, 0 or 1
+     *         means sequential execution
+     */
+    public int getFanout() {
+        return fanout;
+    }
+
+    /**
+     * Checks whether rows of concurrently executed queries should be returned in
+     * query order.
+     *
+     * @return true if rows should be returned in query order; false otherwise
+     */
+    public boolean isFanoutOrdered() {
+        return fanoutOrdered;
+    }
+
     public List<DriverExtension> getSupportedExtensions() {
         return this.extList;
     }
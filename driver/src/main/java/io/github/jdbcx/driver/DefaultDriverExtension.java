@@ -26,7 +26,9 @@ import io.github.jdbcx.executor.CommandLineExecutor;
 public final class DefaultDriverExtension implements DriverExtension {
     private static final List<Option> options = Collections.unmodifiableList(
             Arrays.asList(Option.SERVER_URL, Option.SERVER_TOKEN, Option.CONFIG_PATH, Option.CUSTOM_CLASSPATH,
-                    CommandLineExecutor.OPTION_DOCKER_PATH, Option.PROXY, Option.TAG));
+                    CommandLineExecutor.OPTION_DOCKER_PATH, Option.EXEC_BRIDGE_PARALLELISM, Option.EXEC_BUFFER,
+                    Option.EXEC_FANOUT, Option.EXEC_FANOUT_ORDERED, Option.EXEC_PUSHDOWN, Option.PROXY, Option.TAG,
+                    Option.WORKER_VIRTUAL));
 
     private static final DriverExtension instance = new DefaultDriverExtension();
 
@@ -25,6 +25,8 @@ import io.github.jdbcx.Utils;
 interface ExecuteCallback {
     boolean execute(String query) throws SQLException;
 
+    boolean execute(Statement stmt, String query) throws SQLException;
+
     long executeUpdate(String query) throws SQLException;
 
     ResultSet getResultSet() throws SQLException;
@@ -66,8 +68,13 @@ class BaseExecuteCallback implements ExecuteCallback {
     }
 
     @Override
-    public boolean execute(String query) throws SQLException {
-        return getOrCreateStatement(false).execute(query);
+    public final boolean execute(String query) throws SQLException {
+        return execute(getOrCreateStatement(false), query);
+    }
+
+    @Override
+    public boolean execute(Statement stmt, String query) throws SQLException {
+        return stmt.execute(query);
     }
 
     @Override
@@ -90,8 +97,8 @@ final class ExecuteWithFlag extends BaseExecuteCallback {
     }
 
     @Override
-    public boolean execute(String query) throws SQLException {
-        return getOrCreateStatement(false).execute(query, autoGeneratedKeys);
+    public boolean execute(Statement stmt, String query) throws SQLException {
+        return stmt.execute(query, autoGeneratedKeys);
     }
 
     @Override
@@ -114,8 +121,8 @@ final class ExecuteWithIndex extends BaseExecuteCallback {
     }
 
     @Override
-    public boolean execute(String query) throws SQLException {
-        return getOrCreateStatement(false).execute(query, columnIndexes);
+    public boolean execute(Statement stmt, String query) throws SQLException {
+        return stmt.execute(query, columnIndexes);
     }
 
     @Override
@@ -138,8 +145,8 @@ final class ExecuteWithNames extends BaseExecuteCallback {
     }
 
     @Override
-    public boolean execute(String query) throws SQLException {
-        return getOrCreateStatement(false).execute(query, columnNames);
+    public boolean execute(Statement stmt, String query) throws SQLException {
+        return stmt.execute(query, columnNames);
     }
 
     @Override
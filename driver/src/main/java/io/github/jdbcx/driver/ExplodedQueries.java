@@ -0,0 +1,202 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.driver;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.github.jdbcx.Logger;
+import io.github.jdbcx.LoggerFactory;
+import io.github.jdbcx.Threads;
+import io.github.jdbcx.Utils;
+
+/**
+ * Executes exploded queries concurrently. Each query runs on its own statement
+ * and on a connection borrowed from {@link ConnectionManager}, with at most
+ * {@link ConnectionManager#getFanout()} queries executing at the same time.
+ * The connection is given back when the returned result set is closed, or
+ * right after execution when there's no result set.
+ *
+ * <p>
+ * Catalog, schema, read-only flag and transaction isolation level of the
+ * owner connection are copied to each borrowed connection, but other session
+ * state, like temporary tables and session variables, is not visible to the
+ * borrowed connections.
+ */
+final class ExplodedQueries {
+    private static final Logger log = LoggerFactory.getLogger(ExplodedQueries.class);
+
+    private static final ExecutorService pool = Threads.newCachedPool("JdbcxFanout-", 60000L);
+
+    @FunctionalInterface
+    interface Task {
+        /**
+         * Executes the query.
+         *
+         * @param index zero-based index of the query
+         * @param stmt  non-null statement dedicated to the query
+         * @param query non-null query
+         * @return result set to keep, could be null
+         * @throws SQLException when failed to execute the query
+         */
+        ResultSet execute(int index, Statement stmt, String query) throws SQLException;
+    }
+
+    static final class BorrowedStatement extends WrappedStatement {
+        private final Connection borrowed;
+        private final AtomicBoolean closed;
+
+        BorrowedStatement(WrappedConnection conn, Connection borrowed, Statement stmt) {
+            super(conn, stmt, true);
+            this.borrowed = borrowed;
+            this.closed = new AtomicBoolean();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (closed.compareAndSet(false, true)) {
+                try {
+                    super.close();
+                } finally {
+                    conn.getManager().returnConnection(borrowed);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies session settings of the owner connection to the borrowed one. Only
+     * settings that differ are changed, so that drivers not supporting them
+     * (e.g. no schema) are left untouched.
+     *
+     * @param from non-null owner connection
+     * @param to   non-null borrowed connection
+     * @throws SQLException when failed to copy the settings
+     */
+    static void copySession(Connection from, Connection to) throws SQLException {
+        final String catalog = from.getCatalog();
+        if (catalog != null && !catalog.equals(to.getCatalog())) {
+            to.setCatalog(catalog);
+        }
+        final String schema = from.getSchema();
+        if (schema != null && !schema.equals(to.getSchema())) {
+            to.setSchema(schema);
+        }
+        final boolean readOnly = from.isReadOnly();
+        if (readOnly != to.isReadOnly()) {
+            to.setReadOnly(readOnly);
+        }
+        final int isolation = from.getTransactionIsolation();
+        if (isolation != Connection.TRANSACTION_NONE && isolation != to.getTransactionIsolation()) {
+            to.setTransactionIsolation(isolation);
+        }
+    }
+
+    /**
+     * Checks whether the given queries should be executed concurrently. This
+     * requires more than one query, fan-out greater than one, and auto-commit
+     * enabled on the connection, because uncommitted changes are invisible to
+     * other connections.
+     *
+     * @param conn    non-null connection
+     * @param queries non-null queries
+     * @return true if the queries should be executed concurrently; false
+     *         otherwise
+     * @throws SQLException when failed to check auto-commit
+     */
+    static boolean isApplicable(WrappedConnection conn, List<String> queries) throws SQLException {
+        return queries.size() > 1 && conn.getManager().getFanout() > 1 && conn.getAutoCommit();
+    }
+
+    /**
+     * Submits the queries for execution. Queries whose future is completed
+     * (e.g. cancelled) before execution will be skipped.
+     *
+     * @param owner   non-null statement, whose settings are copied to the new
+     *                statements
+     * @param queries non-null queries
+     * @param task    non-null task to execute each query
+     * @return non-null list of futures, one for each query
+     */
+    static List<CompletableFuture<ResultSet>> submit(WrappedStatement owner, List<String> queries, Task task) {
+        final WrappedConnection conn = owner.conn;
+        final ConnectionManager manager = conn.getManager();
+        final int size = queries.size();
+        final List<CompletableFuture<ResultSet>> futures = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            futures.add(new CompletableFuture<>());
+        }
+
+        final AtomicInteger counter = new AtomicInteger();
+        final Runnable worker = () -> {
+            for (int i = counter.getAndIncrement(); i < size; i = counter.getAndIncrement()) {
+                final CompletableFuture<ResultSet> future = futures.get(i);
+                if (future.isDone()) {
+                    continue;
+                }
+
+                final String query = queries.get(i);
+                Connection c = null;
+                BorrowedStatement stmt = null;
+                ResultSet rs = null;
+                try {
+                    c = manager.borrowConnection();
+                    copySession(conn, c);
+                    final Statement s = owner.getImplementation();
+                    stmt = new BorrowedStatement(conn, c, c.createStatement(s.getResultSetType(), // NOSONAR
+                            s.getResultSetConcurrency(), s.getResultSetHoldability()));
+                    WrappedConnection.copy(s, stmt.getImplementation());
+                    log.debug("Executing %d of %d concurrently: [%s]", i + 1, size, query);
+                    rs = task.execute(i, stmt.getImplementation(), query);
+                } catch (Throwable e) { // NOSONAR
+                    if (stmt != null) {
+                        Utils.closeQuietly(stmt);
+                    } else {
+                        manager.returnConnection(c);
+                    }
+                    future.completeExceptionally(e);
+                    continue;
+                }
+
+                if (rs == null) {
+                    Utils.closeQuietly(stmt);
+                    future.complete(null);
+                } else {
+                    rs = new WrappedResultSet(stmt, rs);
+                    if (!future.complete(rs)) {
+                        Utils.closeQuietly(rs);
+                    }
+                }
+            }
+        };
+
+        for (int i = 0, len = Math.min(manager.getFanout(), size); i < len; i++) {
+            pool.execute(worker);
+        }
+        return futures;
+    }
+
+    private ExplodedQueries() {
+    }
+}
@@ -15,6 +15,7 @@
  */
 package io.github.jdbcx.driver;
 
+import java.io.IOException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
@@ -26,36 +27,132 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-
 import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.github.jdbcx.ConfigManager;
 import io.github.jdbcx.Constants;
 import io.github.jdbcx.DriverExtension;
 import io.github.jdbcx.Format;
 import io.github.jdbcx.JdbcActivityListener;
+import io.github.jdbcx.Logger;
+import io.github.jdbcx.LoggerFactory;
 import io.github.jdbcx.Option;
 import io.github.jdbcx.QueryContext;
 import io.github.jdbcx.QueryMode;
 import io.github.jdbcx.Result;
 import io.github.jdbcx.Row;
+import io.github.jdbcx.Threads;
 import io.github.jdbcx.Utils;
 import io.github.jdbcx.VariableTag;
+import io.github.jdbcx.data.IterableBuffer;
 import io.github.jdbcx.executor.jdbc.SqlExceptionUtils;
+import io.github.jdbcx.interpreter.JdbcInterpreter;
 
 public final class QueryBuilder {
+    private static final Logger log = LoggerFactory.getLogger(QueryBuilder.class);
+
+    /**
+     * Pending request to the bridge server. Adjacent bridge blocks of the same
+     * query are collected first, and then sent out concurrently so that the outer
+     * database does not have to wait for upstream sources one after another.
+     * Other blocks are never reordered around them.
+     */
+    static final class BridgeRequest implements Runnable {
+        final int index;
+        final JdbcActivityListener listener;
+        final String query;
+        final String content;
+
+        Result<?> result;
+        Exception error;
+
+        BridgeRequest(int index, JdbcActivityListener listener, String query, String content) {
+            this.index = index;
+            this.listener = listener;
+            this.query = query;
+            this.content = content;
+        }
+
+        @Override
+        public void run() {
+            try {
+                result = listener.onQuery(query);
+            } catch (Exception e) {
+                error = e;
+            }
+        }
+    }
+
+    private static final ExecutorService bridgePool = Threads.newCachedPool("JdbcxBridge-", 60000L);
+
+    static void fetch(List<BridgeRequest> requests, int parallelism) {
+        final int size = requests.size();
+        final int threads = Math.min(parallelism, size);
+        if (threads <= 1) {
+            for (BridgeRequest r : requests) {
+                r.run();
+            }
+            return;
+        }
+
+        final AtomicInteger next = new AtomicInteger();
+        final Runnable worker = () -> {
+            int i;
+            while ((i = next.getAndIncrement()) < size) {
+                requests.get(i).run();
+            }
+        };
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[threads - 1];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = CompletableFuture.runAsync(worker, bridgePool);
+        }
+        worker.run(); // current thread takes part as well
+        CompletableFuture.allOf(futures).join();
+    }
+
     private final QueryContext context;
 
     private final boolean directQuery;
     private final String[] parts;
     private final ExecutableBlock[] blocks;
 
+    private final String pushdownMode;
+    private final String pushdownQuery;
+    private final String pushdownExpression;
+
     private final ConnectionManager manager;
     private final QueryResult queryResult;
 
     private SQLWarning lastWarning;
 
+    /**
+     * Copies rows of the given result into {@link IterableBuffer}, and then
+     * closes the result to release associated resources.
+     *
+     * @param result      non-null result
+     * @param memoryLimit maximum memory in bytes, negative number disables
+     *                    buffering
+     * @return buffered result, or the given one when buffering is disabled or
+     *         not supported
+     * @throws SQLException when failed to buffer the result
+     */
+    static Result<?> buffer(Result<?> result, long memoryLimit) throws SQLException {
+        if (memoryLimit < 0L || !ResultSet.class.isAssignableFrom(result.type())
+                || !IterableBuffer.isSupported(result.fields())) {
+            return result;
+        }
+
+        try (Result<?> r = result) {
+            return Result.of(IterableBuffer.of(r.fields(), r.rows(), memoryLimit));
+        } catch (IOException | RuntimeException e) {
+            throw SqlExceptionUtils.clientError(e);
+        }
+    }
+
     static Result<?> execute(DriverExtension ext, ConnectionManager manager, QueryContext context, VariableTag tag, // NOSONAR
             ExecutableBlock block, Properties p) throws SQLException {
         final boolean output = block.hasOutput();
@@ -63,15 +160,17 @@ public final class QueryBuilder {
         if (block.hasMultipleIds()) {
             List<String> ids = block.getIds();
             List<Result<?>> list = new LinkedList<>();
+            final long bufferSize = Long.parseLong(Option.EXEC_BUFFER.getValue(p));
             for (String id : ids) {
                 Properties props = new Properties(p);
                 props.putAll(p);
                 Option.ID.setValue(props, id);
                 JdbcActivityListener cl = manager.createListener(ext, context, manager.getConnection(), props);
                 if (output) {
-                    list.add(cl
+                    list.add(buffer(cl
                             .onQuery(Utils.applyVariables(block.getSubstitutedContent(props), tag,
-                                    context.getVariables())));
+                                    context.getVariables())),
+                            bufferSize));
                 } else {
                     try (Result<?> result = cl
                             .onQuery(
@@ -102,6 +201,9 @@ public final class QueryBuilder {
         this.directQuery = pq.isDirectQuery();
         this.parts = pq.getStaticParts().toArray(Constants.EMPTY_STRING_ARRAY);
         this.blocks = pq.getExecutableBlocks().toArray(new ExecutableBlock[0]);
+        String mode = null;
+        String query = null;
+        String expr = null;
         for (int i = 0, len = blocks.length; i < len; i++) {
             ExecutableBlock block = this.blocks[i];
             if (block.useBridge()) {
@@ -119,9 +221,9 @@ public final class QueryBuilder {
                     ParsedQuery q = QueryParser.parse(expression, tag, p, manager.getConfigManager());
                     // FIXME check overridable parameters
                     ExecutableBlock b = q.getExecutableBlocks().get(0);
+                    final ConfigManager cm = manager.getConfigManager();
                     boolean isBin = Option.TYPE_BINARY.equals(Option.RESULT_TYPE.getValue(b.getProperties()));
                     if (!isBin) {
-                        ConfigManager cm = manager.getConfigManager();
                         for (String id : b.getIds()) {
                             if (id.isEmpty()) {
                                 continue;
@@ -135,6 +237,33 @@ public final class QueryBuilder {
                     }
                     if (isBin) {
                         props.setProperty(Constants.PROP_FORMAT, Format.BINARY.fileExtension(false));
+                    } else if (len == 1 && !directQuery && !b.hasMultipleIds()
+                            && ("db".equals(b.getExtensionName()) || "sql".equals(b.getExtensionName()))) {
+                        final int index = block.getIndex();
+                        final String product = QueryPushdown.getProduct(manager.getJdbcUrl());
+                        boolean sameDialect = !product.isEmpty() && b.getIds().size() == 1;
+                        for (String id : b.getIds()) {
+                            if (!sameDialect || id.isEmpty()) {
+                                sameDialect = false;
+                                break;
+                            }
+                            final Properties config = cm.getConfig(b.getExtensionName(), id);
+                            sameDialect = product.equals(QueryPushdown.getProduct(JdbcInterpreter.OPTION_URL
+                                    .getValue(config, JdbcInterpreter.OPTION_URL.getJdbcxValue(config))));
+                        }
+                        query = QueryPushdown.rewrite(
+                                String.join(Constants.EMPTY_STRING, Arrays.asList(parts).subList(0, index)),
+                                String.join(Constants.EMPTY_STRING,
+                                        Arrays.asList(parts).subList(Math.min(index + 1, parts.length), parts.length)),
+                                b.getContent(), sameDialect);
+                        final String content = block.getContent();
+                        final int pos = query != null ? content.lastIndexOf(b.getContent()) : -1;
+                        if (pos >= 0) {
+                            mode = b.getProperties().getProperty(Option.EXEC_PUSHDOWN.getName());
+                            expr = tag.function(content.substring(0, pos).concat(query));
+                        } else {
+                            query = null;
+                        }
                     }
                 }
                 this.blocks[i] = new ExecutableBlock(block.getIndex(), QueryContext.KEY_BRIDGE, tag, props, expression,
@@ -142,12 +271,58 @@ public final class QueryBuilder {
             }
         }
 
+        this.pushdownMode = mode;
+        this.pushdownQuery = query;
+        this.pushdownExpression = expr;
+
         this.manager = manager;
         this.queryResult = queryResult;
 
         this.lastWarning = null;
     }
 
+    /**
+     * Sends out pending bridge requests, and puts their results in place.
+     *
+     * @param requests    non-null pending requests, which will be cleared
+     * @param parallelism maximum number of requests to send concurrently
+     * @param results     non-null results of all blocks
+     * @throws SQLException when any of the requests failed
+     */
+    void flush(List<BridgeRequest> requests, int parallelism, Result<?>[] results) throws SQLException {
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        fetch(requests, parallelism);
+
+        Exception error = null;
+        for (BridgeRequest r : requests) {
+            if (r.error instanceof SQLWarning) {
+                queryResult.setWarnings(lastWarning = SqlExceptionUtils.consolidate(lastWarning,
+                        (SQLWarning) r.error));
+                results[r.index] = Result.of(r.content);
+            } else if (r.error != null) {
+                if (error == null) {
+                    error = r.error;
+                }
+            } else {
+                results[r.index] = r.result;
+            }
+        }
+
+        if (error != null) {
+            for (BridgeRequest r : requests) {
+                if (r.result != null) {
+                    r.result.close();
+                }
+            }
+            requests.clear();
+            throw SqlExceptionUtils.handle(error);
+        }
+        requests.clear();
+    }
+
     public SQLWarning getLastWarning() {
         return lastWarning;
     }
@@ -159,6 +334,8 @@ public final class QueryBuilder {
         final Map<Integer, List<Integer>> cachedIndices = new HashMap<>();
 
         final VariableTag tag = manager.getVariableTag();
+        final List<BridgeRequest> requests = new ArrayList<>();
+        int parallelism = 0;
 
         for (int i = 0; i < len; i++) {
             ExecutableBlock block = blocks[i];
@@ -187,6 +364,24 @@ public final class QueryBuilder {
                 String val = Utils.applyVariables(entry.getValue().toString(), tag, p);
                 p.setProperty(key, val);
             }
+            if (pushdownExpression != null && QueryContext.KEY_BRIDGE.equals(block.getExtensionName())) {
+                final String mode = pushdownMode != null ? pushdownMode
+                        : Option.EXEC_PUSHDOWN.getValue(p);
+                if (Constants.TRUE_EXPR.equalsIgnoreCase(mode)) {
+                    log.debug("Pushing down outer query into table block: %s", pushdownQuery);
+                    block = new ExecutableBlock(block.getIndex(), block.getExtensionName(), tag,
+                            block.getProperties(), pushdownExpression, block.hasOutput());
+                } else if (Option.PUSHDOWN_DRYRUN.equalsIgnoreCase(mode)) {
+                    queryResult.setWarnings(lastWarning = SqlExceptionUtils.consolidate(lastWarning,
+                            SqlExceptionUtils.clientWarning("Table block can be rewritten as: " + pushdownQuery)));
+                }
+            }
+
+            final boolean queued = block.hasOutput() && !directQuery
+                    && QueryContext.KEY_BRIDGE.equals(block.getExtensionName()) && !block.hasMultipleIds();
+            if (!queued) { // keep execution order of blocks
+                flush(requests, parallelism, results);
+            }
 
             if (block.hasOutput()) {
                 try {
@@ -196,6 +391,17 @@ public final class QueryBuilder {
                         return Collections.emptyList();
                     }
 
+                    if (queued) {
+                        if (requests.isEmpty()) {
+                            parallelism = Integer.parseInt(Option.EXEC_BRIDGE_PARALLELISM.getValue(p));
+                        }
+                        requests.add(new BridgeRequest(i,
+                                manager.createListener(ext, context, manager.getConnection(), p),
+                                Utils.applyVariables(block.getSubstitutedContent(), tag, context.getVariables()),
+                                block.getSubstitutedContent()));
+                        continue;
+                    }
+
                     final Result<?> r = execute(ext, manager, context, tag, block, p);
                     if (directQuery
                             && (ext.supportsDirectQuery() || Boolean.parseBoolean(Option.EXEC_DRYRUN.getValue(p)))) {
@@ -213,6 +419,8 @@ public final class QueryBuilder {
             }
         }
 
+        flush(requests, parallelism, results);
+
         final List<String[]> exploded = new LinkedList<>();
         exploded.add(new String[len]);
         for (int i = 0; i < len; i++) {
@@ -0,0 +1,480 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.driver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import io.github.jdbcx.Checker;
+
+/**
+ * This class rewrites the inner query of a table block, by pushing down simple
+ * column projections and conjunctive predicates from the outer query. Only
+ * below outer query is supported:
+ *
+ * <pre>
+ * select &lt;columns&gt; from {{ table.db.xxx: &lt;inner query&gt; }} [[as] alias] [where &lt;predicates&gt;] [limit n [offset m]]
+ * </pre>
+ *
+ * A predicate can be pushed down only when it compares a column with literals,
+ * for example: {@code c > 10}, {@code s like 'a%'}, {@code n in (1, 2)},
+ * {@code d between 1 and 3}, or {@code x is not null}. The outer query is kept
+ * as is, so the rewrite is always safe to apply - when in doubt, nothing is
+ * pushed down.
+ */
+final class QueryPushdown {
+    static final String TABLE_ALIAS = "jdbcx_pushdown";
+
+    static final int TYPE_WORD = 0;
+    static final int TYPE_QUOTED = 1;
+    static final int TYPE_STRING = 2;
+    static final int TYPE_NUMBER = 3;
+    static final int TYPE_SYMBOL = 4;
+
+    private static final Set<String> clauseKeywords = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList("except", "fetch", "format", "group", "having", "intersect", "limit", "offset", "order",
+                    "qualify", "settings", "union", "window")));
+    private static final Set<String> reservedWords = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList("all", "and", "as", "between", "cross", "distinct", "false", "from", "full", "in", "inner",
+                    "is", "join", "left", "like", "natural", "not", "null", "on", "or", "right", "select", "true",
+                    "using", "where")));
+    // keywords and niladic functions which look like column names
+    private static final Set<String> nonColumnWords = Collections.unmodifiableSet(new HashSet<>(
+            Arrays.asList("any", "array", "case", "cast", "current_catalog", "current_date", "current_role",
+                    "current_schema", "current_time", "current_timestamp", "current_user", "date", "else", "end",
+                    "exists", "interval", "localtime", "localtimestamp", "now", "session_user", "some", "sysdate",
+                    "system_user", "then", "time", "timestamp", "today", "user", "when")));
+    private static final Set<String> comparisonOperators = Collections
+            .unmodifiableSet(new HashSet<>(Arrays.asList("=", "<>", "!=", "<", "<=", ">", ">=")));
+
+    static final class Token {
+        final int type;
+        final String text;
+        final String lowerText;
+
+        Token(int type, String text) {
+            this.type = type;
+            this.text = text;
+            this.lowerText = text.toLowerCase(Locale.ROOT);
+        }
+
+        boolean is(String str) {
+            return (type == TYPE_WORD || type == TYPE_SYMBOL) && lowerText.equals(str);
+        }
+
+        boolean isIdentifier() {
+            return type == TYPE_WORD && !reservedWords.contains(lowerText) && !clauseKeywords.contains(lowerText)
+                    && !nonColumnWords.contains(lowerText);
+        }
+
+        boolean isLiteral() {
+            return type == TYPE_NUMBER || type == TYPE_STRING || is("true") || is("false");
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /**
+     * Splits the given SQL into tokens. Comments are not supported.
+     *
+     * @param sql non-null SQL
+     * @return tokens, or {@code null} when the SQL cannot be tokenized
+     */
+    static List<Token> tokenize(String sql) {
+        final List<Token> list = new ArrayList<>();
+        for (int i = 0, len = sql.length(); i < len; i++) {
+            final char ch = sql.charAt(i);
+            if (Character.isWhitespace(ch)) {
+                continue;
+            } else if (Character.isLetter(ch) || ch == '_') {
+                int j = i + 1;
+                while (j < len && (Character.isLetterOrDigit(sql.charAt(j)) || sql.charAt(j) == '_'
+                        || sql.charAt(j) == '$')) {
+                    j++;
+                }
+                list.add(new Token(TYPE_WORD, sql.substring(i, j)));
+                i = j - 1;
+            } else if (Character.isDigit(ch)
+                    || (ch == '.' && i + 1 < len && Character.isDigit(sql.charAt(i + 1)))) {
+                int j = i + 1;
+                while (j < len && (Character.isDigit(sql.charAt(j)) || sql.charAt(j) == '.')) {
+                    j++;
+                }
+                list.add(new Token(TYPE_NUMBER, sql.substring(i, j)));
+                i = j - 1;
+            } else if (ch == '\'' || ch == '"' || ch == '`') {
+                int j = i + 1;
+                for (; j < len; j++) {
+                    if (sql.charAt(j) == ch) {
+                        if (j + 1 < len && sql.charAt(j + 1) == ch) {
+                            j++;
+                        } else {
+                            break;
+                        }
+                    } else if (sql.charAt(j) == '\\') {
+                        return null;
+                    }
+                }
+                if (j >= len) {
+                    return null;
+                }
+                list.add(new Token(ch == '\'' ? TYPE_STRING : TYPE_QUOTED, sql.substring(i, j + 1)));
+                i = j;
+            } else if (ch == '-' && i + 1 < len && sql.charAt(i + 1) == '-') {
+                return null;
+            } else if (ch == '/' && i + 1 < len && sql.charAt(i + 1) == '*') {
+                return null;
+            } else if ((ch == '<' || ch == '>' || ch == '!') && i + 1 < len
+                    && (sql.charAt(i + 1) == '=' || (ch == '<' && sql.charAt(i + 1) == '>'))) {
+                list.add(new Token(TYPE_SYMBOL, sql.substring(i, i + 2)));
+                i++;
+            } else {
+                list.add(new Token(TYPE_SYMBOL, String.valueOf(ch)));
+            }
+        }
+        return list;
+    }
+
+    static int skipLiteral(List<Token> tokens, int index) {
+        final int size = tokens.size();
+        if (index < size && tokens.get(index).is("-") && index + 1 < size
+                && tokens.get(index + 1).type == TYPE_NUMBER) {
+            index++;
+        }
+        return index < size && tokens.get(index).isLiteral() ? index + 1 : -1;
+    }
+
+    /**
+     * Gets column name referenced at the given position.
+     *
+     * @param tokens non-null tokens
+     * @param index  start index
+     * @param alias  optional table alias
+     * @return column name followed by the index of next token, or {@code null}
+     *         when it's not a column of the table
+     */
+    static Object[] getColumn(List<Token> tokens, int index, String alias) {
+        final int size = tokens.size();
+        if (index >= size || !tokens.get(index).isIdentifier()
+                || (index + 1 < size && tokens.get(index + 1).is("("))) { // function call
+            return null; // NOSONAR
+        } else if (index + 1 < size && tokens.get(index + 1).is(".")) {
+            if (alias == null || !tokens.get(index).lowerText.equals(alias) || index + 2 >= size
+                    || !tokens.get(index + 2).isIdentifier()) {
+                return null; // NOSONAR
+            }
+            index += 2;
+        }
+        return new Object[] { tokens.get(index).text, index + 1 };
+    }
+
+    /**
+     * Gets column name referenced in a simple predicate.
+     *
+     * @param tokens non-null tokens of the predicate
+     * @param alias  optional table alias
+     * @return column name, or {@code null} if the predicate cannot be pushed down
+     */
+    static String getPredicateColumn(List<Token> tokens, String alias) {
+        final int size = tokens.size();
+        Object[] col = getColumn(tokens, 0, alias);
+        if (col == null) { // literal op column
+            int i = skipLiteral(tokens, 0);
+            if (i > 0 && i < size && comparisonOperators.contains(tokens.get(i).text)
+                    && (col = getColumn(tokens, i + 1, alias)) != null && (int) col[1] == size) {
+                return (String) col[0];
+            }
+            return null;
+        }
+
+        int i = (int) col[1];
+        if (i >= size) {
+            return null;
+        }
+
+        Token t = tokens.get(i);
+        if (comparisonOperators.contains(t.text)) {
+            i = skipLiteral(tokens, i + 1);
+        } else if (t.is("is")) {
+            i = i + 1 < size && tokens.get(i + 1).is("not") ? i + 2 : i + 1;
+            i = i < size && tokens.get(i).is("null") ? i + 1 : -1;
+        } else {
+            if (t.is("not")) {
+                i++;
+                t = i < size ? tokens.get(i) : null;
+            }
+            if (t == null) {
+                i = -1;
+            } else if (t.is("like")) {
+                i = i + 1 < size && tokens.get(i + 1).type == TYPE_STRING ? i + 2 : -1;
+            } else if (t.is("between")) {
+                i = skipLiteral(tokens, i + 1);
+                i = i > 0 && i < size && tokens.get(i).is("and") ? skipLiteral(tokens, i + 1) : -1;
+            } else if (t.is("in") && i + 1 < size && tokens.get(i + 1).is("(")) {
+                i += 2;
+                while ((i = skipLiteral(tokens, i)) > 0 && i < size && tokens.get(i).is(",")) {
+                    i++;
+                }
+                i = i > 0 && i < size && tokens.get(i).is(")") ? i + 1 : -1;
+            } else {
+                i = -1;
+            }
+        }
+        return i == size ? (String) col[0] : null;
+    }
+
+    static String toString(List<Token> tokens) {
+        final StringBuilder builder = new StringBuilder();
+        Token last = null;
+        for (Token t : tokens) {
+            if (last != null && !t.is(".") && !t.is(",") && !t.is(")") && !last.is(".") && !last.is("(")) {
+                builder.append(' ');
+            }
+            builder.append(t.text);
+            last = t;
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Gets product name from the given JDBC URL.
+     *
+     * @param url JDBC URL, for example {@code jdbc:duckdb:} or
+     *            {@code jdbcx:duckdb:}
+     * @return lower-cased product name, or empty string when it's unknown
+     */
+    static String getProduct(String url) {
+        if (Checker.isNullOrBlank(url)) {
+            return "";
+        }
+
+        String str = url.trim().toLowerCase(Locale.ROOT);
+        if (str.startsWith("jdbcx:")) {
+            str = str.substring(6);
+        } else if (str.startsWith("jdbc:")) {
+            str = str.substring(5);
+        } else {
+            return "";
+        }
+        final int index = str.indexOf(':');
+        return index > 0 ? str.substring(0, index) : "";
+    }
+
+    /**
+     * Rewrites inner query of a table block according to the outer query.
+     * Predicates are written in syntax of the outer query, so they should only be
+     * pushed down when both queries are in the same dialect.
+     *
+     * @param before     static part of the outer query before the table block
+     * @param after      static part of the outer query after the table block
+     * @param query      inner query of the table block
+     * @param predicates whether to push down predicates besides projections
+     * @return rewritten inner query, or {@code null} if there's nothing to push
+     *         down
+     */
+    static String rewrite(String before, String after, String query, boolean predicates) {
+        if (Checker.isNullOrBlank(before) || Checker.isNullOrBlank(query)) {
+            return null;
+        }
+
+        final List<Token> head = tokenize(before);
+        final List<Token> tail = tokenize(after != null ? after : "");
+        if (head == null || tail == null || head.size() < 3 || !head.get(0).is("select")
+                || !head.get(head.size() - 1).is("from")) {
+            return null;
+        }
+
+        // select list
+        final Map<String, String> columns = new LinkedHashMap<>();
+        boolean projection = true;
+        boolean hasStar = false;
+        List<List<Token>> items = new ArrayList<>();
+        List<Token> current = new ArrayList<>();
+        int depth = 0;
+        for (int i = 1, len = head.size() - 1; i < len; i++) {
+            Token t = head.get(i);
+            if (t.is("(")) {
+                depth++;
+            } else if (t.is(")")) {
+                depth--;
+            } else if (depth == 0 && t.is(",")) {
+                items.add(current);
+                current = new ArrayList<>();
+                continue;
+            }
+            current.add(t);
+        }
+        items.add(current);
+        if (depth != 0) {
+            return null;
+        }
+
+        // from alias
+        final int size = tail.size();
+        int index = 0;
+        String alias = null;
+        if (index < size && tail.get(index).is("as")) {
+            index++;
+        }
+        if (index < size && tail.get(index).isIdentifier()) {
+            alias = tail.get(index++).lowerText;
+        } else if (index > 0) {
+            return null;
+        }
+
+        // where clause
+        final List<List<Token>> conditions = new ArrayList<>();
+        if (index < size && tail.get(index).is("where")) {
+            current = new ArrayList<>();
+            boolean between = false;
+            for (index = index + 1; index < size; index++) {
+                Token t = tail.get(index);
+                if (t.is("(")) {
+                    depth++;
+                } else if (t.is(")")) {
+                    depth--;
+                } else if (depth == 0) {
+                    if (t.is(";") || clauseKeywords.contains(t.lowerText)) {
+                        break;
+                    } else if (t.is("or")) {
+                        return null;
+                    } else if (t.is("between")) {
+                        between = true;
+                    } else if (t.is("and")) {
+                        if (between) {
+                            between = false;
+                        } else {
+                            conditions.add(current);
+                            current = new ArrayList<>();
+                            continue;
+                        }
+                    }
+                }
+                current.add(t);
+            }
+            if (depth != 0 || current.isEmpty()) {
+                return null;
+            }
+            conditions.add(current);
+        }
+
+        // anything else like join is not supported
+        if (index < size && !tail.get(index).is(";") && !clauseKeywords.contains(tail.get(index).lowerText)) {
+            return null;
+        }
+        for (int i = index; i < size; i++) {
+            Token t = tail.get(i);
+            if (!t.is(";") && !t.is("limit") && !t.is("offset") && t.type != TYPE_NUMBER) {
+                projection = false; // columns might be referenced in order by etc.
+                break;
+            }
+        }
+
+        for (List<Token> item : items) {
+            if (item.size() == 1 && item.get(0).is("*")) {
+                hasStar = true;
+                continue;
+            }
+            int i = !item.isEmpty() && item.get(0).is("distinct") && items.get(0) == item ? 1 : 0;
+            Object[] col = getColumn(item, i, alias);
+            if (col == null) {
+                projection = false;
+                break;
+            }
+            i = (int) col[1];
+            if (i < item.size() && item.get(i).is("as")) {
+                i++;
+            }
+            if (i < item.size() && item.get(i).isIdentifier()) {
+                i++;
+            }
+            if (i != item.size()) {
+                projection = false;
+                break;
+            }
+            String name = (String) col[0];
+            columns.put(name.toLowerCase(Locale.ROOT), name);
+        }
+
+        // some databases like DuckDB allow to reference column alias in where clause
+        final Set<String> columnAliases = new HashSet<>();
+        for (List<Token> item : items) {
+            int len = item.size();
+            if (len > 1 && item.get(len - 1).isIdentifier()) {
+                Token t = item.get(len - 2);
+                if (t.is("as") || t.is(")") || t.type == TYPE_QUOTED || t.type == TYPE_STRING
+                        || t.type == TYPE_NUMBER || (t.type == TYPE_WORD && !reservedWords.contains(t.lowerText))) {
+                    columnAliases.add(item.get(len - 1).lowerText);
+                }
+            }
+        }
+
+        final List<String> pushed = new ArrayList<>(conditions.size());
+        for (List<Token> p : conditions) {
+            String col = getPredicateColumn(p, alias);
+            if (col != null && columnAliases.contains(col.toLowerCase(Locale.ROOT))) {
+                col = null;
+            }
+            if (col != null) {
+                columns.putIfAbsent(col.toLowerCase(Locale.ROOT), col);
+                if (!predicates) {
+                    continue;
+                } else if (alias != null && p.size() > 2 && p.get(1).is(".")) {
+                    p = p.subList(2, p.size());
+                } else if (alias != null && p.size() > 2 && p.get(p.size() - 2).is(".")) {
+                    p = new ArrayList<>(p);
+                    p.remove(p.size() - 3);
+                    p.remove(p.size() - 2);
+                }
+                pushed.add(toString(p));
+            } else {
+                projection = false; // unknown columns
+            }
+        }
+
+        if (hasStar || columns.isEmpty()) {
+            projection = false;
+        }
+        if (!projection && pushed.isEmpty()) {
+            return null;
+        }
+
+        String inner = query.trim();
+        while (!inner.isEmpty() && inner.charAt(inner.length() - 1) == ';') {
+            inner = inner.substring(0, inner.length() - 1).trim();
+        }
+        StringBuilder builder = new StringBuilder("select ");
+        builder.append(projection ? String.join(", ", columns.values()) : "*").append(" from (").append(inner)
+                .append(") ").append(TABLE_ALIAS);
+        if (!pushed.isEmpty()) {
+            builder.append(" where ").append(String.join(" and ", pushed));
+        }
+        return builder.toString();
+    }
+
+    private QueryPushdown() {
+    }
+}
@@ -21,6 +21,8 @@ import java.sql.SQLFeatureNotSupportedException;
 import java.sql.SQLWarning;
 import java.sql.Statement;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicReference;
 
 import io.github.jdbcx.Logger;
@@ -87,6 +89,60 @@ public class WrappedStatement implements Statement {
         return newStmt;
     }
 
+    /**
+     * Executes the given queries concurrently and waits for all of them to
+     * complete. Result sets and generated keys are kept in the given arrays.
+     *
+     * @param queries  non-null queries
+     * @param callback non-null callback
+     * @param keys     non-null array for generated keys
+     * @param results  non-null array for result sets
+     * @return affected rows
+     * @throws SQLException when any of the queries failed
+     */
+    protected long executeConcurrently(List<String> queries, ExecuteCallback callback, ResultSet[] keys,
+            ResultSet[] results) throws SQLException {
+        final int size = queries.size();
+        final boolean[] hasResultSet = new boolean[size];
+        final long[] updateCounts = new long[size];
+        final List<CompletableFuture<ResultSet>> futures = ExplodedQueries.submit(this, queries, (i, s, q) -> {
+            if (hasResultSet[i] = callback.execute(s, q)) {
+                return s.getResultSet();
+            }
+
+            updateCounts[i] = Utils.getAffectedRows(s);
+            try {
+                return s.getGeneratedKeys();
+            } catch (SQLException | UnsupportedOperationException | NoSuchMethodError e) {
+                return null;
+            }
+        });
+
+        long affectedRows = 0L;
+        SQLException error = null;
+        for (int i = 0; i < size; i++) {
+            try {
+                final ResultSet rs = futures.get(i).join();
+                if (hasResultSet[i]) {
+                    results[i] = rs;
+                } else {
+                    keys[i] = rs;
+                    affectedRows += updateCounts[i];
+                }
+            } catch (CompletionException e) {
+                if (error == null) {
+                    error = SqlExceptionUtils.handle(e.getCause() != null ? e.getCause() : e);
+                }
+            }
+        }
+
+        if (error != null) {
+            Utils.closeQuietly(new CombinedResultSet(keys), new CombinedResultSet(results));
+            throw error;
+        }
+        return affectedRows;
+    }
+
     @SuppressWarnings("resource")
     protected boolean execute(String query, ExecuteCallback callback) throws SQLException {
         queryResult.reset();
@@ -120,14 +176,19 @@ public class WrappedStatement implements Statement {
                 final ResultSet[] results = new ResultSet[size];
                 final CombinedResultSet keyRs = new CombinedResultSet(keys); // NOSONAR
                 final CombinedResultSet resRs = new CombinedResultSet(results); // NOSONAR
-                for (int i = 0; i < size; i++) {
-                    String q = queries.get(i);
-                    log.debug("Executing %d of %d: [%s]", i + 1, size, q);
-                    if (result |= callback.execute(q)) {
-                        results[i] = callback.getResultSet();
-                    } else {
-                        affectedRows += callback.getUpdateCount();
-                        keys[i] = callback.getGeneratedKeys();
+                if (ExplodedQueries.isApplicable(conn, queries)) {
+                    affectedRows = executeConcurrently(queries, callback, keys, results);
+                    result = !resRs.isEmpty();
+                } else {
+                    for (int i = 0; i < size; i++) {
+                        String q = queries.get(i);
+                        log.debug("Executing %d of %d: [%s]", i + 1, size, q);
+                        if (result |= callback.execute(q)) {
+                            results[i] = callback.getResultSet();
+                        } else {
+                            affectedRows += callback.getUpdateCount();
+                            keys[i] = callback.getGeneratedKeys();
+                        }
                     }
                 }
                 if (!keyRs.isEmpty()) {
@@ -222,6 +283,11 @@ public class WrappedStatement implements Statement {
                 String newQuery = queries.get(0);
                 log.debug("Executing query: [%s]", newQuery);
                 rs = new WrappedResultSet(this, stmt.executeQuery(newQuery));
+            } else if (ExplodedQueries.isApplicable(conn, queries)) {
+                rs = new CombinedResultSet(ExplodedQueries.submit(this, queries, (i, s, q) -> s.executeQuery(q)),
+                        conn.getManager().isFanoutOrdered());
+                // wait for the first result, so that metadata is available and errors surface early
+                rs.getMetaData();
             } else {
                 final boolean newStmt = !conn.getManager().getDialect().supportMultipleResultSetsPerStatement();
                 ResultSet[] arr = new ResultSet[size];
@@ -32,6 +32,7 @@ import java.util.concurrent.CompletionException;
 
 import io.github.jdbcx.Checker;
 import io.github.jdbcx.Compression;
+import io.github.jdbcx.ConfigSnapshot;
 import io.github.jdbcx.Constants;
 import io.github.jdbcx.Field;
 import io.github.jdbcx.JdbcActivityListener;
@@ -51,9 +52,18 @@ abstract class AbstractActivityListener implements JdbcActivityListener {
                     Arrays.asList(Field.of("file"), Field.of(Constants.PROP_FORMAT), Field.of("compress_algorithm"),
                             Field.of("compress_level", JDBCType.BIGINT), Field.of("compress_buffer", JDBCType.BIGINT),
                             Field.of("size", null, JDBCType.BIGINT, false, 0, 0, false)));
+    private static final ConfigSnapshot.Layout QUERY_OPTIONS = ConfigSnapshot.Layout.of(Option.RESULT_VAR,
+            Option.RESULT_SCOPE, Option.RESULT_REUSE);
+    private static final int SLOT_RESULT_VAR = QUERY_OPTIONS.slotOf(Option.RESULT_VAR);
+    private static final int SLOT_RESULT_SCOPE = QUERY_OPTIONS.slotOf(Option.RESULT_SCOPE);
+    private static final int SLOT_RESULT_REUSE = QUERY_OPTIONS.slotOf(Option.RESULT_REUSE);
 
     protected final Properties config;
     protected final Interpreter interpreter;
+    /**
+     * Snapshot of {@link #config} taken when the listener was created.
+     */
+    protected final ConfigSnapshot snapshot;
 
     private final String defaultQuery;
     private final FileConfiguration defaultOutputFile;
@@ -61,6 +71,7 @@ abstract class AbstractActivityListener implements JdbcActivityListener {
     protected AbstractActivityListener(Interpreter interpreter, Properties config) {
         this.interpreter = interpreter;
         this.config = config;
+        this.snapshot = QUERY_OPTIONS.snapshot(config);
 
         this.defaultQuery = config.getProperty(Constants.EMPTY_STRING, Constants.EMPTY_STRING).trim();
         this.defaultOutputFile = FileConfiguration.ofOutputFile(config);
@@ -89,13 +100,13 @@ abstract class AbstractActivityListener implements JdbcActivityListener {
 
     @Override
     public Result<?> onQuery(String query) throws SQLException {
-        final String resultVar = Option.RESULT_VAR.getValue(config);
+        final String resultVar = snapshot.getValue(SLOT_RESULT_VAR);
         final boolean saveResult = !Checker.isNullOrEmpty(resultVar);
-        final String scope = saveResult ? Option.RESULT_SCOPE.getValue(config) : Constants.SCOPE_QUERY;
+        final String scope = saveResult ? snapshot.getValue(SLOT_RESULT_SCOPE) : Constants.SCOPE_QUERY;
         try {
             final QueryContext context = interpreter.getContext();
 
-            if (saveResult && Boolean.parseBoolean(Option.RESULT_REUSE.getValue(config))) {
+            if (saveResult && snapshot.getBoolean(SLOT_RESULT_REUSE)) {
                 String value = context.getVariableInScope(scope, resultVar);
                 if (value != null) {
                     return Result.of(value);
@@ -104,7 +115,7 @@ abstract class AbstractActivityListener implements JdbcActivityListener {
 
             final Result<?> result = writeOutputFile(
                     onResult(interpreter.interpret(Checker.isNullOrEmpty(query) ? defaultQuery : query, config)),
-                    saveResult ? null : FileConfiguration.ofOutputFile(config, defaultOutputFile));
+                    saveResult ? null : defaultOutputFile);
             if (saveResult) {
                 final int len = result.getFieldCount();
                 final String value;
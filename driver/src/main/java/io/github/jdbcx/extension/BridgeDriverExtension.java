@@ -54,8 +54,9 @@ public class BridgeDriverExtension implements DriverExtension {
     static final String DEFAULT_CONNECT_TIMEOUT = "3000";
     static final String DEFAULT_SOCKET_TIMEOUT = "5000";
 
-    static final String KEY_QUERY_ID = "query_id";
-
+    public static final Option OPTION_ZSTD_DICT = Option.ofBool("zstd.dict",
+            "Whether to negotiate trained zstd dictionaries with the bridge server when compression is zstd. Responses are decompressed on client side, and dictionaries are downloaded into zstd.dict.dir.",
+            false);
     static final Option OPTION_COMPRESSION = Option
             .of(new String[] { Constants.PROP_COMPRESSION, "Compression algorithm" });
     static final Option OPTION_FORMAT = Option.of(new String[] { Constants.PROP_FORMAT, "Data format" });
@@ -99,8 +100,12 @@ public class BridgeDriverExtension implements DriverExtension {
             return web;
         }
 
-        ActivityListener(QueryContext context, Properties config) {
+        private final String queryId;
+
+        ActivityListener(QueryContext context, Properties config, String queryId) {
             super(new WebInterpreter(context, config), config);
+
+            this.queryId = queryId;
         }
 
         String rewrite(String query) {
@@ -134,7 +139,6 @@ public class BridgeDriverExtension implements DriverExtension {
 
         void checkError() {
             final QueryContext context = interpreter.getContext();
-            final Object queryId = context.get(KEY_QUERY_ID);
             if (queryId != null) { // only when query id is available
                 final StringBuilder builder = getUrlBuilder(
                         OPTION_URL.getValue((Properties) context.get(QueryContext.KEY_BRIDGE)));
@@ -220,6 +224,19 @@ public class BridgeDriverExtension implements DriverExtension {
      * @return non-null new configuration for {@link WebInterpreter}
      */
     static Properties build(QueryContext context, Properties config) {
+        return build(context, config, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Builds new configuration for {@link WebInterpreter} according to the given
+     * query context and configuration.
+     *
+     * @param context non-null query context with both bridge context and dialect
+     * @param config  non-null configuration
+     * @param queryId non-null query ID sent to the bridge server
+     * @return non-null new configuration for {@link WebInterpreter}
+     */
+    static Properties build(QueryContext context, Properties config, String queryId) {
         final Properties props = new Properties(config);
         final Properties bridgeCtx = (Properties) context.get(QueryContext.KEY_BRIDGE);
         final JdbcDialect dialect = (JdbcDialect) context.get(QueryContext.KEY_DIALECT);
@@ -304,6 +321,10 @@ public class BridgeDriverExtension implements DriverExtension {
             }
             builder.append(',').append(RequestParameter.COMPRESSION.header()).append('=')
                     .append(dialect == null ? compress.encoding() : dialect.getEncodings(compress));
+            if (compress == Compression.ZSTD && Boolean.parseBoolean(OPTION_ZSTD_DICT.getValue(config))) {
+                WebExecutor.OPTION_ZSTD_DICT_URL.setValue(props,
+                        (url.charAt(url.length() - 1) == '/' ? url : url + '/') + "zstd/");
+            }
         }
 
         value = (String) context.get(QueryContext.KEY_TENANT);
@@ -320,8 +341,6 @@ public class BridgeDriverExtension implements DriverExtension {
             }
         }
 
-        final String queryId = UUID.randomUUID().toString();
-        context.put(KEY_QUERY_ID, queryId);
         builder.append(',').append(RequestParameter.QUERY_ID.header()).append('=').append(queryId);
 
         WebInterpreter.OPTION_REQUEST_HEADERS.setValue(props, builder.toString());
@@ -331,7 +350,7 @@ public class BridgeDriverExtension implements DriverExtension {
     public static final List<Option> OPTIONS = Collections.unmodifiableList(Arrays.asList(Option.EXEC_ERROR,
             Option.EXEC_TIMEOUT, OPTION_URL, OPTION_QUERY_MODE, OPTION_COMPRESSION, OPTION_FORMAT, OPTION_TOKEN,
             WebExecutor.OPTION_CONNECT_TIMEOUT, Option.INPUT_FILE, Option.PROXY, WebExecutor.OPTION_SOCKET_TIMEOUT,
-            WebInterpreter.OPTION_REQUEST_HEADERS));
+            WebInterpreter.OPTION_REQUEST_HEADERS, OPTION_ZSTD_DICT));
 
     @Override
     public List<Option> getDefaultOptions() {
@@ -340,7 +359,8 @@ public class BridgeDriverExtension implements DriverExtension {
 
     @Override
     public ActivityListener createListener(QueryContext context, Connection conn, Properties props) {
-        return new ActivityListener(context, build(context, getConfig(context, props)));
+        final String queryId = UUID.randomUUID().toString();
+        return new ActivityListener(context, build(context, getConfig(context, props), queryId), queryId);
     }
 
     @Override
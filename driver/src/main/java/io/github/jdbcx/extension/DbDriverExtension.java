@@ -16,7 +16,6 @@
 package io.github.jdbcx.extension;
 
 import java.sql.Connection;
-import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
@@ -29,7 +28,8 @@ import io.github.jdbcx.DriverExtension;
 import io.github.jdbcx.JdbcActivityListener;
 import io.github.jdbcx.Option;
 import io.github.jdbcx.QueryContext;
-import io.github.jdbcx.Utils;
+import io.github.jdbcx.Result;
+import io.github.jdbcx.data.IterableColumns;
 import io.github.jdbcx.executor.jdbc.CombinedResultSet;
 import io.github.jdbcx.executor.jdbc.SqlExceptionUtils;
 import io.github.jdbcx.interpreter.JdbcInterpreter;
@@ -76,14 +76,11 @@ public class DbDriverExtension implements DriverExtension {
         for (int i = 0; i < len; i++) {
             String id = ids.get(i);
             try {
-                Properties newProps = new Properties(props);
+                final Properties newProps = new Properties(props);
                 newProps.putAll(manager.getConfig(category, id));
-                Connection conn = JdbcInterpreter.getConnectionByConfig(newProps, loader);
-                String catalog = Utils.getCatalogName(conn);
-                String schema = Utils.getSchemaName(conn);
-
-                DatabaseMetaData metaData = conn.getMetaData();
-                arr[i] = metaData.getTables(catalog, schema, tableNamePattern, types);
+                IterableColumns tables = JdbcInterpreter.getDatabaseTables(newProps, id, tableNamePattern, types,
+                        loader);
+                arr[i] = Result.of(tables).get(ResultSet.class);
             } catch (Exception e) {
                 w = SqlExceptionUtils.consolidate(w, e instanceof SQLWarning ? (SQLWarning) e : new SQLWarning(e));
             }
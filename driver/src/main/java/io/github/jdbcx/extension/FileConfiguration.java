@@ -66,32 +66,6 @@ final class FileConfiguration {
                 compressionBuffer);
     }
 
-    static FileConfiguration ofOutputFile(Properties props, FileConfiguration defaults) {
-        Properties params = new Properties(props);
-
-        final String name = Option.OUTPUT_FILE.getValue(params, defaults.name);
-        final boolean skipFileExistenceCheck = Boolean.parseBoolean(
-                Option.OUTPUT_FILE_OVERWRITABLE.getValue(params, String.valueOf(defaults.skipFileExistenceCheck)));
-
-        String value = Option.OUTPUT_FILE_FORMAT.getValue(params);
-        final Format format = value.isEmpty() ? defaults.format : Format.valueOf(value.toUpperCase(Locale.ROOT));
-
-        value = Option.OUTPUT_FILE_COMPRESS_ALGORITHM.getValue(params);
-        final Compression compressionAlg = value.isEmpty() ? defaults.compressionAlg
-                : Compression.valueOf(value.toUpperCase(Locale.ROOT));
-
-        value = Option.OUTPUT_FILE_COMPRESS_LEVEL.getValue(params);
-        final int compressionLevel = value.isEmpty() ? defaults.compressionLevel : Integer.parseInt(value);
-
-        value = Option.OUTPUT_FILE_COMPRESS_BUFFER.getValue(params);
-        final int compressionBuffer = value.isEmpty() ? defaults.compressionBuffer : Integer.parseInt(value);
-
-        params = new Properties(defaults.params);
-        params.putAll(Utils.toKeyValuePairs(Option.OUTPUT_FILE_COMPRESS_PARAMS.getValue(params)));
-        return new FileConfiguration(name, skipFileExistenceCheck, format, params, compressionAlg, compressionLevel,
-                compressionBuffer);
-    }
-
     final String name;
     final boolean skipFileExistenceCheck;
     final Format format;
@@ -64,6 +64,24 @@ public class MainTest {
         Assert.assertEquals(args.validationQuery, "select 2");
         Assert.assertEquals(args.validationTimeout, 3);
         Assert.assertTrue(args.verbose);
+        Assert.assertEquals(args.prefetch, 0);
+        Assert.assertEquals(new Main.Arguments(args, args.queries).prefetch, 0);
+    }
+
+    @Test(groups = { "unit" })
+    public void testPrefetch() {
+        try (Result<?> result = Result.of(Arrays.asList("a", "b", "c"))) {
+            Assert.assertSame(Main.prefetch(result, 0), result);
+            try (Result<?> r = Main.prefetch(result, 2)) {
+                Assert.assertNotSame(r, result);
+                Assert.assertEquals(r.fields(), result.fields());
+                List<String> list = new LinkedList<>();
+                for (Row row : r.rows()) {
+                    list.add(row.value(0).asString());
+                }
+                Assert.assertEquals(list, Arrays.asList("a", "b", "c"));
+            }
+        }
     }
 
     @Test(groups = { "unit" })
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.dialect;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.jdbcx.Format;
+
+public class DuckDBDialectTest {
+    @Test(groups = { "unit" })
+    public void testGetMimeTypes() {
+        final DuckDBDialect dialect = new DuckDBDialect();
+        Assert.assertEquals(dialect.getPreferredFormat(), Format.CSV);
+        Assert.assertEquals(dialect.getMimeTypes(null), "text/csv");
+        Assert.assertEquals(dialect.getMimeTypes(Format.CSV), "text/csv");
+        Assert.assertEquals(dialect.getMimeTypes(Format.PARQUET), "application/vnd.apache.parquet;text/csv");
+        Assert.assertEquals(dialect.getMimeTypes(Format.ARROW_STREAM), "text/csv");
+    }
+}
@@ -84,5 +84,9 @@ public class DuckDBMapperTest extends ResultMapperTest {
                 "read_csv_auto('123',header=true,columns={\"a\"\"b\":'BOOLEAN',\"c\":'DECIMAL(18,3) NOT NULL'})");
         Assert.assertEquals(mapper.toRemoteTable("", Format.TSV, Compression.GZIP, result),
                 "read_csv_auto('',delim='\\t',header=true,columns={\"a\"\"b\":'BOOLEAN',\"c\":'DECIMAL(18,3) NOT NULL'},compression='gzip')");
+        Assert.assertEquals(mapper.toRemoteTable("123.parquet", Format.PARQUET, Compression.NONE, result),
+                "read_parquet('123.parquet')");
+        Assert.assertEquals(mapper.toRemoteTable("123.parquet?codec=ZSTD", Format.PARQUET, Compression.ZSTD, result),
+                "read_parquet('123.parquet?codec=ZSTD')");
     }
 }
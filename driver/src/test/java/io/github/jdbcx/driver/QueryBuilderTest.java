@@ -16,13 +16,20 @@
 package io.github.jdbcx.driver;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import io.github.jdbcx.JdbcActivityListener;
 import io.github.jdbcx.QueryContext;
+import io.github.jdbcx.Result;
 import io.github.jdbcx.WrappedDriver;
 
 public class QueryBuilderTest {
@@ -66,4 +73,56 @@ public class QueryBuilderTest {
             }
         }
     }
+
+    @Test(groups = { "unit" })
+    public void testFetch() throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(3);
+        final JdbcActivityListener listener = new JdbcActivityListener() {
+            @Override
+            public Result<?> onQuery(String query) throws SQLException {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    latch.countDown();
+                    latch.await(5L, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                }
+                if ("bad".equals(query)) {
+                    throw new SQLException(query);
+                }
+                return Result.of(query);
+            }
+        };
+
+        List<QueryBuilder.BridgeRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            requests.add(new QueryBuilder.BridgeRequest(i, listener, i == 3 ? "bad" : "q" + i, "c" + i));
+        }
+        QueryBuilder.fetch(requests, 3);
+        Assert.assertEquals(peak.get(), 3);
+        for (QueryBuilder.BridgeRequest r : requests) {
+            if (r.index == 3) {
+                Assert.assertNull(r.result);
+                Assert.assertEquals(r.error.getMessage(), "bad");
+            } else {
+                Assert.assertNull(r.error);
+                Assert.assertEquals(r.result.get(String.class), "q" + r.index);
+            }
+        }
+
+        peak.set(0);
+        requests.clear();
+        for (int i = 0; i < 3; i++) {
+            requests.add(new QueryBuilder.BridgeRequest(i, listener, "q" + i, "c" + i));
+        }
+        QueryBuilder.fetch(requests, 0);
+        Assert.assertEquals(peak.get(), 1);
+        for (QueryBuilder.BridgeRequest r : requests) {
+            Assert.assertEquals(r.result.get(String.class), "q" + r.index);
+        }
+    }
 }
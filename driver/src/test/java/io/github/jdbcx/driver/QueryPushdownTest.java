@@ -0,0 +1,82 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.driver;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class QueryPushdownTest {
+    @Test(groups = { "unit" })
+    public void testTokenize() {
+        Assert.assertEquals(QueryPushdown.tokenize("").size(), 0);
+        Assert.assertEquals(QueryPushdown.tokenize("select a, 'b''c' from t where x<>-1.5").toString(),
+                "[select, a, ,, 'b''c', from, t, where, x, <>, -, 1.5]");
+        Assert.assertNull(QueryPushdown.tokenize("select 'a"));
+        Assert.assertNull(QueryPushdown.tokenize("select 1 -- comment"));
+        Assert.assertNull(QueryPushdown.tokenize("select /* comment */ 1"));
+    }
+
+    @Test(groups = { "unit" })
+    public void testGetProduct() {
+        Assert.assertEquals(QueryPushdown.getProduct(null), "");
+        Assert.assertEquals(QueryPushdown.getProduct("duckdb:"), "");
+        Assert.assertEquals(QueryPushdown.getProduct("jdbc:duckdb:"), "duckdb");
+        Assert.assertEquals(QueryPushdown.getProduct("jdbcx:DuckDB:/tmp/x.db"), "duckdb");
+        Assert.assertEquals(QueryPushdown.getProduct("jdbc:ch://localhost"), "ch");
+    }
+
+    @Test(groups = { "unit" })
+    public void testRewrite() {
+        final String inner = "select * from big;";
+        Assert.assertNull(QueryPushdown.rewrite(null, null, inner, true));
+        Assert.assertNull(QueryPushdown.rewrite("select ", "", inner, true));
+        Assert.assertNull(QueryPushdown.rewrite("select * from ", "", inner, true));
+        Assert.assertNull(QueryPushdown.rewrite("select * from ", " where c > 10 or d = 1", inner, true));
+        Assert.assertNull(QueryPushdown.rewrite("select a from ", " t join x on t.a = x.a", inner, true));
+        Assert.assertNull(QueryPushdown.rewrite("select a from ", ", x where c > 10", inner, true));
+        Assert.assertNull(QueryPushdown.rewrite("select a + 1 from ", " where c > d", inner, true));
+
+        Assert.assertEquals(QueryPushdown.rewrite("select a, b from ", " where c > 10", inner, true),
+                "select a, b, c from (select * from big) jdbcx_pushdown where c > 10");
+        Assert.assertEquals(
+                QueryPushdown.rewrite("SELECT t.a, b AS x FROM ", " AS t WHERE t.c >= -1 LIMIT 5;", inner, true),
+                "select a, b, c from (select * from big) jdbcx_pushdown where c >= - 1");
+        Assert.assertEquals(QueryPushdown.rewrite("select distinct a from ", " t", inner, true),
+                "select a from (select * from big) jdbcx_pushdown");
+        Assert.assertEquals(QueryPushdown.rewrite("select * from ",
+                " where s like 'a%' and n not in (1, 2) and d between 1 and 3 and x is not null and 5 < y", inner, true),
+                "select * from (select * from big) jdbcx_pushdown where s like 'a%' and n not in (1, 2) "
+                        + "and d between 1 and 3 and x is not null and 5 < y");
+        Assert.assertEquals(QueryPushdown.rewrite("select count(*) from ", " t where t.c = 'x' and lower(s) = 'y'",
+                inner, true), "select * from (select * from big) jdbcx_pushdown where c = 'x'");
+        Assert.assertEquals(QueryPushdown.rewrite("select a from ", " where c > 10 order by d", inner, true),
+                "select * from (select * from big) jdbcx_pushdown where c > 10");
+        Assert.assertEquals(QueryPushdown.rewrite("select a as c from ", " where c > 10", inner, true), null);
+        Assert.assertEquals(QueryPushdown.rewrite("select a, b from ", " x where y.c > 10", inner, true), null);
+
+        // keywords and functions are not columns
+        Assert.assertEquals(QueryPushdown.rewrite("select a from ", " where d = current_date", inner, true), null);
+        Assert.assertEquals(QueryPushdown.rewrite("select a, current_date from ", " where c > 1", inner, true),
+                "select * from (select * from big) jdbcx_pushdown where c > 1");
+        Assert.assertEquals(QueryPushdown.rewrite("select a, now() from ", " where c > 1", inner, true),
+                "select * from (select * from big) jdbcx_pushdown where c > 1");
+
+        // only projections for different dialects
+        Assert.assertEquals(QueryPushdown.rewrite("select a, b from ", " where c > 10", inner, false),
+                "select a, b, c from (select * from big) jdbcx_pushdown");
+        Assert.assertEquals(QueryPushdown.rewrite("select * from ", " where c > 10", inner, false), null);
+    }
+}
@@ -199,6 +199,66 @@ public class WrappedConnectionTest extends BaseIntegrationTest {
         }
     }
 
+    @Test(groups = { "unit" })
+    public void testConcurrentExplodedQueries() throws SQLException {
+        Properties props = new Properties();
+        WrappedDriver d = new WrappedDriver();
+
+        final String query = "select {{ script: [1,2,3] }} as a";
+        try (WrappedConnection conn = (WrappedConnection) d.connect("jdbcx:sqlite::memory:", props);
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(query)) {
+            Assert.assertEquals(conn.getManager().getFanout(), 0);
+            Assert.assertTrue(rs.next());
+            Assert.assertFalse(rs.getStatement() instanceof ExplodedQueries.BorrowedStatement);
+        }
+
+        props.setProperty("jdbcx.exec.fanout", "2");
+        try (WrappedConnection conn = (WrappedConnection) d.connect("jdbcx:sqlite::memory:", props);
+                Statement stmt = conn.createStatement()) {
+            Assert.assertEquals(conn.getManager().getFanout(), 2);
+            Assert.assertTrue(conn.getManager().isFanoutOrdered());
+            try (ResultSet rs = stmt.executeQuery(query)) {
+                for (int i = 1; i <= 3; i++) {
+                    Assert.assertTrue(rs.next());
+                    Assert.assertTrue(rs.getStatement() instanceof ExplodedQueries.BorrowedStatement);
+                    Assert.assertEquals(rs.getInt(1), i);
+                }
+                Assert.assertFalse(rs.next());
+            }
+
+            Assert.assertTrue(stmt.execute(query));
+            try (ResultSet rs = stmt.getResultSet()) {
+                int sum = 0;
+                while (rs.next()) {
+                    sum += rs.getInt(1);
+                }
+                Assert.assertEquals(sum, 6);
+            }
+
+            Assert.assertThrows(SQLException.class, () -> stmt.executeQuery("select {{ script: [1,2] }} from x"));
+            Assert.assertThrows(SQLException.class, () -> stmt.execute("select {{ script: [1,2] }} from x"));
+
+            conn.setAutoCommit(false);
+            try (ResultSet rs = stmt.executeQuery(query)) {
+                Assert.assertTrue(rs.next());
+                Assert.assertFalse(rs.getStatement() instanceof ExplodedQueries.BorrowedStatement);
+            }
+        }
+
+        props.setProperty("jdbcx.exec.fanout.ordered", "false");
+        try (WrappedConnection conn = (WrappedConnection) d.connect("jdbcx:sqlite::memory:", props);
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("select {{ script: [1,2,3,4] }} as a")) {
+            Assert.assertFalse(conn.getManager().isFanoutOrdered());
+            int sum = 0;
+            while (rs.next()) {
+                sum += rs.getInt(1);
+            }
+            Assert.assertEquals(sum, 10);
+        }
+    }
+
     @Test(groups = { "integration" })
     public void testBinaryResult() throws IOException, SQLException {
         Properties props = new Properties();
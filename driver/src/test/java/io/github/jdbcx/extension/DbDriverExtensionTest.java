@@ -36,6 +36,7 @@ import io.github.jdbcx.Format;
 import io.github.jdbcx.Stream;
 import io.github.jdbcx.Utils;
 import io.github.jdbcx.WrappedDriver;
+import io.github.jdbcx.interpreter.MetadataCache;
 
 public class DbDriverExtensionTest extends BaseIntegrationTest {
     @Test(groups = { "integration" })
@@ -91,6 +92,53 @@ public class DbDriverExtensionTest extends BaseIntegrationTest {
         }
     }
 
+    @Test(groups = { "unit" })
+    public void testGetCachedTables() throws IOException, SQLException {
+        final File dir = Files.createTempDirectory("jdbcx").toFile();
+        final File db = new File(dir, "test.db");
+        final File config = new File(dir, "db");
+        Assert.assertTrue(config.mkdir(), "Should have config directory created");
+        Files.write(new File(config, "my-file.properties").toPath(),
+                ("jdbcx.url=jdbc:sqlite:" + db.getAbsolutePath().replace('\\', '/')).getBytes());
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + db.getAbsolutePath());
+                Statement stmt = conn.createStatement()) {
+            stmt.execute("create table t1(a int)");
+        }
+
+        Properties props = new Properties();
+        props.setProperty("jdbcx.base.dir", dir.getAbsolutePath());
+        props.setProperty("jdbcx.db.metadata.cache.ttl", "60");
+        final String[] types = new String[] { "TABLE" };
+        WrappedDriver driver = new WrappedDriver();
+        try (Connection conn = driver.connect("jdbcx:", props)) {
+            DatabaseMetaData metaData = conn.getMetaData();
+            try (ResultSet rs = metaData.getTables("db", "my-file", "%", types)) {
+                Assert.assertTrue(rs.next(), "Should have one table");
+                Assert.assertEquals(rs.getString("TABLE_NAME"), "t1");
+                Assert.assertFalse(rs.next(), "Should have only one table");
+            }
+
+            try (Connection c = DriverManager.getConnection("jdbc:sqlite:" + db.getAbsolutePath());
+                    Statement stmt = c.createStatement()) {
+                stmt.execute("create table t2(b int)");
+            }
+            try (ResultSet rs = metaData.getTables("db", "my-file", "%", types)) {
+                Assert.assertTrue(rs.next(), "Should have one table");
+                Assert.assertEquals(rs.getString(3), "t1");
+                Assert.assertFalse(rs.next(), "Should still have one table in cache");
+            }
+
+            MetadataCache.getInstance().invalidate("my-file");
+            try (ResultSet rs = metaData.getTables("db", "my-file", "%", types)) {
+                Assert.assertTrue(rs.next(), "Should have two tables");
+                Assert.assertEquals(rs.getString(3), "t1");
+                Assert.assertTrue(rs.next(), "Should have two tables");
+                Assert.assertEquals(rs.getString(3), "t2");
+                Assert.assertFalse(rs.next(), "Should have only two tables");
+            }
+        }
+    }
+
     @Test(groups = { "integration" })
     public void testConnectToExtension() throws SQLException {
         Properties props = new Properties();
@@ -15,16 +15,23 @@
  */
 package io.github.jdbcx.server;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.net.HttpURLConnection;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.sql.Connection;
-import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLWarning;
@@ -33,6 +40,7 @@ import java.time.Duration;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
@@ -57,6 +65,7 @@ import io.github.jdbcx.Compression;
 import io.github.jdbcx.ConfigManager;
 import io.github.jdbcx.Constants;
 import io.github.jdbcx.DriverExtension;
+import io.github.jdbcx.Field;
 import io.github.jdbcx.Format;
 import io.github.jdbcx.Logger;
 import io.github.jdbcx.LoggerFactory;
@@ -65,12 +74,17 @@ import io.github.jdbcx.QueryContext;
 import io.github.jdbcx.QueryMode;
 import io.github.jdbcx.RequestParameter;
 import io.github.jdbcx.Result;
+import io.github.jdbcx.Row;
 import io.github.jdbcx.Stream;
 import io.github.jdbcx.Threads;
 import io.github.jdbcx.Utils;
 import io.github.jdbcx.ValueFactory;
+import io.github.jdbcx.VariableTag;
 import io.github.jdbcx.Version;
 import io.github.jdbcx.WrappedDriver;
+import io.github.jdbcx.data.IterableBuffer;
+import io.github.jdbcx.data.IterableColumns;
+import io.github.jdbcx.data.ReactiveRows;
 import io.github.jdbcx.driver.ConnectionManager;
 import io.github.jdbcx.driver.ManagedConnection;
 import io.github.jdbcx.driver.QueryParser;
@@ -79,7 +93,15 @@ import io.github.jdbcx.executor.JdbcExecutor;
 import io.github.jdbcx.executor.WebExecutor;
 import io.github.jdbcx.interpreter.JdbcInterpreter;
 import io.github.jdbcx.interpreter.JsonHelper;
+import io.github.jdbcx.interpreter.MetadataCache;
+import io.github.jdbcx.server.QueryMetrics.MeteredOutputStream;
+import io.github.jdbcx.server.QueryMetrics.MeteredRows;
 import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.jvm.ClassLoaderMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmThreadMetrics;
+import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
 import io.micrometer.core.instrument.binder.system.UptimeMetrics;
 import io.micrometer.prometheusmetrics.PrometheusConfig;
 import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
@@ -95,8 +117,12 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
     public static final String HEADER_AUTHORIZATION = WebExecutor.HEADER_AUTHORIZATION.toLowerCase(Locale.ROOT);
     public static final String HEADER_CONNECTION = "connection";
     public static final String HEADER_CONTENT_ENCODING = "content-encoding";
+    public static final String HEADER_CONTENT_RANGE = "content-range";
     public static final String HEADER_CONTENT_TYPE = "content-type";
+    public static final String HEADER_FAILED_QUERY = "x-jdbcx-failed-query";
     public static final String HEADER_LOCATION = "location";
+    public static final String HEADER_RANGE = "range";
+    public static final String HEADER_UPDATE_COUNTS = "x-jdbcx-update-counts";
 
     public static final String METHOD_HEAD = "HEAD";
 
@@ -113,9 +139,12 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
     public static final String PATH_LLMS_TXT = "llms.txt";
     public static final String PATH_METRICS = "metrics";
     public static final String PATH_REGISTER = "register";
+    public static final String PATH_ZSTD_DICT = "zstd/";
 
     public static final String CONNECTION_CLOSE = "close";
+    public static final String RANGE_BYTES = "bytes";
     public static final String RANGE_NONE = "none";
+    public static final int RANGE_NOT_SATISFIABLE = 416;
 
     public static final int MAX_DB_POOL_SIZE = 1024;
     public static final String THREAD_PREFIX = "JdbcxServer-";
@@ -123,8 +152,10 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
     public static final String OVERLOAD_MSG = "Server is overloaded, please retry in a few seconds. "
             + "Consider using async query mode and polling for results.";
 
+    public static final int DEFAULT_FLIGHT_ROWS = 1024;
     public static final long DEFAULT_USER_LIMIT = 100L;
     public static final long DEFAULT_REQUEST_LIMIT = 10000L;
+    public static final long DEFAULT_PREFETCH_MEMORY = 8L * 1024L * 1024L;
 
     public static final Option OPTION_DATASOURCE_CONFIG = Option.of("server.datasource.config",
             "Path to HikariCP configuration file, defaults to datasource.properties in current directory",
@@ -144,11 +175,157 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
     public static final Option OPTION_QUERY_PASSTHRU = Option.ofBool("server.passthru",
             "Whether to enable query configuration pass-through or not.", false);
 
+    public static final Option OPTION_FLIGHT_PORT = Option.ofInt("server.flight.port",
+            "Port of the Arrow Flight SQL endpoint, zero or negative number disables the endpoint.", 0);
+    public static final Option OPTION_FLIGHT_ROWS = Option.ofInt("server.flight.rows",
+            "Maximum rows per Arrow record batch sent over Flight SQL.", DEFAULT_FLIGHT_ROWS);
+
+    public static final Option OPTION_ASYNC_BUFFER = Option.ofLong("server.async.buffer",
+            "Maximum off-heap memory in bytes for buffering result of an async query, rows beyond that will be written "
+                    + "into a temporary file. Negative number disables buffering, so that the connection stays open "
+                    + "until the result is fetched.",
+            -1L);
+
+    public static final Option OPTION_FETCH_SIZE = Option.ofInt("server.fetch.size",
+            "Default number of rows to fetch from database in each round trip, zero or negative number means driver "
+                    + "default. Can be overridden by request parameter fetch.size.",
+            0);
+    public static final Option OPTION_STREAMING = Option.ofBool("server.streaming",
+            "Whether to stream rows through a forward-only and read-only cursor by default, which keeps memory usage "
+                    + "flat and sends the first row sooner, at the cost of holding the connection until the response "
+                    + "is written. Can be overridden by request parameter streaming.",
+            false);
+    public static final Option OPTION_PREFETCH = Option.ofInt("server.prefetch",
+            "Maximum number of row batches to read ahead on a separate thread, while the response is being serialized "
+                    + "and written. Each batch holds server.fetch.size rows, or 1000 when it's not set. Zero or "
+                    + "negative number disables read-ahead. Requires reactor-core in classpath.",
+            0);
+
+    public static final Option OPTION_BATCH_SIZE = Option.ofInt("server.batch.size",
+            "Maximum number of consecutive DML statements in a batch request to submit through one executeBatch call, "
+                    + "in one transaction when possible. A failed run is rolled back and replayed one by one to "
+                    + "locate the failed statement. Update counts and position of the failed statement are returned "
+                    + "in x-jdbcx-update-counts and x-jdbcx-failed-query response headers. Zero or one executes "
+                    + "statements one by one.",
+            1000);
+
+    public static final Option OPTION_ADMISSION_WAIT = Option.ofLong("server.admission.wait",
+            "Maximum milliseconds a query waits for admission when the server is busy, before being rejected with "
+                    + "429. Zero or negative number rejects right away.",
+            1000L);
+    public static final Option OPTION_ADMISSION_QUEUE = Option.ofInt("server.admission.queue",
+            "Maximum number of queries waiting for admission, zero or negative number means four times of "
+                    + "server.threads.",
+            0);
+    public static final Option OPTION_ADMISSION_TOLERANCE = Option.of("server.admission.tolerance",
+            "Ratio of recent query latency to long-term average, beyond which the concurrency limit will be lowered "
+                    + "in AIMD style. Zero or negative number disables adaptive limit.",
+            "2.0");
+    public static final Option OPTION_TENANT_LIMIT = Option.ofInt("server.tenant.limit",
+            "Maximum concurrent queries per tenant, or per user when tenant is not specified. Zero or negative number "
+                    + "means no limit other than server.threads.",
+            0);
+
+    public static final Option OPTION_METRICS_TENANT = Option.ofBool("server.metrics.tenant",
+            "Whether to tag query metrics by tenant. Beware that each tenant adds a new set of time series.",
+            false);
+
+    public static final Option OPTION_VIRTUAL_THREADS = Option.ofBool("server.virtual.threads",
+            "Whether to handle each request in a new virtual thread instead of a bounded thread pool, while "
+                    + "server.threads still limits concurrent queries. It lowers memory footprint and context switches "
+                    + "when most requests wait on slow data sources. Requires JDK 21+, ignored otherwise.",
+            false);
+
+    public static final Option OPTION_ZSTD_DICT = Option.ofBool("server.zstd.dict",
+            "Whether to train zstd dictionaries from sampled responses, and compress responses with them for clients "
+                    + "having the same dictionaries. Off by default, as a dictionary holds fragments of the responses "
+                    + "it was trained from, and it's only shared within the same datasource, token, user and tenant. "
+                    + "Requires zstd-jni in classpath.",
+            false);
+    public static final Option OPTION_ZSTD_DICT_DIR = Option.of("server.zstd.dict.dir",
+            "Directory for keeping trained zstd dictionaries, empty means memory only",
+            Constants.CONF_DIR + File.separatorChar + "zstd");
+    public static final Option OPTION_ZSTD_DICT_SCOPE = Option.of("server.zstd.dict.scope",
+            "Scope of zstd dictionary, either one per format of the datasource, or one per query template, both "
+                    + "separated by token, user and tenant",
+            ZstdDictionaries.SCOPE_DATASOURCE, ZstdDictionaries.SCOPE_TEMPLATE);
+    public static final Option OPTION_ZSTD_DICT_SAMPLERS = Option.ofInt("server.zstd.dict.samplers",
+            "Maximum number of keys sampling responses at the same time, each may hold up to "
+                    + "server.zstd.dict.samples * server.zstd.dict.sample.size bytes",
+            20);
+    public static final Option OPTION_ZSTD_DICT_SAMPLES = Option.ofInt("server.zstd.dict.samples",
+            "Number of sampled responses needed for training a zstd dictionary", 100);
+    public static final Option OPTION_ZSTD_DICT_SAMPLE_SIZE = Option.ofInt("server.zstd.dict.sample.size",
+            "Maximum number of leading bytes sampled from each response", 16384);
+    public static final Option OPTION_ZSTD_DICT_SIZE = Option.ofInt("server.zstd.dict.size",
+            "Maximum size of zstd dictionary in bytes", 32768);
+
     public static final Option OPTION_BACKLOG = Option.of("server.backlog", "Server backlog", "0");
     public static final Option OPTION_THREADS = Option.of("server.threads",
             "Maximum size of the thread pool, also applied to HikariCP max pool size.",
             String.valueOf(Math.max(Threads.DEFAULT_POOL_SIZE, Constants.MIN_CORE_THREADS * 2)));
 
+    static final String decodeToken(String token) {
+        if (!Checker.isNullOrEmpty(token)) {
+            try {
+                token = new String(Base64.getDecoder().decode(token), Constants.DEFAULT_CHARSET);
+            } catch (Exception e) {
+                // ignore the error for security reason
+            }
+        }
+        return token;
+    }
+
+    /**
+     * Parses a single byte range from the {@code Range} header. Multiple ranges
+     * and malformed values are ignored, so the whole content will be sent
+     * instead.
+     *
+     * @param range  value of the {@code Range} header, could be null
+     * @param length content length in bytes
+     * @return {@code null} when the header should be ignored, an empty array when
+     *         the range cannot be satisfied, or inclusive start and end positions
+     */
+    protected static final long[] parseRange(String range, long length) {
+        final String prefix = RANGE_BYTES + "=";
+        if (Checker.isNullOrBlank(range) || !(range = range.trim()).startsWith(prefix) || range.indexOf(',') != -1) {
+            return null; // NOSONAR
+        }
+
+        final int index = range.indexOf('-', prefix.length());
+        if (index == -1) {
+            return null; // NOSONAR
+        }
+        final String first = range.substring(prefix.length(), index).trim();
+        final String last = range.substring(index + 1).trim();
+        long start;
+        long end;
+        try {
+            if (first.isEmpty()) { // suffix range: last N bytes
+                final long suffix = Long.parseLong(last);
+                if (suffix < 0L) {
+                    return null; // NOSONAR
+                } else if (suffix == 0L || length == 0L) {
+                    return new long[0];
+                }
+                start = Math.max(0L, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+                if (start < 0L || end < start) {
+                    return null; // NOSONAR
+                } else if (start >= length) {
+                    return new long[0];
+                }
+                end = Math.min(end, length - 1);
+            }
+        } catch (NumberFormatException e) {
+            return null; // NOSONAR
+        }
+        return new long[] { start, end };
+    }
+
     protected static final Properties extractConfig(Map<String, String> headers, Map<String, String> params,
             boolean queryPassThru) {
         Properties config = new Properties();
@@ -177,6 +354,8 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
     }
 
     private final PrometheusMeterRegistry promRegistry;
+    private final JvmGcMetrics gcMetrics;
+    private final QueryMetrics queryMetrics;
 
     private final Cache<String, ServerAcl> acls;
     private final Cache<String, String> errors;
@@ -194,8 +373,28 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
     protected final int backlog;
     protected final int threads;
 
+    protected final int flightPort;
+    protected final int flightBatchSize;
+    protected final long asyncBufferSize;
+    protected final int fetchSize;
+    protected final boolean streaming;
+    protected final int prefetch;
+    protected final int batchSize;
+    protected final Properties metadataConfig;
+    private AutoCloseable flightServer;
+    private final ZstdDictionaries zstdDicts;
+
+    protected final boolean virtualThreads;
     protected final ExecutorService fastPool;
+    /**
+     * Semaphore sized to the number of worker threads.
+     *
+     * @deprecated admission is controlled by {@link QueryLimiter} now, this is
+     *             only kept for subclasses and not used by the server
+     */
+    @Deprecated
     protected final Semaphore querySemaphore;
+    final QueryLimiter queryLimiter;
 
     protected final String tag;
 
@@ -248,20 +447,46 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
         promRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
         promRegistry.config().commonTags("instance", baseUrl);
         new UptimeMetrics().bindTo(promRegistry);
-
+        new ProcessorMetrics().bindTo(promRegistry);
+        new ClassLoaderMetrics().bindTo(promRegistry);
+        new JvmMemoryMetrics().bindTo(promRegistry);
+        new JvmThreadMetrics().bindTo(promRegistry);
+        gcMetrics = new JvmGcMetrics();
+        gcMetrics.bindTo(promRegistry);
+        queryMetrics = new QueryMetrics(promRegistry,
+                Boolean.parseBoolean(OPTION_METRICS_TENANT.getJdbcxValue(props)));
+
+        if (Boolean.parseBoolean(OPTION_VIRTUAL_THREADS.getJdbcxValue(props)) && !Threads.hasVirtualThreads()) {
+            log.warn("Virtual thread is not supported in current JVM, fall back to platform threads");
+            virtualThreads = false;
+        } else {
+            virtualThreads = Boolean.parseBoolean(OPTION_VIRTUAL_THREADS.getJdbcxValue(props));
+        }
         int confThreads = Integer.parseInt(OPTION_THREADS.getJdbcxValue(props));
         if (confThreads > 0) {
             threads = Math.max(Constants.MIN_CORE_THREADS, confThreads);
-            int maxSize = threads * 2;
-            int queueSize = threads * 4;
-            fastPool = Threads.newPool(THREAD_PREFIX, threads, maxSize, queueSize, Duration.ofSeconds(60L).toMillis(),
-                    true, new ThreadPoolExecutor.CallerRunsPolicy());
+            if (virtualThreads) {
+                fastPool = Threads.newVirtualPool(THREAD_PREFIX);
+                log.debug("Pools: fast[virtual]");
+            } else {
+                int maxSize = threads * 2;
+                int queueSize = threads * 4;
+                fastPool = Threads.newPool(THREAD_PREFIX, threads, maxSize, queueSize,
+                        Duration.ofSeconds(60L).toMillis(), true, new ThreadPoolExecutor.CallerRunsPolicy());
+                log.debug("Pools: fast[core=%d,max=%d,queue=%d]", threads, maxSize, queueSize);
+            }
+            final int queueSize = Integer.parseInt(OPTION_ADMISSION_QUEUE.getJdbcxValue(props));
+            queryLimiter = new QueryLimiter(Math.max(Constants.MIN_CORE_THREADS, threads / 4), threads,
+                    Integer.parseInt(OPTION_TENANT_LIMIT.getJdbcxValue(props)),
+                    queueSize > 0 ? queueSize : threads * 4,
+                    Long.parseLong(OPTION_ADMISSION_WAIT.getJdbcxValue(props)),
+                    Double.parseDouble(OPTION_ADMISSION_TOLERANCE.getJdbcxValue(props)));
+            log.debug("Query limiter: %s", queryLimiter);
             querySemaphore = new Semaphore(threads);
-            log.debug("Pools: fast[core=%d,max=%d,queue=%d], querySemaphore=%d",
-                    threads, maxSize, queueSize, threads);
         } else {
             threads = 0;
-            fastPool = null;
+            fastPool = virtualThreads ? Threads.newVirtualPool(THREAD_PREFIX) : null;
+            queryLimiter = null;
             querySemaphore = null;
         }
 
@@ -336,6 +561,33 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
         CaffeineCacheMetrics.monitor(promRegistry, queries, "query");
 
         backlog = Integer.parseInt(OPTION_BACKLOG.getJdbcxValue(props));
+        flightPort = Integer.parseInt(OPTION_FLIGHT_PORT.getJdbcxValue(props));
+        flightBatchSize = Integer.parseInt(OPTION_FLIGHT_ROWS.getJdbcxValue(props));
+        asyncBufferSize = Long.parseLong(OPTION_ASYNC_BUFFER.getJdbcxValue(props));
+        fetchSize = Integer.parseInt(OPTION_FETCH_SIZE.getJdbcxValue(props));
+        streaming = Boolean.parseBoolean(OPTION_STREAMING.getJdbcxValue(props));
+        prefetch = Integer.parseInt(OPTION_PREFETCH.getJdbcxValue(props));
+        batchSize = Integer.parseInt(OPTION_BATCH_SIZE.getJdbcxValue(props));
+        metadataConfig = new Properties();
+        for (Option o : new Option[] { MetadataCache.OPTION_TTL, MetadataCache.OPTION_REFRESH }) {
+            o.setJdbcxValue(metadataConfig, o.getJdbcxValue(props));
+        }
+
+        ZstdDictionaries dicts = null;
+        if (Boolean.parseBoolean(OPTION_ZSTD_DICT.getJdbcxValue(props))) {
+            try {
+                dicts = new ZstdDictionaries(OPTION_ZSTD_DICT_DIR.getJdbcxValue(props),
+                        datasource.getJdbcUrl() + '@' + datasource.getUsername(),
+                        OPTION_ZSTD_DICT_SCOPE.getJdbcxValue(props),
+                        Integer.parseInt(OPTION_ZSTD_DICT_SAMPLERS.getJdbcxValue(props)),
+                        Integer.parseInt(OPTION_ZSTD_DICT_SAMPLES.getJdbcxValue(props)),
+                        Integer.parseInt(OPTION_ZSTD_DICT_SAMPLE_SIZE.getJdbcxValue(props)),
+                        Integer.parseInt(OPTION_ZSTD_DICT_SIZE.getJdbcxValue(props)));
+            } catch (NoClassDefFoundError e) {
+                log.warn("Zstd dictionary is disabled, please add zstd-jni to classpath and try again");
+            }
+        }
+        zstdDicts = dicts;
 
         tag = Option.TAG.getJdbcxValue(props);
 
@@ -366,19 +618,25 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
             log.debug("Loaded query from cache: %s", info);
             request = new Request(method, mode, info, ConnectionManager.findDialect(info.client), implementation);
         } else {
-            if (!Checker.isNullOrEmpty(token)) {
-                try {
-                    token = new String(Base64.getDecoder().decode(token), Constants.DEFAULT_CHARSET);
-                } catch (Exception e) {
-                    // ignore the error for security reason
-                }
-            }
-            request = new Request(method, mode, rawParams, qid, query, txid, format, compress, token, user, client,
+            request = new Request(method, mode, rawParams, qid, query, txid, format, compress, decodeToken(token),
+                    user, client,
                     tenant, ConnectionManager.findDialect(client), implementation);
         }
         return request;
     }
 
+    final void register(QueryInfo info) {
+        queries.put(info.qid, info);
+    }
+
+    final QueryInfo getQuery(String qid) {
+        return queries.getIfPresent(qid);
+    }
+
+    final void invalidate(String qid) {
+        queries.invalidate(qid);
+    }
+
     protected final Properties getConfig() {
         Properties props = new Properties();
         props.putAll(essentials);
@@ -426,6 +684,19 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
         }
     }
 
+    /**
+     * Gets configuration of the given datasource, falling back to server-wide
+     * {@link MetadataCache} options.
+     *
+     * @param props non-null datasource configuration
+     * @return non-null configuration for inspecting the datasource
+     */
+    protected final Properties getMetadataConfig(Properties props) {
+        Properties config = new Properties(metadataConfig);
+        config.putAll(props);
+        return config;
+    }
+
     protected final void writeDataSourceConfig(Writer writer, String extension, String name) throws IOException {
         writer.write('{');
         try (Connection conn = datasource.getConnection()) {
@@ -455,17 +726,9 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
             }
 
             if (DB_EXTENSIONS.contains(extension)) {
-                try (Connection c = JdbcInterpreter.getConnectionByConfig(props, null)) {
-                    final DatabaseMetaData metaData = c.getMetaData();
-                    // database product
-                    appendJsonIfNotEmpty(writer, JdbcInterpreter.getDatabaseProduct(metaData), false);
-                    // current catalog & schema
-                    appendJsonIfNotEmpty(writer, JdbcInterpreter.getCurrentDatabaseCatalogAndSchema(c, metaData),
-                            false);
-                    // databases
-                    appendJsonIfNotEmpty(writer, JdbcInterpreter.getDatabaseCatalogs(metaData, name,
-                            JdbcInterpreter.DEFAULT_TABLE_PATTERN, JdbcInterpreter.DEFAULT_TABLE_TYPES), false);
-                }
+                // database product, current catalog & schema, and databases
+                appendJsonIfNotEmpty(writer,
+                        JdbcInterpreter.getDatabaseSummary(getMetadataConfig(props), name, null), false);
             }
         } catch (Exception e) {
             log.warn("Failed to inspect datasource [%s].[%s]", extension, name, e);
@@ -487,13 +750,8 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
             ConfigManager manager = managedConn.getManager().getConfigManager();
             Properties props = manager.getConfig(extension, name);
             if (DB_EXTENSIONS.contains(extension)) {
-                try (Connection c = JdbcInterpreter.getConnectionByConfig(props, null)) {
-                    String json = JdbcInterpreter.getDatabaseTable(c, detail);
-                    if (!Checker.isNullOrEmpty(json)) {
-                        writer.write(',');
-                        writer.write(json);
-                    }
-                }
+                appendJsonIfNotEmpty(writer,
+                        JdbcInterpreter.getDatabaseTable(getMetadataConfig(props), name, detail, null), false);
             } else {
                 String value = props.getProperty(detail);
                 if (!Checker.isNullOrEmpty(value)) {
@@ -515,43 +773,36 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
         final int len = list.size();
         log.debug("Executing batch query [%s] (%d queries)...", info.qid, len);
 
+        final long startTime = System.nanoTime();
         int responesCode = HttpURLConnection.HTTP_OK;
         boolean success = false;
-        int i = 1;
-        String name = null;
+        final QueryBatch batch = new QueryBatch(list,
+                Checker.isNullOrEmpty(tag) ? VariableTag.BRACE : VariableTag.valueOf(tag), batchSize);
         try (Connection conn = datasource.getConnection(); Statement stmt = conn.createStatement()) {
             if (request.hasTenantId()) {
                 QueryContext.getCurrentContext().put(QueryContext.KEY_TENANT, request.getTenant());
             }
 
-            Result<?> lastResult = null;
-            for (String[] q : list) {
-                name = q[0];
-                log.debug("Executing batch query [%s] %d/%d [%s]...", info.qid, i, len, name);
-                // don't use executeBatch as we need mixed queries
-                boolean isResultSet = stmt.execute(q[1]); // NOSONAR
-                final SQLWarning warning = stmt.getWarnings();
-                if (warning != null) {
-                    log.warn("SQLWarning from [%s]", stmt, warning);
-                }
-                if (i < len) {
-                    if (isResultSet) {
-                        stmt.getResultSet().close();
-                    }
-                } else {
-                    lastResult = isResultSet ? Result.of(stmt.getResultSet())
-                            : Result.of(JdbcExecutor.getUpdateCount(stmt));
-                }
-                i++;
+            final long executeTime = System.nanoTime();
+            final Result<?> lastResult;
+            try {
+                lastResult = batch.execute(info.qid, conn, stmt);
+            } finally {
+                // sent along with the result, or the error
+                request.setBatchOutcome(batch.getUpdateCounts(), batch.getFailedIndex());
+                setResponseHeaders(request);
             }
+            queryMetrics.record(request, QueryMetrics.PHASE_EXECUTE, System.nanoTime() - executeTime);
+            request.stopLatency();
+            log.debug("Update counts of batch query [%s]: %s", info.qid, batch);
 
-            try (Result<?> result = lastResult;
-                    OutputStream out = request.getCompression().provider().compress(prepareResponse(request))) {
+            try (Result<?> result = lastResult) {
+                final OutputStream out = prepareResponse(request);
                 success = true;
-                Result.writeTo(result, info.format, config, out);
+                writeResult(request, result, config, out, startTime);
             }
         } catch (SQLException e) {
-            log.error("Failed to execute batch query [%s] %d/%d [%s].", info.qid, i, len, name, e);
+            log.error("Failed to execute batch query [%s] (%d queries)", info.qid, len, e);
             throw new IOException(e);
         } finally {
             if (!success) {
@@ -562,28 +813,125 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
         return responesCode;
     }
 
+    protected final Statement createStatement(Connection conn, Properties config) throws SQLException {
+        final String size = config.getProperty(JdbcExecutor.OPTION_FETCH_SIZE.getName());
+        final String stream = config.getProperty(JdbcExecutor.OPTION_STREAMING.getName());
+        return JdbcExecutor.createStatement(conn, size != null ? Integer.parseInt(size) : fetchSize,
+                stream != null ? Boolean.parseBoolean(stream) : streaming);
+    }
+
+    protected final long getUpdateCount(Connection conn, Statement stmt) throws SQLException {
+        final long count = JdbcExecutor.getUpdateCount(stmt);
+        // auto-commit might be turned off for streaming
+        if (datasource.isAutoCommit() && !conn.getAutoCommit()) {
+            conn.commit();
+        }
+        return count;
+    }
+
+    /**
+     * Writes the result into response, and records time spent in fetching,
+     * serialization, compression and writing, along with number of rows and
+     * bytes.
+     *
+     * @param request   non-null request
+     * @param result    non-null result
+     * @param config    optional configuration for serialization
+     * @param wire      non-null response output stream
+     * @param startTime start time of the query in nanoseconds
+     * @throws IOException when failed to write the result
+     */
+    protected final void writeResult(Request request, Result<?> result, Properties config, OutputStream wire,
+            long startTime) throws IOException {
+        final MeteredOutputStream metered = new MeteredOutputStream(wire);
+        final long writeTime = System.nanoTime();
+        final MeteredOutputStream plain;
+        if (request.hasCompression()) {
+            plain = new MeteredOutputStream(compress(request, metered));
+        } else {
+            plain = metered;
+        }
+        final Result<?> rows = prefetch(result);
+        // columns are serialized as is, no rows to fetch
+        final MeteredRows fetched = result.type() == ResultSet.class ? new MeteredRows(rows.rows()) : null;
+        try (OutputStream out = sample(request, plain)) {
+            Result.writeTo(fetched != null ? Result.of(rows.fields(), fetched, (f, r) -> r) : rows,
+                    request.getFormat(), config, out);
+        } finally {
+            if (rows != result) {
+                rows.close();
+            }
+        }
+        queryMetrics.record(request, result, startTime, System.nanoTime() - writeTime, fetched, plain, metered);
+    }
+
+    /**
+     * Compresses data into the given output stream, using the zstd dictionary
+     * negotiated for the request if there's one.
+     *
+     * @param request non-null request
+     * @param out     non-null output stream
+     * @return non-null output stream for writing uncompressed data
+     * @throws IOException when failed to create the output stream
+     */
+    protected final OutputStream compress(Request request, OutputStream out) throws IOException {
+        final long dictId = request.getZstdDictionaryId();
+        return dictId != 0L ? zstdDicts.compress(out, dictId) : request.getCompression().provider().compress(out);
+    }
+
+    private OutputStream sample(Request request, OutputStream out) {
+        return zstdDicts != null ? zstdDicts.sample(request, out) : out;
+    }
+
+    /**
+     * Wraps the given result to read rows ahead of serialization, when
+     * {@link #OPTION_PREFETCH} is enabled and the result is backed by a
+     * {@link ResultSet}.
+     *
+     * @param result non-null result
+     * @return non-null result, which could be the given one
+     */
+    protected final Result<?> prefetch(Result<?> result) { // NOSONAR
+        if (prefetch <= 0 || result.type() != ResultSet.class) {
+            return result;
+        }
+
+        try {
+            return ReactiveRows.prefetch(result, fetchSize > 0 ? fetchSize : JdbcExecutor.DEFAULT_STREAMING_FETCH_SIZE,
+                    prefetch, asyncBufferSize > 0L ? asyncBufferSize : DEFAULT_PREFETCH_MEMORY);
+        } catch (NoClassDefFoundError e) {
+            log.debug("Skip read-ahead as reactor-core is not available");
+            return result;
+        }
+    }
+
     protected int query(Request request, Properties config) throws IOException {
+        final long startTime = System.nanoTime();
         final QueryInfo info = request.getQueryInfo();
         log.debug("Executing query [%s]...", info.qid);
         int responseCode = HttpURLConnection.HTTP_OK;
         String errorMessage = "Unknown error";
         boolean responded = false;
-        try (Connection conn = datasource.getConnection(); Statement stmt = conn.createStatement();) {
+        try (Connection conn = datasource.getConnection(); Statement stmt = createStatement(conn, config);) {
             if (request.hasTenantId()) {
                 QueryContext.getCurrentContext().put(QueryContext.KEY_TENANT, request.getTenant());
             }
             // request.isMutation()
-            try (Result<?> result = stmt.execute(info.query) ? Result.of(stmt.getResultSet())
-                    : Result.of(JdbcExecutor.getUpdateCount(stmt))) {
-                try (OutputStream out = request.getCompression().provider().compress(prepareResponse(request))) {
-                    errorMessage = null; // query was a success and we got the response output stream without any issue
-                    final SQLWarning warning = stmt.getWarnings();
-                    if (warning != null) {
-                        log.warn("SQLWarning from [%s]", stmt, warning);
-                    }
-                    responded = true;
-                    Result.writeTo(result, info.format, config, out);
+            final long executeTime = System.nanoTime();
+            final boolean hasResultSet = stmt.execute(info.query);
+            queryMetrics.record(request, QueryMetrics.PHASE_EXECUTE, System.nanoTime() - executeTime);
+            // rows are fetched while writing the response, so only execution counts
+            request.stopLatency();
+            try (Result<?> result = hasResultSet ? Result.of(stmt.getResultSet())
+                    : Result.of(getUpdateCount(conn, stmt))) {
+                final OutputStream out = prepareResponse(request);
+                errorMessage = null; // query was a success and we got the response output stream without any issue
+                final SQLWarning warning = stmt.getWarnings();
+                if (warning != null) {
+                    log.warn("SQLWarning from [%s]", stmt, warning);
                 }
+                responded = true;
+                writeResult(request, result, config, out, startTime);
             }
             // in case the query took too long
             queries.put(info.qid, info);
@@ -605,6 +953,67 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
         return responseCode;
     }
 
+    /**
+     * Reads all rows from the given result set into memory, and a temporary file
+     * when there's too many. Results in Arrow format are read into columns when
+     * they fit in {@link #asyncBufferSize}, so that they can be serialized
+     * column by column. Result set with columns not supported by
+     * {@link IterableBuffer} is returned as is.
+     *
+     * @param info non-null query
+     * @param rs   non-null result set
+     * @return non-null result
+     * @throws IOException  when failed to write into temporary file
+     * @throws SQLException when failed to read from the result set
+     */
+    protected final Result<?> buffer(QueryInfo info, ResultSet rs) throws IOException, SQLException {
+        final Result<?> r = Result.of(rs);
+        final List<Field> fields = r.fields();
+        if (!IterableBuffer.isSupported(fields)) {
+            log.debug("Skip buffering async query [%s] as it has unsupported columns", info.qid);
+            return r;
+        }
+
+        Iterable<Row> rows = r.rows();
+        if (info.format == Format.ARROW || info.format == Format.ARROW_STREAM) {
+            final long rowSize = IterableColumns.getRowSize(fields);
+            final long maxRows = rowSize > 0L ? Math.min(asyncBufferSize / rowSize, Integer.MAX_VALUE - 8L) : 0L;
+            if (maxRows > 0L) {
+                final IterableColumns columns = IterableColumns.of(rs, fields, (int) maxRows);
+                if (columns.size() < maxRows) {
+                    log.debug("Buffered %,d rows of async query [%s] in columns", columns.size(), info.qid);
+                    return Result.of(columns);
+                }
+                // too many rows, start over with rows read so far
+                final Iterable<Row> remaining = rows;
+                rows = () -> new Iterator<Row>() {
+                    private Iterator<Row> current = columns.iterator();
+                    private boolean first = true;
+
+                    @Override
+                    public boolean hasNext() {
+                        if (first && !current.hasNext()) {
+                            current = remaining.iterator();
+                            first = false;
+                        }
+                        return current.hasNext();
+                    }
+
+                    @Override
+                    public Row next() {
+                        // hasNext() of a result set moves the cursor, so it must not be called again
+                        return current.next();
+                    }
+                };
+            }
+        }
+
+        final IterableBuffer buffer = IterableBuffer.of(fields, rows, asyncBufferSize);
+        log.debug("Buffered %,d rows of async query [%s] (memory=%,d, file=%,d)", buffer.size(), info.qid,
+                buffer.getMemorySize(), buffer.getFileSize());
+        return Result.of(buffer);
+    }
+
     protected int queryAsync(Request request, Properties config) throws IOException { // NOSONAR
         final QueryInfo info = request.getQueryInfo();
         log.debug("Executing async query [%s]...", info.qid);
@@ -614,20 +1023,35 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
         ResultSet rs = null;
         try {
             conn = datasource.getConnection();
-            stmt = conn.createStatement();
+            stmt = createStatement(conn, config);
 
             if (request.hasTenantId()) {
                 QueryContext.getCurrentContext().put(QueryContext.KEY_TENANT, request.getTenant());
             }
 
             final Result<?> result;
-            if (stmt.execute(info.query)) {
+            final long executeTime = System.nanoTime();
+            final boolean hasResultSet = stmt.execute(info.query);
+            queryMetrics.record(request, QueryMetrics.PHASE_EXECUTE, System.nanoTime() - executeTime);
+            if (hasResultSet) {
                 rs = stmt.getResultSet();
-                result = Result.of(rs);
+                if (asyncBufferSize < 0L) {
+                    result = Result.of(rs);
+                } else {
+                    // read everything now so that the connection goes back to the pool right away
+                    final long fetchTime = System.nanoTime();
+                    result = buffer(info, rs);
+                    queryMetrics.record(request, QueryMetrics.PHASE_FETCH, System.nanoTime() - fetchTime);
+                }
             } else {
-                result = Result.of(JdbcExecutor.getUpdateCount(stmt));
+                result = Result.of(getUpdateCount(conn, stmt));
+            }
+            request.stopLatency();
+            if (result.type() == IterableBuffer.class || result.type() == IterableColumns.class) {
+                Utils.closeQuietly(rs, stmt, conn);
+            } else {
+                info.setResources(rs, stmt, conn);
             }
-            info.setResources(rs, stmt, conn);
             rs = null;
             stmt = null;
             conn = null;
@@ -670,6 +1094,25 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
      */
     protected abstract OutputStream prepareResponse(Request request) throws IOException;
 
+    /**
+     * Sets response code, content length along with additional headers, and gets
+     * raw response output stream for writing. The default implementation ignores
+     * content length and delegates to
+     * {@link #getResponseStream(Object, int, String...)}.
+     *
+     * @param request       non-null request object
+     * @param responseCode  response code
+     * @param contentLength content length in bytes, zero means no content
+     * @param headers       optional pairs of header name and value
+     * @return raw response output stream
+     * @throws IOException when failed to get response output stream
+     */
+    protected OutputStream prepareResponse(Request request, int responseCode, long contentLength,
+            String... headers) throws IOException {
+        // content length is unknown to getResponseStream, so the response will be chunked
+        return getResponseStream(request.getImplementation(Object.class), responseCode, headers);
+    }
+
     protected abstract int redirect(Request request) throws IOException;
 
     protected abstract int respond(Request request, int code, String message) throws IOException;
@@ -678,6 +1121,15 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
         return respond(request, code, null);
     }
 
+    protected final boolean checkAcl(Request request, InetAddress address) {
+        final long startTime = System.nanoTime();
+        try {
+            return checkAcl(request.getQueryInfo().token, address);
+        } finally {
+            queryMetrics.record(request, QueryMetrics.PHASE_ACL, System.nanoTime() - startTime);
+        }
+    }
+
     protected final boolean checkAcl(String token, InetAddress address) {
         if (!auth) {
             return true;
@@ -862,8 +1314,88 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
         return responseCode;
     }
 
-    protected final int respondQuery(Properties config, Request request)
-            throws IOException {
+    /**
+     * Sends materialized result in whole or by byte range. The file is kept until
+     * the query expires, so clients can resume or split large downloads.
+     *
+     * @param request non-null request object
+     * @param file    non-null file containing the serialized result
+     * @param range   value of the {@code Range} header, could be null
+     * @return response code
+     * @throws IOException when failed to send the file
+     */
+    protected final int respondFile(Request request, Path file, String range) throws IOException {
+        final long length = Files.size(file);
+        final long[] r = parseRange(range, length);
+        if (r != null && r.length == 0) {
+            setResponse(request.getImplementation(Object.class), RANGE_NOT_SATISFIABLE, null, HEADER_CONTENT_RANGE,
+                    RANGE_BYTES + " */" + length);
+            return RANGE_NOT_SATISFIABLE;
+        }
+
+        final int responseCode;
+        final long position;
+        final long count;
+        final OutputStream out;
+        if (r == null) {
+            responseCode = HttpURLConnection.HTTP_OK;
+            position = 0L;
+            count = length;
+            out = prepareResponse(request, responseCode, count, HEADER_ACCEPT_RANGES, RANGE_BYTES);
+        } else {
+            responseCode = HttpURLConnection.HTTP_PARTIAL;
+            position = r[0];
+            count = r[1] - r[0] + 1L;
+            out = prepareResponse(request, responseCode, count, HEADER_ACCEPT_RANGES, RANGE_BYTES,
+                    HEADER_CONTENT_RANGE, Utils.format("%s %d-%d/%d", RANGE_BYTES, r[0], r[1], length));
+        }
+        final MeteredOutputStream metered = new MeteredOutputStream(out);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                WritableByteChannel target = Channels.newChannel(metered)) {
+            long offset = position;
+            final long end = position + count;
+            while (offset < end) {
+                offset += channel.transferTo(offset, end - offset, target);
+            }
+        }
+        queryMetrics.record(request, metered);
+        log.debug("Sent %,d of %,d bytes of query [%s] starting from %,d", count, length, request.getQueryId(),
+                position);
+        return responseCode;
+    }
+
+    /**
+     * Waits for admission of the given query. Queries are grouped by tenant, or
+     * user when tenant is not available, for per-tenant limit.
+     *
+     * @param info non-null query
+     * @return permit which must be closed after execution, or {@code null} when
+     *         the query is rejected or there's no limit at all
+     * @throws IOException when interrupted during waiting
+     */
+    final QueryLimiter.Permit admit(QueryInfo info) throws IOException {
+        if (queryLimiter == null) {
+            return null;
+        }
+
+        try {
+            final QueryLimiter.Permit permit = queryLimiter
+                    .tryAcquire(info.tenant.isEmpty() ? info.user : info.tenant);
+            if (permit == null) {
+                log.debug("Rejected query [%s] by %s", info.qid, queryLimiter);
+            }
+            return permit;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        }
+    }
+
+    protected final int respondQuery(Properties config, Request request) throws IOException {
+        return respondQuery(config, request, null);
+    }
+
+    protected final int respondQuery(Properties config, Request request, String range) throws IOException {
         log.debug("Executing query request %s", request);
         final int responseCode;
         switch (request.getQueryMode()) {
@@ -883,20 +1415,30 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
                 break;
             }
             case BATCH:
+                negotiate(request);
                 setResponseHeaders(request);
                 responseCode = batch(request, config);
                 break;
             case DIRECT:
             case MUTATION: {
-                setResponseHeaders(request);
                 final int state = request.getResultState();
-                if (state == 1) { // result ready for reading
+                final Result<?> cached;
+                final boolean materialized = state == 1 && ((cached = request.getQueryInfo().getResult()) == null
+                        || cached.type() == IterableBuffer.class);
+                if (!materialized) { // file is sent as is, so no dictionary
+                    negotiate(request);
+                }
+                setResponseHeaders(request);
+                if (materialized) {
+                    final QueryInfo info = request.getQueryInfo();
+                    responseCode = respondFile(request, info.materialize(config), range);
+                    // keep the file around for retries, unless it's been evicted and closed in between
+                    queries.asMap().computeIfPresent(info.qid, (k, v) -> v);
+                } else if (state == 1) { // result ready for reading
                     log.debug("Reusing cached query [%s]...", request.getQueryId());
-                    try (QueryInfo info = request.getQueryInfo();
-                            Result<?> result = info.getResult();
-                            OutputStream out = request.getCompression().provider()
-                                    .compress(prepareResponse(request))) {
-                        Result.writeTo(result, info.format, config, out);
+                    final long startTime = System.nanoTime();
+                    try (QueryInfo info = request.getQueryInfo(); Result<?> result = info.getResult()) {
+                        writeResult(request, result, config, prepareResponse(request), startTime);
                         log.debug("Query [%s] finished successfully", info.qid);
                     }
                     responseCode = HttpURLConnection.HTTP_OK;
@@ -917,8 +1459,45 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
         return responseCode;
     }
 
+    private void negotiate(Request request) {
+        if (zstdDicts != null) {
+            zstdDicts.negotiate(request);
+        }
+    }
+
+    protected final int respondZstdDictionary(String path, InetSocketAddress clientAddress, String encodedToken,
+            String user, String tenant, Object implementation) throws IOException {
+        log.debug("Sending zstd dictionary to %s", clientAddress);
+        final int responseCode;
+        byte[] dict = null;
+        final String token = decodeToken(encodedToken);
+        if (!checkAcl(token, clientAddress.getAddress())) {
+            setResponse(implementation, responseCode = HttpURLConnection.HTTP_FORBIDDEN, null, HEADER_CONTENT_TYPE,
+                    Format.TXT.mimeType());
+        } else {
+            try {
+                dict = zstdDicts != null ? zstdDicts.get(Long.parseLong(path.substring(PATH_ZSTD_DICT.length())),
+                        zstdDicts.getScope(token, user, tenant)) : null;
+            } catch (NumberFormatException e) {
+                // ignore
+            }
+            if (dict == null) {
+                setResponse(implementation, responseCode = HttpURLConnection.HTTP_NOT_FOUND, null,
+                        HEADER_CONTENT_TYPE, Format.TXT.mimeType());
+            } else {
+                try (OutputStream out = getResponseStream(implementation, HEADER_CONTENT_TYPE,
+                        Format.BINARY.mimeType())) {
+                    out.write(dict);
+                }
+                responseCode = HttpURLConnection.HTTP_OK;
+            }
+        }
+        return responseCode;
+    }
+
     protected int dispatch(String method, String path, String rawParams, InetSocketAddress clientAddress,
             String encodedToken, Map<String, String> headers, Object implementation) throws IOException {
+        final long startTime = System.nanoTime();
         if (!path.startsWith(context)) {
             throw new IOException(Utils.format("Request URI must starts with [%s]", context));
         }
@@ -943,7 +1522,11 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
         String qid = RequestParameter.QUERY_ID.getValue(headers, params, Constants.EMPTY_STRING);
         String txid = RequestParameter.TRANSACTION_ID.getValue(headers, params, Constants.EMPTY_STRING);
 
-        if (PATH_ENCRYPT.equals(path)) {
+        if (path.startsWith(PATH_ZSTD_DICT)) {
+            return respondZstdDictionary(path, clientAddress, encodedToken,
+                    RequestParameter.USER.getValue(headers, params),
+                    RequestParameter.TENANT_ID.getValue(headers, params), implementation);
+        } else if (PATH_ENCRYPT.equals(path)) {
             return respondEncrypt(clientAddress,
                     create(method, QueryMode.DIRECT, rawParams, qid, Constants.EMPTY_STRING, txid, Format.JSON,
                             Compression.NONE, encodedToken, RequestParameter.USER.getValue(headers, params),
@@ -1028,6 +1611,13 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
                 encodedToken, RequestParameter.USER.getValue(headers, params),
                 RequestParameter.AGENT.getValue(headers, params), RequestParameter.TENANT_ID.getValue(headers, params),
                 implementation);
+        if (zstdDicts != null && request.getCompression() == Compression.ZSTD) {
+            final String dicts = RequestParameter.ZSTD_DICT.getValue(headers, params);
+            if (!dicts.isEmpty()) {
+                request.setAcceptedZstdDictionaries(dicts);
+            }
+        }
+        queryMetrics.record(request, QueryMetrics.PHASE_PARSE, System.nanoTime() - startTime);
 
         final int responseCode;
         if (Checker.isNullOrBlank(request.getQuery())) {
@@ -1037,17 +1627,22 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
             responseCode = respond(request, HttpURLConnection.HTTP_OK);
         } else if ((request.getQueryMode() == QueryMode.ASYNC || request.getQueryMode() == QueryMode.BATCH
                 || request.getQueryMode() == QueryMode.DIRECT || request.getQueryMode() == QueryMode.MUTATION)
-                && !checkAcl(request.getQueryInfo().token, clientAddress.getAddress())) {
+                && !checkAcl(request, clientAddress.getAddress())) {
             responseCode = respond(request, HttpURLConnection.HTTP_FORBIDDEN);
         } else {
-            if (querySemaphore != null && !querySemaphore.tryAcquire()) {
+            final long admissionTime = System.nanoTime();
+            final QueryLimiter.Permit permit = admit(request.getQueryInfo());
+            queryMetrics.record(request, QueryMetrics.PHASE_ADMISSION, System.nanoTime() - admissionTime);
+            request.setPermit(permit);
+            if (queryLimiter != null && permit == null) {
                 responseCode = respond(request, TOO_MANY_REQUESTS, OVERLOAD_MSG);
             } else {
                 try {
-                    responseCode = respondQuery(extractConfig(headers, params, queryPassThru), request);
+                    responseCode = respondQuery(extractConfig(headers, params, queryPassThru), request,
+                            headers.get(HEADER_RANGE));
                 } finally {
-                    if (querySemaphore != null) {
-                        querySemaphore.release();
+                    if (permit != null) {
+                        permit.close();
                     }
                 }
             }
@@ -1059,15 +1654,51 @@ public abstract class BridgeServer implements RemovalListener<String, QueryInfo>
         return baseUrl;
     }
 
+    /**
+     * Starts the Arrow Flight SQL endpoint when {@link #OPTION_FLIGHT_PORT} is
+     * positive. It's a no-op when the endpoint is disabled or Arrow Flight SQL
+     * is not available in classpath.
+     */
+    protected final void startFlightSql() {
+        if (flightPort <= 0 || flightServer != null) {
+            return;
+        }
+
+        try {
+            flightServer = FlightSqlService.start(this, host, flightPort, flightBatchSize);
+            log.info("Arrow Flight SQL endpoint started at grpc://%s:%d", Checker.isNullOrEmpty(host) ? "0.0.0.0" : host,
+                    flightPort);
+        } catch (NoClassDefFoundError e) {
+            log.warn("Arrow Flight SQL endpoint is disabled, please add flight-sql to classpath and try again");
+        } catch (IOException e) {
+            throw new IllegalStateException(Utils.format("Failed to start Arrow Flight SQL endpoint on port %d",
+                    flightPort), e);
+        }
+    }
+
     public abstract void start();
 
     public void stop() {
+        if (flightServer != null) {
+            log.debug("Stopping Arrow Flight SQL endpoint...");
+            try {
+                flightServer.close();
+            } catch (Exception e) {
+                log.warn("Failed to stop Arrow Flight SQL endpoint", e);
+            }
+            flightServer = null;
+        }
+
         log.debug("Invaliding query cache: %s", queries.stats());
         queries.invalidateAll();
         log.debug("Remaining entries in query cache: %s", queries.asMap());
 
         log.debug("Stoping connection pool: %s", datasource);
         datasource.close();
+        gcMetrics.close();
+        if (zstdDicts != null) {
+            zstdDicts.close();
+        }
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,559 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+import org.apache.arrow.flight.CallHeaders;
+import org.apache.arrow.flight.CallStatus;
+import org.apache.arrow.flight.FlightDescriptor;
+import org.apache.arrow.flight.FlightEndpoint;
+import org.apache.arrow.flight.FlightInfo;
+import org.apache.arrow.flight.FlightRuntimeException;
+import org.apache.arrow.flight.FlightServer;
+import org.apache.arrow.flight.FlightServerMiddleware;
+import org.apache.arrow.flight.FlightStream;
+import org.apache.arrow.flight.Location;
+import org.apache.arrow.flight.PutResult;
+import org.apache.arrow.flight.ServerHeaderMiddleware;
+import org.apache.arrow.flight.Ticket;
+import org.apache.arrow.flight.auth2.CallHeaderAuthenticator;
+import org.apache.arrow.flight.sql.NoOpFlightSqlProducer;
+import org.apache.arrow.flight.sql.impl.FlightSql.ActionClosePreparedStatementRequest;
+import org.apache.arrow.flight.sql.impl.FlightSql.ActionCreatePreparedStatementRequest;
+import org.apache.arrow.flight.sql.impl.FlightSql.ActionCreatePreparedStatementResult;
+import org.apache.arrow.flight.sql.impl.FlightSql.CommandPreparedStatementQuery;
+import org.apache.arrow.flight.sql.impl.FlightSql.CommandPreparedStatementUpdate;
+import org.apache.arrow.flight.sql.impl.FlightSql.CommandStatementQuery;
+import org.apache.arrow.flight.sql.impl.FlightSql.CommandStatementUpdate;
+import org.apache.arrow.flight.sql.impl.FlightSql.DoPutUpdateResult;
+import org.apache.arrow.flight.sql.impl.FlightSql.TicketStatementQuery;
+import org.apache.arrow.memory.ArrowBuf;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.ByteString;
+
+import io.github.jdbcx.Checker;
+import io.github.jdbcx.Compression;
+import io.github.jdbcx.Constants;
+import io.github.jdbcx.Format;
+import io.github.jdbcx.Logger;
+import io.github.jdbcx.LoggerFactory;
+import io.github.jdbcx.QueryContext;
+import io.github.jdbcx.RequestParameter;
+import io.github.jdbcx.Result;
+import io.github.jdbcx.Row;
+import io.github.jdbcx.Utils;
+import io.github.jdbcx.Value;
+import io.github.jdbcx.executor.JdbcExecutor;
+import io.github.jdbcx.executor.WebExecutor;
+import io.github.jdbcx.format.ArrowSerde;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.netty.NettyServerBuilder;
+
+/**
+ * Arrow Flight SQL front-end of {@link BridgeServer}. Queries are executed on
+ * the same connection pool, checked against the same ACL and tracked in the
+ * same query cache as the ones submitted over HTTP. Statements are only
+ * described when the client asks for {@link FlightInfo}, and executed when the
+ * client redeems the ticket, so that no connection or admission permit is held
+ * by a ticket that is never redeemed. The result is streamed as Arrow record
+ * batches, and a ticket can only be redeemed once.
+ *
+ * <p>
+ * Prepared statements are only described when prepared, and executed each time
+ * the client redeems the ticket. Parameter binding is not supported.
+ */
+final class FlightSqlService extends NoOpFlightSqlProducer {
+    private static final Logger log = LoggerFactory.getLogger(FlightSqlService.class);
+
+    static final String HEADER_REMOTE_ADDRESS = "x-jdbcx-remote-address";
+
+    static final FlightServerMiddleware.Key<ServerHeaderMiddleware> HEADERS = FlightServerMiddleware.Key
+            .of("headers");
+
+    static final class RemoteAddressInterceptor implements ServerInterceptor {
+        static final Metadata.Key<String> KEY = Metadata.Key.of(HEADER_REMOTE_ADDRESS,
+                Metadata.ASCII_STRING_MARSHALLER);
+
+        @Override
+        public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                ServerCallHandler<ReqT, RespT> next) {
+            // never trust the header sent from client
+            headers.removeAll(KEY);
+            final SocketAddress address = call.getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR);
+            if (address instanceof InetSocketAddress) {
+                final InetAddress addr = ((InetSocketAddress) address).getAddress();
+                if (addr != null) {
+                    headers.put(KEY, addr.getHostAddress());
+                }
+            }
+            return next.startCall(call, headers);
+        }
+    }
+
+    static final class Authenticator implements CallHeaderAuthenticator {
+        private final BridgeServer server;
+
+        Authenticator(BridgeServer server) {
+            this.server = server;
+        }
+
+        @Override
+        public AuthResult authenticate(CallHeaders headers) {
+            String token = headers.get(BridgeServer.HEADER_AUTHORIZATION);
+            if (token != null && token.startsWith(WebExecutor.AUTH_SCHEME_BEARER)) {
+                token = token.substring(WebExecutor.AUTH_SCHEME_BEARER.length());
+            }
+            token = BridgeServer.decodeToken(token);
+
+            InetAddress address = null;
+            final String remoteAddress = headers.get(HEADER_REMOTE_ADDRESS);
+            if (!Checker.isNullOrEmpty(remoteAddress)) {
+                try {
+                    address = InetAddress.getByName(remoteAddress);
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+            if (!server.checkAcl(token, address)) {
+                throw CallStatus.UNAUTHENTICATED.withDescription("Access denied").toRuntimeException();
+            }
+            final String identity = token != null ? token : Constants.EMPTY_STRING;
+            return () -> identity;
+        }
+    }
+
+    static AutoCloseable start(BridgeServer server, String host, int port, int batchSize) throws IOException {
+        final BufferAllocator allocator = new RootAllocator();
+        final FlightSqlService service = new FlightSqlService(server, allocator, batchSize);
+        final FlightServer.Builder builder = FlightServer
+                .builder(allocator, Location.forGrpcInsecure(Checker.isNullOrEmpty(host) ? "0.0.0.0" : host, port),
+                        service)
+                .headerAuthenticator(new Authenticator(server))
+                .middleware(HEADERS, new ServerHeaderMiddleware.Factory())
+                .transportHint("grpc.builderConsumer",
+                        (Consumer<NettyServerBuilder>) b -> b.intercept(new RemoteAddressInterceptor()));
+        if (server.fastPool != null) {
+            builder.executor(server.fastPool);
+        }
+        final FlightServer flightServer;
+        try {
+            flightServer = builder.build().start();
+        } catch (IOException | RuntimeException e) {
+            allocator.close();
+            throw e;
+        }
+        return () -> {
+            try {
+                flightServer.close();
+            } finally {
+                allocator.close();
+            }
+        };
+    }
+
+    static FlightRuntimeException toFlightException(Throwable t) {
+        if (t instanceof FlightRuntimeException) {
+            return (FlightRuntimeException) t;
+        }
+        return CallStatus.INTERNAL.withDescription(t.getMessage()).withCause(t).toRuntimeException();
+    }
+
+    private final BridgeServer server;
+    private final BufferAllocator allocator;
+    private final int batchSize;
+
+    FlightSqlService(BridgeServer server, BufferAllocator allocator, int batchSize) {
+        this.server = server;
+        this.allocator = allocator;
+        this.batchSize = batchSize > 0 ? batchSize : BridgeServer.DEFAULT_FLIGHT_ROWS;
+    }
+
+    QueryInfo newQuery(String qid, String query, CallContext context) {
+        final Map<String, String> headers = new HashMap<>();
+        final ServerHeaderMiddleware middleware = context.getMiddleware(HEADERS);
+        if (middleware != null) {
+            final CallHeaders callHeaders = middleware.headers();
+            for (RequestParameter p : new RequestParameter[] { RequestParameter.TENANT_ID, RequestParameter.USER,
+                    RequestParameter.AGENT }) {
+                final String value = callHeaders.get(p.header());
+                if (value != null) {
+                    headers.put(p.header(), value);
+                }
+            }
+        }
+        final Map<String, String> params = Collections.emptyMap();
+        return new QueryInfo(qid, query, null, Format.ARROW_STREAM, Compression.NONE, context.peerIdentity(),
+                RequestParameter.TENANT_ID.getValue(headers, params), RequestParameter.USER.getValue(headers, params),
+                RequestParameter.AGENT.getValue(headers, params));
+    }
+
+    /**
+     * Executes the query and registers it along with the result in query cache.
+     *
+     * @param info non-null query
+     * @return true if the query returned a result set; false if it's an update
+     */
+    boolean execute(QueryInfo info) {
+        if (Checker.isNullOrBlank(info.query)) {
+            throw CallStatus.INVALID_ARGUMENT.withDescription("Non-empty query is required").toRuntimeException();
+        }
+        QueryLimiter.Permit permit;
+        try {
+            permit = server.admit(info);
+        } catch (IOException e) {
+            throw CallStatus.CANCELLED.withDescription(e.getMessage()).toRuntimeException();
+        }
+        if (server.queryLimiter != null && permit == null) {
+            throw CallStatus.UNAVAILABLE.withDescription(BridgeServer.OVERLOAD_MSG).toRuntimeException();
+        }
+
+        log.debug("Executing Flight SQL query [%s]...", info.qid);
+        Connection conn = null;
+        Statement stmt = null;
+        ResultSet rs = null;
+        try (QueryContext context = QueryContext.getCurrentContext()) {
+            if (!info.tenant.isEmpty()) {
+                context.put(QueryContext.KEY_TENANT, info.tenant);
+            }
+
+            conn = server.datasource.getConnection();
+            stmt = conn.createStatement();
+            final boolean isResultSet = stmt.execute(info.query);
+            if (permit != null) {
+                permit.stop();
+            }
+            if (isResultSet) {
+                rs = stmt.getResultSet();
+                // permit is released along with the result, either when it's consumed or evicted
+                info.setResult(Result.of(rs)).setResources(rs, stmt, conn, permit);
+                rs = null;
+                stmt = null;
+                conn = null;
+                permit = null;
+            } else {
+                info.setResult(Result.of(JdbcExecutor.getUpdateCount(stmt)));
+            }
+            server.register(info);
+            return isResultSet;
+        } catch (SQLException e) {
+            log.warn("Failed to execute Flight SQL query [%s] due to error: %s", info.qid, e.getMessage());
+            throw toFlightException(e);
+        } catch (RuntimeException e) {
+            throw toFlightException(e);
+        } finally {
+            if (rs != null || stmt != null || conn != null) {
+                Utils.closeQuietly(rs, stmt, conn);
+            }
+            if (permit != null) {
+                permit.close();
+            }
+        }
+    }
+
+    FlightInfo toFlightInfo(Schema schema, Ticket ticket, FlightDescriptor descriptor) {
+        return new FlightInfo(schema != null ? schema : new Schema(Collections.emptyList()), descriptor,
+                Collections.singletonList(new FlightEndpoint(ticket)), -1L, -1L);
+    }
+
+    /**
+     * Describes the query without executing it.
+     *
+     * @param info non-null query
+     * @return schema of the result, or {@code null} when the query does not
+     *         return a result set
+     */
+    Schema describe(QueryInfo info) {
+        if (Checker.isNullOrBlank(info.query)) {
+            throw CallStatus.INVALID_ARGUMENT.withDescription("Non-empty query is required").toRuntimeException();
+        }
+
+        try (QueryContext context = QueryContext.getCurrentContext();
+                Connection conn = server.datasource.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(info.query)) {
+            if (!info.tenant.isEmpty()) {
+                context.put(QueryContext.KEY_TENANT, info.tenant);
+            }
+            final ResultSetMetaData metaData = stmt.getMetaData();
+            final int columns = metaData != null ? metaData.getColumnCount() : 0;
+            if (columns <= 0) {
+                return null;
+            }
+            final List<io.github.jdbcx.Field> fields = new ArrayList<>(columns);
+            for (int index = 1; index <= columns; index++) {
+                int precision = metaData.getPrecision(index);
+                if (precision <= 0) {
+                    precision = metaData.getColumnDisplaySize(index);
+                }
+                fields.add(io.github.jdbcx.Field.of(metaData.getColumnName(index),
+                        metaData.getColumnTypeName(index), JDBCType.valueOf(metaData.getColumnType(index)),
+                        metaData.isNullable(index) != ResultSetMetaData.columnNoNulls, precision,
+                        metaData.getScale(index), metaData.isSigned(index)));
+            }
+            return toSchema(fields);
+        } catch (SQLException e) {
+            log.warn("Failed to prepare Flight SQL query [%s] due to error: %s", info.qid, e.getMessage());
+            throw toFlightException(e);
+        } catch (RuntimeException e) {
+            throw toFlightException(e);
+        }
+    }
+
+    Runnable respondUpdate(QueryInfo info, StreamListener<PutResult> ackStream) {
+        final Object count = info.getResult().get();
+        server.invalidate(info.qid);
+        info.close();
+        // same as Statement.executeUpdate(), which returns 0 for statements like DDL
+        final long records = count instanceof Long && (Long) count > 0L ? (Long) count : 0L;
+        return () -> {
+            final byte[] bytes = DoPutUpdateResult.newBuilder().setRecordCount(records).build().toByteArray();
+            try (ArrowBuf buffer = allocator.buffer(bytes.length)) {
+                buffer.writeBytes(bytes);
+                ackStream.onNext(PutResult.metadata(buffer));
+            }
+            ackStream.onCompleted();
+        };
+    }
+
+    Schema toSchema(List<io.github.jdbcx.Field> resultFields) {
+        final List<Field> fields = new ArrayList<>(resultFields.size());
+        for (io.github.jdbcx.Field f : resultFields) {
+            try (FieldVector vector = ArrowSerde.newArrowVectorConsumer(allocator, f, null).vector) {
+                fields.add(vector.getField());
+            }
+        }
+        return new Schema(fields);
+    }
+
+    void stream(QueryInfo info, ServerStreamListener listener) {
+        final Result<?> result = info.getResult();
+        final List<io.github.jdbcx.Field> resultFields = result.fields();
+        final int len = resultFields.size();
+        final int size = this.batchSize;
+
+        try (BufferAllocator child = allocator.newChildAllocator(info.qid, 0L, Long.MAX_VALUE)) {
+            final List<Field> fields = new ArrayList<>(len);
+            final List<FieldVector> vectors = new ArrayList<>(len);
+            final List<ObjIntConsumer<Value>> consumers = new ArrayList<>(len);
+            for (int i = 0; i < len; i++) {
+                ArrowSerde.VectorConsumer vc = ArrowSerde.newArrowVectorConsumer(child, resultFields.get(i), null);
+                fields.add(vc.vector.getField());
+                vectors.add(vc.vector);
+                consumers.add(vc.consumer);
+            }
+
+            try (VectorSchemaRoot root = new VectorSchemaRoot(fields, vectors, 0)) {
+                listener.start(root);
+                root.allocateNew();
+                int index = 0;
+                for (Row r : result.rows()) {
+                    if (listener.isCancelled()) {
+                        log.debug("Flight SQL query [%s] was cancelled by client", info.qid);
+                        break;
+                    }
+                    for (int i = 0; i < len; i++) {
+                        Value value = r.value(i);
+                        if (value.isNull()) {
+                            vectors.get(i).setNull(index);
+                        } else {
+                            consumers.get(i).accept(value, index);
+                        }
+                    }
+
+                    if (++index >= size) {
+                        root.setRowCount(index);
+                        listener.putNext();
+                        root.allocateNew();
+                        index = 0;
+                    }
+                }
+                if (index > 0) {
+                    root.setRowCount(index);
+                    listener.putNext();
+                }
+                listener.completed();
+            }
+        }
+    }
+
+    QueryInfo checkQuery(String qid, CallContext context) {
+        final QueryInfo info = server.getQuery(qid);
+        if (info == null) {
+            throw CallStatus.NOT_FOUND.withDescription("Non-existent or expired query: " + qid).toRuntimeException();
+        } else if (!info.token.equals(context.peerIdentity())) {
+            throw CallStatus.UNAUTHORIZED.withDescription("Access denied").toRuntimeException();
+        }
+        return info;
+    }
+
+    /**
+     * Executes the registered statement on behalf of the client.
+     *
+     * @param handle  non-null statement handle
+     * @param context non-null call context
+     * @param once    whether the statement should be removed from query cache,
+     *                so that the handle cannot be used again
+     * @return non-null query with result
+     */
+    QueryInfo executeRegistered(ByteString handle, CallContext context, boolean once) {
+        final String qid = handle.toString(StandardCharsets.UTF_8);
+        final QueryInfo registered = checkQuery(qid, context);
+        if (once) {
+            server.invalidate(qid);
+        }
+        final QueryInfo info = newQuery(null, registered.query, context);
+        execute(info);
+        return info;
+    }
+
+    void respond(QueryInfo info, ServerStreamListener listener) {
+        final String qid = info.qid;
+        try {
+            if (info.getResult() == null) {
+                throw CallStatus.NOT_FOUND.withDescription("No result for query: " + qid).toRuntimeException();
+            }
+            stream(info, listener);
+            log.debug("Flight SQL query [%s] finished successfully", qid);
+        } catch (Exception e) {
+            log.warn("Failed to stream Flight SQL query [%s]", qid, e);
+            listener.error(toFlightException(e));
+        } finally {
+            server.invalidate(qid);
+            // result is active after reading so it won't be closed on removal
+            info.close();
+        }
+    }
+
+    @Override
+    public FlightInfo getFlightInfoStatement(CommandStatementQuery command, CallContext context,
+            FlightDescriptor descriptor) {
+        final QueryInfo pending = newQuery(null, command.getQuery(), context);
+        final Schema schema = describe(pending);
+        // the statement is executed when the ticket is redeemed, and evicted from cache if it's never redeemed
+        server.register(pending);
+        return toFlightInfo(schema, new Ticket(Any.pack(
+                TicketStatementQuery.newBuilder().setStatementHandle(ByteString.copyFromUtf8(pending.qid)).build())
+                .toByteArray()), descriptor);
+    }
+
+    @Override
+    public void getStreamStatement(TicketStatementQuery ticket, CallContext context,
+            ServerStreamListener listener) {
+        final QueryInfo info;
+        try {
+            info = executeRegistered(ticket.getStatementHandle(), context, true);
+        } catch (FlightRuntimeException e) {
+            listener.error(e);
+            return;
+        }
+
+        respond(info, listener);
+    }
+
+    @Override
+    public Runnable acceptPutStatement(CommandStatementUpdate command, CallContext context, FlightStream flightStream,
+            StreamListener<PutResult> ackStream) {
+        final QueryInfo info = newQuery(null, command.getQuery(), context);
+        execute(info);
+        return respondUpdate(info, ackStream);
+    }
+
+    @Override
+    public void createPreparedStatement(ActionCreatePreparedStatementRequest request, CallContext context,
+            StreamListener<org.apache.arrow.flight.Result> listener) {
+        final QueryInfo prepared = newQuery(null, request.getQuery(), context);
+        // clients need dataset schema to tell query from update
+        final Schema schema = describe(prepared);
+        server.register(prepared);
+
+        final ActionCreatePreparedStatementResult.Builder builder = ActionCreatePreparedStatementResult.newBuilder()
+                .setPreparedStatementHandle(ByteString.copyFromUtf8(prepared.qid));
+        if (schema != null) {
+            builder.setDatasetSchema(ByteString.copyFrom(schema.serializeAsMessage()));
+        }
+        listener.onNext(new org.apache.arrow.flight.Result(Any.pack(builder.build()).toByteArray()));
+        listener.onCompleted();
+    }
+
+    @Override
+    public void closePreparedStatement(ActionClosePreparedStatementRequest request, CallContext context,
+            StreamListener<org.apache.arrow.flight.Result> listener) {
+        server.invalidate(request.getPreparedStatementHandle().toString(StandardCharsets.UTF_8));
+        listener.onCompleted();
+    }
+
+    @Override
+    public FlightInfo getFlightInfoPreparedStatement(CommandPreparedStatementQuery command, CallContext context,
+            FlightDescriptor descriptor) {
+        final QueryInfo prepared = checkQuery(command.getPreparedStatementHandle().toString(StandardCharsets.UTF_8),
+                context);
+        // the statement is executed when the ticket is redeemed
+        return toFlightInfo(describe(prepared), new Ticket(Any.pack(command).toByteArray()), descriptor);
+    }
+
+    @Override
+    public void getStreamPreparedStatement(CommandPreparedStatementQuery command, CallContext context,
+            ServerStreamListener listener) {
+        final QueryInfo info;
+        try {
+            info = executeRegistered(command.getPreparedStatementHandle(), context, false);
+        } catch (FlightRuntimeException e) {
+            listener.error(e);
+            return;
+        }
+        respond(info, listener);
+    }
+
+    @Override
+    public Runnable acceptPutPreparedStatementUpdate(CommandPreparedStatementUpdate command, CallContext context,
+            FlightStream flightStream, StreamListener<PutResult> ackStream) {
+        return respondUpdate(executeRegistered(command.getPreparedStatementHandle(), context, false), ackStream);
+    }
+
+    @Override
+    public void close() {
+        // allocator is shared with the Flight server, which closes it on shutdown
+    }
+}
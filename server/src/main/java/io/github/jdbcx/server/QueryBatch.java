@@ -0,0 +1,555 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.server;
+
+import java.math.BigDecimal;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import io.github.jdbcx.Logger;
+import io.github.jdbcx.LoggerFactory;
+import io.github.jdbcx.Result;
+import io.github.jdbcx.Utils;
+import io.github.jdbcx.VariableTag;
+import io.github.jdbcx.executor.JdbcExecutor;
+
+/**
+ * Executes queries of a batch request in order. Consecutive DML statements are
+ * submitted together through {@link Statement#executeBatch()}, and consecutive
+ * single-row {@code INSERT ... VALUES} statements of the same shape are grouped
+ * into one {@link PreparedStatement} batch with numeric literals as parameters.
+ * Each run of DML statements is executed in one transaction when the connection
+ * is in auto-commit mode and supports transactions. Since update counts of a
+ * failed batch are driver-specific, a failed run is rolled back and replayed
+ * one by one in a new transaction, so that failure is reported against the
+ * query that caused it. Update count of each query is kept, and cleared when
+ * the query is rolled back.
+ */
+final class QueryBatch {
+    private static final Logger log = LoggerFactory.getLogger(QueryBatch.class);
+
+    private static final List<String> DML_KEYWORDS = Collections
+            .unmodifiableList(Arrays.asList("DELETE", "INSERT", "MERGE", "REPLACE", "UPDATE", "UPSERT"));
+    // statements returning rows cannot be batched
+    private static final List<String> RESULT_KEYWORDS = Collections
+            .unmodifiableList(Arrays.asList("OUTPUT", "RETURNING"));
+
+    static final class Query {
+        final String name;
+        final String sql;
+        final boolean dml;
+        final String template;
+        final List<Object> params;
+
+        Query(String name, String sql, boolean dml, String template, List<Object> params) {
+            this.name = name;
+            this.sql = sql;
+            this.dml = dml;
+            this.template = template;
+            this.params = params;
+        }
+    }
+
+    /**
+     * Skips whitespaces and comments.
+     *
+     * @param sql   non-null SQL
+     * @param index start index
+     * @return index of next meaningful character, or length of the SQL
+     */
+    static int skip(String sql, int index) {
+        final int len = sql.length();
+        while (index < len) {
+            final char ch = sql.charAt(index);
+            if (Character.isWhitespace(ch)) {
+                index++;
+            } else if (ch == '-' && index + 1 < len && sql.charAt(index + 1) == '-') {
+                final int end = sql.indexOf('\n', index);
+                index = end < 0 ? len : end + 1;
+            } else if (ch == '/' && index + 1 < len && sql.charAt(index + 1) == '*') {
+                final int end = sql.indexOf("*/", index + 2);
+                index = end < 0 ? len : end + 2;
+            } else {
+                break;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Gets end index of the quoted string, identifier or comment starting at the
+     * given index.
+     *
+     * @param sql   non-null SQL
+     * @param index start index
+     * @return index after the quoted part, same as {@code index} when nothing is
+     *         quoted, or -1 when it's not closed
+     */
+    static int skipQuoted(String sql, int index) {
+        final int len = sql.length();
+        final char ch = sql.charAt(index);
+        if (ch == '\'' || ch == '"' || ch == '`') {
+            for (int i = index + 1; i < len; i++) {
+                final char c = sql.charAt(i);
+                if (c == '\\' && ch == '\'') {
+                    i++;
+                } else if (c == ch) {
+                    if (i + 1 < len && sql.charAt(i + 1) == ch) {
+                        i++;
+                    } else {
+                        return i + 1;
+                    }
+                }
+            }
+            return -1;
+        } else if ((ch == '-' || ch == '/') && index + 1 < len
+                && sql.charAt(index + 1) == (ch == '-' ? '-' : '*')) {
+            final int end = skip(sql, index);
+            return end > index ? end : -1;
+        }
+        return index;
+    }
+
+    /**
+     * Gets length of the given SQL without trailing semicolon, or -1 when it has
+     * more than one statement or unclosed quotes.
+     *
+     * @param sql non-null SQL
+     * @return length of the single statement, or -1
+     */
+    static int getStatementLength(String sql) {
+        int end = -1;
+        for (int i = 0, len = sql.length(); i < len; i++) {
+            final int next = skipQuoted(sql, i);
+            if (next < 0) {
+                return -1;
+            } else if (next > i) {
+                i = next - 1;
+            } else if (sql.charAt(i) == ';') {
+                if (end < 0) {
+                    end = i;
+                }
+            } else if (end >= 0 && !Character.isWhitespace(sql.charAt(i))) {
+                return -1;
+            }
+        }
+        return end >= 0 ? end : sql.length();
+    }
+
+    /**
+     * Checks if the given SQL contains any of the keywords, outside of quoted
+     * strings, identifiers and comments.
+     *
+     * @param sql      non-null SQL
+     * @param keywords non-null upper case keywords
+     * @return true if any of the keywords is found; false otherwise
+     */
+    static boolean containsKeyword(String sql, List<String> keywords) {
+        for (int i = 0, len = sql.length(); i < len; i++) {
+            final int next = skipQuoted(sql, i);
+            if (next < 0) {
+                return false;
+            } else if (next > i) {
+                i = next - 1;
+            } else if (Character.isJavaIdentifierStart(sql.charAt(i))) {
+                int end = i + 1;
+                while (end < len && Character.isJavaIdentifierPart(sql.charAt(end))) {
+                    end++;
+                }
+                if ((i == 0 || sql.charAt(i - 1) != '.')
+                        && keywords.contains(sql.substring(i, end).toUpperCase(Locale.ROOT))) {
+                    return true;
+                }
+                i = end - 1;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Extracts numeric literals from a single-row {@code INSERT ... VALUES (...)}
+     * statement. String literals are kept as is, because binding them as
+     * {@link String} breaks implicit conversion to types like date and uuid on
+     * some databases.
+     *
+     * @param sql    non-null statement without trailing semicolon
+     * @param start  index of the {@code INSERT} keyword
+     * @param params non-null list for literals
+     * @return template with numeric literals replaced by question marks, or null
+     *         when the statement is not parameterizable
+     */
+    static String toTemplate(String sql, int start, List<Object> params) {
+        final String upper = sql.toUpperCase(Locale.ROOT);
+        final int len = sql.length();
+        int values = -1;
+        for (int i = start; i < len; i++) {
+            final char ch = sql.charAt(i);
+            if (ch == '\'' || ch == '"' || ch == '`' || ch == '?' || ch == ';') {
+                // quoted identifier, parameter, or anything unusual before VALUES
+                return null;
+            } else if (ch == '-' && i + 1 < len && sql.charAt(i + 1) == '-') {
+                return null;
+            } else if (ch == '/' && i + 1 < len && sql.charAt(i + 1) == '*') {
+                return null;
+            } else if (upper.startsWith("VALUES", i) && (i == 0 || !Character.isJavaIdentifierPart(sql.charAt(i - 1)))
+                    && (i + 6 == len || !Character.isJavaIdentifierPart(sql.charAt(i + 6)))) {
+                values = i + 6;
+                break;
+            }
+        }
+        if (values < 0 || (values = skip(sql, values)) >= len || sql.charAt(values) != '(') {
+            return null;
+        }
+
+        final StringBuilder builder = new StringBuilder(len).append(sql, 0, values + 1);
+        int i = values + 1;
+        while (true) {
+            i = skip(sql, i);
+            if (i >= len) {
+                return null;
+            }
+            final char ch = sql.charAt(i);
+            final int end;
+            if (ch == '\'') {
+                end = skipQuoted(sql, i);
+                if (end < 0 || sql.substring(i + 1, end - 1).indexOf('\\') >= 0) {
+                    return null; // escaping is database-specific
+                }
+                builder.append(sql, i, end);
+            } else if (ch == '-' || ch == '+' || ch == '.' || Character.isDigit(ch)) {
+                int j = i + 1;
+                while (j < len && (Character.isLetterOrDigit(sql.charAt(j)) || sql.charAt(j) == '.'
+                        || ((sql.charAt(j) == '-' || sql.charAt(j) == '+')
+                                && Character.toUpperCase(sql.charAt(j - 1)) == 'E'))) {
+                    j++;
+                }
+                end = j;
+                final BigDecimal number;
+                try {
+                    number = new BigDecimal(sql.substring(i, end));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+                params.add(toParameter(number));
+                builder.append('?');
+            } else if (upper.startsWith("NULL", i)) {
+                end = i + 4;
+                builder.append("NULL");
+            } else {
+                return null; // expressions, functions, multiple rows etc.
+            }
+
+            i = skip(sql, end);
+            if (i >= len) {
+                return null;
+            } else if (sql.charAt(i) == ',') {
+                builder.append(',');
+                i++;
+            } else if (sql.charAt(i) == ')') {
+                return skip(sql, i + 1) == len ? builder.append(')').toString() : null;
+            } else {
+                return null;
+            }
+        }
+    }
+
+    static Object toParameter(BigDecimal number) {
+        if (number.scale() <= 0) {
+            try {
+                return number.longValueExact();
+            } catch (ArithmeticException e) {
+                // too large for long
+            }
+        }
+        return number;
+    }
+
+    static Query parse(String name, String sql, VariableTag tag) {
+        final int start = skip(sql, 0);
+        int end = start;
+        while (end < sql.length() && Character.isLetter(sql.charAt(end))) {
+            end++;
+        }
+        final String keyword = sql.substring(start, end).toUpperCase(Locale.ROOT);
+        final int len;
+        if (!DML_KEYWORDS.contains(keyword) || sql.contains(tag.functionLeft()) || sql.contains(tag.procedureLeft())
+                || sql.contains(tag.variableLeft()) || (len = getStatementLength(sql)) < 0
+                || containsKeyword(sql, RESULT_KEYWORDS)) {
+            return new Query(name, sql, false, null, null);
+        }
+
+        final String stmt = sql.substring(0, len);
+        final List<Object> params = new ArrayList<>();
+        final String template = "INSERT".equals(keyword) ? toTemplate(stmt, end, params) : null;
+        return template != null && !params.isEmpty() ? new Query(name, stmt, true, template, params)
+                : new Query(name, stmt, true, null, null);
+    }
+
+    private final List<Query> queries;
+    private final int batchSize;
+    private final long[] counts;
+
+    private int failed;
+
+    QueryBatch(List<String[]> list, VariableTag tag, int batchSize) {
+        final List<Query> l = new ArrayList<>(list.size());
+        for (String[] q : list) {
+            l.add(batchSize > 1 ? parse(q[0], q[1], tag) : new Query(q[0], q[1], false, null, null));
+        }
+        this.queries = Collections.unmodifiableList(l);
+        this.batchSize = batchSize;
+        this.counts = new long[l.size()];
+        Arrays.fill(this.counts, -1L);
+        this.failed = -1;
+    }
+
+    List<Query> getQueries() {
+        return queries;
+    }
+
+    /**
+     * Gets update count of each query, -1 for result set or not executed, and
+     * {@link Statement#SUCCESS_NO_INFO} when the driver does not tell.
+     *
+     * @return non-null update counts
+     */
+    long[] getUpdateCounts() {
+        return counts.clone();
+    }
+
+    /**
+     * Gets index of the query failed to execute.
+     *
+     * @return zero-based index of the failed query, or -1 when nothing failed
+     */
+    int getFailedIndex() {
+        return failed;
+    }
+
+    private SQLException toException(String qid, int index, SQLException e) {
+        failed = index;
+        final Query q = queries.get(index);
+        return new SQLException(Utils.format("Failed to execute batch query [%s] %d/%d [%s]: %s", qid, index + 1,
+                queries.size(), q.name, e.getMessage()), e.getSQLState(), e.getErrorCode(), e);
+    }
+
+    private void warn(Statement stmt) throws SQLException {
+        final SQLWarning warning = stmt.getWarnings();
+        if (warning != null) {
+            log.warn("SQLWarning from [%s]", stmt, warning);
+        }
+    }
+
+    /**
+     * Executes statements added to the given batch, which are queries from
+     * {@code start} (inclusive) to {@code end} (exclusive).
+     */
+    private void executeBatch(String qid, Statement stmt, int start, int end) throws SQLException {
+        try {
+            final int[] results = stmt.executeBatch();
+            warn(stmt);
+            for (int i = 0, len = Math.min(results.length, end - start); i < len; i++) {
+                counts[start + i] = results[i];
+            }
+        } catch (BatchUpdateException e) {
+            final int[] results = e.getUpdateCounts();
+            int failed = results != null ? results.length : 0;
+            for (int i = 0; i < failed; i++) {
+                if (results[i] == Statement.EXECUTE_FAILED) {
+                    failed = i;
+                    break;
+                }
+                counts[start + i] = results[i];
+            }
+            throw toException(qid, Math.min(start + failed, end - 1), e);
+        } catch (SQLException e) {
+            throw toException(qid, start, e);
+        } finally {
+            stmt.clearBatch();
+        }
+    }
+
+    /**
+     * Executes queries from {@code start} (inclusive) to {@code end} (exclusive)
+     * one by one.
+     */
+    private void executeEach(String qid, Statement stmt, int start, int end) throws SQLException {
+        for (int i = start; i < end; i++) {
+            final Query q = queries.get(i);
+            log.debug("Executing batch query [%s] %d/%d [%s]...", qid, i + 1, queries.size(), q.name);
+            final boolean isResultSet;
+            try {
+                isResultSet = stmt.execute(q.sql); // NOSONAR
+            } catch (SQLException e) {
+                throw toException(qid, i, e);
+            }
+            warn(stmt);
+            if (isResultSet) {
+                stmt.getResultSet().close();
+            } else {
+                counts[i] = JdbcExecutor.getUpdateCount(stmt);
+            }
+        }
+    }
+
+    private void executeRun(String qid, Connection conn, Statement stmt, int start, int end) throws SQLException {
+        final DatabaseMetaData metaData = conn.getMetaData();
+        final boolean tx = conn.getAutoCommit() && metaData.supportsTransactions();
+        final boolean batched = metaData.supportsBatchUpdates();
+        log.debug("Executing batch query [%s] %d-%d/%d %s%s...", qid, start + 1, end, queries.size(),
+                batched ? "as batch" : "one by one", tx ? " in one transaction" : "");
+        if (tx) {
+            conn.setAutoCommit(false);
+        }
+        boolean success = false;
+        try {
+            if (!batched) {
+                executeEach(qid, stmt, start, end);
+            } else if (!tx) {
+                executeBatches(qid, conn, stmt, start, end);
+            } else {
+                try {
+                    executeBatches(qid, conn, stmt, start, end);
+                } catch (SQLException e) {
+                    conn.rollback();
+                    Arrays.fill(counts, start, end, -1L);
+                    failed = -1;
+                    log.debug("Replaying batch query [%s] %d-%d/%d one by one due to: %s", qid, start + 1, end,
+                            queries.size(), e.getMessage());
+                    executeEach(qid, stmt, start, end);
+                }
+            }
+            if (tx) {
+                conn.commit();
+            }
+            success = true;
+        } finally {
+            if (tx) {
+                try {
+                    if (!success) {
+                        conn.rollback();
+                        Arrays.fill(counts, start, end, -1L);
+                    }
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+        }
+    }
+
+    private void executeBatches(String qid, Connection conn, Statement stmt, int start, int end)
+            throws SQLException {
+        int plain = start;
+        int i = start;
+        while (i < end) {
+            final Query q = queries.get(i);
+            int j = i + 1;
+            if (q.template != null) {
+                while (j < end && q.template.equals(queries.get(j).template)) {
+                    j++;
+                }
+            }
+            if (j - i > 1) {
+                if (plain < i) {
+                    executeBatch(qid, stmt, plain, i);
+                }
+                try (PreparedStatement ps = conn.prepareStatement(q.template)) {
+                    for (int k = i; k < j; k++) {
+                        final List<Object> params = queries.get(k).params;
+                        for (int p = 0, len = params.size(); p < len; p++) {
+                            ps.setObject(p + 1, params.get(p));
+                        }
+                        ps.addBatch();
+                    }
+                    executeBatch(qid, ps, i, j);
+                }
+                plain = j;
+            } else {
+                stmt.addBatch(q.sql);
+            }
+            i = j;
+        }
+        if (plain < end) {
+            executeBatch(qid, stmt, plain, end);
+        }
+    }
+
+    /**
+     * Executes all queries in order.
+     *
+     * @param qid  query id for logging
+     * @param conn non-null connection
+     * @param stmt non-null statement created from the connection
+     * @return result of the last query, could be null when there's no query
+     * @throws SQLException when failed to execute any of the queries
+     */
+    Result<?> execute(String qid, Connection conn, Statement stmt) throws SQLException {
+        final int len = queries.size();
+        Result<?> lastResult = null;
+        int i = 0;
+        while (i < len) {
+            int j = i;
+            while (j < len && j - i < batchSize && queries.get(j).dml) {
+                j++;
+            }
+            if (j - i > 1) {
+                executeRun(qid, conn, stmt, i, j);
+                if (j == len) {
+                    lastResult = Result.of(counts[len - 1]);
+                }
+                i = j;
+                continue;
+            }
+
+            final Query q = queries.get(i);
+            log.debug("Executing batch query [%s] %d/%d [%s]...", qid, i + 1, len, q.name);
+            final boolean isResultSet;
+            try {
+                isResultSet = stmt.execute(q.sql); // NOSONAR
+            } catch (SQLException e) {
+                throw toException(qid, i, e);
+            }
+            warn(stmt);
+            if (!isResultSet) {
+                counts[i] = JdbcExecutor.getUpdateCount(stmt);
+            }
+            if (i + 1 < len) {
+                if (isResultSet) {
+                    stmt.getResultSet().close();
+                }
+            } else {
+                lastResult = isResultSet ? Result.of(stmt.getResultSet()) : Result.of(counts[i]);
+            }
+            i++;
+        }
+        return lastResult;
+    }
+
+    @Override
+    public String toString() {
+        return Utils.format("%d queries with update counts %s", queries.size(), Arrays.toString(counts));
+    }
+}
@@ -15,9 +15,14 @@
  */
 package io.github.jdbcx.server;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Properties;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -26,6 +31,7 @@ import io.github.jdbcx.Compression;
 import io.github.jdbcx.Constants;
 import io.github.jdbcx.Format;
 import io.github.jdbcx.Result;
+import io.github.jdbcx.Utils;
 
 final class QueryInfo implements AutoCloseable, Serializable {
     final String qid;
@@ -40,6 +46,7 @@ final class QueryInfo implements AutoCloseable, Serializable {
 
     private transient AtomicReference<Result<?>> result;
     private transient AtomicReference<AutoCloseable[]> resources;
+    private transient AtomicReference<Path> file;
 
     QueryInfo(String qid, String query, String txid, Format format, Compression compress, String token, String tenant,
             String user, String client) {
@@ -59,12 +66,53 @@ final class QueryInfo implements AutoCloseable, Serializable {
 
         this.result = new AtomicReference<>();
         this.resources = new AtomicReference<>();
+        this.file = new AtomicReference<>();
     }
 
     Result<?> getResult() { // NOSONAR
         return this.result.get();
     }
 
+    Path getFile() {
+        return this.file.get();
+    }
+
+    /**
+     * Writes the result into a temporary file using {@link #format} and
+     * {@link #compress}, so that it can be downloaded again or by byte range. The
+     * result is closed afterwards, as it's no longer needed.
+     *
+     * @param config optional configuration for serialization
+     * @return non-null path of the file
+     * @throws IOException when failed to write the result
+     */
+    synchronized Path materialize(Properties config) throws IOException {
+        Path f = this.file.get();
+        if (f != null) {
+            return f;
+        }
+
+        final Result<?> r = this.result.get();
+        if (r == null) {
+            throw new IllegalStateException("No result to materialize");
+        }
+        f = Utils.createTempFile("jdbcx-result-", format.fileExtension(true)).toPath();
+        boolean success = false;
+        try (OutputStream out = compress.provider().compress(Files.newOutputStream(f))) {
+            Result.writeTo(r, format, config, out);
+            success = true;
+        } finally {
+            if (!success) {
+                Files.deleteIfExists(f);
+            }
+        }
+        this.file.set(f);
+        if (this.result.compareAndSet(r, null)) {
+            r.close();
+        }
+        return f;
+    }
+
     AutoCloseable[] getResources() {
         AutoCloseable[] arr = this.resources.get();
         final int len;
@@ -111,7 +159,16 @@ final class QueryInfo implements AutoCloseable, Serializable {
     }
 
     @Override
-    public void close() {
+    public synchronized void close() {
+        final Path f = this.file.getAndUpdate(v -> null);
+        if (f != null) {
+            try {
+                Files.deleteIfExists(f);
+            } catch (Throwable t) { // NOSONAR
+                // ignore
+            }
+        }
+
         final Result<?> r = this.result.getAndUpdate(v -> null);
         if (r != null) {
             try {
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.server;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.github.jdbcx.Checker;
+
+/**
+ * Admission control for queries. A query runs right away when the number of
+ * running queries is below the limit, and the caller does not exceed its own
+ * limit. Otherwise it waits in a bounded queue for a while, before being
+ * rejected.
+ *
+ * <p>
+ * When {@code tolerance} is positive, the overall limit adapts to observed
+ * latency in AIMD style: it grows by one when at least half of the permits are
+ * in use and latency of the query is within {@code tolerance} times of the
+ * long-term average, and shrinks by {@link #BACKOFF_RATIO} when latency goes
+ * beyond that. It never goes below {@code minLimit} or above {@code maxLimit}.
+ */
+final class QueryLimiter {
+    static final double BACKOFF_RATIO = 0.9D;
+    static final double SHORT_ALPHA = 0.2D;
+    static final double LONG_ALPHA = 0.02D;
+
+    final class Permit implements AutoCloseable {
+        private final String key;
+        private final long startTime;
+
+        private volatile long latency;
+        private boolean released;
+
+        Permit(String key) {
+            this.key = key;
+            this.startTime = System.nanoTime();
+            this.latency = -1L;
+            this.released = false;
+        }
+
+        /**
+         * Stops measuring latency of the query, so that the permit can be held
+         * longer, for example until the result is consumed, without affecting
+         * the limit.
+         */
+        void stop() {
+            if (latency < 0L) {
+                latency = System.nanoTime() - startTime;
+            }
+        }
+
+        @Override
+        public void close() {
+            stop();
+            release(this, latency);
+        }
+    }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int keyLimit;
+    private final int queueSize;
+    private final long waitNanos;
+    private final double tolerance;
+
+    private final ReentrantLock lock;
+    private final Condition available;
+    private final Map<String, Integer> running;
+
+    // guarded by lock
+    private double limit;
+    private int inflight;
+    private int waiting;
+    private double shortLatency;
+    private double longLatency;
+
+    QueryLimiter(int minLimit, int maxLimit, int keyLimit, int queueSize, long waitMs, double tolerance) {
+        this.maxLimit = Math.max(1, maxLimit);
+        this.minLimit = Math.min(this.maxLimit, Math.max(1, minLimit));
+        this.keyLimit = keyLimit;
+        this.queueSize = Math.max(0, queueSize);
+        this.waitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, waitMs));
+        this.tolerance = tolerance;
+
+        this.lock = new ReentrantLock();
+        this.available = lock.newCondition();
+        this.running = new HashMap<>();
+
+        this.limit = this.maxLimit;
+        this.inflight = 0;
+        this.waiting = 0;
+        this.shortLatency = 0D;
+        this.longLatency = 0D;
+    }
+
+    private boolean admissible(String key) {
+        if (inflight >= (int) limit) {
+            return false;
+        } else if (keyLimit > 0 && !key.isEmpty()) {
+            Integer count = running.get(key);
+            return count == null || count < keyLimit;
+        }
+        return true;
+    }
+
+    void release(Permit permit, long latencyNanos) {
+        lock.lock();
+        try {
+            if (permit.released) {
+                return;
+            }
+            permit.released = true;
+
+            final boolean saturated = inflight * 2 >= (int) limit;
+            inflight--;
+            if (!permit.key.isEmpty()) {
+                running.computeIfPresent(permit.key, (k, v) -> v > 1 ? v - 1 : null);
+            }
+
+            if (tolerance > 0D) {
+                final double latency = latencyNanos;
+                if (longLatency <= 0D) {
+                    shortLatency = latency;
+                    longLatency = latency;
+                } else {
+                    shortLatency += SHORT_ALPHA * (latency - shortLatency);
+                    longLatency += LONG_ALPHA * (latency - longLatency);
+                }
+
+                if (shortLatency > longLatency * tolerance) {
+                    limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                } else if (saturated) {
+                    limit = Math.min(maxLimit, limit + 1D);
+                }
+            }
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets current limit of concurrent queries.
+     *
+     * @return current limit
+     */
+    int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets number of running queries.
+     *
+     * @return number of running queries
+     */
+    int getRunning() {
+        lock.lock();
+        try {
+            return inflight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets number of queries waiting for admission.
+     *
+     * @return number of waiting queries
+     */
+    int getWaiting() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tries to admit a query, and waits when it cannot run right away.
+     *
+     * @param key optional key like tenant or user, for per-key limit
+     * @return permit which must be closed after the query completed, or
+     *         {@code null} when the query is rejected
+     * @throws InterruptedException when interrupted during waiting
+     */
+    Permit tryAcquire(String key) throws InterruptedException {
+        if (Checker.isNullOrEmpty(key)) {
+            key = "";
+        }
+
+        lock.lockInterruptibly();
+        try {
+            if (!admissible(key)) {
+                if (waiting >= queueSize || waitNanos <= 0L) {
+                    return null;
+                }
+
+                waiting++;
+                try {
+                    long nanos = waitNanos;
+                    while (!admissible(key)) {
+                        if (nanos <= 0L) {
+                            return null;
+                        }
+                        nanos = available.awaitNanos(nanos);
+                    }
+                } finally {
+                    waiting--;
+                }
+            }
+
+            inflight++;
+            if (!key.isEmpty()) {
+                running.merge(key, 1, Integer::sum);
+            }
+            return new Permit(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return new StringBuilder(getClass().getSimpleName()).append("[limit=").append((int) limit)
+                    .append(", range=").append(minLimit).append('-').append(maxLimit).append(", running=")
+                    .append(inflight).append(", waiting=").append(waiting).append('/').append(queueSize)
+                    .append(", perKey=").append(keyLimit).append(']').toString();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
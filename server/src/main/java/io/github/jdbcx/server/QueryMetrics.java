@@ -0,0 +1,296 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.server;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import io.github.jdbcx.Result;
+import io.github.jdbcx.Row;
+import io.github.jdbcx.data.IterableBuffer;
+import io.github.jdbcx.data.IterableColumns;
+import io.github.jdbcx.data.IterableResultSet;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter.MeterProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Metrics of queries, including time spent in each phase, as well as number of
+ * rows and bytes in each response. All of them are tagged by query mode,
+ * format and compression, and optionally tenant.
+ */
+final class QueryMetrics {
+    static final String PHASE_PARSE = "parse";
+    static final String PHASE_ACL = "acl";
+    static final String PHASE_ADMISSION = "admission";
+    static final String PHASE_EXECUTE = "execute";
+    static final String PHASE_FETCH = "fetch";
+    static final String PHASE_FIRST_ROW = "first_row";
+    static final String PHASE_SERIALIZE = "serialize";
+    static final String PHASE_COMPRESS = "compress";
+    static final String PHASE_WRITE = "write";
+
+    static final String TAG_MODE = "mode";
+    static final String TAG_FORMAT = "format";
+    static final String TAG_COMPRESSION = "compression";
+    static final String TAG_TENANT = "tenant";
+    static final String TAG_PHASE = "phase";
+    static final String TAG_COMPRESSED = "compressed";
+
+    static final String UNKNOWN_TENANT = "none";
+
+    /**
+     * Output stream keeps track of written bytes, time spent in writing, and when
+     * the first byte was written.
+     */
+    static final class MeteredOutputStream extends FilterOutputStream {
+        private long bytes;
+        private long nanos;
+        private long firstWriteTime;
+
+        MeteredOutputStream(OutputStream out) {
+            super(out);
+
+            this.bytes = 0L;
+            this.nanos = 0L;
+            this.firstWriteTime = 0L;
+        }
+
+        long getBytes() {
+            return bytes;
+        }
+
+        long getNanos() {
+            return nanos;
+        }
+
+        long getFirstWriteTime() {
+            return firstWriteTime;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            final long startTime = System.nanoTime();
+            if (firstWriteTime == 0L) {
+                firstWriteTime = startTime;
+            }
+            out.write(b);
+            bytes++;
+            nanos += System.nanoTime() - startTime;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            final long startTime = System.nanoTime();
+            if (firstWriteTime == 0L) {
+                firstWriteTime = startTime;
+            }
+            out.write(b, off, len);
+            bytes += len;
+            nanos += System.nanoTime() - startTime;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            final long startTime = System.nanoTime();
+            out.flush();
+            nanos += System.nanoTime() - startTime;
+        }
+
+        @Override
+        public void close() throws IOException {
+            final long startTime = System.nanoTime();
+            try {
+                out.close();
+            } finally {
+                nanos += System.nanoTime() - startTime;
+            }
+        }
+    }
+
+    /**
+     * Rows keep track of time spent in fetching, and when the first row was
+     * fetched, so that fetching is not mistaken for serialization.
+     */
+    static final class MeteredRows implements Iterable<Row> {
+        private final Iterable<Row> rows;
+
+        private long nanos;
+        private long firstRowTime;
+
+        MeteredRows(Iterable<Row> rows) {
+            this.rows = rows;
+
+            this.nanos = 0L;
+            this.firstRowTime = 0L;
+        }
+
+        long getNanos() {
+            return nanos;
+        }
+
+        long getFirstRowTime() {
+            return firstRowTime;
+        }
+
+        @Override
+        public Iterator<Row> iterator() {
+            final long startTime = System.nanoTime();
+            final Iterator<Row> it = rows.iterator();
+            nanos += System.nanoTime() - startTime;
+            return new Iterator<Row>() {
+                @Override
+                public boolean hasNext() {
+                    final long startTime = System.nanoTime();
+                    try {
+                        return it.hasNext();
+                    } finally {
+                        nanos += System.nanoTime() - startTime;
+                    }
+                }
+
+                @Override
+                public Row next() {
+                    final long startTime = System.nanoTime();
+                    try {
+                        final Row row = it.next();
+                        if (firstRowTime == 0L) {
+                            firstRowTime = System.nanoTime();
+                        }
+                        return row;
+                    } finally {
+                        nanos += System.nanoTime() - startTime;
+                    }
+                }
+            };
+        }
+    }
+
+    /**
+     * Gets number of rows in the given result, which is only known after the
+     * result was consumed.
+     *
+     * @param result non-null result
+     * @return number of rows, or -1 when it's unknown
+     */
+    static long getRowCount(Result<?> result) {
+        final Class<?> type = result.type();
+        if (type == IterableBuffer.class) {
+            return result.get(IterableBuffer.class).size();
+        } else if (type == IterableColumns.class) {
+            return result.get(IterableColumns.class).size();
+        } else if (type == Long.class) {
+            return 1L;
+        }
+
+        final Iterable<?> rows = result.rows();
+        return rows instanceof IterableResultSet ? ((IterableResultSet) rows).getRowCount() : -1L;
+    }
+
+    private final MeterProvider<Timer> phases;
+    private final MeterProvider<DistributionSummary> rows;
+    private final MeterProvider<DistributionSummary> bytes;
+    private final boolean tenantTag;
+
+    QueryMetrics(MeterRegistry registry, boolean tenantTag) {
+        this.phases = Timer.builder("jdbcx.query.phase").description("Time spent in each phase of a query")
+                .publishPercentileHistogram().withRegistry(registry);
+        this.rows = DistributionSummary.builder("jdbcx.query.rows").description("Number of rows in a response")
+                .baseUnit("rows").publishPercentileHistogram().withRegistry(registry);
+        this.bytes = DistributionSummary.builder("jdbcx.query.bytes")
+                .description("Number of bytes in a response, before and after compression").baseUnit("bytes")
+                .publishPercentileHistogram().withRegistry(registry);
+        this.tenantTag = tenantTag;
+    }
+
+    Tags getTags(Request request) {
+        final Tags tags = Tags.of(TAG_MODE, request.getQueryMode().name().toLowerCase(Locale.ROOT), TAG_FORMAT,
+                request.getFormat().name(), TAG_COMPRESSION, request.getCompression().name());
+        if (!tenantTag) {
+            return tags;
+        }
+        final String tenant = request.getTenant();
+        return tags.and(TAG_TENANT, tenant.isEmpty() ? UNKNOWN_TENANT : tenant);
+    }
+
+    void record(Request request, String phase, long nanos) {
+        if (nanos >= 0L) {
+            phases.withTags(getTags(request).and(TAG_PHASE, phase)).record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Records time spent in writing an already serialized response, for example
+     * a materialized result, along with number of bytes.
+     *
+     * @param request non-null request
+     * @param wire    non-null stream of the response
+     */
+    void record(Request request, MeteredOutputStream wire) {
+        final Tags tags = getTags(request);
+        phases.withTags(tags.and(TAG_PHASE, PHASE_WRITE)).record(wire.getNanos(), TimeUnit.NANOSECONDS);
+        bytes.withTags(tags.and(TAG_COMPRESSED, String.valueOf(request.hasCompression()))).record(wire.getBytes());
+    }
+
+    /**
+     * Records phases of writing a response, along with number of rows and bytes.
+     *
+     * @param request   non-null request
+     * @param result    optional result, which was written into the response
+     * @param startTime start time of the query in nanoseconds
+     * @param elapsed   nanoseconds spent in writing the response
+     * @param fetched   optional rows, which were fetched while writing the
+     *                  response
+     * @param plain     non-null stream before compression
+     * @param wire      non-null stream after compression
+     */
+    void record(Request request, Result<?> result, long startTime, long elapsed, MeteredRows fetched,
+            MeteredOutputStream plain, MeteredOutputStream wire) {
+        final Tags tags = getTags(request);
+        final long firstRowTime = fetched != null && fetched.getFirstRowTime() > 0L ? fetched.getFirstRowTime()
+                : plain.getFirstWriteTime();
+        if (firstRowTime > 0L) {
+            phases.withTags(tags.and(TAG_PHASE, PHASE_FIRST_ROW)).record(firstRowTime - startTime,
+                    TimeUnit.NANOSECONDS);
+        }
+        final long fetch = fetched != null ? fetched.getNanos() : 0L;
+        if (fetched != null) {
+            phases.withTags(tags.and(TAG_PHASE, PHASE_FETCH)).record(fetch, TimeUnit.NANOSECONDS);
+        }
+        phases.withTags(tags.and(TAG_PHASE, PHASE_SERIALIZE))
+                .record(Math.max(0L, elapsed - fetch - plain.getNanos()), TimeUnit.NANOSECONDS);
+        if (plain != wire) {
+            phases.withTags(tags.and(TAG_PHASE, PHASE_COMPRESS))
+                    .record(Math.max(0L, plain.getNanos() - wire.getNanos()), TimeUnit.NANOSECONDS);
+        }
+        phases.withTags(tags.and(TAG_PHASE, PHASE_WRITE)).record(wire.getNanos(), TimeUnit.NANOSECONDS);
+
+        final long count = result != null ? getRowCount(result) : -1L;
+        if (count >= 0L) {
+            rows.withTags(tags).record(count);
+        }
+        bytes.withTags(tags.and(TAG_COMPRESSED, Boolean.FALSE.toString())).record(plain.getBytes());
+        if (plain != wire) {
+            bytes.withTags(tags.and(TAG_COMPRESSED, Boolean.TRUE.toString())).record(wire.getBytes());
+        }
+    }
+}
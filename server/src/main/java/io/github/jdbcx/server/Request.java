@@ -34,6 +34,19 @@ public class Request {
     protected final JdbcDialect dialect;
     protected final Object implementation;
 
+    // zstd dictionary negotiated for the response, see ZstdDictionaries
+    private String zstdDictAccepted;
+    private String zstdDictKey;
+    private long zstdDictId;
+    private String zstdDictHeader;
+
+    // outcome of a batch request, see QueryBatch
+    private String updateCounts;
+    private int failedQuery;
+
+    // admission permit, see QueryLimiter
+    private QueryLimiter.Permit permit;
+
     protected Request(String method, QueryMode mode, QueryInfo info, JdbcDialect dialect, Object implementation) {
         this.method = method != null ? method : Constants.EMPTY_STRING;
         this.mode = mode != null ? mode : QueryMode.SUBMIT;
@@ -65,7 +78,7 @@ public class Request {
     }
 
     public boolean hasResult() {
-        return info.getResult() != null;
+        return info.getResult() != null || info.getFile() != null;
     }
 
     public boolean hasTenantId() {
@@ -77,7 +90,7 @@ public class Request {
         if (result != null) {
             return result.isActive() ? -1 : 1;
         }
-        return 0;
+        return info.getFile() != null ? 1 : 0;
     }
 
     public boolean isTransactional() {
@@ -136,6 +149,84 @@ public class Request {
         return clazz.cast(implementation);
     }
 
+    /**
+     * Gets value of the {@code X-Zstd-Dict} response header.
+     *
+     * @return value of the response header, or {@code null} when zstd
+     *         dictionary is not negotiated
+     */
+    public String getZstdDictionaryHeader() {
+        return zstdDictHeader;
+    }
+
+    /**
+     * Gets value of the {@code X-Jdbcx-Update-Counts} response header.
+     *
+     * @return comma separated update counts of a batch request, or {@code null}
+     *         when it's not a batch request
+     */
+    public String getUpdateCountsHeader() {
+        return updateCounts;
+    }
+
+    /**
+     * Gets value of the {@code X-Jdbcx-Failed-Query} response header.
+     *
+     * @return one-based position of the failed query in a batch request, or zero
+     *         when nothing failed
+     */
+    public int getFailedQueryHeader() {
+        return failedQuery;
+    }
+
+    String getAcceptedZstdDictionaries() {
+        return zstdDictAccepted;
+    }
+
+    String getZstdDictionaryKey() {
+        return zstdDictKey;
+    }
+
+    long getZstdDictionaryId() {
+        return zstdDictId;
+    }
+
+    void setAcceptedZstdDictionaries(String accepted) {
+        this.zstdDictAccepted = accepted;
+    }
+
+    void setZstdDictionary(String key, long id, String header) {
+        this.zstdDictKey = key;
+        this.zstdDictId = id;
+        this.zstdDictHeader = header;
+    }
+
+    void setBatchOutcome(long[] counts, int failedIndex) {
+        final StringBuilder builder = new StringBuilder(counts.length * 3);
+        for (long count : counts) {
+            builder.append(count).append(',');
+        }
+        if (builder.length() > 0) {
+            builder.setLength(builder.length() - 1);
+        }
+        this.updateCounts = builder.toString();
+        this.failedQuery = failedIndex + 1;
+    }
+
+    void setPermit(QueryLimiter.Permit permit) {
+        this.permit = permit;
+    }
+
+    /**
+     * Stops measuring latency of the query for admission control, so that time
+     * spent on writing the response does not count.
+     */
+    void stopLatency() {
+        if (permit != null) {
+            permit.stop();
+        }
+    }
+
     public String toUrl(String baseUrl) {
         StringBuilder builder = new StringBuilder();
         if (!Checker.isNullOrEmpty(baseUrl)) {
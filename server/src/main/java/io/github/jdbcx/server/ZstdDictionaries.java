@@ -0,0 +1,377 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.regex.Pattern;
+
+import io.github.jdbcx.Cache;
+import io.github.jdbcx.Checker;
+import io.github.jdbcx.Constants;
+import io.github.jdbcx.Logger;
+import io.github.jdbcx.LoggerFactory;
+import io.github.jdbcx.Threads;
+import io.github.jdbcx.Utils;
+import io.github.jdbcx.compress.ZstdDictionaryStore;
+
+/**
+ * Trains zstd dictionaries from sampled responses, and negotiates them with
+ * clients by id. Responses are grouped by key, which starts with the scope of
+ * the caller, made of the datasource and the token, user and tenant of the
+ * request, followed by the format ({@link #SCOPE_DATASOURCE}), and optionally
+ * the query with literals stripped ({@link #SCOPE_TEMPLATE}). Once enough
+ * responses are sampled for a key, a dictionary is trained in background and
+ * saved into the store, along with an index mapping keys to dictionary ids.
+ *
+ * <p>
+ * A dictionary holds fragments of the responses it was trained from, so it's
+ * only negotiated with, and served to, callers in the same scope.
+ *
+ * <p>
+ * A dictionary is only used when the client has it, according to the
+ * {@code X-Zstd-Dict} request header. Otherwise the response is compressed
+ * without dictionary, and its id is suggested to the client in response header
+ * for subsequent requests.
+ */
+final class ZstdDictionaries {
+    private static final Logger log = LoggerFactory.getLogger(ZstdDictionaries.class);
+
+    static final String SCOPE_DATASOURCE = "datasource";
+    static final String SCOPE_TEMPLATE = "template";
+
+    static final String INDEX_FILE = "index.properties";
+
+    // seconds a sampler is kept without new samples
+    static final long SAMPLER_EXPIRY = 3600L;
+
+    private static final Pattern LITERALS = Pattern
+            .compile("'(?:[^']|'')*'|\\b\\d+(?:\\.\\d+)?(?:[eE][+-]?\\d+)?\\b");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    final class Sampler {
+        private final String key;
+        private final List<byte[]> samples;
+
+        private boolean training;
+
+        Sampler(String key) {
+            this.key = key;
+            this.samples = new ArrayList<>(maxSamples);
+            this.training = false;
+        }
+
+        synchronized boolean isFull() {
+            return training || samples.size() >= maxSamples;
+        }
+
+        void add(byte[] sample) {
+            final List<byte[]> list;
+            synchronized (this) {
+                if (training || samples.size() >= maxSamples) {
+                    return;
+                }
+                samples.add(sample);
+                if (samples.size() < maxSamples) {
+                    return;
+                }
+                training = true;
+                list = new ArrayList<>(samples);
+                samples.clear();
+            }
+            pool.execute(() -> train(this, list));
+        }
+
+        synchronized void reset() {
+            training = false;
+        }
+    }
+
+    final class SamplingOutputStream extends FilterOutputStream {
+        private final Sampler sampler;
+        private final ByteArrayOutputStream buffer;
+
+        SamplingOutputStream(OutputStream out, Sampler sampler) {
+            super(out);
+
+            this.sampler = sampler;
+            this.buffer = new ByteArrayOutputStream(Math.min(sampleSize, 4096));
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            if (buffer.size() < sampleSize) {
+                buffer.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            final int remain = sampleSize - buffer.size();
+            if (remain > 0) {
+                buffer.write(b, off, Math.min(remain, len));
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+            if (buffer.size() > 0) {
+                sampler.add(buffer.toByteArray());
+            }
+        }
+    }
+
+    static String getTemplate(String query) {
+        if (Checker.isNullOrBlank(query)) {
+            return query;
+        }
+        return SPACES.matcher(LITERALS.matcher(query.trim()).replaceAll("?")).replaceAll(" ")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private final ZstdDictionaryStore store;
+    private final String datasource;
+    private final boolean byTemplate;
+    private final int maxSamples;
+    private final int sampleSize;
+    private final int dictSize;
+
+    private final Map<String, Long> index;
+    private final Cache<String, Sampler> samplers;
+    private final Executor pool;
+
+    ZstdDictionaries(String dir, String datasource, String scope, int maxSamplers, int maxSamples, int sampleSize,
+            int dictSize) {
+        this(dir, datasource, scope, maxSamplers, maxSamples, sampleSize, dictSize,
+                Threads.newCachedPool("JdbcxZstd-", 60000L));
+    }
+
+    ZstdDictionaries(String dir, String datasource, String scope, int maxSamplers, int maxSamples, int sampleSize,
+            int dictSize, Executor pool) {
+        this.store = ZstdDictionaryStore.of(dir);
+        this.datasource = datasource != null ? datasource : Constants.EMPTY_STRING;
+        this.byTemplate = SCOPE_TEMPLATE.equals(scope);
+        this.maxSamples = maxSamples < 1 ? 1 : maxSamples;
+        this.sampleSize = sampleSize < 1 ? 1 : sampleSize;
+        this.dictSize = dictSize < 256 ? 256 : dictSize;
+
+        this.index = new ConcurrentHashMap<>();
+        // each sampler may hold up to maxSamples * sampleSize bytes
+        this.samplers = Cache.create(maxSamplers, SAMPLER_EXPIRY, Sampler::new);
+        this.pool = pool;
+
+        loadIndex();
+    }
+
+    private void loadIndex() {
+        final Path dir = store.getDirectory();
+        final Path file;
+        if (dir == null || !Files.isRegularFile(file = dir.resolve(INDEX_FILE))) {
+            return;
+        }
+
+        Properties props = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            props.load(in);
+        } catch (IOException e) {
+            log.warn("Failed to load zstd dictionary index from [%s]", file, e);
+            return;
+        }
+        for (Entry<Object, Object> entry : props.entrySet()) {
+            try {
+                final long id = Long.parseLong((String) entry.getValue());
+                if (store.contains(id)) {
+                    index.put((String) entry.getKey(), id);
+                }
+            } catch (NumberFormatException e) {
+                log.debug("Skip invalid zstd dictionary id of [%s]: %s", entry.getKey(), entry.getValue());
+            }
+        }
+        log.debug("Loaded %d zstd dictionaries from [%s]", index.size(), file);
+    }
+
+    private void saveIndex(Map<String, Long> entries) throws IOException {
+        final Path dir = store.getDirectory();
+        if (dir == null) {
+            return;
+        }
+
+        Properties props = new Properties();
+        for (Entry<String, Long> entry : entries.entrySet()) {
+            props.setProperty(entry.getKey(), Long.toString(entry.getValue()));
+        }
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, INDEX_FILE, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                props.store(out, null);
+            }
+            Files.move(tmp, dir.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    void train(Sampler sampler, List<byte[]> samples) {
+        try {
+            final long id = store.put(ZstdDictionaryStore.train(samples, dictSize));
+            synchronized (index) {
+                // persist before publishing, so that an id in use always survives restart
+                Map<String, Long> entries = new HashMap<>(index);
+                entries.put(sampler.key, id);
+                saveIndex(entries);
+                index.put(sampler.key, id);
+            }
+            samplers.invalidate(sampler.key);
+            log.debug("Trained zstd dictionary %d for [%s] from %d samples", id, sampler.key, samples.size());
+        } catch (Exception e) {
+            log.warn("Failed to train zstd dictionary for [%s]", sampler.key, e);
+            sampler.reset();
+        }
+    }
+
+    /**
+     * Gets scope of the caller. Token, user and tenant are hashed, so that they
+     * are not written into the index file.
+     *
+     * @param token  optional token
+     * @param user   optional user
+     * @param tenant optional tenant
+     * @return non-null scope
+     */
+    String getScope(String token, String user, String tenant) {
+        return Utils.format("%08x:%08x", datasource.hashCode(), Arrays.asList(token != null ? token : "",
+                user != null ? user : "", tenant != null ? tenant : "").hashCode());
+    }
+
+    String getKey(Request request) {
+        final QueryInfo info = request.getQueryInfo();
+        final String key = Utils.format("%s:%s", getScope(info.token, info.user, info.tenant),
+                request.getFormat().name());
+        return byTemplate ? Utils.format("%s:%08x", key, getTemplate(info.query).hashCode()) : key;
+    }
+
+    /**
+     * Gets id of the dictionary trained for the given key.
+     *
+     * @param key non-null key
+     * @return id of the dictionary, zero when not available
+     */
+    long getId(String key) {
+        final Long id = index.get(key);
+        return id != null ? id : 0L;
+    }
+
+    /**
+     * Gets the given dictionary for downloading.
+     *
+     * @param id    id of the dictionary
+     * @param scope non-null scope of the caller, see
+     *              {@link #getScope(String, String, String)}
+     * @return dictionary, null when not found or it's trained for another scope
+     * @throws IOException when failed to read the dictionary
+     */
+    byte[] get(long id, String scope) throws IOException {
+        final String prefix = scope.concat(":");
+        for (Entry<String, Long> entry : index.entrySet()) {
+            if (entry.getValue() == id && entry.getKey().startsWith(prefix)) {
+                return store.get(id);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Negotiates dictionary for the response, according to dictionaries
+     * accepted by the client. It's a no-op when the client does not support zstd
+     * dictionary.
+     *
+     * @param request non-null request
+     */
+    void negotiate(Request request) {
+        final String accepted = request.getAcceptedZstdDictionaries();
+        if (accepted == null) {
+            return;
+        }
+
+        final String key = getKey(request);
+        final long id = getId(key);
+        if (id == 0L) {
+            request.setZstdDictionary(key, 0L, "0");
+        } else if (Utils.split(accepted, ';', true, true, false).contains(Long.toString(id))) {
+            request.setZstdDictionary(key, id, Long.toString(id));
+        } else {
+            request.setZstdDictionary(key, 0L, "0;" + id);
+        }
+    }
+
+    /**
+     * Wraps the given uncompressed output stream for sampling, when the response
+     * may help training a dictionary.
+     *
+     * @param request non-null request
+     * @param out     non-null output stream
+     * @return non-null output stream, which could be the given one
+     */
+    OutputStream sample(Request request, OutputStream out) {
+        final String key = request.getZstdDictionaryKey();
+        if (key == null || index.containsKey(key)) {
+            return out;
+        }
+
+        final Sampler sampler = samplers.get(key);
+        return sampler.isFull() ? out : new SamplingOutputStream(out, sampler);
+    }
+
+    /**
+     * Compresses data into the output stream using the negotiated dictionary.
+     *
+     * @param out non-null output stream
+     * @param id  id of the dictionary
+     * @return non-null output stream
+     * @throws IOException when failed to create the output stream
+     */
+    OutputStream compress(OutputStream out, long id) throws IOException {
+        return store.compress(out, -1, id);
+    }
+
+    void close() {
+        if (pool instanceof ExecutorService) {
+            ((ExecutorService) pool).shutdownNow();
+        }
+    }
+}
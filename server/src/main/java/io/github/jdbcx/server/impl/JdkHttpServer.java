@@ -46,6 +46,7 @@ import io.github.jdbcx.LoggerFactory;
 import io.github.jdbcx.Option;
 import io.github.jdbcx.QueryContext;
 import io.github.jdbcx.QueryMode;
+import io.github.jdbcx.RequestParameter;
 import io.github.jdbcx.Stream;
 import io.github.jdbcx.Threads;
 import io.github.jdbcx.Utils;
@@ -84,11 +85,11 @@ public final class JdkHttpServer extends BridgeServer implements HttpHandler {
         server.createContext(context, this);
 
         final String desc;
-        if (threads <= 0) {
+        if (fastPool == null) {
             desc = "unlimited";
             server.setExecutor(Threads.newCachedPool(THREAD_PREFIX, Duration.ofSeconds(60L).toMillis()));
         } else {
-            desc = String.valueOf(threads);
+            desc = (threads > 0 ? String.valueOf(threads) : "unlimited") + (virtualThreads ? ", virtual" : "");
             server.setExecutor(fastPool);
         }
         log.info("HttpServer instantiated - backlog (%d), threads (%s)", backlog, desc);
@@ -124,6 +125,18 @@ public final class JdkHttpServer extends BridgeServer implements HttpHandler {
         if (request.hasCompression()) {
             headers.set(HEADER_CONTENT_ENCODING, request.getCompression().encoding());
         }
+        final String dict = request.getZstdDictionaryHeader();
+        if (dict != null) {
+            headers.set(RequestParameter.ZSTD_DICT.header(), dict);
+        }
+        final String counts = request.getUpdateCountsHeader();
+        if (counts != null) {
+            headers.set(HEADER_UPDATE_COUNTS, counts);
+            final int failed = request.getFailedQueryHeader();
+            if (failed > 0) {
+                headers.set(HEADER_FAILED_QUERY, String.valueOf(failed));
+            }
+        }
     }
 
     @Override
@@ -133,6 +146,24 @@ public final class JdkHttpServer extends BridgeServer implements HttpHandler {
         return exchange.getResponseBody();
     }
 
+    @Override
+    protected OutputStream prepareResponse(Request request, int responseCode, long contentLength, String... headers)
+            throws IOException {
+        final int len = headers != null ? headers.length : 0;
+        if (len % 2 != 0) {
+            throw new IllegalArgumentException("Even number of headers required but we got " + len);
+        }
+
+        HttpExchange exchange = request.getImplementation(HttpExchange.class);
+        Headers responseHeaders = exchange.getResponseHeaders();
+        for (int i = 0; i < len; i++) {
+            responseHeaders.set(headers[i++], headers[i]);
+        }
+        // zero means chunked encoding for HttpExchange, and -1 means no content
+        exchange.sendResponseHeaders(responseCode, contentLength > 0L ? contentLength : -1L);
+        return exchange.getResponseBody();
+    }
+
     @Override
     protected int redirect(Request request) throws IOException {
         HttpExchange exchange = request.getImplementation(HttpExchange.class);
@@ -267,6 +298,7 @@ public final class JdkHttpServer extends BridgeServer implements HttpHandler {
     @Override
     public void start() {
         server.start();
+        startFlightSql();
         log.info("%s bridge server %s started at %s", Constants.PRODUCT_NAME, Version.current().toCompactString(),
                 baseUrl);
     }
@@ -449,6 +449,8 @@ public abstract class BaseBridgeServerTest extends BaseIntegrationTest {
         }
         Assert.assertEquals(conn.getHeaderField(BridgeServer.HEADER_CONTENT_TYPE), Format.CSV.mimeType());
         Assert.assertEquals(conn.getResponseCode(), HttpURLConnection.HTTP_OK);
+        Assert.assertEquals(conn.getHeaderField(BridgeServer.HEADER_UPDATE_COUNTS), "-1,-1");
+        Assert.assertNull(conn.getHeaderField(BridgeServer.HEADER_FAILED_QUERY));
         Assert.assertEquals(Stream.readAllAsString(conn.getInputStream()), "2\n2");
 
         web = new WebExecutor(VariableTag.BRACE, config);
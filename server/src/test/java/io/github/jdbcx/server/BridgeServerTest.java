@@ -0,0 +1,149 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Properties;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.jdbcx.Compression;
+import io.github.jdbcx.Constants;
+import io.github.jdbcx.Format;
+import io.github.jdbcx.Option;
+import io.github.jdbcx.Result;
+import io.github.jdbcx.Row;
+import io.github.jdbcx.Stream;
+import io.github.jdbcx.Utils;
+import io.github.jdbcx.data.IterableBuffer;
+import io.github.jdbcx.data.IterableColumns;
+import io.github.jdbcx.server.impl.JdkHttpServer;
+
+public class BridgeServerTest {
+    static final String QUERY = "select generate_series::INT n from generate_series(1, 100) order by 1";
+
+    static JdkHttpServer newServer(long asyncBufferSize) {
+        Properties props = new Properties();
+        JdkHttpServer.OPTION_DATASOURCE_CONFIG.setJdbcxValue(props, "target/test-classes/test-datasource.properties");
+        JdkHttpServer.OPTION_ASYNC_BUFFER.setJdbcxValue(props, String.valueOf(asyncBufferSize));
+        Option.SERVER_PORT.setJdbcxValue(props, "0");
+        Option.SERVER_URL.setJdbcxValue(props, "http://localhost:0/");
+        return new JdkHttpServer(props);
+    }
+
+    static void check(Result<?> result, Class<?> type) {
+        Assert.assertEquals(result.type(), type);
+        int count = 0;
+        for (Row r : result.rows()) {
+            Assert.assertEquals(r.value(0).asInt(), ++count);
+        }
+        Assert.assertEquals(count, 100);
+    }
+
+    @Test(groups = { "unit" })
+    public void testBuffer() throws Exception {
+        for (Object[] arr : new Object[][] { { 1024L * 1024L, Format.ARROW_STREAM, IterableColumns.class },
+                { 1024L * 1024L, Format.CSV, IterableBuffer.class },
+                // too many rows for columns
+                { 200L, Format.ARROW, IterableBuffer.class } }) {
+            final JdkHttpServer server = newServer((long) arr[0]);
+            final QueryInfo info = new QueryInfo(null, QUERY, null, (Format) arr[1], Compression.NONE, "", "", "", "");
+            try (Connection conn = server.datasource.getConnection();
+                    Statement stmt = conn.createStatement();
+                    ResultSet rs = stmt.executeQuery(QUERY);
+                    Result<?> result = server.buffer(info, rs)) {
+                check(result, (Class<?>) arr[2]);
+            } finally {
+                server.stop();
+            }
+        }
+    }
+
+    static HttpURLConnection open(String url, String range) throws IOException {
+        final HttpURLConnection conn = (HttpURLConnection) Utils.toURL(url).openConnection();
+        if (range != null) {
+            conn.setRequestProperty("Range", range);
+        }
+        return conn;
+    }
+
+    @Test(groups = { "unit" })
+    public void testRange() throws Exception {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        final String baseUrl = "http://127.0.0.1:" + port + "/";
+
+        Properties props = new Properties();
+        JdkHttpServer.OPTION_DATASOURCE_CONFIG.setJdbcxValue(props, "target/test-classes/test-datasource.properties");
+        JdkHttpServer.OPTION_ASYNC_BUFFER.setJdbcxValue(props, String.valueOf(1024L * 1024L));
+        Option.SERVER_HOST.setJdbcxValue(props, "127.0.0.1");
+        Option.SERVER_PORT.setJdbcxValue(props, String.valueOf(port));
+        Option.SERVER_URL.setJdbcxValue(props, baseUrl);
+        final JdkHttpServer server = new JdkHttpServer(props);
+        try {
+            server.start();
+
+            HttpURLConnection conn = open(baseUrl + "?m=a&f=csv&q=" + Utils.encode(QUERY), null);
+            Assert.assertEquals(conn.getResponseCode(), HttpURLConnection.HTTP_OK);
+            final String url;
+            try (InputStream in = conn.getInputStream()) {
+                // quoted remote table, for example 'http://.../<qid>.csv?m=a&...'
+                final String str = Stream.readAllAsString(in);
+                url = str.substring(1, str.indexOf('?'));
+            }
+            Assert.assertTrue(url.startsWith(baseUrl), url);
+
+            final byte[] bytes;
+            conn = open(url, null);
+            Assert.assertEquals(conn.getResponseCode(), HttpURLConnection.HTTP_OK);
+            Assert.assertEquals(conn.getHeaderField("Accept-Ranges"), "bytes");
+            try (InputStream in = conn.getInputStream()) {
+                bytes = Stream.readAllBytes(in);
+            }
+            Assert.assertTrue(new String(bytes, Constants.DEFAULT_CHARSET).startsWith("n\n1\n2\n"),
+                    new String(bytes, Constants.DEFAULT_CHARSET));
+
+            conn = open(url, "bytes=2-5");
+            Assert.assertEquals(conn.getResponseCode(), HttpURLConnection.HTTP_PARTIAL);
+            Assert.assertEquals(conn.getHeaderField("Content-Range"), "bytes 2-5/" + bytes.length);
+            try (InputStream in = conn.getInputStream()) {
+                Assert.assertEquals(Stream.readAllBytes(in), Arrays.copyOfRange(bytes, 2, 6));
+            }
+
+            conn = open(url, "bytes=-3");
+            Assert.assertEquals(conn.getResponseCode(), HttpURLConnection.HTTP_PARTIAL);
+            try (InputStream in = conn.getInputStream()) {
+                Assert.assertEquals(Stream.readAllBytes(in), Arrays.copyOfRange(bytes, bytes.length - 3, bytes.length));
+            }
+
+            conn = open(url, "bytes=" + bytes.length + "-");
+            Assert.assertEquals(conn.getResponseCode(), 416);
+            Assert.assertEquals(conn.getHeaderField("Content-Range"), "bytes */" + bytes.length);
+        } finally {
+            server.stop();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.server;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.jdbcx.Result;
+import io.github.jdbcx.Row;
+import io.github.jdbcx.VariableTag;
+
+public class QueryBatchTest {
+    static List<String[]> toList(String... queries) {
+        List<String[]> list = new ArrayList<>(queries.length);
+        for (int i = 0; i < queries.length; i++) {
+            list.add(new String[] { "q" + (i + 1), queries[i] });
+        }
+        return list;
+    }
+
+    @Test(groups = { "unit" })
+    public void testGetStatementLength() {
+        Assert.assertEquals(QueryBatch.getStatementLength(""), 0);
+        Assert.assertEquals(QueryBatch.getStatementLength("delete from t"), 13);
+        Assert.assertEquals(QueryBatch.getStatementLength("delete from t; \n"), 13);
+        Assert.assertEquals(QueryBatch.getStatementLength("delete from t where a=';' -- ;\n;"), 31);
+        Assert.assertEquals(QueryBatch.getStatementLength("delete from t; delete from t"), -1);
+        Assert.assertEquals(QueryBatch.getStatementLength("delete from t where a='"), -1);
+    }
+
+    @Test(groups = { "unit" })
+    public void testParse() {
+        final VariableTag tag = VariableTag.BRACE;
+        QueryBatch.Query q = QueryBatch.parse("a", "select 1", tag);
+        Assert.assertFalse(q.dml);
+        q = QueryBatch.parse("a", "-- comment\n update t set a=1;", tag);
+        Assert.assertTrue(q.dml);
+        Assert.assertNull(q.template);
+        Assert.assertEquals(q.sql, "-- comment\n update t set a=1");
+        Assert.assertFalse(QueryBatch.parse("a", "update t set a=1; update t set a=2", tag).dml);
+        Assert.assertFalse(QueryBatch.parse("a", "update t set a=${x}", tag).dml);
+        Assert.assertFalse(QueryBatch.parse("a", "insert into t {{ script: 1 }}", tag).dml);
+        Assert.assertTrue(QueryBatch.parse("a", "insert into t [[ script: 1 ]]", tag).dml);
+
+        q = QueryBatch.parse("a", "INSERT INTO t(a, b, c, d) VALUES (1, 'x''y', -2.50, null);", tag);
+        Assert.assertTrue(q.dml);
+        // string literals are kept as is, so that the database converts them as usual
+        Assert.assertEquals(q.template, "INSERT INTO t(a, b, c, d) VALUES (?,'x''y',?,NULL)");
+        Assert.assertEquals(q.params, Arrays.asList(1L, new BigDecimal("-2.50")));
+        q = QueryBatch.parse("a", "insert into t values('2026-01-01', 'x')", tag);
+        Assert.assertTrue(q.dml);
+        Assert.assertNull(q.template);
+        Assert.assertEquals(QueryBatch.parse("b", "insert into t values(99999999999999999999)", tag).params,
+                Arrays.asList(new BigDecimal("99999999999999999999")));
+
+        for (String sql : new String[] { "insert into t values (1), (2)", "insert into t values (now())",
+                "insert into t select 1", "insert into \"t\" values (1)", "insert into t values ('a\\'b')",
+                "insert into t values (null)", "insert into t values (0x1F)", "insert into t values (?)",
+                "insert into t values ('returning')", "insert into t(\"output\") values (1)" }) {
+            q = QueryBatch.parse("a", sql, tag);
+            Assert.assertTrue(q.dml, sql);
+            Assert.assertNull(q.template, sql);
+        }
+
+        // statements returning rows
+        for (String sql : new String[] { "insert into t values (1) returning a", "delete from t RETURNING *",
+                "update t set a = 1 output inserted.a", "insert into t output inserted.a values (1)" }) {
+            Assert.assertFalse(QueryBatch.parse("a", sql, tag).dml, sql);
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testExecute() throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+                Statement stmt = conn.createStatement()) {
+            QueryBatch batch = new QueryBatch(toList("create table t(a integer primary key, b text)",
+                    "insert into t values(1, 'a')", "insert into t values(2, 'b')", "insert into t values (3, 'c');",
+                    "update t set b = b || '!' where a > 1", "delete from t where a = 3", "select count(*) from t",
+                    "insert into t values(3, 'c')", "insert into t values(4, 'd')"), VariableTag.BRACE, 100);
+            try (Result<?> result = batch.execute("test", conn, stmt)) {
+                Assert.assertEquals(result.get(), 1L);
+            }
+            Assert.assertEquals(batch.getUpdateCounts(), new long[] { 0L, 1L, 1L, 1L, 2L, 1L, -1L, 1L, 1L });
+            Assert.assertEquals(batch.getFailedIndex(), -1);
+            Assert.assertTrue(conn.getAutoCommit());
+            try (ResultSet rs = stmt.executeQuery("select group_concat(b, ',') from t order by a")) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getString(1), "a,b!,c,d");
+            }
+
+            // last result is a query
+            batch = new QueryBatch(toList("delete from t", "select count(*) from t"), VariableTag.BRACE, 100);
+            try (Result<?> result = batch.execute("test", conn, stmt)) {
+                for (Row r : result.rows()) {
+                    Assert.assertEquals(r.value(0).asLong(), 0L);
+                }
+            }
+            Assert.assertEquals(batch.getUpdateCounts(), new long[] { 4L, -1L });
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testFailure() throws SQLException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+                Statement stmt = conn.createStatement()) {
+            stmt.execute("create table t(a integer primary key, b text)");
+
+            final QueryBatch batch = new QueryBatch(
+                    toList("insert into t values(1, 'a')", "insert into t values(2, 'b')",
+                            "insert into t values(1, 'c')", "insert into t values(4, 'd')"),
+                    VariableTag.BRACE, 100);
+            SQLException e = Assert.expectThrows(SQLException.class, () -> batch.execute("test", conn, stmt));
+            // sqlite does not return update counts of succeeded statements, so the run is replayed one by one
+            Assert.assertTrue(e.getMessage().startsWith("Failed to execute batch query [test] 3/4 [q3]"),
+                    e.getMessage());
+            Assert.assertEquals(batch.getFailedIndex(), 2);
+            // cleared after rollback
+            Assert.assertEquals(batch.getUpdateCounts(), new long[] { -1L, -1L, -1L, -1L });
+            Assert.assertTrue(conn.getAutoCommit());
+            // rolled back as a whole
+            try (ResultSet rs = stmt.executeQuery("select count(*) from t")) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(rs.getInt(1), 0);
+            }
+
+            // one by one
+            final QueryBatch single = new QueryBatch(
+                    toList("insert into t values(1, 'a')", "insert into t values(1, 'b')"), VariableTag.BRACE, 0);
+            e = Assert.expectThrows(SQLException.class, () -> single.execute("test", conn, stmt));
+            Assert.assertTrue(e.getMessage().contains("2/2 [q2]"), e.getMessage());
+            Assert.assertEquals(single.getUpdateCounts(), new long[] { 1L, -1L });
+            Assert.assertEquals(single.getFailedIndex(), 1);
+        }
+    }
+}
@@ -15,11 +15,15 @@
  */
 package io.github.jdbcx.server;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Arrays;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -27,6 +31,8 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import io.github.jdbcx.Compression;
+import io.github.jdbcx.Constants;
+import io.github.jdbcx.Field;
 import io.github.jdbcx.Format;
 import io.github.jdbcx.Result;
 
@@ -133,4 +139,28 @@ public class QueryInfoTest {
             Assert.assertTrue(conn.isClosed());
         }
     }
+
+    @Test(groups = { "unit" })
+    public void testMaterialize() throws IOException {
+        final Path file;
+        try (QueryInfo info = new QueryInfo(null, null, null, Format.CSV, null, null, null, null, null)) {
+            Assert.assertNull(info.getFile());
+            Assert.assertThrows(IllegalStateException.class, () -> info.materialize(null));
+
+            info.setResult(Result.of(Arrays.asList(Field.of("a"), Field.of("b")),
+                    new Object[][] { { "1", "x" }, { "2", "y" } }));
+            file = info.materialize(null);
+            Assert.assertNotNull(file);
+            Assert.assertNull(info.getResult(), "Result should have been released");
+            Assert.assertEquals(info.getFile(), file);
+            Assert.assertEquals(info.materialize(null), file);
+            Assert.assertEquals(new String(Files.readAllBytes(file), Constants.DEFAULT_CHARSET),
+                    "a,b\n1,x\n2,y");
+
+            Request request = new Request(null, null, info, null, null);
+            Assert.assertTrue(request.hasResult());
+            Assert.assertEquals(request.getResultState(), 1);
+        }
+        Assert.assertFalse(Files.exists(file), "File should have been deleted");
+    }
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.server;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class QueryLimiterTest {
+    @Test(groups = { "unit" })
+    public void testConstructor() {
+        QueryLimiter limiter = new QueryLimiter(0, 0, 0, -1, -1L, 0D);
+        Assert.assertEquals(limiter.getLimit(), 1);
+        Assert.assertEquals(limiter.getRunning(), 0);
+        Assert.assertEquals(limiter.getWaiting(), 0);
+
+        limiter = new QueryLimiter(5, 3, 0, 0, 0L, 0D);
+        Assert.assertEquals(limiter.getLimit(), 3);
+    }
+
+    @Test(groups = { "unit" })
+    public void testReject() throws InterruptedException {
+        QueryLimiter limiter = new QueryLimiter(1, 2, 0, 0, 1000L, 0D);
+        QueryLimiter.Permit p1 = limiter.tryAcquire(null);
+        QueryLimiter.Permit p2 = limiter.tryAcquire("");
+        Assert.assertNotNull(p1);
+        Assert.assertNotNull(p2);
+        Assert.assertEquals(limiter.getRunning(), 2);
+        // no room in the queue
+        Assert.assertNull(limiter.tryAcquire(null));
+
+        p1.close();
+        p1.close(); // no effect
+        Assert.assertEquals(limiter.getRunning(), 1);
+        try (QueryLimiter.Permit p = limiter.tryAcquire(null)) {
+            Assert.assertNotNull(p);
+            Assert.assertEquals(limiter.getRunning(), 2);
+        }
+        p2.close();
+        Assert.assertEquals(limiter.getRunning(), 0);
+    }
+
+    @Test(groups = { "unit" })
+    public void testWait() throws Exception {
+        QueryLimiter limiter = new QueryLimiter(1, 1, 0, 1, 50L, 0D);
+        QueryLimiter.Permit permit = limiter.tryAcquire(null);
+        Assert.assertNotNull(permit);
+        // timed out in the queue
+        long startTime = System.nanoTime();
+        Assert.assertNull(limiter.tryAcquire(null));
+        Assert.assertTrue(System.nanoTime() - startTime >= TimeUnit.MILLISECONDS.toNanos(40L));
+        Assert.assertEquals(limiter.getWaiting(), 0);
+        permit.close();
+
+        final QueryLimiter l = new QueryLimiter(1, 1, 0, 1, 5000L, 0D);
+        permit = l.tryAcquire(null);
+        CompletableFuture<QueryLimiter.Permit> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return l.tryAcquire(null);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (l.getWaiting() == 0) {
+            Thread.sleep(10L);
+        }
+        // queue is full
+        Assert.assertNull(l.tryAcquire(null));
+        permit.close();
+        try (QueryLimiter.Permit p = future.get(5L, TimeUnit.SECONDS)) {
+            Assert.assertNotNull(p);
+            Assert.assertEquals(l.getRunning(), 1);
+            Assert.assertEquals(l.getWaiting(), 0);
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testPerKeyLimit() throws InterruptedException {
+        QueryLimiter limiter = new QueryLimiter(3, 3, 1, 0, 0L, 0D);
+        try (QueryLimiter.Permit p1 = limiter.tryAcquire("t1")) {
+            Assert.assertNotNull(p1);
+            Assert.assertNull(limiter.tryAcquire("t1"));
+            try (QueryLimiter.Permit p2 = limiter.tryAcquire("t2"); QueryLimiter.Permit p3 = limiter.tryAcquire(null)) {
+                Assert.assertNotNull(p2);
+                Assert.assertNotNull(p3);
+                Assert.assertNull(limiter.tryAcquire("t3"));
+            }
+        }
+        try (QueryLimiter.Permit p = limiter.tryAcquire("t1")) {
+            Assert.assertNotNull(p);
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testAdaptiveLimit() throws InterruptedException {
+        QueryLimiter limiter = new QueryLimiter(2, 10, 0, 0, 0L, 2D);
+        QueryLimiter.Permit[] permits = new QueryLimiter.Permit[10];
+        for (int i = 0; i < 10; i++) {
+            permits[i] = limiter.tryAcquire(null);
+        }
+        // steady latency
+        for (int i = 0; i < 5; i++) {
+            limiter.release(permits[i], 1000L);
+        }
+        Assert.assertEquals(limiter.getLimit(), 10);
+
+        // latency spikes
+        for (int i = 5; i < 10; i++) {
+            limiter.release(permits[i], 100000L);
+        }
+        Assert.assertTrue(limiter.getLimit() < 10, "Limit should have been lowered");
+        for (int i = 0; i < 10; i++) {
+            limiter.release(limiter.tryAcquire(null), 100000000L);
+        }
+        Assert.assertEquals(limiter.getLimit(), 2, "Limit should never go below the minimum");
+
+        // recovers when latency is back to normal and permits are in use
+        final int limit = limiter.getLimit();
+        for (int i = 0; i < 200; i++) {
+            QueryLimiter.Permit p1 = limiter.tryAcquire(null);
+            QueryLimiter.Permit p2 = limiter.tryAcquire(null);
+            limiter.release(p1, 1000L);
+            limiter.release(p2, 1000L);
+        }
+        Assert.assertTrue(limiter.getLimit() > limit, "Limit should have been raised");
+    }
+}
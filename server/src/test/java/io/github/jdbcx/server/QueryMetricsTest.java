@@ -0,0 +1,138 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.jdbcx.Compression;
+import io.github.jdbcx.Format;
+import io.github.jdbcx.QueryMode;
+import io.github.jdbcx.Result;
+import io.github.jdbcx.Row;
+import io.github.jdbcx.data.IterableColumns;
+import io.github.jdbcx.server.QueryMetrics.MeteredOutputStream;
+import io.github.jdbcx.server.QueryMetrics.MeteredRows;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class QueryMetricsTest {
+    @Test(groups = { "unit" })
+    public void testMeteredOutputStream() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (MeteredOutputStream out = new MeteredOutputStream(bytes)) {
+            Assert.assertEquals(out.getBytes(), 0L);
+            Assert.assertEquals(out.getFirstWriteTime(), 0L);
+            out.write(1);
+            final long firstWriteTime = out.getFirstWriteTime();
+            Assert.assertTrue(firstWriteTime > 0L);
+            out.write(new byte[] { 2, 3, 4 }, 1, 2);
+            out.flush();
+            Assert.assertEquals(out.getBytes(), 3L);
+            Assert.assertEquals(out.getFirstWriteTime(), firstWriteTime);
+            Assert.assertTrue(out.getNanos() >= 0L);
+        }
+        Assert.assertEquals(bytes.toByteArray(), new byte[] { 1, 3, 4 });
+    }
+
+    @Test(groups = { "unit" })
+    public void testGetRowCount() throws IOException, SQLException {
+        Assert.assertEquals(QueryMetrics.getRowCount(Result.of(5L)), 1L);
+        Assert.assertEquals(QueryMetrics.getRowCount(Result.of("x")), -1L);
+
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+                Statement stmt = conn.createStatement()) {
+            try (Result<?> result = Result.of(stmt.executeQuery("select 1 union all select 2 union all select 3"))) {
+                Assert.assertEquals(QueryMetrics.getRowCount(result), 0L);
+                Result.writeTo(result, Format.CSV, null, new ByteArrayOutputStream());
+                Assert.assertEquals(QueryMetrics.getRowCount(result), 3L);
+            }
+            try (Result<?> result = Result.of(IterableColumns.of(stmt.executeQuery("select 1 union all select 2")))) {
+                Assert.assertEquals(QueryMetrics.getRowCount(result), 2L);
+            }
+        }
+    }
+
+    @Test(groups = { "unit" })
+    public void testRecord() throws IOException {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        final QueryMetrics metrics = new QueryMetrics(registry, true);
+        final Request request = new Request(null, QueryMode.DIRECT, null, "id", "select 1", null, Format.CSV,
+                Compression.GZIP, null, null, null, "t1", null, null);
+        Assert.assertEquals(metrics.getTags(request).stream().count(), 4L);
+        Assert.assertEquals(new QueryMetrics(new SimpleMeterRegistry(), false).getTags(request).stream().count(), 3L);
+
+        metrics.record(request, QueryMetrics.PHASE_EXECUTE, 1000L);
+        metrics.record(request, QueryMetrics.PHASE_PARSE, -1L);
+        Timer timer = registry.find("jdbcx.query.phase").tag(QueryMetrics.TAG_PHASE, QueryMetrics.PHASE_EXECUTE)
+                .tag(QueryMetrics.TAG_MODE, "direct").tag(QueryMetrics.TAG_FORMAT, "CSV")
+                .tag(QueryMetrics.TAG_COMPRESSION, "GZIP").tag(QueryMetrics.TAG_TENANT, "t1").timer();
+        Assert.assertNotNull(timer);
+        Assert.assertEquals(timer.count(), 1L);
+        Assert.assertNull(registry.find("jdbcx.query.phase").tag(QueryMetrics.TAG_PHASE, QueryMetrics.PHASE_PARSE)
+                .timer());
+
+        final long startTime = System.nanoTime();
+        final MeteredOutputStream wire = new MeteredOutputStream(new ByteArrayOutputStream());
+        final MeteredOutputStream plain = new MeteredOutputStream(wire);
+        plain.write(new byte[10], 0, 10);
+        final MeteredRows fetched = new MeteredRows(Result.of(1L).rows());
+        Assert.assertEquals(fetched.getFirstRowTime(), 0L);
+        for (Row r : fetched) {
+            Assert.assertEquals(r.value(0).asLong(), 1L);
+        }
+        Assert.assertTrue(fetched.getFirstRowTime() >= startTime);
+        Assert.assertTrue(fetched.getNanos() >= 0L);
+        metrics.record(request, Result.of(1L), startTime, 5000L, fetched, plain, wire);
+        for (String phase : new String[] { QueryMetrics.PHASE_FIRST_ROW, QueryMetrics.PHASE_FETCH,
+                QueryMetrics.PHASE_SERIALIZE, QueryMetrics.PHASE_COMPRESS, QueryMetrics.PHASE_WRITE }) {
+            Assert.assertEquals(registry.find("jdbcx.query.phase").tag(QueryMetrics.TAG_PHASE, phase).timer().count(),
+                    1L, "Should have recorded phase " + phase);
+        }
+        DistributionSummary rows = registry.find("jdbcx.query.rows").summary();
+        Assert.assertEquals(rows.count(), 1L);
+        Assert.assertEquals(rows.totalAmount(), 1D);
+        Assert.assertEquals(registry.find("jdbcx.query.bytes").tag(QueryMetrics.TAG_COMPRESSED, "false").summary()
+                .totalAmount(), 10D);
+        Assert.assertEquals(registry.find("jdbcx.query.bytes").tag(QueryMetrics.TAG_COMPRESSED, "true").summary()
+                .totalAmount(), 10D);
+    }
+
+    @Test(groups = { "unit" })
+    public void testRecordFile() throws IOException {
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        final QueryMetrics metrics = new QueryMetrics(registry, false);
+        final Request request = new Request(null, QueryMode.DIRECT, null, "id", "select 1", null, Format.CSV,
+                Compression.NONE, null, null, null, "t1", null, null);
+        final MeteredOutputStream wire = new MeteredOutputStream(new ByteArrayOutputStream());
+        wire.write(new byte[7], 0, 7);
+        metrics.record(request, wire);
+        Assert.assertEquals(registry.find("jdbcx.query.phase").tag(QueryMetrics.TAG_PHASE, QueryMetrics.PHASE_WRITE)
+                .timer().count(), 1L);
+        Assert.assertNull(registry.find("jdbcx.query.phase").tag(QueryMetrics.TAG_TENANT, "t1").timer());
+        Assert.assertEquals(registry.find("jdbcx.query.bytes").tag(QueryMetrics.TAG_COMPRESSED, "false").summary()
+                .totalAmount(), 7D);
+    }
+}
@@ -28,6 +28,30 @@ import io.github.jdbcx.QueryContext;
 import io.github.jdbcx.RequestParameter;
 
 public class ServerUtilsTest {
+    @Test(groups = { "unit" })
+    public void testParseRange() {
+        Assert.assertNull(BridgeServer.parseRange(null, 10L));
+        Assert.assertNull(BridgeServer.parseRange("", 10L));
+        Assert.assertNull(BridgeServer.parseRange("items=0-1", 10L));
+        Assert.assertNull(BridgeServer.parseRange("bytes=0-1,3-4", 10L));
+        Assert.assertNull(BridgeServer.parseRange("bytes=1", 10L));
+        Assert.assertNull(BridgeServer.parseRange("bytes=a-1", 10L));
+        Assert.assertNull(BridgeServer.parseRange("bytes=5-1", 10L));
+        Assert.assertNull(BridgeServer.parseRange("bytes=-", 10L));
+
+        Assert.assertEquals(BridgeServer.parseRange("bytes=0-0", 10L), new long[] { 0L, 0L });
+        Assert.assertEquals(BridgeServer.parseRange(" bytes=2-5 ", 10L), new long[] { 2L, 5L });
+        Assert.assertEquals(BridgeServer.parseRange("bytes=2-", 10L), new long[] { 2L, 9L });
+        Assert.assertEquals(BridgeServer.parseRange("bytes=8-100", 10L), new long[] { 8L, 9L });
+        Assert.assertEquals(BridgeServer.parseRange("bytes=-3", 10L), new long[] { 7L, 9L });
+        Assert.assertEquals(BridgeServer.parseRange("bytes=-30", 10L), new long[] { 0L, 9L });
+
+        Assert.assertEquals(BridgeServer.parseRange("bytes=10-", 10L), new long[0]);
+        Assert.assertEquals(BridgeServer.parseRange("bytes=-0", 10L), new long[0]);
+        Assert.assertEquals(BridgeServer.parseRange("bytes=0-", 0L), new long[0]);
+        Assert.assertEquals(BridgeServer.parseRange("bytes=-1", 0L), new long[0]);
+    }
+
     @Test(groups = { "unit" })
     public void testExtractConfig() {
         Assert.assertThrows(NullPointerException.class, () -> BridgeServer.extractConfig(null, null, false));
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2022-2026, Zhichun Wu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.jdbcx.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.github.jdbcx.Compression;
+import io.github.jdbcx.Format;
+import io.github.jdbcx.QueryMode;
+
+public class ZstdDictionariesTest {
+    static Request newRequest(String query, String accepted) {
+        return newRequest(query, accepted, "u1");
+    }
+
+    static Request newRequest(String query, String accepted, String user) {
+        Request request = new Request("GET", QueryMode.DIRECT, null, null, query, null, Format.JSONL, Compression.ZSTD,
+                null, user, null, "t1", null, null);
+        request.setAcceptedZstdDictionaries(accepted);
+        return request;
+    }
+
+    @Test(groups = { "unit" })
+    public void testGetTemplate() {
+        Assert.assertEquals(ZstdDictionaries.getTemplate(null), null);
+        Assert.assertEquals(ZstdDictionaries.getTemplate(" "), " ");
+        Assert.assertEquals(ZstdDictionaries.getTemplate("select 1"), "select ?");
+        Assert.assertEquals(ZstdDictionaries.getTemplate("SELECT *\n FROM t1 WHERE a = 'x''y' and b>1.5e3"),
+                "select * from t1 where a = ? and b>?");
+    }
+
+    @Test(groups = { "unit" })
+    public void testNegotiate() throws IOException {
+        final Path dir = Files.createTempDirectory("zstd-dicts-");
+        // train in current thread
+        final ZstdDictionaries dicts = new ZstdDictionaries(dir.toString(), "ds1", ZstdDictionaries.SCOPE_TEMPLATE, 2,
+                100, 1024, 2048, Runnable::run);
+        try {
+            Request request = newRequest("select 1", null);
+            dicts.negotiate(request);
+            Assert.assertNull(request.getZstdDictionaryHeader());
+            Assert.assertNull(request.getZstdDictionaryKey());
+            Assert.assertEquals(request.getZstdDictionaryId(), 0L);
+
+            final String key = dicts.getKey(newRequest("select 2", null));
+            Assert.assertEquals(dicts.getKey(newRequest("SELECT 3", null)), key);
+            Assert.assertNotEquals(dicts.getKey(newRequest("select 3 from x", null)), key);
+            Assert.assertNotEquals(dicts.getKey(newRequest("select 2", null, "u2")), key);
+            Assert.assertTrue(key.startsWith(dicts.getScope(null, "u1", "t1") + ":"));
+            for (int i = 0; i < 100; i++) {
+                request = newRequest("select " + i, "0");
+                dicts.negotiate(request);
+                Assert.assertEquals(request.getZstdDictionaryHeader(), "0");
+                Assert.assertEquals(request.getZstdDictionaryKey(), key);
+                try (OutputStream out = dicts.sample(request, new ByteArrayOutputStream())) {
+                    for (int j = 0; j < 5; j++) {
+                        out.write(("{\"id\":" + (i * 31 + j) + ",\"name\":\"user" + j
+                                + "\",\"status\":\"active\",\"created_at\":\"2026-01-0" + j + "T00:00:00Z\"}\n")
+                                .getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+            }
+
+            final long id = dicts.getId(key);
+            Assert.assertNotEquals(id, 0L);
+            Assert.assertNotNull(dicts.get(id, dicts.getScope("", "u1", "t1")));
+            Assert.assertNull(dicts.get(id + 1L, dicts.getScope("", "u1", "t1")));
+            // only served to callers in the same scope
+            Assert.assertNull(dicts.get(id, dicts.getScope("", "u2", "t1")));
+            Assert.assertNull(dicts.get(id, dicts.getScope("x", "u1", "t1")));
+            final ZstdDictionaries other = new ZstdDictionaries(dir.toString(), "ds2", ZstdDictionaries.SCOPE_TEMPLATE,
+                    2, 100, 1024, 2048, Runnable::run);
+            Assert.assertNull(other.get(id, other.getScope("", "u1", "t1")));
+            Assert.assertTrue(Files.isRegularFile(dir.resolve(ZstdDictionaries.INDEX_FILE)));
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            request = newRequest("select 100", "0");
+            Assert.assertSame(dicts.sample(request, out), out);
+            dicts.negotiate(request);
+            Assert.assertEquals(request.getZstdDictionaryHeader(), "0;" + id);
+            Assert.assertEquals(request.getZstdDictionaryId(), 0L);
+            Assert.assertSame(dicts.sample(request, out), out);
+
+            request = newRequest("select 101", "0;1;" + id, "u2");
+            dicts.negotiate(request);
+            Assert.assertEquals(request.getZstdDictionaryHeader(), "0");
+            Assert.assertEquals(request.getZstdDictionaryId(), 0L);
+
+            request = newRequest("select 101", "0;1;" + id);
+            dicts.negotiate(request);
+            Assert.assertEquals(request.getZstdDictionaryHeader(), Long.toString(id));
+            Assert.assertEquals(request.getZstdDictionaryId(), id);
+            try (OutputStream o = dicts.compress(out, id)) {
+                o.write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+            }
+            Assert.assertTrue(out.size() > 0);
+
+            // dictionaries and index survive restart
+            ZstdDictionaries another = new ZstdDictionaries(dir.toString(), "ds1", ZstdDictionaries.SCOPE_TEMPLATE, 2,
+                    100, 1024, 2048);
+            Assert.assertEquals(another.getId(key), id);
+            another.close();
+        } finally {
+            dicts.close();
+        }
+    }
+}
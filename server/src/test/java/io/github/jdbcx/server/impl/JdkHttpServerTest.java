@@ -15,6 +15,13 @@
  */
 package io.github.jdbcx.server.impl;
 
+import java.net.ServerSocket;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Properties;
 import java.util.concurrent.ThreadPoolExecutor;
 
@@ -119,4 +126,60 @@ public class JdkHttpServerTest extends BaseBridgeServerTest {
             s.stop();
         }
     }
+
+    @Test(groups = { "unit" })
+    public void testFlightSql() throws Exception {
+        final int flightPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            flightPort = socket.getLocalPort();
+        }
+
+        Properties props = new Properties();
+        JdkHttpServer.OPTION_DATASOURCE_CONFIG.setJdbcxValue(props, "target/test-classes/test-datasource.properties");
+        JdkHttpServer.OPTION_FLIGHT_PORT.setJdbcxValue(props, String.valueOf(flightPort));
+        JdkHttpServer.OPTION_FLIGHT_ROWS.setJdbcxValue(props, "7");
+        Option.SERVER_HOST.setJdbcxValue(props, "127.0.0.1");
+        Option.SERVER_PORT.setJdbcxValue(props, "0");
+        Option.SERVER_URL.setJdbcxValue(props, "http://localhost:0/");
+
+        JdkHttpServer s = new JdkHttpServer(props);
+        try {
+            s.start();
+            try (Connection conn = DriverManager
+                    .getConnection("jdbc:arrow-flight-sql://127.0.0.1:" + flightPort + "?useEncryption=false");
+                    Statement stmt = conn.createStatement()) {
+                try (ResultSet rs = stmt.executeQuery(
+                        "select generate_series::INT n, n::VARCHAR s from generate_series(1, 20) order by 1")) {
+                    Assert.assertEquals(rs.getMetaData().getColumnCount(), 2);
+                    Assert.assertEquals(rs.getMetaData().getColumnName(1), "n");
+                    Assert.assertEquals(rs.getMetaData().getColumnName(2), "s");
+                    int count = 0;
+                    while (rs.next()) {
+                        count++;
+                        Assert.assertEquals(rs.getInt(1), count);
+                        Assert.assertEquals(rs.getString(2), String.valueOf(count));
+                    }
+                    Assert.assertEquals(count, 20);
+                }
+
+                Assert.assertThrows(SQLException.class, () -> stmt.executeQuery("select * from non_existent_table"));
+
+                try (PreparedStatement ps = conn.prepareStatement("create temp table flight_test(a int)")) {
+                    Assert.assertEquals(ps.executeUpdate(), 0);
+                }
+                try (PreparedStatement ps = conn.prepareStatement("select 5 as r")) {
+                    Assert.assertEquals(ps.getMetaData().getColumnName(1), "r");
+                    for (int i = 0; i < 2; i++) {
+                        try (ResultSet rs = ps.executeQuery()) {
+                            Assert.assertTrue(rs.next());
+                            Assert.assertEquals(rs.getInt("r"), 5);
+                            Assert.assertFalse(rs.next());
+                        }
+                    }
+                }
+            }
+        } finally {
+            s.stop();
+        }
+    }
 }